@@ -3,9 +3,13 @@ package com.zerox.chat;
 import com.almasb.fxgl.app.GameApplication;
 import com.almasb.fxgl.app.GameSettings;
 import com.almasb.fxgl.cutscene.Cutscene;
+import com.zerox.common.cutscene.DialogueScript;
+import com.zerox.common.startup.StartupPreloader;
+import com.zerox.common.startup.StartupProbe;
 import javafx.util.Duration;
 
-import java.util.List;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 
 import static com.almasb.fxgl.dsl.FXGL.*;
 
@@ -16,8 +20,15 @@ import static com.almasb.fxgl.dsl.FXGL.*;
  * @ModifiedBy: ZeromaXHe
  */
 public class ChatApp extends GameApplication {
+    private static final String SCRIPT = "/assets/text/chat/chat.txt";
+    /**
+     * 剧本解析结果的缓存，原文没改时下次启动直接读
+     */
+    private static final Path SCRIPT_CACHE = Paths.get(System.getProperty("java.io.tmpdir"), "FXGLTest", "chat.txt.dlgc");
+
     @Override
     protected void initSettings(GameSettings settings) {
+        StartupProbe.install(settings);
         settings.setWidth(816);
         settings.setHeight(624);
     }
@@ -27,15 +38,30 @@ public class ChatApp extends GameApplication {
         getGameWorld().addEntityFactory(new ChatFactory());
         spawn("bg");
 
+        // 剧本在后台线程分页解析，等待第一帧的这段时间正好用来预读
+        DialogueScript script = DialogueScript.open(ChatApp.class.getResource(SCRIPT), SCRIPT_CACHE, getExecutor());
         runOnce(() -> {
             // 必须在 FXGL 线程中运行
-            List<String> lines = getAssetLoader().loadText("chat/chat.txt");
-            Cutscene cutscene = new Cutscene(lines);
-            getCutsceneService().startCutscene(cutscene);
+            Cutscene cutscene = new Cutscene(script);
+            getCutsceneService().startCutscene(cutscene, () -> {
+                System.out.println(script);
+                script.close();
+            });
         }, Duration.ONE);
     }
 
+    /**
+     * -Dstartup.preload=true 时在 launch 之前后台预加载的 FXGL 服务类
+     */
+    private static final String[] PRELOAD = {
+            "com.almasb.fxgl.cutscene.CutsceneService",
+            "com.almasb.fxgl.cutscene.Cutscene",
+            "com.almasb.fxgl.app.services.FXGLAssetLoaderService",
+            "com.almasb.fxgl.app.scene.GameScene"
+    };
+
     public static void main(String[] args) {
+        StartupPreloader.start(PRELOAD);
         launch(args);
     }
 }
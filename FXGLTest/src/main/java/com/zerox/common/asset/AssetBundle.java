@@ -0,0 +1,45 @@
+package com.zerox.common.asset;
+
+import com.almasb.fxgl.audio.Music;
+import com.almasb.fxgl.audio.Sound;
+import javafx.scene.image.Image;
+
+import java.util.Map;
+
+/**
+ * @Author: ZeromaXHe
+ * @Time: 2026/10/18 17:05
+ * @Description: AssetPreloader 加载完成后交给游戏的资源，按文件名获取，加载完成后不再变化
+ * @ModifiedBy: ZeromaXHe
+ */
+public final class AssetBundle {
+    private final Map<String, Sound> sounds;
+    private final Map<String, Music> music;
+    private final Map<String, Image> images;
+
+    AssetBundle(Map<String, Sound> sounds, Map<String, Music> music, Map<String, Image> images) {
+        this.sounds = Map.copyOf(sounds);
+        this.music = Map.copyOf(music);
+        this.images = Map.copyOf(images);
+    }
+
+    public Sound getSound(String name) {
+        return get(sounds, name);
+    }
+
+    public Music getMusic(String name) {
+        return get(music, name);
+    }
+
+    public Image getImage(String name) {
+        return get(images, name);
+    }
+
+    private static <T> T get(Map<String, T> assets, String name) {
+        T asset = assets.get(name);
+        if (asset == null) {
+            throw new IllegalArgumentException("资源没有预加载: " + name);
+        }
+        return asset;
+    }
+}
@@ -0,0 +1,134 @@
+package com.zerox.common.asset;
+
+import com.almasb.fxgl.audio.AudioPlayer;
+import com.almasb.fxgl.audio.AudioType;
+import com.almasb.fxgl.audio.Music;
+import com.almasb.fxgl.audio.Sound;
+import javafx.application.Platform;
+import javafx.scene.image.Image;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * @Author: ZeromaXHe
+ * @Time: 2026/10/18 17:10
+ * @Description: 在后台线程并行读取和解码音效、音乐、图片，全部完成后在 JavaFX 线程把 AssetBundle 交给回调。
+ * 不经过 FXGL 的 AssetLoaderService：它的缓存是普通 HashMap，不能在多个线程里同时加载。
+ * 路径规则和 FXGL 一样，分别在 assets/sounds、assets/music、assets/textures 下
+ * @ModifiedBy: ZeromaXHe
+ */
+public class AssetPreloader {
+    private static final String SOUNDS = "/assets/sounds/";
+    private static final String MUSIC = "/assets/music/";
+    private static final String TEXTURES = "/assets/textures/";
+
+    private final AudioPlayer audioPlayer;
+    private final List<String> soundNames = new ArrayList<>();
+    private final List<String> musicNames = new ArrayList<>();
+    private final List<String> imageNames = new ArrayList<>();
+
+    private final Map<String, Sound> sounds = new ConcurrentHashMap<>();
+    private final Map<String, Music> music = new ConcurrentHashMap<>();
+    private final Map<String, Image> images = new ConcurrentHashMap<>();
+
+    private final AtomicInteger loaded = new AtomicInteger();
+    private int total;
+    private long startNanos;
+    private volatile long elapsedNanos = -1;
+
+    public AssetPreloader(AudioPlayer audioPlayer) {
+        this.audioPlayer = audioPlayer;
+    }
+
+    public AssetPreloader sound(String name) {
+        soundNames.add(name);
+        return this;
+    }
+
+    public AssetPreloader music(String name) {
+        musicNames.add(name);
+        return this;
+    }
+
+    public AssetPreloader image(String name) {
+        imageNames.add(name);
+        return this;
+    }
+
+    /**
+     * 每个资源一个任务提交给 executor，executor 的线程数决定并行度。
+     * 任一资源加载失败时，异常会打印出来，onReady 不会被调用
+     */
+    public void start(Executor executor, Consumer<AssetBundle> onReady) {
+        total = soundNames.size() + musicNames.size() + imageNames.size();
+        startNanos = System.nanoTime();
+        if (total == 0) {
+            finish(onReady);
+            return;
+        }
+        for (String name : soundNames) {
+            executor.execute(() -> load(name, onReady, () ->
+                    sounds.put(name, new Sound(audioPlayer.loadAudio(AudioType.SOUND, resource(SOUNDS, name), false)))));
+        }
+        for (String name : musicNames) {
+            executor.execute(() -> load(name, onReady, () ->
+                    music.put(name, new Music(audioPlayer.loadAudio(AudioType.MUSIC, resource(MUSIC, name), false)))));
+        }
+        for (String name : imageNames) {
+            // Image 的构造方法同步解码，在后台线程执行正好
+            executor.execute(() -> load(name, onReady, () ->
+                    images.put(name, new Image(resource(TEXTURES, name).toExternalForm()))));
+        }
+    }
+
+    private void load(String name, Consumer<AssetBundle> onReady, Runnable task) {
+        try {
+            task.run();
+        } catch (Exception e) {
+            System.err.println("资源加载失败: " + name);
+            e.printStackTrace();
+            return;
+        }
+        if (loaded.incrementAndGet() == total) {
+            finish(onReady);
+        }
+    }
+
+    private void finish(Consumer<AssetBundle> onReady) {
+        elapsedNanos = System.nanoTime() - startNanos;
+        AssetBundle bundle = new AssetBundle(sounds, music, images);
+        Platform.runLater(() -> onReady.accept(bundle));
+    }
+
+    private URL resource(String dir, String name) {
+        URL url = AssetPreloader.class.getResource(dir + name);
+        if (url == null) {
+            throw new IllegalArgumentException("找不到资源: " + dir + name);
+        }
+        return url;
+    }
+
+    /**
+     * 0 到 1 之间，可以直接绑定到进度条
+     */
+    public double getProgress() {
+        return total == 0 ? 1 : (double) loaded.get() / total;
+    }
+
+    public boolean isDone() {
+        return elapsedNanos >= 0;
+    }
+
+    @Override
+    public String toString() {
+        return "assets " + loaded.get() + "/" + total
+                + (isDone() ? String.format(" loaded in %.1f ms", elapsedNanos / 1e6) : "");
+    }
+}
@@ -0,0 +1,189 @@
+package com.zerox.common.audio;
+
+import com.almasb.fxgl.audio.AudioPlayer;
+import com.almasb.fxgl.audio.Sound;
+
+import java.util.Arrays;
+
+/**
+ * @Author: ZeromaXHe
+ * @Time: 2026/10/18 21:30
+ * @Description: 通过 FXGL AudioPlayer 的音效派发：同一帧内同一个音效的请求合并成一次，每帧 update 时播放。
+ * FXGL 的 Sound 没有播放结束的回调，声部何时空出按注册的时长估计。
+ * 声部满了时高优先级的音效抢占优先级最低的，但 AudioPlayer 不能停止单次播放，
+ * 抢占用的 stopSound 会停掉被抢音效的所有实例，它占着的声部全部空出来
+ * @ModifiedBy: ZeromaXHe
+ */
+public class AudioDispatcher {
+    private final AudioPlayer audioPlayer;
+    private final int maxVoices;
+
+    // 注册的音效
+    private Sound[] sounds = new Sound[4];
+    private int[] priorities = new int[4];
+    private double[] durations = new double[4];
+    /**
+     * 本帧的播放请求数
+     */
+    private int[] pending = new int[4];
+    private int soundCount;
+
+    // 正在播放的声部，remaining <= 0 表示空闲
+    private final int[] voiceSound;
+    private final double[] voiceRemaining;
+
+    // 统计
+    private long requested;
+    private long played;
+    private long merged;
+    private long dropped;
+    private long stolen;
+
+    /**
+     * @param maxVoices 同时播放的音效数量上限
+     */
+    public AudioDispatcher(AudioPlayer audioPlayer, int maxVoices) {
+        this.audioPlayer = audioPlayer;
+        this.maxVoices = maxVoices;
+        voiceSound = new int[maxVoices];
+        voiceRemaining = new double[maxVoices];
+    }
+
+    /**
+     * @param priority 越大越优先
+     * @param duration 音效时长（秒），用来估计声部什么时候空出来
+     * @return 之后调用 play 用的编号
+     */
+    public int register(Sound sound, int priority, double duration) {
+        if (soundCount == sounds.length) {
+            int capacity = soundCount * 2;
+            sounds = Arrays.copyOf(sounds, capacity);
+            priorities = Arrays.copyOf(priorities, capacity);
+            durations = Arrays.copyOf(durations, capacity);
+            pending = Arrays.copyOf(pending, capacity);
+        }
+        int id = soundCount++;
+        sounds[id] = sound;
+        priorities[id] = priority;
+        durations[id] = duration;
+        return id;
+    }
+
+    /**
+     * 请求播放，实际在 update 时播放
+     */
+    public void play(int sound) {
+        requested++;
+        pending[sound]++;
+    }
+
+    /**
+     * 每帧调用一次：推进声部计时，然后派发本帧的请求，高优先级的先派发
+     */
+    public void update(double tpf) {
+        for (int v = 0; v < maxVoices; v++) {
+            voiceRemaining[v] -= tpf;
+        }
+        while (true) {
+            int sound = nextPending();
+            if (sound < 0) {
+                break;
+            }
+            merged += pending[sound] - 1;
+            pending[sound] = 0;
+            dispatch(sound);
+        }
+    }
+
+    private int nextPending() {
+        int best = -1;
+        for (int s = 0; s < soundCount; s++) {
+            if (pending[s] > 0 && (best < 0 || priorities[s] > priorities[best])) {
+                best = s;
+            }
+        }
+        return best;
+    }
+
+    private void dispatch(int sound) {
+        int voice = -1;
+        int lowest = -1;
+        for (int v = 0; v < maxVoices; v++) {
+            if (voiceRemaining[v] <= 0) {
+                voice = v;
+                break;
+            }
+            // 同优先级时抢占剩余时间最短的
+            if (lowest < 0 || priorities[voiceSound[v]] < priorities[voiceSound[lowest]]
+                    || priorities[voiceSound[v]] == priorities[voiceSound[lowest]]
+                    && voiceRemaining[v] < voiceRemaining[lowest]) {
+                lowest = v;
+            }
+        }
+        if (voice < 0) {
+            if (lowest < 0 || priorities[voiceSound[lowest]] >= priorities[sound]) {
+                dropped++;
+                return;
+            }
+            voice = lowest;
+            steal(voiceSound[lowest]);
+        }
+        audioPlayer.playSound(sounds[sound]);
+        played++;
+        voiceSound[voice] = sound;
+        voiceRemaining[voice] = durations[sound];
+    }
+
+    /**
+     * 停止一个音效，它占用的声部全部空出来
+     */
+    private void steal(int sound) {
+        audioPlayer.stopSound(sounds[sound]);
+        for (int v = 0; v < maxVoices; v++) {
+            if (voiceRemaining[v] > 0 && voiceSound[v] == sound) {
+                voiceRemaining[v] = 0;
+                stolen++;
+            }
+        }
+    }
+
+    public long getRequested() {
+        return requested;
+    }
+
+    public long getPlayed() {
+        return played;
+    }
+
+    /**
+     * 同一帧内被合并掉的请求数
+     */
+    public long getMerged() {
+        return merged;
+    }
+
+    /**
+     * 声部已满、优先级又不够抢占而丢弃的请求数
+     */
+    public long getDropped() {
+        return dropped;
+    }
+
+    public long getStolen() {
+        return stolen;
+    }
+
+    public void resetStats() {
+        requested = 0;
+        played = 0;
+        merged = 0;
+        dropped = 0;
+        stolen = 0;
+    }
+
+    @Override
+    public String toString() {
+        return "requested=" + requested + " played=" + played + " merged=" + merged
+                + " dropped=" + dropped + " stolen=" + stolen;
+    }
+}
@@ -0,0 +1,245 @@
+package com.zerox.common.cutscene;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * @Author: ZeromaXHe
+ * @Time: 2026/10/18 19:40
+ * @Description: 剧本解析结果的二进制缓存。第一次读剧本时边解析边写，之后重新加载直接按页读，不用再解析原文。
+ * 文件格式（大端）：
+ * 头部 magic(int) version(short) sourceLength(long) sourceLastModified(long) pageLines(int)，
+ * 然后依次是每一页：行数(int)，每行 字节数(int) + UTF-8 字节，
+ * 最后是页索引：每页的偏移(long)，以及尾部 indexOffset(long) lineCount(int) pageCount(int) magic(int)。
+ * 索引放在最后，写的时候不需要预先知道总页数，读的时候可以直接跳到任意一页
+ * @ModifiedBy: ZeromaXHe
+ */
+public final class CompiledScript implements AutoCloseable {
+    static final int MAGIC = 0x444C4743;
+    static final short VERSION = 1;
+    private static final int HEADER_BYTES = 4 + 2 + 8 + 8 + 4;
+    private static final int TRAILER_BYTES = 8 + 4 + 4 + 4;
+
+    private final FileChannel channel;
+    private final long[] pageOffsets;
+    private final int lineCount;
+    private final int pageLines;
+
+    private CompiledScript(FileChannel channel, long[] pageOffsets, int lineCount, int pageLines) {
+        this.channel = channel;
+        this.pageOffsets = pageOffsets;
+        this.lineCount = lineCount;
+        this.pageLines = pageLines;
+    }
+
+    /**
+     * 打开缓存文件。文件不存在、格式不对、或者记录的原文长度和修改时间对不上（原文改过了）时返回 null
+     */
+    public static CompiledScript open(Path file, long sourceLength, long sourceLastModified, int pageLines) {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(file, StandardOpenOption.READ);
+            long size = channel.size();
+            if (size < HEADER_BYTES + TRAILER_BYTES) {
+                channel.close();
+                return null;
+            }
+            ByteBuffer header = readFully(channel, 0, HEADER_BYTES);
+            if (header.getInt() != MAGIC || header.getShort() != VERSION
+                    || header.getLong() != sourceLength || header.getLong() != sourceLastModified
+                    || header.getInt() != pageLines) {
+                channel.close();
+                return null;
+            }
+            ByteBuffer trailer = readFully(channel, size - TRAILER_BYTES, TRAILER_BYTES);
+            long indexOffset = trailer.getLong();
+            int lineCount = trailer.getInt();
+            int pageCount = trailer.getInt();
+            if (trailer.getInt() != MAGIC || indexOffset + pageCount * 8L != size - TRAILER_BYTES) {
+                channel.close();
+                return null;
+            }
+            if (pageCount < 0 || lineCount < 0 || indexOffset < HEADER_BYTES
+                    || lineCount > (long) pageCount * pageLines || lineCount <= (long) (pageCount - 1) * pageLines) {
+                channel.close();
+                return null;
+            }
+            ByteBuffer index = readFully(channel, indexOffset, pageCount * 8);
+            long[] pageOffsets = new long[pageCount];
+            for (int i = 0; i < pageCount; i++) {
+                long offset = index.getLong();
+                // 页按顺序紧挨着写：第一页紧跟头部，偏移递增，每页至少有行数那 4 个字节，一页不超过 int 能表示的长度
+                long previous = i == 0 ? HEADER_BYTES - 4 : pageOffsets[i - 1];
+                if (i == 0 && offset != HEADER_BYTES || offset < previous + 4 || offset + 4 > indexOffset
+                        || offset - previous > Integer.MAX_VALUE) {
+                    channel.close();
+                    return null;
+                }
+                pageOffsets[i] = offset;
+            }
+            if (pageCount > 0 && indexOffset - pageOffsets[pageCount - 1] > Integer.MAX_VALUE) {
+                channel.close();
+                return null;
+            }
+            return new CompiledScript(channel, pageOffsets, lineCount, pageLines);
+        } catch (IOException e) {
+            // 缓存坏了就当没有，重新解析原文
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException ignored) {
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * 读取第 page 页，可以在任意线程调用，不依赖之前读过哪一页。
+     * 除了最后一页每页都正好 pageLines 行，行数、每行长度和这一页的字节数对不上时说明文件坏了
+     *
+     * @throws IOException 读取失败或者这一页的内容损坏
+     */
+    public String[] readPage(int page) throws IOException {
+        long start = pageOffsets[page];
+        long end = page + 1 < pageOffsets.length ? pageOffsets[page + 1] : indexOffset();
+        ByteBuffer buffer = readFully(channel, start, (int) (end - start));
+        int count = buffer.getInt();
+        int expected = page + 1 < pageOffsets.length ? pageLines : lineCount - page * pageLines;
+        if (count != expected) {
+            throw new IOException("缓存第 " + page + " 页损坏: 行数 " + count + "，应该是 " + expected);
+        }
+        String[] lines = new String[count];
+        for (int i = 0; i < lines.length; i++) {
+            if (buffer.remaining() < 4) {
+                throw new IOException("缓存第 " + page + " 页损坏: 第 " + i + " 行缺少长度");
+            }
+            int length = buffer.getInt();
+            if (length < 0 || length > buffer.remaining()) {
+                throw new IOException("缓存第 " + page + " 页损坏: 第 " + i + " 行长度 " + length);
+            }
+            lines[i] = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+        }
+        if (buffer.hasRemaining()) {
+            throw new IOException("缓存第 " + page + " 页损坏: 多出 " + buffer.remaining() + " 字节");
+        }
+        return lines;
+    }
+
+    private long indexOffset() throws IOException {
+        return channel.size() - TRAILER_BYTES - pageOffsets.length * 8L;
+    }
+
+    public int getPageCount() {
+        return pageOffsets.length;
+    }
+
+    public int getLineCount() {
+        return lineCount;
+    }
+
+    public int getPageLines() {
+        return pageLines;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("缓存文件被截断");
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * 按页追加写入，先写到临时文件，finish 时再原子地替换正式文件，写到一半中断不会留下半个缓存
+     */
+    public static final class Writer implements AutoCloseable {
+        private final Path file;
+        private final Path tempFile;
+        private final DataOutputStream out;
+        private long[] pageOffsets = new long[16];
+        private int pageCount;
+        private int lineCount;
+        private long position;
+        private boolean finished;
+
+        public Writer(Path file, long sourceLength, long sourceLastModified, int pageLines) throws IOException {
+            this.file = file;
+            Path dir = file.toAbsolutePath().getParent();
+            Files.createDirectories(dir);
+            this.tempFile = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+            OutputStream stream = Files.newOutputStream(tempFile);
+            this.out = new DataOutputStream(new BufferedOutputStream(stream));
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeLong(sourceLength);
+            out.writeLong(sourceLastModified);
+            out.writeInt(pageLines);
+            position = HEADER_BYTES;
+        }
+
+        public void writePage(String[] lines) throws IOException {
+            if (pageCount == pageOffsets.length) {
+                long[] newOffsets = new long[pageCount * 2];
+                System.arraycopy(pageOffsets, 0, newOffsets, 0, pageCount);
+                pageOffsets = newOffsets;
+            }
+            pageOffsets[pageCount++] = position;
+            out.writeInt(lines.length);
+            position += 4;
+            for (String line : lines) {
+                byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+                position += 4 + bytes.length;
+            }
+            lineCount += lines.length;
+        }
+
+        public void finish() throws IOException {
+            long indexOffset = position;
+            for (int i = 0; i < pageCount; i++) {
+                out.writeLong(pageOffsets[i]);
+            }
+            out.writeLong(indexOffset);
+            out.writeInt(lineCount);
+            out.writeInt(pageCount);
+            out.writeInt(MAGIC);
+            out.close();
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            finished = true;
+        }
+
+        /**
+         * 没有 finish 就关闭时删掉临时文件
+         */
+        @Override
+        public void close() throws IOException {
+            if (!finished) {
+                out.close();
+                Files.deleteIfExists(tempFile);
+            }
+        }
+    }
+}
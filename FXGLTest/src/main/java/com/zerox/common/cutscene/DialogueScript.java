@@ -0,0 +1,272 @@
+package com.zerox.common.cutscene;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+
+/**
+ * @Author: ZeromaXHe
+ * @Time: 2026/10/18 19:55
+ * @Description: 流式读取的对话剧本，直接作为 Cutscene 的 lines 使用。
+ * 后台线程按页（PAGE_LINES 行）解析剧本，最多预读 WINDOW_PAGES 页，读满后阻塞等 FXGL 线程消费，
+ * 内存里只有当前页和预读的几页，不会把几 MB 的剧本整个读进来。
+ * 解析时去掉了 CutsceneScene 本来就会跳过的空行、// 和 # 注释，并去掉首尾空白，效果和原来一样。
+ * 第一次读的同时写入 CompiledScript 缓存，下次原文没改时直接读缓存；缓存读到一半发现损坏时删掉缓存，
+ * 从原文重新解析，跳过已经交出去的页，过场不会提前结束。
+ * <p>
+ * CutsceneScene 只会按顺序调用 size() 和 get(currentLine)，所以这里只支持顺序读取：
+ * 还没读完时 size() 返回 Integer.MAX_VALUE，读到结尾后返回实际行数
+ * @ModifiedBy: ZeromaXHe
+ */
+public class DialogueScript extends AbstractList<String> implements AutoCloseable {
+    public static final int PAGE_LINES = 512;
+    public static final int WINDOW_PAGES = 4;
+
+    /**
+     * 结束标记
+     */
+    private static final String[] END = new String[0];
+
+    private final BlockingQueue<String[]> pages = new ArrayBlockingQueue<>(WINDOW_PAGES);
+    private final URL source;
+    private final Path cacheFile;
+
+    private volatile boolean closed;
+    private volatile Exception error;
+    /**
+     * 缓存读到一半发现损坏的原因，这时已经改成重新解析原文
+     */
+    private volatile IOException cacheError;
+    private volatile boolean fromCache;
+    private volatile long parseNanos = -1;
+
+    // 以下只在消费线程（FXGL 线程）访问
+    private String[] page = END;
+    /**
+     * page 第一行的行号
+     */
+    private int pageStart;
+    private boolean ended;
+    /**
+     * 下一次 get 的行号，CutsceneScene 的 currentLine
+     */
+    private int nextLine;
+    private int pagesConsumed;
+    /**
+     * 需要的页还没解析完，只能阻塞等待的次数
+     */
+    private int stalls;
+
+    private DialogueScript(URL source, Path cacheFile) {
+        this.source = source;
+        this.cacheFile = cacheFile;
+    }
+
+    /**
+     * 立即返回，解析在 executor 上进行。executor 的线程会一直占用到剧本读完或 close
+     *
+     * @param cacheFile 解析结果的缓存文件，为 null 时不缓存
+     */
+    public static DialogueScript open(URL source, Path cacheFile, Executor executor) {
+        DialogueScript script = new DialogueScript(source, cacheFile);
+        executor.execute(script::produce);
+        return script;
+    }
+
+    // ---------------- 生产者（后台线程） ----------------
+
+    private void produce() {
+        long start = System.nanoTime();
+        try {
+            URLConnection connection = source.openConnection();
+            long length = connection.getContentLengthLong();
+            long lastModified = connection.getLastModified();
+            CompiledScript compiled = cacheFile == null ? null
+                    : CompiledScript.open(cacheFile, length, lastModified, PAGE_LINES);
+            int delivered = 0;
+            if (compiled != null) {
+                fromCache = true;
+                try (compiled) {
+                    for (; delivered < compiled.getPageCount() && !closed; delivered++) {
+                        offer(compiled.readPage(delivered));
+                    }
+                    return;
+                } catch (IOException e) {
+                    // 缓存读到一半坏了：删掉缓存，从原文重新解析，已经交出去的页跳过，过场从下一行接着播
+                    cacheError = e;
+                    Files.deleteIfExists(cacheFile);
+                }
+            }
+            parse(connection, length, lastModified, delivered);
+        } catch (Exception e) {
+            error = e;
+        } finally {
+            parseNanos = System.nanoTime() - start;
+            offerEnd();
+        }
+    }
+
+    /**
+     * @param skipPages 前面已经从缓存交出去的页数，这些页照样解析、写进新缓存，但不再交给消费者
+     */
+    private void parse(URLConnection connection, long length, long lastModified, int skipPages)
+            throws IOException, InterruptedException {
+        CompiledScript.Writer writer = cacheFile == null ? null
+                : new CompiledScript.Writer(cacheFile, length, lastModified, PAGE_LINES);
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8))) {
+            List<String> lines = new ArrayList<>(PAGE_LINES);
+            int parsedPages = 0;
+            String line;
+            while (!closed && (line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("//") || line.startsWith("#")) {
+                    continue;
+                }
+                lines.add(line);
+                if (lines.size() == PAGE_LINES) {
+                    emit(lines, writer, parsedPages++ >= skipPages);
+                }
+            }
+            if (!lines.isEmpty()) {
+                emit(lines, writer, parsedPages >= skipPages);
+            }
+            if (writer != null && !closed) {
+                writer.finish();
+            }
+        } finally {
+            if (writer != null) {
+                writer.close();
+            }
+        }
+    }
+
+    private void emit(List<String> lines, CompiledScript.Writer writer, boolean deliver)
+            throws IOException, InterruptedException {
+        String[] page = lines.toArray(new String[0]);
+        lines.clear();
+        if (writer != null) {
+            writer.writePage(page);
+        }
+        if (deliver) {
+            offer(page);
+        }
+    }
+
+    /**
+     * 预读的页满了就阻塞，控制内存里最多 WINDOW_PAGES 页
+     */
+    private void offer(String[] page) throws InterruptedException {
+        if (!closed) {
+            pages.put(page);
+        }
+    }
+
+    private void offerEnd() {
+        if (!closed) {
+            // 还在播放时结束标记也要排在所有页后面，队列满了就等消费者读走一页，不能挤掉还没读的页
+            try {
+                pages.put(END);
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        // close 之后没人消费，队列可能是满的，清掉再放结束标记，保证消费者不会一直等
+        while (!pages.offer(END)) {
+            pages.poll();
+        }
+    }
+
+    // ---------------- 消费者（FXGL 线程） ----------------
+
+    @Override
+    public int size() {
+        // CutsceneScene 用 currentLine == size() 判断结束，下一行还没读到时必须等它解析出来才知道有没有
+        return hasLine(nextLine) ? Integer.MAX_VALUE : nextLine;
+    }
+
+    @Override
+    public String get(int index) {
+        if (!hasLine(index)) {
+            throw new IndexOutOfBoundsException("剧本只有 " + (pageStart + page.length) + " 行: " + index);
+        }
+        nextLine = index + 1;
+        return page[index - pageStart];
+    }
+
+    /**
+     * 把 page 推进到包含 index 的那一页。只能往后推进，前面的页已经丢掉了
+     */
+    private boolean hasLine(int index) {
+        if (index < pageStart) {
+            throw new UnsupportedOperationException("DialogueScript 只支持顺序读取，第 " + index + " 行已经释放");
+        }
+        while (index >= pageStart + page.length) {
+            if (ended) {
+                return false;
+            }
+            String[] next = pages.poll();
+            if (next == null) {
+                stalls++;
+                try {
+                    next = pages.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    next = END;
+                }
+            }
+            if (next == END) {
+                ended = true;
+                if (error != null) {
+                    System.err.println("剧本读取失败: " + source);
+                    error.printStackTrace();
+                }
+                return false;
+            }
+            pageStart += page.length;
+            page = next;
+            pagesConsumed++;
+        }
+        return true;
+    }
+
+    /**
+     * 过场结束后调用，释放已经读入的页。还没解析完时停止后台解析，这次不写缓存
+     */
+    @Override
+    public void close() {
+        closed = true;
+        pages.clear();
+        pageStart += page.length;
+        page = END;
+        ended = true;
+    }
+
+    public boolean isFromCache() {
+        return fromCache;
+    }
+
+    public int getStalls() {
+        return stalls;
+    }
+
+    @Override
+    public String toString() {
+        return "script " + source.getPath() + (fromCache ? " (cached)" : "")
+                + (cacheError != null ? " (cache corrupt, reparsed: " + cacheError.getMessage() + ")" : "")
+                + ": pages=" + pagesConsumed + ", lines=" + (pageStart + page.length) + ", stalls=" + stalls
+                + (parseNanos >= 0 ? String.format(", read in %.1f ms", parseNanos / 1e6) : "");
+    }
+}
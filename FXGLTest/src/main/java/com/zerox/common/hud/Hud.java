@@ -0,0 +1,82 @@
+package com.zerox.common.hud;
+
+import com.zerox.common.vars.TypedVars;
+import javafx.scene.text.Text;
+
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+
+/**
+ * @Author: ZeromaXHe
+ * @Time: 2026/10/18 21:10
+ * @Description: 跟着 TypedVars.flush 刷新的 HUD。文本和阈值判断都注册成 int 监听器，
+ * flush 只通知值确实变了的变量，而且每帧最多一次，所以这里不需要再自己轮询、记上次的值：
+ * 收到通知时在复用的 StringBuilder 里拼字符串并 setText，这时 JavaFX 才需要重新布局这个节点；
+ * 不再像 asString 绑定那样每次修改都格式化一个新字符串、触发一次布局。
+ * 阈值判断（比如分数超过 20 弹通知）也在通知里做，每帧最多判断一次
+ * @ModifiedBy: ZeromaXHe
+ */
+public class Hud {
+    private final TypedVars vars;
+
+    /**
+     * setText 的次数
+     */
+    private long textUpdates;
+    private long triggerChecks;
+
+    public Hud(TypedVars vars) {
+        this.vars = vars;
+    }
+
+    /**
+     * 创建显示 prefix + int 变量值的文本节点，调用方负责把它加到界面上
+     */
+    public Text intText(int slot, String prefix) {
+        IntText intText = new IntText(prefix);
+        intText.refresh(vars.getInt(slot));
+        textUpdates++;
+        vars.addIntListener(slot, (oldValue, newValue) -> {
+            intText.refresh(newValue);
+            textUpdates++;
+        });
+        return intText.text;
+    }
+
+    /**
+     * int 变量在某一帧里变了并且满足 condition 时执行 action（每次 flush 最多一次，参数是 flush 时的值）
+     */
+    public void trigger(int slot, IntPredicate condition, IntConsumer action) {
+        vars.addIntListener(slot, (oldValue, newValue) -> {
+            triggerChecks++;
+            if (condition.test(newValue)) {
+                action.accept(newValue);
+            }
+        });
+    }
+
+    @Override
+    public String toString() {
+        return "hud textUpdates=" + textUpdates + ", triggerChecks=" + triggerChecks;
+    }
+
+    private static class IntText {
+        final Text text = new Text();
+        /**
+         * 复用的缓冲区，前缀只写一次
+         */
+        final StringBuilder buffer;
+        final int prefixLength;
+
+        IntText(String prefix) {
+            this.buffer = new StringBuilder(prefix.length() + 11).append(prefix);
+            this.prefixLength = prefix.length();
+        }
+
+        void refresh(int value) {
+            buffer.setLength(prefixLength);
+            buffer.append(value);
+            text.setText(buffer.toString());
+        }
+    }
+}
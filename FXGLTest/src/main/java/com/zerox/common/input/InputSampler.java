@@ -0,0 +1,170 @@
+package com.zerox.common.input;
+
+import com.almasb.fxgl.input.Input;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
+
+import java.util.Arrays;
+import java.util.function.IntSupplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * @Author: ZeromaXHe
+ * @Time: 2026/10/19 14:30
+ * @Description: 按位组合的输入采样，代替每个动作一个 UserAction。按键事件只更新一个“正在按着”的位集合，
+ * 按键到位的映射是按 KeyCode.ordinal 下标的 int 数组，改键就是改数组，不需要为每个动作、每个键创建对象。
+ * 游戏逻辑每个 tick 调用一次 sample 取这一 tick 的输入：正在按着的键，加上上次采样之后按下过又松开的键，
+ * 两个 tick 之间很快点一下也不会丢。手柄之类没有 JavaFX 按键事件的设备用 addSource 接入，采样时轮询一次，返回同样布局的位
+ * @ModifiedBy: ZeromaXHe
+ */
+public class InputSampler {
+    private final int[] keyBits = new int[KeyCode.values().length];
+    private final boolean[] down = new boolean[KeyCode.values().length];
+    /**
+     * 每一位有几个按着的键，两个键映射到同一位时松开一个不会清掉这一位
+     */
+    private final int[] bitHolders = new int[Integer.SIZE];
+    private int held;
+    private int latched;
+    private IntSupplier[] sources = new IntSupplier[0];
+
+    /**
+     * 把 key 映射到 bits，一个键可以映射到多位，一位也可以有多个键
+     */
+    public InputSampler bind(KeyCode key, int bits) {
+        boolean wasDown = down[key.ordinal()];
+        if (wasDown) {
+            release(key);
+        }
+        keyBits[key.ordinal()] = bits;
+        if (wasDown) {
+            press(key);
+        }
+        return this;
+    }
+
+    public InputSampler unbind(KeyCode key) {
+        return bind(key, 0);
+    }
+
+    public void unbindAll() {
+        for (KeyCode key : KeyCode.values()) {
+            unbind(key);
+        }
+    }
+
+    /**
+     * 按配置字符串重新设置所有按键，格式是逗号分隔的 键=位名，比如 W=UP,S=DOWN,A=LEFT,D=RIGHT,J=SHOOT，
+     * 键名是 KeyCode 的枚举名，位名由 bitNames 解析
+     *
+     * @throws IllegalArgumentException 键名或位名不认识
+     */
+    public void remap(String spec, ToIntFunction<String> bitNames) {
+        int[] parsed = new int[keyBits.length];
+        for (String entry : spec.split(",")) {
+            String[] pair = entry.trim().split("=");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("key binding should be KEY=BIT: " + entry);
+            }
+            KeyCode key = KeyCode.valueOf(pair[0].trim().toUpperCase());
+            parsed[key.ordinal()] |= bitNames.applyAsInt(pair[1].trim().toUpperCase());
+        }
+        unbindAll();
+        KeyCode[] keys = KeyCode.values();
+        for (int i = 0; i < parsed.length; i++) {
+            if (parsed[i] != 0) {
+                bind(keys[i], parsed[i]);
+            }
+        }
+    }
+
+    /**
+     * 每次 sample 时轮询一次的额外输入，比如手柄
+     */
+    public void addSource(IntSupplier source) {
+        sources = Arrays.copyOf(sources, sources.length + 1);
+        sources[sources.length - 1] = source;
+    }
+
+    /**
+     * 监听游戏场景的按键事件，只有游戏场景在前台时才会收到，菜单里的按键不算
+     */
+    public void install(Input input) {
+        input.addEventHandler(KeyEvent.KEY_PRESSED, e -> press(e.getCode()));
+        input.addEventHandler(KeyEvent.KEY_RELEASED, e -> release(e.getCode()));
+    }
+
+    /**
+     * 按住不放时系统的重复按键事件会被忽略
+     */
+    public void press(KeyCode key) {
+        int k = key.ordinal();
+        if (down[k]) {
+            return;
+        }
+        down[k] = true;
+        int bits = keyBits[k];
+        held |= bits;
+        latched |= bits;
+        for (int b = bits; b != 0; b &= b - 1) {
+            bitHolders[Integer.numberOfTrailingZeros(b)]++;
+        }
+    }
+
+    public void release(KeyCode key) {
+        int k = key.ordinal();
+        if (!down[k]) {
+            return;
+        }
+        down[k] = false;
+        for (int b = keyBits[k]; b != 0; b &= b - 1) {
+            int bit = Integer.numberOfTrailingZeros(b);
+            if (--bitHolders[bit] == 0) {
+                held &= ~(1 << bit);
+            }
+        }
+    }
+
+    /**
+     * 取一个 tick 的输入，并清掉上次采样之后的点按记录
+     */
+    public int sample() {
+        int input = held | latched;
+        latched = 0;
+        for (IntSupplier source : sources) {
+            input |= source.getAsInt();
+        }
+        return input;
+    }
+
+    /**
+     * 当前按着的位，不影响点按记录
+     */
+    public int peek() {
+        return held;
+    }
+
+    /**
+     * 窗口失去焦点时收不到松开事件，当作所有键都松开
+     */
+    public void clear() {
+        Arrays.fill(down, false);
+        Arrays.fill(bitHolders, 0);
+        held = 0;
+        latched = 0;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("InputSampler{");
+        KeyCode[] keys = KeyCode.values();
+        boolean first = true;
+        for (int i = 0; i < keyBits.length; i++) {
+            if (keyBits[i] != 0) {
+                sb.append(first ? "" : ", ").append(keys[i]).append('=').append(Integer.toBinaryString(keyBits[i]));
+                first = false;
+            }
+        }
+        return sb.append(", sources=").append(sources.length).append('}').toString();
+    }
+}
@@ -0,0 +1,28 @@
+package com.zerox.common.instrument;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * @Author: ZeromaXHe
+ * @Time: 2026/10/18 18:54
+ * @Description: 按实体类型统计的数量，每个统计周期每种类型一个事件
+ * @ModifiedBy: ZeromaXHe
+ */
+@Name("com.zerox.EntityCount")
+@Label("Entity Count")
+@Category({"ZeroX", "Game"})
+@Description("按类型统计的游戏世界实体数量")
+class EntityCountEvent extends Event {
+    @Label("App")
+    String app;
+
+    @Label("Type")
+    String type;
+
+    @Label("Count")
+    int count;
+}
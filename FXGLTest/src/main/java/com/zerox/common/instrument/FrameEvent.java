@@ -0,0 +1,38 @@
+package com.zerox.common.instrument;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * @Author: ZeromaXHe
+ * @Time: 2026/10/18 18:52
+ * @Description: 每帧一个事件，记录这一帧的逻辑更新、物理、渲染耗时和实体数量
+ * @ModifiedBy: ZeromaXHe
+ */
+@Name("com.zerox.Frame")
+@Label("Frame")
+@Category({"ZeroX", "Game"})
+@Description("每帧的更新、物理、渲染耗时")
+class FrameEvent extends Event {
+    @Label("App")
+    String app;
+
+    @Label("Update")
+    @Timespan(Timespan.NANOSECONDS)
+    long update;
+
+    @Label("Physics")
+    @Timespan(Timespan.NANOSECONDS)
+    long physics;
+
+    @Label("Render")
+    @Timespan(Timespan.NANOSECONDS)
+    long render;
+
+    @Label("Entities")
+    int entities;
+}
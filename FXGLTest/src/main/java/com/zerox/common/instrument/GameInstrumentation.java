@@ -0,0 +1,182 @@
+package com.zerox.common.instrument;
+
+import com.almasb.fxgl.dsl.FXGL;
+import com.almasb.fxgl.entity.Entity;
+import com.almasb.fxgl.time.LocalTimer;
+import javafx.scene.Scene;
+import javafx.util.Duration;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @Author: ZeromaXHe
+ * @Time: 2026/10/18 19:00
+ * @Description: GameApplication 子类可选接入的性能统计：
+ * 1. 启动阶段耗时：在每个生命周期方法开头调用 phase，一个阶段持续到下一次 phase 或者第一帧
+ * 2. 每帧耗时直方图：
+ * update 取 FXGL 引擎一次 loop 的 CPU 时间（实体组件、物理、onUpdate 都在里面，取到的是上一帧的值）；
+ * physics 只有自己管理的碰撞检测才知道耗时，由应用调用 recordPhysics 上报，FXGL 的 PhysicsWorld 没有可以挂的点；
+ * render 是 JavaFX pulse 中 layout 前后两个监听器之间的时间，也就是 CSS、布局这部分 JavaFX 线程上的渲染准备
+ * 3. 按类型统计的实体数量
+ * 数据通过 JFR 自定义事件（com.zerox.*）和定期打印的一行日志输出
+ * @ModifiedBy: ZeromaXHe
+ */
+public class GameInstrumentation {
+    private final String app;
+    private final Duration logInterval;
+
+    private final Map<String, Long> phaseNanos = new LinkedHashMap<>();
+    private final long createdNanos = System.nanoTime();
+    private String currentPhase;
+    private long phaseStartNanos;
+    private StartupPhaseEvent phaseEvent;
+    private boolean running;
+
+    private final LatencyHistogram update = new LatencyHistogram();
+    private final LatencyHistogram physics = new LatencyHistogram();
+    private final LatencyHistogram render = new LatencyHistogram();
+    private long lastUpdateNanos;
+    private long lastPhysicsNanos;
+    private long layoutStartNanos;
+    private LocalTimer logTimer;
+
+    /**
+     * 复用的计数器，统计时不为每种类型重新装箱
+     */
+    private final Map<Serializable, int[]> entityCounts = new HashMap<>();
+    private final StringBuilder line = new StringBuilder();
+
+    public GameInstrumentation(String app, Duration logInterval) {
+        this.app = app;
+        this.logInterval = logInterval;
+    }
+
+    /**
+     * 在生命周期方法开头调用，结束上一个阶段并开始新的阶段
+     */
+    public void phase(String name) {
+        long now = System.nanoTime();
+        endPhase(now);
+        currentPhase = name;
+        phaseStartNanos = now;
+        phaseEvent = new StartupPhaseEvent();
+        phaseEvent.app = app;
+        phaseEvent.phase = name;
+        phaseEvent.begin();
+    }
+
+    private void endPhase(long now) {
+        if (currentPhase == null) {
+            return;
+        }
+        phaseNanos.put(currentPhase, now - phaseStartNanos);
+        phaseEvent.commit();
+        currentPhase = null;
+        phaseEvent = null;
+    }
+
+    /**
+     * 在 onUpdate 中每帧调用。第一次调用时结束启动阶段，并挂上 JavaFX pulse 监听器
+     */
+    public void onUpdate() {
+        if (!running) {
+            start();
+            return;
+        }
+        lastUpdateNanos = FXGL.cpuNanoTime();
+        update.record(lastUpdateNanos);
+        if (logTimer.elapsed(logInterval)) {
+            log();
+            logTimer.capture();
+        }
+    }
+
+    /**
+     * 应用自己做碰撞检测时，每帧上报耗时
+     */
+    public void recordPhysics(long nanos) {
+        lastPhysicsNanos = nanos;
+        physics.record(nanos);
+    }
+
+    private void start() {
+        running = true;
+        long now = System.nanoTime();
+        endPhase(now);
+        StringBuilder sb = new StringBuilder("[instrument] ").append(app).append(" startup");
+        phaseNanos.forEach((phase, nanos) -> sb.append(String.format(" %s=%.1fms", phase, nanos / 1e6)));
+        sb.append(String.format(" total=%.1fms", (now - createdNanos) / 1e6));
+        System.out.println(sb);
+
+        Scene scene = FXGL.getGameScene().getRoot().getScene();
+        if (scene != null) {
+            scene.addPreLayoutPulseListener(() -> layoutStartNanos = System.nanoTime());
+            scene.addPostLayoutPulseListener(this::onPostLayout);
+        }
+        logTimer = FXGL.newLocalTimer();
+    }
+
+    private void onPostLayout() {
+        long renderNanos = System.nanoTime() - layoutStartNanos;
+        render.record(renderNanos);
+
+        FrameEvent event = new FrameEvent();
+        if (event.shouldCommit()) {
+            event.app = app;
+            event.update = lastUpdateNanos;
+            event.physics = lastPhysicsNanos;
+            event.render = renderNanos;
+            event.entities = FXGL.getGameWorld().getEntities().size();
+            event.commit();
+        }
+        lastPhysicsNanos = 0;
+    }
+
+    private void log() {
+        List<Entity> entities = FXGL.getGameWorld().getEntities();
+        for (int[] count : entityCounts.values()) {
+            count[0] = 0;
+        }
+        for (int i = 0; i < entities.size(); i++) {
+            entityCounts.computeIfAbsent(entities.get(i).getType(), t -> new int[1])[0]++;
+        }
+
+        line.setLength(0);
+        line.append("[instrument] ").append(app)
+                .append(" frames=").append(update.getTotalCount())
+                .append(" | update ").append(update)
+                .append(" | render ").append(render);
+        if (physics.getTotalCount() > 0) {
+            line.append(" | physics ").append(physics);
+        }
+        line.append(" | entities=").append(entities.size());
+        List<Serializable> emptyTypes = new ArrayList<>();
+        for (Map.Entry<Serializable, int[]> entry : entityCounts.entrySet()) {
+            int count = entry.getValue()[0];
+            if (count == 0) {
+                emptyTypes.add(entry.getKey());
+                continue;
+            }
+            String type = String.valueOf(entry.getKey());
+            line.append(' ').append(type).append('=').append(count);
+
+            EntityCountEvent event = new EntityCountEvent();
+            event.app = app;
+            event.type = type;
+            event.count = count;
+            event.commit();
+        }
+        // 类型已经不存在的计数器不再保留
+        emptyTypes.forEach(entityCounts::remove);
+        System.out.println(line);
+
+        update.reset();
+        physics.reset();
+        render.reset();
+    }
+}
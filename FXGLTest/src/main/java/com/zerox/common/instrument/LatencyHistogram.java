@@ -0,0 +1,104 @@
+package com.zerox.common.instrument;
+
+import java.util.Arrays;
+
+/**
+ * @Author: ZeromaXHe
+ * @Time: 2026/10/18 18:40
+ * @Description: 记录纳秒耗时的对数-线性直方图，和 HdrHistogram 的分桶方式一样：
+ * 每个 2 的幂区间再均分成 64 个子桶，相对误差不超过 1/64。固定大小的数组，record 不分配内存。
+ * 没有直接依赖 HdrHistogram，是因为它只是自动模块，javafx:jlink 打包时没法链接
+ * @ModifiedBy: ZeromaXHe
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    /**
+     * 小于 2 * SUB_BUCKETS 的值一个值一个桶，之后每个 2 的幂区间 SUB_BUCKETS 个桶
+     */
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKETS];
+    private long totalCount;
+    private long sum;
+    private long max;
+
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        counts[index(value)]++;
+        totalCount++;
+        sum += value;
+        if (value > max) {
+            max = value;
+        }
+    }
+
+    private static int index(long value) {
+        if (value < 2 * SUB_BUCKETS) {
+            return (int) value;
+        }
+        // 右移之后落在 [SUB_BUCKETS, 2 * SUB_BUCKETS) 区间
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+    }
+
+    /**
+     * 桶内的最大值，和 HdrHistogram 的 highestEquivalentValue 一致
+     */
+    private static long highestValue(int index) {
+        if (index < 2 * SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long sub = index % SUB_BUCKETS + SUB_BUCKETS;
+        return ((sub + 1) << shift) - 1;
+    }
+
+    /**
+     * @param percentile 0 到 100
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (totalCount == 0) {
+            return 0;
+        }
+        long countAtPercentile = Math.max(1, (long) Math.ceil(percentile / 100 * totalCount));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= countAtPercentile) {
+                return Math.min(highestValue(i), max);
+            }
+        }
+        return max;
+    }
+
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    public double getMean() {
+        return totalCount == 0 ? 0 : (double) sum / totalCount;
+    }
+
+    public void reset() {
+        Arrays.fill(counts, 0);
+        totalCount = 0;
+        sum = 0;
+        max = 0;
+    }
+
+    /**
+     * 以毫秒显示 p50/p99/max
+     */
+    @Override
+    public String toString() {
+        return String.format("p50=%.2fms p99=%.2fms max=%.2fms",
+                getValueAtPercentile(50) / 1e6, getValueAtPercentile(99) / 1e6, max / 1e6);
+    }
+}
@@ -0,0 +1,25 @@
+package com.zerox.common.instrument;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * @Author: ZeromaXHe
+ * @Time: 2026/10/18 18:50
+ * @Description: GameApplication 一个启动阶段（initSettings、initGame 等）的耗时，持续时间就是事件本身的 duration
+ * @ModifiedBy: ZeromaXHe
+ */
+@Name("com.zerox.StartupPhase")
+@Label("Startup Phase")
+@Category({"ZeroX", "Game"})
+@Description("GameApplication 启动阶段耗时")
+class StartupPhaseEvent extends Event {
+    @Label("App")
+    String app;
+
+    @Label("Phase")
+    String phase;
+}
@@ -0,0 +1,235 @@
+package com.zerox.common.nav;
+
+import java.util.Arrays;
+
+/**
+ * @Author: ZeromaXHe
+ * @Time: 2026/10/19 12:25
+ * @Description: NavGrid 上的 A* 寻路，8 方向，直走代价 10、斜走 14，斜走时两边的格子都要能走（不切墙角），启发函数是八方向距离。
+ * 每个线程一个实例，g、parent、开闭状态都是按格子下标的 int 数组，用搜索代号区分是不是本次搜索写入的，每次搜索不用清空数组；
+ * open 表是允许重复的二叉堆，出堆时跳过已经关闭的格子。
+ * 终点走不到时返回到离终点最近（启发值最小）的已搜索格子的路径。
+ * 搜索可以用 begin/step 分段进行，每段限制搜索的格子数，结果和一次算完（find）完全一样
+ * @ModifiedBy: ZeromaXHe
+ */
+final class GridAStar {
+    private static final int STRAIGHT = 10;
+    private static final int DIAGONAL = 14;
+
+    private int[] g = new int[0];
+    private int[] parent = new int[0];
+    private int[] openStamp = new int[0];
+    private int[] closedStamp = new int[0];
+    private int stamp;
+
+    private int[] heapCell = new int[64];
+    private int[] heapF = new int[64];
+    private int heapSize;
+
+    /**
+     * 搜索过的格子数，统计用，也是分段搜索计算预算的单位
+     */
+    private int expanded;
+
+    // 当前搜索的状态，begin 设置，step 分多次推进
+    private NavGrid grid;
+    private int columns;
+    private int goal;
+    private int goalX;
+    private int goalY;
+    private int best;
+    private int bestH;
+    private boolean done;
+
+    /**
+     * 一次算完
+     *
+     * @return 从 start 到终点依次经过的格子，包括 start 本身
+     */
+    int[] find(NavGrid grid, int start, int goal) {
+        begin(grid, start, goal);
+        step(Integer.MAX_VALUE);
+        return getPath();
+    }
+
+    /**
+     * 开始一次搜索，之后用 step 分段推进。同一个实例上开始新的搜索会丢掉没算完的那次
+     */
+    void begin(NavGrid grid, int start, int goal) {
+        prepare(grid.getCellCount());
+        this.grid = grid;
+        this.columns = grid.getColumns();
+        this.goal = goal;
+        this.goalX = goal % columns;
+        this.goalY = goal / columns;
+
+        heapSize = 0;
+        expanded = 0;
+        done = false;
+        g[start] = 0;
+        parent[start] = -1;
+        openStamp[start] = stamp;
+        best = start;
+        bestH = heuristic(start % columns, start / columns, goalX, goalY);
+        push(start, bestH);
+    }
+
+    /**
+     * 最多再搜索 maxExpanded 个格子。堆顶已经关闭的格子先跳过再判断预算，
+     * 所以总共搜索 n 个格子的一次搜索不管怎么分段，都在搜索第 n 个格子的那次 step 里结束
+     *
+     * @return 这次搜索的格子数
+     */
+    int step(int maxExpanded) {
+        int steps = 0;
+        while (true) {
+            while (heapSize > 0 && closedStamp[heapCell[0]] == stamp) {
+                pop();
+            }
+            if (heapSize == 0) {
+                done = true;
+                return steps;
+            }
+            if (steps == maxExpanded) {
+                return steps;
+            }
+            int cell = pop();
+            closedStamp[cell] = stamp;
+            expanded++;
+            steps++;
+            int cx = cell % columns;
+            int cy = cell / columns;
+            int h = heuristic(cx, cy, goalX, goalY);
+            if (h < bestH) {
+                best = cell;
+                bestH = h;
+            }
+            if (cell == goal) {
+                done = true;
+                return steps;
+            }
+            for (int dy = -1; dy <= 1; dy++) {
+                for (int dx = -1; dx <= 1; dx++) {
+                    if (dx == 0 && dy == 0) {
+                        continue;
+                    }
+                    int nx = cx + dx;
+                    int ny = cy + dy;
+                    if (grid.isBlocked(nx, ny)) {
+                        continue;
+                    }
+                    boolean diagonal = dx != 0 && dy != 0;
+                    if (diagonal && (grid.isBlocked(cx + dx, cy) || grid.isBlocked(cx, cy + dy))) {
+                        continue;
+                    }
+                    int next = ny * columns + nx;
+                    if (closedStamp[next] == stamp) {
+                        continue;
+                    }
+                    int ng = g[cell] + (diagonal ? DIAGONAL : STRAIGHT);
+                    if (openStamp[next] != stamp || ng < g[next]) {
+                        openStamp[next] = stamp;
+                        g[next] = ng;
+                        parent[next] = cell;
+                        push(next, ng + heuristic(nx, ny, goalX, goalY));
+                    }
+                }
+            }
+        }
+    }
+
+    boolean isDone() {
+        return done;
+    }
+
+    /**
+     * isDone 之后调用
+     *
+     * @return 从 start 到终点依次经过的格子，包括 start 本身；终点走不到时到离终点最近的已搜索格子
+     */
+    int[] getPath() {
+        return path(best);
+    }
+
+    int getExpanded() {
+        return expanded;
+    }
+
+    private void prepare(int cells) {
+        if (g.length < cells) {
+            g = new int[cells];
+            parent = new int[cells];
+            openStamp = new int[cells];
+            closedStamp = new int[cells];
+            stamp = 0;
+        }
+        if (++stamp == Integer.MAX_VALUE) {
+            Arrays.fill(openStamp, 0);
+            Arrays.fill(closedStamp, 0);
+            stamp = 1;
+        }
+    }
+
+    private static int heuristic(int x, int y, int goalX, int goalY) {
+        int dx = Math.abs(x - goalX);
+        int dy = Math.abs(y - goalY);
+        return STRAIGHT * (dx + dy) + (DIAGONAL - 2 * STRAIGHT) * Math.min(dx, dy);
+    }
+
+    private int[] path(int end) {
+        int length = 0;
+        for (int cell = end; cell != -1; cell = parent[cell]) {
+            length++;
+        }
+        int[] path = new int[length];
+        for (int cell = end, i = length - 1; cell != -1; cell = parent[cell], i--) {
+            path[i] = cell;
+        }
+        return path;
+    }
+
+    private void push(int cell, int f) {
+        if (heapSize == heapCell.length) {
+            heapCell = Arrays.copyOf(heapCell, heapSize * 2);
+            heapF = Arrays.copyOf(heapF, heapSize * 2);
+        }
+        int i = heapSize++;
+        while (i > 0) {
+            int up = (i - 1) >> 1;
+            if (heapF[up] <= f) {
+                break;
+            }
+            heapCell[i] = heapCell[up];
+            heapF[i] = heapF[up];
+            i = up;
+        }
+        heapCell[i] = cell;
+        heapF[i] = f;
+    }
+
+    private int pop() {
+        int top = heapCell[0];
+        int last = --heapSize;
+        int cell = heapCell[last];
+        int f = heapF[last];
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if (child + 1 < heapSize && heapF[child + 1] < heapF[child]) {
+                child++;
+            }
+            if (heapF[child] >= f) {
+                break;
+            }
+            heapCell[i] = heapCell[child];
+            heapF[i] = heapF[child];
+            i = child;
+        }
+        heapCell[i] = cell;
+        heapF[i] = f;
+        return top;
+    }
+}
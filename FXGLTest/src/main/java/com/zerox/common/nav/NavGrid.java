@@ -0,0 +1,116 @@
+package com.zerox.common.nav;
+
+/**
+ * @Author: ZeromaXHe
+ * @Time: 2026/10/19 12:10
+ * @Description: 寻路用的格子地图，格子下标是 y * columns + x。先用 block 标出障碍，再交给 PathService 寻路；
+ * 交出去以后会在后台线程上读取，不能再修改。
+ * forAgent 生成给占多个格子的单位用的地图：左上角在格子 c 时单位覆盖的 size * size 个格子都空着，c 才能走
+ * @ModifiedBy: ZeromaXHe
+ */
+public class NavGrid {
+    private final int columns;
+    private final int rows;
+    private final double cellSize;
+    private final boolean[] blocked;
+
+    public NavGrid(int columns, int rows, double cellSize) {
+        this.columns = columns;
+        this.rows = rows;
+        this.cellSize = cellSize;
+        this.blocked = new boolean[columns * rows];
+    }
+
+    /**
+     * 把和矩形有重叠的格子都标成障碍，坐标是像素
+     */
+    public void block(double x, double y, double width, double height) {
+        int x0 = Math.max(0, (int) Math.floor(x / cellSize));
+        int y0 = Math.max(0, (int) Math.floor(y / cellSize));
+        int x1 = Math.min(columns - 1, (int) Math.ceil((x + width) / cellSize) - 1);
+        int y1 = Math.min(rows - 1, (int) Math.ceil((y + height) / cellSize) - 1);
+        for (int cy = y0; cy <= y1; cy++) {
+            for (int cx = x0; cx <= x1; cx++) {
+                blocked[cy * columns + cx] = true;
+            }
+        }
+    }
+
+    /**
+     * @param size 单位占几个格子宽（正方形）
+     */
+    public NavGrid forAgent(int size) {
+        NavGrid grid = new NavGrid(columns, rows, cellSize);
+        for (int cy = 0; cy < rows; cy++) {
+            for (int cx = 0; cx < columns; cx++) {
+                grid.blocked[cy * columns + cx] = !isClear(cx, cy, size);
+            }
+        }
+        return grid;
+    }
+
+    private boolean isClear(int cx, int cy, int size) {
+        if (cx + size > columns || cy + size > rows) {
+            return false;
+        }
+        for (int y = cy; y < cy + size; y++) {
+            for (int x = cx; x < cx + size; x++) {
+                if (blocked[y * columns + x]) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    public boolean isBlocked(int cell) {
+        return blocked[cell];
+    }
+
+    public boolean isBlocked(int cx, int cy) {
+        return cx < 0 || cy < 0 || cx >= columns || cy >= rows || blocked[cy * columns + cx];
+    }
+
+    /**
+     * 像素坐标所在的格子，超出地图的坐标取最近的边缘格子
+     */
+    public int cellAt(double x, double y) {
+        int cx = Math.max(0, Math.min(columns - 1, (int) Math.floor(x / cellSize)));
+        int cy = Math.max(0, Math.min(rows - 1, (int) Math.floor(y / cellSize)));
+        return cy * columns + cx;
+    }
+
+    /**
+     * 离像素坐标最近的格子左上角，单位的左上角对齐格子时用这个算所在格子
+     */
+    public int nearestCell(double x, double y) {
+        return cellAt(x + cellSize / 2, y + cellSize / 2);
+    }
+
+    /**
+     * 格子左上角的像素坐标
+     */
+    public double cellX(int cell) {
+        return cell % columns * cellSize;
+    }
+
+    public double cellY(int cell) {
+        return cell / columns * cellSize;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCellCount() {
+        return blocked.length;
+    }
+
+    public double getCellSize() {
+        return cellSize;
+    }
+}
@@ -0,0 +1,216 @@
+package com.zerox.common.nav;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @Author: ZeromaXHe
+ * @Time: 2026/10/19 12:40
+ * @Description: 后台线程池上的 A* 寻路。submit 把请求放进线程池队列后立刻返回 Request，
+ * 工作线程算完后结果通过 FutureTask 的 volatile 状态发布，游戏线程用 getNow 取，没算完就返回 null，从不阻塞、不加锁。
+ * 游戏线程等不及时不去等工作线程，而是用 Slicer 自己分段搜索同一个请求，每段限制搜索的格子数，
+ * 两边算出来的路径和搜索格子数完全一样。
+ * threads 为 0 时不开线程，请求只能由调用方用 Slicer 算；findNow 在调用线程上一次算完，是不分摊的做法，只用来对照
+ * @ModifiedBy: ZeromaXHe
+ */
+public class PathService {
+    private static PathService shared;
+
+    private final ThreadPoolExecutor workers;
+    private final ThreadLocal<GridAStar> searches = ThreadLocal.withInitial(GridAStar::new);
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder workerPaths = new LongAdder();
+    private final LongAdder callerPaths = new LongAdder();
+    private final LongAdder expanded = new LongAdder();
+
+    public PathService(int threads) {
+        if (threads <= 0) {
+            workers = null;
+            return;
+        }
+        AtomicInteger index = new AtomicInteger();
+        workers = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), r -> {
+            Thread thread = new Thread(r, "path-worker-" + index.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 进程内共用的线程池，线程数是 CPU 核数减一（至少一个），给游戏线程留一个核
+     */
+    public static synchronized PathService shared() {
+        if (shared == null) {
+            shared = new PathService(Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+        }
+        return shared;
+    }
+
+    /**
+     * @param grid 提交以后不能再修改
+     */
+    public Request submit(NavGrid grid, int start, int goal) {
+        submitted.increment();
+        Request request = new Request(this, grid, start, goal);
+        if (workers != null) {
+            workers.execute(request.task);
+        }
+        return request;
+    }
+
+    /**
+     * 在调用线程上一次算完，耗时没有上限，不要在游戏线程上用
+     */
+    public int[] findNow(NavGrid grid, int start, int goal) {
+        GridAStar search = searches.get();
+        int[] path = search.find(grid, start, goal);
+        expanded.add(search.getExpanded());
+        callerPaths.increment();
+        return path;
+    }
+
+    /**
+     * 线程池队列里还没开始算的请求数
+     */
+    public int getQueueDepth() {
+        return workers == null ? 0 : workers.getQueue().size();
+    }
+
+    public long getSubmitted() {
+        return submitted.sum();
+    }
+
+    @Override
+    public String toString() {
+        long paths = workerPaths.sum() + callerPaths.sum();
+        return "PathService{threads=" + (workers == null ? 0 : workers.getCorePoolSize())
+                + ", submitted=" + submitted.sum()
+                + ", worker=" + workerPaths.sum()
+                + ", caller=" + callerPaths.sum()
+                + ", queue=" + getQueueDepth()
+                + ", avgExpanded=" + (paths == 0 ? 0 : expanded.sum() / paths) + '}';
+    }
+
+    /**
+     * 一次寻路请求
+     */
+    public static final class Request {
+        private final NavGrid grid;
+        private final int start;
+        private final int goal;
+        private final FutureTask<int[]> task;
+        /**
+         * 工作线程搜索的格子数，在 FutureTask 完成之前写入，isDone 之后读
+         */
+        private int expanded;
+
+        private Request(PathService service, NavGrid grid, int start, int goal) {
+            this.grid = grid;
+            this.start = start;
+            this.goal = goal;
+            this.task = new FutureTask<>(() -> {
+                GridAStar search = service.searches.get();
+                int[] path = search.find(grid, start, goal);
+                expanded = search.getExpanded();
+                service.expanded.add(expanded);
+                service.workerPaths.increment();
+                return path;
+            });
+        }
+
+        /**
+         * @return 工作线程算出来的路径（从起点到终点经过的格子，包括起点），还没算完或者已经取消时返回 null，不会阻塞
+         */
+        public int[] getNow() {
+            if (!task.isDone() || task.isCancelled()) {
+                return null;
+            }
+            try {
+                return task.get();
+            } catch (InterruptedException | ExecutionException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        /**
+         * getNow 返回路径之后调用，工作线程搜索的格子数
+         */
+        public int getExpanded() {
+            return expanded;
+        }
+
+        /**
+         * 不再需要工作线程的结果，还没开始算的请求工作线程拿到后直接跳过
+         */
+        public void cancel() {
+            task.cancel(false);
+        }
+    }
+
+    /**
+     * 在调用线程上分段搜索一个请求，一个实例同时只搜索一个请求，只能在一个线程里用
+     */
+    public static final class Slicer {
+        private final PathService service;
+        private final GridAStar search = new GridAStar();
+        private Request request;
+
+        public Slicer(PathService service) {
+            this.service = service;
+        }
+
+        /**
+         * 开始搜索 request，之前没搜完的请求被丢掉
+         */
+        public void begin(Request request) {
+            this.request = request;
+            search.begin(request.grid, request.start, request.goal);
+        }
+
+        /**
+         * @return 当前正在搜索的请求，没有时返回 null
+         */
+        public Request getRequest() {
+            return request;
+        }
+
+        /**
+         * 最多再搜索 maxExpanded 个格子，搜完后 isDone 为 true
+         *
+         * @return 这次搜索的格子数
+         */
+        public int step(int maxExpanded) {
+            int steps = search.step(maxExpanded);
+            if (search.isDone()) {
+                service.expanded.add(search.getExpanded());
+                service.callerPaths.increment();
+            }
+            return steps;
+        }
+
+        public boolean isDone() {
+            return search.isDone();
+        }
+
+        /**
+         * isDone 之后取路径，同时结束这次搜索
+         */
+        public int[] finish() {
+            request = null;
+            return search.getPath();
+        }
+
+        /**
+         * 放弃正在搜索的请求
+         */
+        public void abandon() {
+            request = null;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.zerox.common.particle;
+
+import javafx.animation.Interpolator;
+
+/**
+ * @Author: ZeromaXHe
+ * @Time: 2026/10/19 10:05
+ * @Description: 粒子生命周期内的变化曲线（缩放、透明度），创建时按 Interpolator 采样成查表数组，
+ * 每帧每个粒子取值只是一次查表加线性插值，不再调用 Interpolator.interpolate
+ * @ModifiedBy: ZeromaXHe
+ */
+public final class ParticleCurve {
+    private static final int SAMPLES = 64;
+
+    private final float[] table = new float[SAMPLES + 1];
+
+    private ParticleCurve(double from, double to, Interpolator interpolator) {
+        for (int i = 0; i <= SAMPLES; i++) {
+            table[i] = (float) interpolator.interpolate(from, to, (double) i / SAMPLES);
+        }
+    }
+
+    public static ParticleCurve of(double from, double to, Interpolator interpolator) {
+        return new ParticleCurve(from, to, interpolator);
+    }
+
+    public static ParticleCurve linear(double from, double to) {
+        return of(from, to, Interpolator.LINEAR);
+    }
+
+    public static ParticleCurve constant(double value) {
+        return of(value, value, Interpolator.LINEAR);
+    }
+
+    /**
+     * @param t 生命周期进度，0 到 1
+     */
+    public float at(float t) {
+        if (t <= 0) {
+            return table[0];
+        }
+        float p = t * SAMPLES;
+        int i = (int) p;
+        if (i >= SAMPLES) {
+            return table[SAMPLES];
+        }
+        return table[i] + (table[i + 1] - table[i]) * (p - i);
+    }
+}
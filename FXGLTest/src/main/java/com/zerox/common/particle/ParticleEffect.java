@@ -0,0 +1,142 @@
+package com.zerox.common.particle;
+
+import javafx.scene.effect.BlendMode;
+import javafx.scene.paint.Color;
+
+/**
+ * @Author: ZeromaXHe
+ * @Time: 2026/10/19 10:10
+ * @Description: 一种粒子效果的配置，不可变：每次 emit 喷出的粒子数、寿命和初速度的随机范围、阻尼、
+ * 半径以及随生命周期变化的缩放和透明度曲线、颜色和混合模式。在 ParticleSystem 中 register 后按 id 发射
+ * @ModifiedBy: ZeromaXHe
+ */
+public final class ParticleEffect {
+    final int burst;
+    final float minLife;
+    final float maxLife;
+    final float minSpeed;
+    final float maxSpeed;
+    final float drag;
+    final float radius;
+    final ParticleCurve scale;
+    final ParticleCurve alpha;
+    final Color color;
+    final BlendMode blendMode;
+
+    private ParticleEffect(Builder builder) {
+        this.burst = builder.burst;
+        this.minLife = builder.minLife;
+        this.maxLife = builder.maxLife;
+        this.minSpeed = builder.minSpeed;
+        this.maxSpeed = builder.maxSpeed;
+        this.drag = builder.drag;
+        this.radius = builder.radius;
+        this.scale = builder.scale;
+        this.alpha = builder.alpha;
+        this.color = builder.color;
+        this.blendMode = builder.blendMode;
+    }
+
+    /**
+     * @param count 每次 emit 喷出的粒子数
+     */
+    public static Builder burst(int count) {
+        return new Builder(count);
+    }
+
+    public int getBurst() {
+        return burst;
+    }
+
+    public float getMaxLife() {
+        return maxLife;
+    }
+
+    @Override
+    public String toString() {
+        return "ParticleEffect{burst=" + burst + ", life=" + minLife + "~" + maxLife + "s, speed=" + minSpeed + "~" + maxSpeed
+                + ", radius=" + radius + ", color=" + color + ", blend=" + blendMode + '}';
+    }
+
+    public static final class Builder {
+        private final int burst;
+        private float minLife = 1;
+        private float maxLife = 1;
+        private float minSpeed;
+        private float maxSpeed;
+        private float drag;
+        private float radius = 1;
+        private ParticleCurve scale = ParticleCurve.constant(1);
+        private ParticleCurve alpha = ParticleCurve.constant(1);
+        private Color color = Color.WHITE;
+        private BlendMode blendMode = BlendMode.SRC_OVER;
+
+        private Builder(int burst) {
+            if (burst <= 0) {
+                throw new IllegalArgumentException("burst must be positive: " + burst);
+            }
+            this.burst = burst;
+        }
+
+        /**
+         * 寿命在 min 到 max 秒之间均匀随机
+         */
+        public Builder life(double min, double max) {
+            if (min <= 0 || max < min) {
+                throw new IllegalArgumentException("life: " + min + "~" + max);
+            }
+            this.minLife = (float) min;
+            this.maxLife = (float) max;
+            return this;
+        }
+
+        /**
+         * 初速度大小在 min 到 max 像素/秒之间均匀随机，方向随机；都是 0 时粒子停在发射点
+         */
+        public Builder speed(double min, double max) {
+            this.minSpeed = (float) min;
+            this.maxSpeed = (float) max;
+            return this;
+        }
+
+        /**
+         * 速度每秒衰减为原来的 e^-drag
+         */
+        public Builder drag(double drag) {
+            this.drag = (float) drag;
+            return this;
+        }
+
+        public Builder radius(double radius) {
+            this.radius = (float) radius;
+            return this;
+        }
+
+        public Builder scale(ParticleCurve scale) {
+            this.scale = scale;
+            return this;
+        }
+
+        public Builder alpha(ParticleCurve alpha) {
+            this.alpha = alpha;
+            return this;
+        }
+
+        public Builder color(Color color) {
+            this.color = color;
+            return this;
+        }
+
+        /**
+         * 叠加混合，重叠的火花会越叠越亮
+         */
+        public Builder additive() {
+            this.blendMode = BlendMode.ADD;
+            return this;
+        }
+
+        public ParticleEffect build() {
+            return new ParticleEffect(this);
+        }
+    }
+}
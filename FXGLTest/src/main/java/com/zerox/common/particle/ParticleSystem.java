@@ -0,0 +1,242 @@
+package com.zerox.common.particle;
+
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.effect.BlendMode;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * @Author: ZeromaXHe
+ * @Time: 2026/10/19 10:20
+ * @Description: 基于数组的粒子系统。粒子不是实体也不是 Node，状态按效果分组放在 float 数组里（位置、速度、年龄、寿命），
+ * 每帧在 onUpdate 中调用一次 update：先积分、把死掉的粒子和末尾交换删除，再把所有粒子画到同一块 Canvas 上。
+ * 场景图里只多一个节点，不管有多少粒子，JavaFX 每帧只需要同步、渲染这一个 Canvas，绘制命令由 Prism 在渲染线程上用 GPU 光栅化。
+ * 粒子总数超过 capacity 时新粒子直接丢弃并计数，不扩容
+ * @ModifiedBy: ZeromaXHe
+ */
+public class ParticleSystem {
+    /**
+     * 透明度低于 1/255 的粒子画出来也看不见
+     */
+    private static final float MIN_ALPHA = 1f / 255;
+
+    private final Canvas canvas;
+    private final GraphicsContext g;
+    private final int capacity;
+    private final SplittableRandom random = new SplittableRandom();
+
+    private Pool[] pools = new Pool[4];
+    private int poolCount;
+    private int count;
+
+    private int peak;
+    private long emitted;
+    private long dropped;
+    private long lastUpdateNanos;
+    private long maxUpdateNanos;
+
+    /**
+     * @param capacity 同时存在的粒子上限
+     */
+    public ParticleSystem(double width, double height, int capacity) {
+        this.canvas = new Canvas(width, height);
+        this.g = canvas.getGraphicsContext2D();
+        this.capacity = capacity;
+        // 粒子层只用来显示，不拦截鼠标事件
+        canvas.setMouseTransparent(true);
+    }
+
+    /**
+     * 加到游戏场景里显示的节点
+     */
+    public Canvas getCanvas() {
+        return canvas;
+    }
+
+    /**
+     * 同一个效果的粒子放在一起，绘制时按注册顺序一组一组画，后注册的画在上面
+     *
+     * @return 效果 id，emit 时使用
+     */
+    public int register(ParticleEffect effect) {
+        if (poolCount == pools.length) {
+            pools = Arrays.copyOf(pools, poolCount * 2);
+        }
+        pools[poolCount] = new Pool(effect);
+        return poolCount++;
+    }
+
+    /**
+     * 在 (x, y) 喷出 effect 配置的 burst 个粒子
+     */
+    public void emit(int effect, double x, double y) {
+        Pool pool = pools[effect];
+        ParticleEffect config = pool.effect;
+        int n = Math.min(config.burst, capacity - count);
+        dropped += config.burst - n;
+        if (n <= 0) {
+            return;
+        }
+        pool.ensureCapacity(pool.count + n);
+        float px = (float) x;
+        float py = (float) y;
+        for (int k = 0; k < n; k++) {
+            int i = pool.count++;
+            pool.x[i] = px;
+            pool.y[i] = py;
+            float speed = config.minSpeed + (config.maxSpeed - config.minSpeed) * (float) random.nextDouble();
+            if (speed != 0) {
+                double angle = random.nextDouble() * Math.PI * 2;
+                pool.vx[i] = (float) Math.cos(angle) * speed;
+                pool.vy[i] = (float) Math.sin(angle) * speed;
+            } else {
+                pool.vx[i] = 0;
+                pool.vy[i] = 0;
+            }
+            pool.age[i] = 0;
+            pool.life[i] = config.minLife + (config.maxLife - config.minLife) * (float) random.nextDouble();
+        }
+        count += n;
+        emitted += n;
+        peak = Math.max(peak, count);
+    }
+
+    /**
+     * 每帧调用一次：推进所有粒子并重画 Canvas
+     */
+    public void update(double tpf) {
+        long start = System.nanoTime();
+        float dt = (float) tpf;
+        count = 0;
+        for (int p = 0; p < poolCount; p++) {
+            count += pools[p].simulate(dt);
+        }
+        draw();
+        lastUpdateNanos = System.nanoTime() - start;
+        maxUpdateNanos = Math.max(maxUpdateNanos, lastUpdateNanos);
+    }
+
+    private void draw() {
+        double width = canvas.getWidth();
+        double height = canvas.getHeight();
+        // 清空整块 Canvas 时 GraphicsContext 会丢掉还没渲染的旧命令，命令缓冲不会越积越多
+        g.clearRect(0, 0, width, height);
+        for (int p = 0; p < poolCount; p++) {
+            Pool pool = pools[p];
+            if (pool.count == 0) {
+                continue;
+            }
+            ParticleEffect config = pool.effect;
+            g.setFill(config.color);
+            g.setGlobalBlendMode(config.blendMode);
+            float[] x = pool.x;
+            float[] y = pool.y;
+            for (int i = 0, n = pool.count; i < n; i++) {
+                float t = pool.age[i] / pool.life[i];
+                float alpha = config.alpha.at(t);
+                if (alpha < MIN_ALPHA) {
+                    continue;
+                }
+                float r = config.radius * config.scale.at(t);
+                if (x[i] + r < 0 || y[i] + r < 0 || x[i] - r > width || y[i] - r > height) {
+                    continue;
+                }
+                g.setGlobalAlpha(Math.min(alpha, 1));
+                g.fillOval(x[i] - r, y[i] - r, r * 2, r * 2);
+            }
+        }
+        g.setGlobalAlpha(1);
+        g.setGlobalBlendMode(BlendMode.SRC_OVER);
+    }
+
+    /**
+     * 清掉所有粒子，下一次 update 时画面也会清空
+     */
+    public void clear() {
+        for (int p = 0; p < poolCount; p++) {
+            pools[p].count = 0;
+        }
+        count = 0;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public long getEmitted() {
+        return emitted;
+    }
+
+    public long getDropped() {
+        return dropped;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("particles=%d/%d peak=%d emitted=%d dropped=%d update=%.3fms max=%.3fms",
+                count, capacity, peak, emitted, dropped, lastUpdateNanos / 1e6, maxUpdateNanos / 1e6);
+    }
+
+    /**
+     * 一种效果的所有粒子，数组按需翻倍扩容，只增不减
+     */
+    private static class Pool {
+        final ParticleEffect effect;
+        int count;
+        float[] x = new float[64];
+        float[] y = new float[64];
+        float[] vx = new float[64];
+        float[] vy = new float[64];
+        float[] age = new float[64];
+        float[] life = new float[64];
+
+        Pool(ParticleEffect effect) {
+            this.effect = effect;
+        }
+
+        void ensureCapacity(int size) {
+            if (size <= x.length) {
+                return;
+            }
+            int length = Math.max(size, x.length * 2);
+            x = Arrays.copyOf(x, length);
+            y = Arrays.copyOf(y, length);
+            vx = Arrays.copyOf(vx, length);
+            vy = Arrays.copyOf(vy, length);
+            age = Arrays.copyOf(age, length);
+            life = Arrays.copyOf(life, length);
+        }
+
+        /**
+         * @return 推进后还活着的粒子数
+         */
+        int simulate(float dt) {
+            // 阻尼每帧只算一次 exp
+            float damping = effect.drag == 0 ? 1 : (float) Math.exp(-effect.drag * dt);
+            int i = 0;
+            while (i < count) {
+                float a = age[i] + dt;
+                if (a >= life[i]) {
+                    // 和末尾交换删除，粒子之间的绘制顺序无所谓
+                    int last = --count;
+                    x[i] = x[last];
+                    y[i] = y[last];
+                    vx[i] = vx[last];
+                    vy[i] = vy[last];
+                    age[i] = age[last];
+                    life[i] = life[last];
+                    continue;
+                }
+                age[i] = a;
+                vx[i] *= damping;
+                vy[i] *= damping;
+                x[i] += vx[i] * dt;
+                y[i] += vy[i] * dt;
+                i++;
+            }
+            return count;
+        }
+    }
+}
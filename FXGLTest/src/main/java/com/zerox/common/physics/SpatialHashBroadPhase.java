@@ -0,0 +1,224 @@
+package com.zerox.common.physics;
+
+import java.util.Arrays;
+
+/**
+ * @Author: ZeromaXHe
+ * @Time: 2026/10/18 11:05
+ * @Description: 均匀网格（空间哈希）粗检测。先用 insert 放入一类物体的 AABB（比如敌人），build 建网格，
+ * 再用另一类物体（比如子弹）的 AABB 查询相交的物体。不依赖 Entity，物体用调用方自己的下标表示，
+ * 坐标没有范围限制，格子坐标经过哈希放进开放寻址表。
+ * 查询结果按下标从小到大排列，和按下标顺序逐个检查所有物体得到的第一个相交物体一致，所以换成网格检测不会改变游戏结果
+ * @ModifiedBy: ZeromaXHe
+ */
+public class SpatialHashBroadPhase {
+    private static final int EMPTY = -1;
+
+    private final double cellSize;
+
+    // 插入的物体：调用方的下标和 AABB
+    private int[] ids = new int[64];
+    private double[] minX = new double[64];
+    private double[] minY = new double[64];
+    private double[] maxX = new double[64];
+    private double[] maxY = new double[64];
+    /**
+     * 物体上一次被第几次查询检查过，避免跨多个格子时重复检查
+     */
+    private int[] testedBy = new int[64];
+    private int count;
+    /**
+     * 所有物体覆盖的格子数之和，也就是链表节点数，用来预先确定哈希表大小
+     */
+    private int coveredCells;
+
+    // 开放寻址哈希表：格子坐标 -> 链表头
+    private long[] cellKeys = new long[256];
+    private int[] cellHeads = new int[256];
+    private int cellMask = 255;
+    private int cellCount;
+
+    // 链表节点：每个物体覆盖的每个格子对应一个节点
+    private int[] nodeSlot = new int[256];
+    private int[] nodeNext = new int[256];
+
+    private int query;
+    private int[] hits = new int[16];
+    private int hitCount;
+
+    // 统计
+    private long builds;
+    private long queries;
+    private long pairTests;
+
+    /**
+     * @param cellSize 格子边长，一般取略大于插入物体的 AABB
+     */
+    public SpatialHashBroadPhase(double cellSize) {
+        this.cellSize = cellSize;
+    }
+
+    /**
+     * 清空插入的物体，之后重新 insert、build
+     */
+    public void clear() {
+        count = 0;
+        coveredCells = 0;
+    }
+
+    public void insert(int id, double minX, double minY, double maxX, double maxY) {
+        if (count == ids.length) {
+            grow(count * 2);
+        }
+        ids[count] = id;
+        this.minX[count] = minX;
+        this.minY[count] = minY;
+        this.maxX[count] = maxX;
+        this.maxY[count] = maxY;
+        coveredCells += (cell(maxX) - cell(minX) + 1) * (cell(maxY) - cell(minY) + 1);
+        count++;
+    }
+
+    /**
+     * 按插入的物体建网格，insert 完成后、query 之前调用
+     */
+    public void build() {
+        ensureTableCapacity(coveredCells);
+        if (nodeSlot.length < coveredCells) {
+            nodeSlot = new int[coveredCells];
+            nodeNext = new int[coveredCells];
+        }
+        Arrays.fill(cellHeads, EMPTY);
+        cellCount = 0;
+        int nodeCount = 0;
+        for (int i = 0; i < count; i++) {
+            testedBy[i] = EMPTY;
+            int x0 = cell(minX[i]);
+            int x1 = cell(maxX[i]);
+            int y0 = cell(minY[i]);
+            int y1 = cell(maxY[i]);
+            for (int cx = x0; cx <= x1; cx++) {
+                for (int cy = y0; cy <= y1; cy++) {
+                    int slot = findSlot(key(cx, cy), true);
+                    nodeSlot[nodeCount] = i;
+                    nodeNext[nodeCount] = cellHeads[slot];
+                    cellHeads[slot] = nodeCount;
+                    nodeCount++;
+                }
+            }
+        }
+        query = 0;
+        builds++;
+    }
+
+    /**
+     * 找出和 AABB 相交的物体，边界刚好接触不算相交
+     *
+     * @return 相交的物体数，用 getHit 按下标从小到大取
+     */
+    public int query(double aMinX, double aMinY, double aMaxX, double aMaxY) {
+        hitCount = 0;
+        int q = query++;
+        queries++;
+        int x0 = cell(aMinX);
+        int x1 = cell(aMaxX);
+        int y0 = cell(aMinY);
+        int y1 = cell(aMaxY);
+        for (int cx = x0; cx <= x1; cx++) {
+            for (int cy = y0; cy <= y1; cy++) {
+                int slot = findSlot(key(cx, cy), false);
+                if (slot == EMPTY) {
+                    continue;
+                }
+                for (int node = cellHeads[slot]; node != EMPTY; node = nodeNext[node]) {
+                    int b = nodeSlot[node];
+                    if (testedBy[b] == q) {
+                        continue;
+                    }
+                    testedBy[b] = q;
+                    pairTests++;
+                    if (aMaxX <= minX[b] || maxX[b] <= aMinX || aMaxY <= minY[b] || maxY[b] <= aMinY) {
+                        continue;
+                    }
+                    if (hitCount == hits.length) {
+                        hits = Arrays.copyOf(hits, hitCount * 2);
+                    }
+                    hits[hitCount++] = ids[b];
+                }
+            }
+        }
+        if (hitCount > 1) {
+            Arrays.sort(hits, 0, hitCount);
+        }
+        return hitCount;
+    }
+
+    public int getHit(int i) {
+        return hits[i];
+    }
+
+    private int cell(double coordinate) {
+        return (int) Math.floor(coordinate / cellSize);
+    }
+
+    private static long key(int cx, int cy) {
+        return ((long) cx << 32) | (cy & 0xFFFFFFFFL);
+    }
+
+    private int findSlot(long key, boolean insert) {
+        int slot = (int) (mix(key) & cellMask);
+        while (cellHeads[slot] != EMPTY) {
+            if (cellKeys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & cellMask;
+        }
+        if (!insert) {
+            return EMPTY;
+        }
+        cellKeys[slot] = key;
+        cellCount++;
+        return slot;
+    }
+
+    private static long mix(long key) {
+        key *= 0x9E3779B97F4A7C15L;
+        return key ^ (key >>> 32);
+    }
+
+    private void ensureTableCapacity(int expectedCells) {
+        // 装载因子不超过 0.5
+        int capacity = cellHeads.length;
+        while (capacity < expectedCells * 2) {
+            capacity <<= 1;
+        }
+        if (capacity != cellHeads.length) {
+            cellKeys = new long[capacity];
+            cellHeads = new int[capacity];
+            cellMask = capacity - 1;
+        }
+    }
+
+    private void grow(int capacity) {
+        ids = Arrays.copyOf(ids, capacity);
+        minX = Arrays.copyOf(minX, capacity);
+        minY = Arrays.copyOf(minY, capacity);
+        maxX = Arrays.copyOf(maxX, capacity);
+        maxY = Arrays.copyOf(maxY, capacity);
+        testedBy = Arrays.copyOf(testedBy, capacity);
+    }
+
+    /**
+     * 清空统计数据，一般在打印之后调用
+     */
+    public void resetStats() {
+        builds = 0;
+        queries = 0;
+        pairTests = 0;
+    }
+
+    @Override
+    public String toString() {
+        return "builds=" + builds + ", queries=" + queries + ", cells=" + cellCount + ", pairTests=" + pairTests;
+    }
+}
@@ -0,0 +1,137 @@
+package com.zerox.common.pool;
+
+import com.almasb.fxgl.core.pool.Poolable;
+import com.almasb.fxgl.dsl.FXGL;
+import com.almasb.fxgl.entity.Entity;
+import com.almasb.fxgl.entity.component.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * @Author: ZeromaXHe
+ * @Time: 2026/10/18 10:12
+ * @Description: 实体对象池。池中实体设置为 reusable，从游戏世界移除时不会被 clean 掉组件，而是回到池中等待复用
+ * @ModifiedBy: ZeromaXHe
+ */
+public class EntityPool {
+    private final Supplier<Entity> creator;
+    private final int max;
+
+    private final ArrayDeque<Entity> freeEntities = new ArrayDeque<>();
+    /**
+     * 刚被移除的实体还在 GameWorld 的 updateList 里，要等下一次 GameWorld.onUpdate 把它 clean 掉（world 置空）后才能复用，
+     * 否则同一帧内重新加入世界会被 updateList 收录两次
+     */
+    private final List<Entity> pendingEntities = new ArrayList<>();
+
+    private int hits;
+    private int misses;
+    private int live;
+
+    public EntityPool(Supplier<Entity> creator) {
+        this(creator, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param creator 池中没有可复用实体时用来新建实体，一般是 EntityFactory 中的 @Spawns 方法
+     * @param max     池中最多保留的空闲实体数量，超出的实体直接丢弃
+     */
+    public EntityPool(Supplier<Entity> creator, int max) {
+        this.creator = creator;
+        this.max = max;
+    }
+
+    /**
+     * 从池中取出实体（不会加入游戏世界）
+     */
+    public Entity obtain() {
+        drainPending();
+        Entity entity = freeEntities.pollLast();
+        if (entity != null) {
+            hits++;
+            return entity;
+        }
+        misses++;
+        Entity created = creator.get();
+        created.setReusable(true);
+        created.setOnActive(() -> live++);
+        // 不论是屏幕外移除、超时移除还是被击中移除，最终都会走到 onNotActive
+        created.setOnNotActive(() -> {
+            live--;
+            pendingEntities.add(created);
+        });
+        return created;
+    }
+
+    /**
+     * 从池中取出实体，放到指定位置并加入游戏世界
+     */
+    public Entity spawn(double x, double y) {
+        Entity entity = obtain();
+        entity.setPosition(x, y);
+        FXGL.getGameWorld().addEntity(entity);
+        return entity;
+    }
+
+    private void drainPending() {
+        for (int i = pendingEntities.size() - 1; i >= 0; i--) {
+            Entity entity = pendingEntities.get(i);
+            if (entity.getWorld() != null) {
+                continue;
+            }
+            // 交换删除，不需要保持顺序
+            int last = pendingEntities.size() - 1;
+            pendingEntities.set(i, pendingEntities.get(last));
+            pendingEntities.remove(last);
+
+            if (freeEntities.size() < max) {
+                reset(entity);
+                freeEntities.addLast(entity);
+            }
+        }
+    }
+
+    private void reset(Entity entity) {
+        for (Component component : entity.getComponents()) {
+            if (component instanceof Poolable poolable) {
+                poolable.reset();
+            }
+        }
+    }
+
+    /**
+     * 复用池中实体的次数
+     */
+    public int getHits() {
+        return hits;
+    }
+
+    /**
+     * 池中无可用实体而新建的次数
+     */
+    public int getMisses() {
+        return misses;
+    }
+
+    /**
+     * 当前在游戏世界中活跃的池化实体数量
+     */
+    public int getLive() {
+        return live;
+    }
+
+    /**
+     * 当前空闲（含等待清理）的实体数量
+     */
+    public int getFree() {
+        return freeEntities.size() + pendingEntities.size();
+    }
+
+    @Override
+    public String toString() {
+        return "hits=" + hits + ", misses=" + misses + ", live=" + live + ", free=" + getFree();
+    }
+}
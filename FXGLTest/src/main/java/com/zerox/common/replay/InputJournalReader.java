@@ -0,0 +1,117 @@
+package com.zerox.common.replay;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * @Author: ZeromaXHe
+ * @Time: 2026/10/18 20:20
+ * @Description: 读取 InputJournalWriter 写的输入录像，next 按 tick 顺序返回输入。
+ * 文件末尾被截断（比如游戏崩溃）时，读到最后一个完整的游程为止
+ * @ModifiedBy: ZeromaXHe
+ */
+public class InputJournalReader implements Closeable {
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+
+    private final int ticksPerSecond;
+    private final long seed;
+    private final int config;
+
+    private int runInput;
+    private int runRemaining;
+    private boolean eof;
+
+    public InputJournalReader(Path path) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.READ);
+        buffer.limit(0);
+        if (!ensure(InputJournalWriter.HEADER_BYTES)) {
+            channel.close();
+            throw new EOFException("录像文件头不完整: " + path);
+        }
+        int magic = buffer.getInt();
+        short version = buffer.getShort();
+        if (magic != InputJournalWriter.MAGIC || version != InputJournalWriter.VERSION) {
+            channel.close();
+            throw new IOException("不支持的录像文件: " + path + " magic=" + Integer.toHexString(magic) + " version=" + version);
+        }
+        ticksPerSecond = buffer.getShort();
+        seed = buffer.getLong();
+        config = buffer.getInt();
+    }
+
+    /**
+     * @return 下一个 tick 的输入，录像结束时返回 -1
+     */
+    public int next() throws IOException {
+        while (runRemaining == 0) {
+            if (!readRun()) {
+                return -1;
+            }
+        }
+        runRemaining--;
+        return runInput;
+    }
+
+    private boolean readRun() throws IOException {
+        if (eof || !ensure(2)) {
+            return false;
+        }
+        int input = buffer.get() & 0xFF;
+        int length = 0;
+        for (int shift = 0; ; shift += 7) {
+            if (!buffer.hasRemaining() && !ensure(1)) {
+                // 游程被截断，丢掉这个不完整的游程
+                eof = true;
+                return false;
+            }
+            byte b = buffer.get();
+            length |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                break;
+            }
+        }
+        runInput = input;
+        runRemaining = length;
+        return true;
+    }
+
+    /**
+     * 保证缓冲区里至少有 n 个字节未读
+     */
+    private boolean ensure(int n) throws IOException {
+        if (buffer.remaining() >= n) {
+            return true;
+        }
+        buffer.compact();
+        while (buffer.position() < n) {
+            if (channel.read(buffer) < 0) {
+                break;
+            }
+        }
+        buffer.flip();
+        return buffer.remaining() >= n;
+    }
+
+    public int getTicksPerSecond() {
+        return ticksPerSecond;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getConfig() {
+        return config;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,143 @@
+package com.zerox.common.replay;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * @Author: ZeromaXHe
+ * @Time: 2026/10/18 20:10
+ * @Description: 输入录像的写入。文件格式（大端）：
+ * 文件头 magic(int) version(short) ticksPerSecond(short) seed(long) config(int)，
+ * 之后是按 tick 顺序的游程编码：输入(1 字节) + 连续 tick 数(varint)。
+ * 一局游戏大部分时间输入不变，游程编码后每秒只有几个字节。
+ * 写入都在预先分配的直接缓冲区里完成，缓冲区满了才写一次 FileChannel，record 不分配内存。
+ * 平时只有游戏线程调用；进程被信号结束时 JVM 关闭钩子会在别的线程 close，
+ * 所以 record、flush、close 都加锁（不争用时只是一次 CAS），close 之后的 record 直接忽略
+ * @ModifiedBy: ZeromaXHe
+ */
+public class InputJournalWriter implements Closeable {
+    static final int MAGIC = 0x494E504A;
+    /**
+     * 录像只记输入，游戏规则变了（比如 TankWorld 加了墙和寻路）旧录像就回放不出原来的结果，也要加一
+     */
+    static final short VERSION = 3;
+    static final int HEADER_BYTES = 4 + 2 + 2 + 8 + 4;
+
+    /**
+     * 一个游程最多 1 + 5 字节
+     */
+    private static final int MAX_RUN_BYTES = 6;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+
+    private int runInput = -1;
+    private int runLength;
+    private long ticks;
+    private boolean closed;
+
+    /**
+     * @param seed   游戏随机数种子
+     * @param config 游戏自定义的配置，比如 TankApp 压力测试的敌人数量
+     */
+    public InputJournalWriter(Path path, int ticksPerSecond, long seed, int config) throws IOException {
+        this(path, ticksPerSecond, seed, config, 64 * 1024);
+    }
+
+    public InputJournalWriter(Path path, int ticksPerSecond, long seed, int config, int bufferSize) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        buffer = ByteBuffer.allocateDirect(Math.max(bufferSize, HEADER_BYTES));
+        buffer.putInt(MAGIC)
+                .putShort(VERSION)
+                .putShort((short) ticksPerSecond)
+                .putLong(seed)
+                .putInt(config);
+    }
+
+    /**
+     * 记录一个 tick 的输入
+     *
+     * @param input 0 到 255
+     */
+    public synchronized void record(int input) {
+        if (closed) {
+            return;
+        }
+        ticks++;
+        if (input == runInput) {
+            runLength++;
+            return;
+        }
+        writeRun();
+        runInput = input & 0xFF;
+        runLength = 1;
+    }
+
+    private void writeRun() {
+        if (runLength == 0) {
+            return;
+        }
+        if (buffer.remaining() < MAX_RUN_BYTES) {
+            drain();
+        }
+        buffer.put((byte) runInput);
+        int n = runLength;
+        while ((n & ~0x7F) != 0) {
+            buffer.put((byte) ((n & 0x7F) | 0x80));
+            n >>>= 7;
+        }
+        buffer.put((byte) n);
+        runLength = 0;
+    }
+
+    private void drain() {
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * 把当前游程和缓冲区写到文件，之后同样的输入会开始新的游程
+     */
+    public synchronized void flush() {
+        if (closed) {
+            return;
+        }
+        writeRun();
+        runInput = -1;
+        drain();
+    }
+
+    public synchronized boolean isClosed() {
+        return closed;
+    }
+
+    public synchronized long getTicks() {
+        return ticks;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        try {
+            flush();
+        } finally {
+            closed = true;
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,686 @@
+package com.zerox.common.save;
+
+import com.almasb.fxgl.core.collection.PropertyMap;
+import com.almasb.fxgl.entity.Entity;
+import com.almasb.fxgl.physics.BoundingShape;
+import com.almasb.fxgl.physics.Box3DShapeData;
+import com.almasb.fxgl.physics.BoxShapeData;
+import com.almasb.fxgl.physics.ChainShapeData;
+import com.almasb.fxgl.physics.CircleShapeData;
+import com.almasb.fxgl.physics.HitBox;
+import com.almasb.fxgl.physics.PolygonShapeData;
+import javafx.geometry.Point2D;
+import javafx.scene.paint.Color;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * @Author: ZeromaXHe
+ * @Time: 2026/10/19 01:40
+ * @Description: 实体的二进制编码，WorldSaver 的文件里每条 ENTITY 记录的内容：
+ * 类型、变换（x y 总是写，z、角度、缩放不是默认值才写）、碰撞盒、PropertyMap。
+ * 类型名、属性名、碰撞盒名字这类反复出现的字符串进字符串表：第一次出现时原地写定义，之后只写编号，
+ * 所以记录必须按写入顺序解码；字符串表每一批记录重新开始（reset），一批内的记录互相依赖，批与批之间没有关系。属性值按类型写标记字节，int/double/boolean/String/long/float/enum/Color 都有紧凑的编码，
+ * 其他 Serializable 的值退回 Java 序列化（慢，toString 里有计数），不能序列化或者序列化失败的属性不保存。
+ * 一个实例同时只能在一个线程里用
+ * @ModifiedBy: ZeromaXHe
+ */
+class EntityCodec {
+    private static final byte NULL = 0;
+    private static final byte INT = 1;
+    private static final byte DOUBLE = 2;
+    private static final byte FALSE = 3;
+    private static final byte TRUE = 4;
+    private static final byte STRING = 5;
+    private static final byte LONG = 6;
+    private static final byte FLOAT = 7;
+    private static final byte ENUM = 8;
+    /**
+     * 分量都是 n / 255 的颜色（Color.RED、Color.web 出来的都是）四个字节就够，其他的写四个 double
+     */
+    private static final byte COLOR_RGBA8 = 9;
+    private static final byte COLOR = 10;
+    private static final byte SERIALIZED = 11;
+
+    private static final byte HAS_Z = 1;
+    private static final byte HAS_ANGLE = 2;
+    private static final byte HAS_SCALE = 4;
+
+    private static final byte BOX = 0;
+    private static final byte CIRCLE = 1;
+    private static final byte POLYGON = 2;
+    private static final byte CHAIN = 3;
+    private static final byte BOX_3D = 4;
+
+    /**
+     * 没有设置类型的实体，getType() 是 TypeComponent 内部的一个占位对象，保存成 null
+     */
+    private static final Class<?> DEFAULT_TYPE_CLASS = new Entity().getType().getClass();
+
+    private final Map<String, Integer> stringIds = new HashMap<>();
+    private final List<String> strings = new ArrayList<>();
+    private final Map<String, Class<?>> enumClasses = new HashMap<>();
+    private final Map<Integer, Color> colors = new HashMap<>();
+    private double[] hitBoxScratch = new double[16];
+    /**
+     * 只打印一次警告
+     */
+    private final Set<String> unsupportedKeys = new HashSet<>();
+
+    // prepare 挑出来的属性，propertyBytes 不是 null 的是已经序列化好的值
+    private String[] propertyKeys = new String[16];
+    private Object[] propertyValues = new Object[16];
+    private byte[][] propertyBytes = new byte[16][];
+    private int propertyCount;
+
+    private long serializedValues;
+    private long skippedValues;
+
+    /**
+     * 开始新的一批记录，字符串表清空
+     */
+    void reset() {
+        stringIds.clear();
+        strings.clear();
+    }
+
+    /**
+     * 编码失败（缓冲区不够）时用 rollback 撤销这条记录里新加的字符串定义
+     */
+    int mark() {
+        return strings.size();
+    }
+
+    void rollback(int mark) {
+        for (int i = strings.size() - 1; i >= mark; i--) {
+            stringIds.remove(strings.remove(i));
+        }
+    }
+
+    // ---------------- 编码 ----------------
+
+    /**
+     * 属性用的是上一次 prepare(entity) 的结果
+     *
+     * @throws java.nio.BufferOverflowException out 放不下，调用方 rollback 后换大缓冲区重试
+     */
+    void writeEntity(ByteBuffer out, Entity entity) {
+        Serializable type = entity.getType();
+        writeValue(out, type != null && type.getClass() == DEFAULT_TYPE_CLASS ? null : type);
+        // 通过属性读取，失效监听器才会重新生效
+        writeTransform(out, entity.xProperty().get(), entity.yProperty().get(), entity.zProperty().get(),
+                entity.angleProperty().get(), entity.scaleXProperty().get(), entity.scaleYProperty().get());
+
+        List<HitBox> hitBoxes = entity.getBoundingBoxComponent().hitBoxesProperty();
+        writeVarInt(out, hitBoxes.size());
+        for (HitBox hitBox : hitBoxes) {
+            writeHitBox(out, hitBox);
+        }
+
+        writeVarInt(out, propertyCount);
+        for (int i = 0; i < propertyCount; i++) {
+            writeString(out, propertyKeys[i]);
+            if (propertyBytes[i] != null) {
+                writeSerialized(out, propertyBytes[i]);
+            } else {
+                writeValue(out, propertyValues[i]);
+            }
+        }
+    }
+
+    /**
+     * writeEntity 之前调用一次，挑出要保存的属性，需要 Java 序列化的值先序列化成字节，
+     * 序列化失败（比如装着 Entity 的 ArrayList）的属性和不能序列化的一样跳过，属性个数只算能保存的。
+     * 缓冲区不够重试 writeEntity 时不用再调用，序列化和计数都只做一次
+     */
+    void prepare(Entity entity) {
+        PropertyMap properties = entity.getProperties();
+        propertyCount = 0;
+        for (String key : properties.keys()) {
+            Object value = properties.getValue(key);
+            if (!canWrite(value)) {
+                skip(key, value);
+                continue;
+            }
+            byte[] bytes = null;
+            if (needsSerialization(value)) {
+                try {
+                    bytes = serialize(value);
+                } catch (IOException | RuntimeException e) {
+                    skip(key, value, e);
+                    continue;
+                }
+                serializedValues++;
+            }
+            if (propertyCount == propertyKeys.length) {
+                propertyKeys = Arrays.copyOf(propertyKeys, propertyCount * 2);
+                propertyValues = Arrays.copyOf(propertyValues, propertyCount * 2);
+                propertyBytes = Arrays.copyOf(propertyBytes, propertyCount * 2);
+            }
+            propertyKeys[propertyCount] = key;
+            propertyValues[propertyCount] = value;
+            propertyBytes[propertyCount] = bytes;
+            propertyCount++;
+        }
+    }
+
+    /**
+     * 放掉 prepare 留下的属性值引用，实体删除之后不会被编码器拖着
+     */
+    void release() {
+        Arrays.fill(propertyKeys, 0, propertyCount, null);
+        Arrays.fill(propertyValues, 0, propertyCount, null);
+        Arrays.fill(propertyBytes, 0, propertyCount, null);
+        propertyCount = 0;
+    }
+
+    /**
+     * 压缩日志时把读出来的实体重新编码，格式和 writeEntity 一样
+     */
+    void writeSaved(ByteBuffer out, SavedEntity saved) {
+        writeValue(out, saved.type);
+        writeTransform(out, saved.x, saved.y, saved.z, saved.angle, saved.scaleX, saved.scaleY);
+        writeVarInt(out, saved.hitBoxNames.length);
+        int at = 0;
+        for (String name : saved.hitBoxNames) {
+            writeString(out, name);
+            double[] data = saved.hitBoxData;
+            out.putDouble(data[at]);
+            out.putDouble(data[at + 1]);
+            byte kind = (byte) data[at + 2];
+            int count = (int) data[at + 3];
+            out.put(kind);
+            if (kind == POLYGON || kind == CHAIN) {
+                writeVarInt(out, count / 2);
+            }
+            for (int i = 0; i < count; i++) {
+                out.putDouble(data[at + 4 + i]);
+            }
+            at += 4 + count;
+        }
+        writeVarInt(out, saved.keys.length);
+        for (int i = 0; i < saved.keys.length; i++) {
+            writeString(out, saved.keys[i]);
+            writeValue(out, saved.values[i]);
+        }
+    }
+
+    private static void writeTransform(ByteBuffer out, double x, double y, double z,
+                                       double angle, double scaleX, double scaleY) {
+        int flags = (z != 0 ? HAS_Z : 0)
+                | (angle != 0 ? HAS_ANGLE : 0)
+                | (scaleX != 1 || scaleY != 1 ? HAS_SCALE : 0);
+        out.put((byte) flags);
+        out.putDouble(x);
+        out.putDouble(y);
+        if ((flags & HAS_Z) != 0) {
+            out.putDouble(z);
+        }
+        if ((flags & HAS_ANGLE) != 0) {
+            out.putDouble(angle);
+        }
+        if ((flags & HAS_SCALE) != 0) {
+            out.putDouble(scaleX);
+            out.putDouble(scaleY);
+        }
+    }
+
+    private void writeHitBox(ByteBuffer out, HitBox hitBox) {
+        writeString(out, hitBox.getName());
+        out.putDouble(hitBox.getMinX());
+        out.putDouble(hitBox.getMinY());
+        BoundingShape shape = hitBox.getShape();
+        if (shape instanceof BoxShapeData) {
+            out.put(BOX);
+            out.putDouble(((BoxShapeData) shape).getWidth());
+            out.putDouble(((BoxShapeData) shape).getHeight());
+        } else if (shape instanceof CircleShapeData) {
+            out.put(CIRCLE);
+            out.putDouble(((CircleShapeData) shape).getRadius());
+        } else if (shape instanceof PolygonShapeData) {
+            out.put(POLYGON);
+            writePoints(out, ((PolygonShapeData) shape).getPoints());
+        } else if (shape instanceof ChainShapeData) {
+            out.put(CHAIN);
+            writePoints(out, ((ChainShapeData) shape).getPoints());
+        } else if (shape instanceof Box3DShapeData) {
+            Box3DShapeData box = (Box3DShapeData) shape;
+            out.put(BOX_3D);
+            out.putDouble(box.getWidth());
+            out.putDouble(box.getHeight());
+            out.putDouble(box.getDepth());
+        } else {
+            throw new IllegalArgumentException("不支持的碰撞形状: " + shape);
+        }
+    }
+
+    private static void writePoints(ByteBuffer out, Point2D[] points) {
+        writeVarInt(out, points.length);
+        for (Point2D point : points) {
+            out.putDouble(point.getX());
+            out.putDouble(point.getY());
+        }
+    }
+
+    private static boolean canWrite(Object value) {
+        return value == null || value instanceof Serializable || value instanceof Color;
+    }
+
+    private static boolean needsSerialization(Object value) {
+        return value != null && !(value instanceof Integer || value instanceof Double || value instanceof Boolean
+                || value instanceof String || value instanceof Long || value instanceof Float
+                || value instanceof Enum || value instanceof Color);
+    }
+
+    private void skip(String key, Object value) {
+        skippedValues++;
+        if (unsupportedKeys.add(key)) {
+            System.out.println("[save] 属性 " + key + " 的值 " + value.getClass().getName() + " 不能序列化，不保存");
+        }
+    }
+
+    private void skip(String key, Object value, Exception e) {
+        skippedValues++;
+        if (unsupportedKeys.add(key)) {
+            System.out.println("[save] 属性 " + key + " 的值 " + value.getClass().getName() + " 序列化失败，不保存: " + e);
+        }
+    }
+
+    private void writeValue(ByteBuffer out, Object value) {
+        if (value == null) {
+            out.put(NULL);
+        } else if (value instanceof Integer) {
+            out.put(INT);
+            writeVarInt(out, zigzag((Integer) value));
+        } else if (value instanceof Double) {
+            out.put(DOUBLE);
+            out.putDouble((Double) value);
+        } else if (value instanceof Boolean) {
+            out.put((Boolean) value ? TRUE : FALSE);
+        } else if (value instanceof String) {
+            out.put(STRING);
+            writeUtf8(out, (String) value);
+        } else if (value instanceof Long) {
+            out.put(LONG);
+            out.putLong((Long) value);
+        } else if (value instanceof Float) {
+            out.put(FLOAT);
+            out.putFloat((Float) value);
+        } else if (value instanceof Enum) {
+            Enum<?> constant = (Enum<?>) value;
+            out.put(ENUM);
+            writeString(out, constant.getDeclaringClass().getName());
+            writeString(out, constant.name());
+        } else if (value instanceof Color) {
+            writeColor(out, (Color) value);
+        } else {
+            byte[] bytes;
+            try {
+                bytes = serialize(value);
+            } catch (IOException e) {
+                throw new UncheckedIOException("序列化失败: " + value.getClass().getName(), e);
+            }
+            writeSerialized(out, bytes);
+            serializedValues++;
+        }
+    }
+
+    private static void writeSerialized(ByteBuffer out, byte[] bytes) {
+        out.put(SERIALIZED);
+        writeVarInt(out, bytes.length);
+        out.put(bytes);
+    }
+
+    private static void writeColor(ByteBuffer out, Color color) {
+        int r = (int) Math.round(color.getRed() * 255);
+        int g = (int) Math.round(color.getGreen() * 255);
+        int b = (int) Math.round(color.getBlue() * 255);
+        int a = (int) Math.round(color.getOpacity() * 255);
+        if (r / 255.0 == color.getRed() && g / 255.0 == color.getGreen()
+                && b / 255.0 == color.getBlue() && a / 255.0 == color.getOpacity()) {
+            out.put(COLOR_RGBA8);
+            out.putInt(r << 24 | g << 16 | b << 8 | a);
+        } else {
+            out.put(COLOR);
+            out.putDouble(color.getRed());
+            out.putDouble(color.getGreen());
+            out.putDouble(color.getBlue());
+            out.putDouble(color.getOpacity());
+        }
+    }
+
+    private static byte[] serialize(Object value) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream stream = new ObjectOutputStream(bytes)) {
+            stream.writeObject(value);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * 字符串表：已知的写 编号 * 2，新的写 编号 * 2 + 1 后面跟内容
+     */
+    private void writeString(ByteBuffer out, String s) {
+        Integer id = stringIds.get(s);
+        if (id != null) {
+            writeVarInt(out, id << 1);
+            return;
+        }
+        id = strings.size();
+        strings.add(s);
+        stringIds.put(s, id);
+        writeVarInt(out, id << 1 | 1);
+        writeUtf8(out, s);
+    }
+
+    private static void writeUtf8(ByteBuffer out, String s) {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, bytes.length);
+        out.put(bytes);
+    }
+
+    // ---------------- 解码 ----------------
+
+    void readEntity(ByteBuffer in, SavedEntity out) {
+        out.type = (Serializable) readValue(in);
+        int flags = in.get();
+        out.x = in.getDouble();
+        out.y = in.getDouble();
+        out.z = (flags & HAS_Z) != 0 ? in.getDouble() : 0;
+        out.angle = (flags & HAS_ANGLE) != 0 ? in.getDouble() : 0;
+        if ((flags & HAS_SCALE) != 0) {
+            out.scaleX = in.getDouble();
+            out.scaleY = in.getDouble();
+        } else {
+            out.scaleX = 1;
+            out.scaleY = 1;
+        }
+
+        int hitBoxCount = readCount(in);
+        out.hitBoxNames = new String[hitBoxCount];
+        int at = 0;
+        for (int i = 0; i < hitBoxCount; i++) {
+            out.hitBoxNames[i] = readString(in);
+            at = readHitBox(in, at);
+        }
+        out.hitBoxData = Arrays.copyOf(hitBoxScratch, at);
+
+        int propertyCount = readCount(in);
+        out.keys = new String[propertyCount];
+        out.values = new Object[propertyCount];
+        for (int i = 0; i < propertyCount; i++) {
+            out.keys[i] = readString(in);
+            out.values[i] = readValue(in);
+        }
+    }
+
+    /**
+     * 读一个碰撞盒（名字之外的部分）到 hitBoxScratch，格式见 SavedEntity.hitBoxData
+     *
+     * @return 下一个碰撞盒的开始位置
+     */
+    private int readHitBox(ByteBuffer in, int at) {
+        double minX = in.getDouble();
+        double minY = in.getDouble();
+        byte kind = in.get();
+        int count;
+        switch (kind) {
+            case BOX:
+                count = 2;
+                break;
+            case CIRCLE:
+                count = 1;
+                break;
+            case POLYGON:
+            case CHAIN:
+                count = readCount(in) * 2;
+                break;
+            case BOX_3D:
+                count = 3;
+                break;
+            default:
+                throw new IllegalArgumentException("未知的碰撞形状: " + kind);
+        }
+        if (at + 4 + count > hitBoxScratch.length) {
+            hitBoxScratch = Arrays.copyOf(hitBoxScratch, Math.max(at + 4 + count, hitBoxScratch.length * 2));
+        }
+        hitBoxScratch[at] = minX;
+        hitBoxScratch[at + 1] = minY;
+        hitBoxScratch[at + 2] = kind;
+        hitBoxScratch[at + 3] = count;
+        for (int i = 0; i < count; i++) {
+            hitBoxScratch[at + 4 + i] = in.getDouble();
+        }
+        return at + 4 + count;
+    }
+
+    /**
+     * 读档时才创建 HitBox，工厂建出来的碰撞盒和存档一样（matches）的话就不用创建
+     */
+    static HitBox toHitBox(String name, double[] data, int at) {
+        Point2D offset = new Point2D(data[at], data[at + 1]);
+        int count = (int) data[at + 3];
+        int p = at + 4;
+        BoundingShape shape;
+        switch ((byte) data[at + 2]) {
+            case BOX:
+                shape = BoundingShape.box(data[p], data[p + 1]);
+                break;
+            case CIRCLE:
+                shape = BoundingShape.circle(data[p]);
+                break;
+            case POLYGON:
+                shape = BoundingShape.polygon(toPoints(data, p, count));
+                break;
+            case CHAIN:
+                shape = BoundingShape.chain(toPoints(data, p, count));
+                break;
+            default:
+                shape = BoundingShape.box3D(data[p], data[p + 1], data[p + 2]);
+        }
+        return new HitBox(name, offset, shape);
+    }
+
+    static boolean matches(HitBox hitBox, String name, double[] data, int at) {
+        if (!hitBox.getName().equals(name) || hitBox.getMinX() != data[at] || hitBox.getMinY() != data[at + 1]) {
+            return false;
+        }
+        BoundingShape shape = hitBox.getShape();
+        int count = (int) data[at + 3];
+        int p = at + 4;
+        switch ((byte) data[at + 2]) {
+            case BOX:
+                return shape instanceof BoxShapeData
+                        && ((BoxShapeData) shape).getWidth() == data[p]
+                        && ((BoxShapeData) shape).getHeight() == data[p + 1];
+            case CIRCLE:
+                return shape instanceof CircleShapeData && ((CircleShapeData) shape).getRadius() == data[p];
+            case POLYGON:
+                return shape instanceof PolygonShapeData
+                        && samePoints(((PolygonShapeData) shape).getPoints(), data, p, count);
+            case CHAIN:
+                return shape instanceof ChainShapeData
+                        && samePoints(((ChainShapeData) shape).getPoints(), data, p, count);
+            default:
+                return shape instanceof Box3DShapeData
+                        && ((Box3DShapeData) shape).getWidth() == data[p]
+                        && ((Box3DShapeData) shape).getHeight() == data[p + 1]
+                        && ((Box3DShapeData) shape).getDepth() == data[p + 2];
+        }
+    }
+
+    /**
+     * @return 下一个碰撞盒在 data 里的开始位置
+     */
+    static int next(double[] data, int at) {
+        return at + 4 + (int) data[at + 3];
+    }
+
+    private static Point2D[] toPoints(double[] data, int p, int count) {
+        Point2D[] points = new Point2D[count / 2];
+        for (int i = 0; i < points.length; i++) {
+            points[i] = new Point2D(data[p + i * 2], data[p + i * 2 + 1]);
+        }
+        return points;
+    }
+
+    private static boolean samePoints(Point2D[] points, double[] data, int p, int count) {
+        if (points.length * 2 != count) {
+            return false;
+        }
+        for (int i = 0; i < points.length; i++) {
+            if (points[i].getX() != data[p + i * 2] || points[i].getY() != data[p + i * 2 + 1]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Object readValue(ByteBuffer in) {
+        byte tag = in.get();
+        switch (tag) {
+            case NULL:
+                return null;
+            case INT:
+                return unzigzag(readVarInt(in));
+            case DOUBLE:
+                return in.getDouble();
+            case FALSE:
+                return Boolean.FALSE;
+            case TRUE:
+                return Boolean.TRUE;
+            case STRING:
+                return readUtf8(in);
+            case LONG:
+                return in.getLong();
+            case FLOAT:
+                return in.getFloat();
+            case ENUM:
+                return readEnum(readString(in), readString(in));
+            case COLOR_RGBA8:
+                // 读档时同一种颜色通常有成千上万个，Color 不可变，共用一个对象
+                return colors.computeIfAbsent(in.getInt(), rgba ->
+                        Color.rgb(rgba >>> 24, rgba >>> 16 & 0xFF, rgba >>> 8 & 0xFF, (rgba & 0xFF) / 255.0));
+            case COLOR:
+                return new Color(in.getDouble(), in.getDouble(), in.getDouble(), in.getDouble());
+            case SERIALIZED:
+                byte[] bytes = new byte[readCount(in)];
+                in.get(bytes);
+                return deserialize(bytes);
+            default:
+                throw new IllegalArgumentException("未知的值类型: " + tag);
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Object readEnum(String className, String name) {
+        Class<?> type = enumClasses.computeIfAbsent(className, n -> {
+            try {
+                return Class.forName(n);
+            } catch (ClassNotFoundException e) {
+                throw new IllegalArgumentException("找不到枚举类: " + n, e);
+            }
+        });
+        return Enum.valueOf((Class) type, name);
+    }
+
+    private static Object deserialize(byte[] bytes) {
+        try (ObjectInputStream stream = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return stream.readObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalArgumentException("反序列化失败", e);
+        }
+    }
+
+    private String readString(ByteBuffer in) {
+        int ref = readVarInt(in);
+        if ((ref & 1) == 0) {
+            int id = ref >>> 1;
+            if (id >= strings.size()) {
+                throw new IllegalArgumentException("字符串编号不合法: " + id);
+            }
+            return strings.get(id);
+        }
+        String s = readUtf8(in);
+        if (ref >>> 1 != strings.size()) {
+            throw new IllegalArgumentException("字符串定义顺序不对: " + (ref >>> 1));
+        }
+        strings.add(s);
+        stringIds.put(s, ref >>> 1);
+        return s;
+    }
+
+    private static String readUtf8(ByteBuffer in) {
+        int length = readCount(in);
+        if (!in.hasArray()) {
+            // 映射文件里读
+            byte[] bytes = new byte[length];
+            in.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+        String s = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return s;
+    }
+
+    private static int readCount(ByteBuffer in) {
+        int count = readVarInt(in);
+        if (count < 0 || count > in.remaining()) {
+            throw new IllegalArgumentException("长度不合法: " + count);
+        }
+        return count;
+    }
+
+    long getSerializedValues() {
+        return serializedValues;
+    }
+
+    long getSkippedValues() {
+        return skippedValues;
+    }
+
+    static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    static int unzigzag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    static void writeVarInt(ByteBuffer out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    static int readVarInt(ByteBuffer in) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = in.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("varint 太长");
+    }
+}
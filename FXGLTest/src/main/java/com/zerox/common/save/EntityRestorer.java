@@ -0,0 +1,23 @@
+package com.zerox.common.save;
+
+import com.almasb.fxgl.entity.Entity;
+import com.almasb.fxgl.entity.SpawnData;
+
+import java.io.Serializable;
+
+/**
+ * @Author: ZeromaXHe
+ * @Time: 2026/10/19 01:55
+ * @Description: 读档时按保存的类型重新创建实体，一般直接转给 EntityFactory 的 @Spawns 方法。
+ * 返回的实体不用加进游戏世界，WorldSaver 会在恢复变换、碰撞盒、属性之后再添加
+ * @ModifiedBy: ZeromaXHe
+ */
+@FunctionalInterface
+public interface EntityRestorer {
+    /**
+     * @param type 保存时的实体类型，没有设置类型的实体是 null
+     * @param data 坐标是保存时的 x y，里面是保存时 PropertyMap 的所有属性
+     * @return null 表示不恢复这个实体
+     */
+    Entity restore(Serializable type, SpawnData data);
+}
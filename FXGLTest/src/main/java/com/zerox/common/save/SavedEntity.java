@@ -0,0 +1,27 @@
+package com.zerox.common.save;
+
+import java.io.Serializable;
+
+/**
+ * @Author: ZeromaXHe
+ * @Time: 2026/10/19 01:50
+ * @Description: 读档时一条 ENTITY 记录解码出来的内容。日志里同一个 id 可能有多条记录，只有最后一条会被恢复成实体
+ * @ModifiedBy: ZeromaXHe
+ */
+class SavedEntity {
+    Serializable type;
+    double x;
+    double y;
+    double z;
+    double angle;
+    double scaleX;
+    double scaleY;
+    String[] hitBoxNames;
+    /**
+     * 碰撞盒按顺序展开：minX minY 形状 参数个数 参数...，读档时 HitBox 的对象图比实体本身还难回收，
+     * 工厂建出来的碰撞盒一样时就不用创建
+     */
+    double[] hitBoxData;
+    String[] keys;
+    Object[] values;
+}
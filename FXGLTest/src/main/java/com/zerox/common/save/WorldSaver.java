@@ -0,0 +1,754 @@
+package com.zerox.common.save;
+
+import com.almasb.fxgl.core.collection.PropertyMap;
+import com.almasb.fxgl.core.collection.PropertyMapChangeListener;
+import com.almasb.fxgl.entity.Entity;
+import com.almasb.fxgl.entity.EntityWorldListener;
+import com.almasb.fxgl.entity.GameWorld;
+import com.almasb.fxgl.entity.SpawnData;
+import com.almasb.fxgl.entity.components.BoundingBoxComponent;
+import com.almasb.fxgl.physics.HitBox;
+import javafx.beans.InvalidationListener;
+import javafx.beans.Observable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Predicate;
+
+/**
+ * @Author: ZeromaXHe
+ * @Time: 2026/10/19 02:00
+ * @Description: 游戏世界的二进制存档。作为 EntityWorldListener 跟踪实体，监听变换、类型、碰撞盒和 PropertyMap 的变化，
+ * 变了的实体标记为脏，save 只写脏实体和被删除的实体，不变的实体不用每次重写。
+ * <p>
+ * 存档是两个轮流使用的文件 path.0 和 path.1，通过内存映射的 FileChannel 写入。文件格式（大端）：
+ * 文件头 magic(int) version(short) 保留(short) generation(long) 有效长度(long) 实体数(int) 保留(int)，
+ * 之后是记录：ENTITY(1) id(varint) 实体内容（见 EntityCodec），REMOVE(2) id(varint)，
+ * BATCH(3) 是每次 save 的开头，字符串表从这里重新开始。
+ * 一个文件开头是一份完整快照，后面追加增量记录，同一个 id 以最后一条为准。
+ * 增量写完、force 之后才更新文件头里的有效长度，所以写到一半崩溃只会丢掉最后一次 save。
+ * 追加的日志超过完整快照的 COMPACT_RATIO 倍时，后台线程把文件读出来，每个实体只留最后一条，
+ * 压缩成一份完整快照写进另一个文件：写之前先把那个文件的 generation 清零，写完再提交新的 generation，
+ * 读档时选 generation 大的那个有效文件。两个文件只增长不截断，映射中的文件在 Windows 上也不用删除或替换。
+ * <p>
+ * 读实体必须在游戏线程里，所以 save 在调用线程里把脏实体编码到内存缓冲区，增量的耗时只和脏实体数有关；
+ * 拷贝进映射文件、force、压缩都在后台线程里做，onUpdate 不等磁盘。
+ * 只有第一次保存（或者写失败之后）要在游戏线程里编码所有实体，10 万个方块大约 0.3 秒，见 WorldSnapshotBenchmark，
+ * 最好放在读档、加载关卡之后马上调用一次 saveFull。
+ * 缓冲区一共 MAX_PENDING 个，都在等后台写的时候 save 直接跳过，脏标记留到下一次，也不阻塞
+ * @ModifiedBy: ZeromaXHe
+ */
+public class WorldSaver implements EntityWorldListener, Closeable {
+    static final int MAGIC = 0x46585753;
+    static final short VERSION = 1;
+    static final int HEADER_BYTES = 32;
+    private static final int GENERATION_OFFSET = 8;
+    private static final int END_OFFSET = 16;
+    private static final int COUNT_OFFSET = 24;
+
+    private static final byte ENTITY = 1;
+    private static final byte REMOVE = 2;
+    private static final byte BATCH = 3;
+
+    private static final int MIN_MAPPING = 1 << 20;
+    private static final int COMPACT_RATIO = 2;
+    private static final int MAX_PENDING = 2;
+
+    private final Predicate<Entity> filter;
+    private final EntityCodec codec = new EntityCodec();
+    private final Map<Entity, Tracked> tracked = new IdentityHashMap<>();
+    private final List<Tracked> dirty = new ArrayList<>();
+    private int[] removedIds = new int[16];
+    private int removedCount;
+    private int nextId = 1;
+    private GameWorld world;
+
+    /**
+     * 还没有可以追加的文件（新存档、写失败过）时，下一次 save 写完整快照
+     */
+    private boolean fullRequired = true;
+
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "world-saver");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final BlockingQueue<Batch> freeBatches = new ArrayBlockingQueue<>(MAX_PENDING);
+
+    // 后台线程独占，load 在没有待写批次时也会读写
+    private final Slot[] slots;
+    private int active;
+    private long generation;
+    private int baseBytes;
+    private final EntityCodec compactCodec = new EntityCodec();
+    private final Batch compactBatch = new Batch();
+
+    private volatile boolean failed;
+    private volatile Exception lastError;
+    /**
+     * 写失败时是否打印异常，默认不打印，失败状态和原因可以通过 isFailed、getLastError 和 toString 查看
+     */
+    private volatile boolean verbose;
+    private volatile long lastWriteNanos;
+    private volatile long fileBytes;
+    private volatile long compactions;
+    private volatile long lastCompactNanos;
+
+    private long saves;
+    private long fullSaves;
+    private long skipped;
+    /**
+     * 编码时抛异常丢掉的批次数
+     */
+    private long abandoned;
+    private long lastEncodeNanos;
+
+    /**
+     * 保存游戏世界里的所有实体
+     */
+    public WorldSaver(Path path) throws IOException {
+        this(path, entity -> true);
+    }
+
+    /**
+     * @param filter 实体加进游戏世界时判断要不要保存，UI、特效之类的实体可以排除
+     */
+    public WorldSaver(Path path, Predicate<Entity> filter) throws IOException {
+        this.filter = filter;
+        Path dir = path.toAbsolutePath().getParent();
+        String name = path.getFileName().toString();
+        slots = new Slot[]{new Slot(dir.resolve(name + ".0")), new Slot(dir.resolve(name + ".1"))};
+        for (int i = 0; i < MAX_PENDING; i++) {
+            freeBatches.add(new Batch());
+        }
+    }
+
+    /**
+     * 开始跟踪游戏世界，已经在世界里的实体会在下一次 save 写入。要读档的话先 load 再 attach
+     */
+    public void attach(GameWorld world) {
+        this.world = world;
+        world.addWorldListener(this);
+        for (Entity entity : world.getEntities()) {
+            onEntityAdded(entity);
+        }
+    }
+
+    @Override
+    public void onEntityAdded(Entity entity) {
+        if (tracked.containsKey(entity) || !filter.test(entity)) {
+            return;
+        }
+        Tracked t = new Tracked(nextId++, entity);
+        tracked.put(entity, t);
+        t.markDirty();
+    }
+
+    @Override
+    public void onEntityRemoved(Entity entity) {
+        Tracked t = tracked.remove(entity);
+        if (t == null) {
+            return;
+        }
+        t.detach();
+        if (removedCount == removedIds.length) {
+            removedIds = Arrays.copyOf(removedIds, removedCount * 2);
+        }
+        removedIds[removedCount++] = t.id;
+    }
+
+    // ---------------- 读档 ----------------
+
+    /**
+     * 从较新的有效文件恢复实体并加进游戏世界，之后的 save 接着在这个文件后面追加
+     *
+     * @return 恢复的实体数，没有存档时是 0
+     * @throws IOException 存档内容损坏
+     */
+    public int load(GameWorld world, EntityRestorer restorer) throws IOException {
+        if (!tracked.isEmpty()) {
+            throw new IllegalStateException("load 要在 attach 之前调用");
+        }
+        awaitWrites();
+        int index = slots[1].generation > slots[0].generation ? 1 : 0;
+        Slot slot = slots[index];
+        if (slot.generation == 0) {
+            return 0;
+        }
+
+        SavedEntity[] byId;
+        try {
+            byId = readAll(slot, codec);
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new IOException("存档损坏: " + slot.path, e);
+        }
+
+        int restored = 0;
+        for (int id = 1; id < byId.length; id++) {
+            SavedEntity saved = byId[id];
+            if (saved == null) {
+                continue;
+            }
+            SpawnData data = new SpawnData(saved.x, saved.y);
+            for (int i = 0; i < saved.keys.length; i++) {
+                data.put(saved.keys[i], saved.values[i]);
+            }
+            Entity entity = restorer.restore(saved.type, data);
+            if (entity == null) {
+                continue;
+            }
+            apply(entity, saved);
+            tracked.put(entity, new Tracked(id, entity));
+            world.addEntity(entity);
+            restored++;
+        }
+        nextId = Math.max(nextId, byId.length);
+        active = index;
+        generation = slot.generation;
+        baseBytes = slot.end - HEADER_BYTES;
+        fileBytes = slot.end;
+        fullRequired = false;
+        return restored;
+    }
+
+    /**
+     * 按顺序读一个文件里的所有记录，同一个 id 只留最后一条，被删除的是 null
+     *
+     * @return 下标是实体 id，长度是最大 id + 1
+     */
+    private static SavedEntity[] readAll(Slot slot, EntityCodec codec) {
+        ByteBuffer in = slot.map.duplicate();
+        in.limit(slot.end).position(HEADER_BYTES);
+        SavedEntity[] byId = new SavedEntity[Math.max(16, slot.entities + 1)];
+        int maxId = 0;
+        while (in.hasRemaining()) {
+            byte kind = in.get();
+            if (kind == BATCH) {
+                codec.reset();
+                continue;
+            }
+            int id = EntityCodec.readVarInt(in);
+            if (id <= 0) {
+                throw new IllegalArgumentException("实体 id 不合法: " + id);
+            }
+            if (id >= byId.length) {
+                byId = Arrays.copyOf(byId, Math.max(id + 1, byId.length * 2));
+            }
+            if (kind == ENTITY) {
+                SavedEntity saved = new SavedEntity();
+                codec.readEntity(in, saved);
+                byId[id] = saved;
+                maxId = Math.max(maxId, id);
+            } else if (kind == REMOVE) {
+                byId[id] = null;
+            } else {
+                throw new IllegalArgumentException("未知的记录: " + kind);
+            }
+        }
+        return Arrays.copyOf(byId, maxId + 1);
+    }
+
+    /**
+     * 工厂已经根据 SpawnData 建好了实体，这里只补上工厂不知道的部分，和保存时一样的就不重复设置
+     */
+    private static void apply(Entity entity, SavedEntity saved) {
+        entity.xProperty().set(saved.x);
+        entity.yProperty().set(saved.y);
+        entity.zProperty().set(saved.z);
+        entity.angleProperty().set(saved.angle);
+        entity.scaleXProperty().set(saved.scaleX);
+        entity.scaleYProperty().set(saved.scaleY);
+        if (saved.type != null) {
+            entity.setType(saved.type);
+        }
+
+        BoundingBoxComponent bbox = entity.getBoundingBoxComponent();
+        if (!sameHitBoxes(bbox.hitBoxesProperty(), saved)) {
+            bbox.clearHitBoxes();
+            int at = 0;
+            for (String name : saved.hitBoxNames) {
+                bbox.addHitBox(EntityCodec.toHitBox(name, saved.hitBoxData, at));
+                at = EntityCodec.next(saved.hitBoxData, at);
+            }
+        }
+
+        PropertyMap properties = entity.getProperties();
+        for (int i = 0; i < saved.keys.length; i++) {
+            String key = saved.keys[i];
+            Object value = saved.values[i];
+            if (!properties.exists(key) || !Objects.equals(properties.getValue(key), value)) {
+                properties.setValue(key, value);
+            }
+        }
+    }
+
+    private static boolean sameHitBoxes(List<HitBox> current, SavedEntity saved) {
+        if (current.size() != saved.hitBoxNames.length) {
+            return false;
+        }
+        int at = 0;
+        for (int i = 0; i < saved.hitBoxNames.length; i++) {
+            if (!EntityCodec.matches(current.get(i), saved.hitBoxNames[i], saved.hitBoxData, at)) {
+                return false;
+            }
+            at = EntityCodec.next(saved.hitBoxData, at);
+        }
+        return true;
+    }
+
+    // ---------------- 存档 ----------------
+
+    /**
+     * 在游戏线程里调用，把脏实体和删除记录交给后台线程追加到文件。
+     * 第一次调用或者写失败之后会转成 saveFull，在游戏线程里编码所有实体
+     *
+     * @return 后台还有 MAX_PENDING 批没写完、这次跳过时返回 false
+     */
+    public boolean save() {
+        if (failed) {
+            fullRequired = true;
+        }
+        if (fullRequired) {
+            return saveFull();
+        }
+        if (dirty.isEmpty() && removedCount == 0) {
+            return true;
+        }
+        Batch batch = freeBatches.poll();
+        if (batch == null) {
+            skipped++;
+            return false;
+        }
+        long start = System.nanoTime();
+        boolean submitted = false;
+        try {
+            startBatch(batch);
+            for (int i = 0; i < removedCount; i++) {
+                putRemove(batch, removedIds[i]);
+            }
+            removedCount = 0;
+            for (Tracked t : dirty) {
+                t.dirty = false;
+                if (!t.removed) {
+                    putEntity(batch, t);
+                }
+            }
+            dirty.clear();
+            batch.full = false;
+            batch.entities = tracked.size();
+            submit(batch, start);
+            submitted = true;
+        } finally {
+            if (!submitted) {
+                abandon(batch);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 不管有没有变化，把所有实体写成一份新的完整快照。
+     * 编码整个世界在调用线程（游戏线程）里完成，10 万个方块大约 340ms，这一帧会明显卡顿，
+     * 只适合在读档、加载关卡这类本来就有停顿的时候调用
+     */
+    public boolean saveFull() {
+        Batch batch = freeBatches.poll();
+        if (batch == null) {
+            skipped++;
+            return false;
+        }
+        long start = System.nanoTime();
+        boolean submitted = false;
+        try {
+            startBatch(batch);
+            for (Tracked t : tracked.values()) {
+                putEntity(batch, t);
+            }
+            for (Tracked t : dirty) {
+                t.dirty = false;
+            }
+            dirty.clear();
+            removedCount = 0;
+            batch.full = true;
+            batch.entities = tracked.size();
+            fullRequired = false;
+            fullSaves++;
+            submit(batch, start);
+            submitted = true;
+        } finally {
+            if (!submitted) {
+                abandon(batch);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 编码到一半抛了异常：批次还给空闲队列，已经清掉的脏标记和删除记录找不回来，下一次存完整快照
+     */
+    private void abandon(Batch batch) {
+        codec.release();
+        batch.bytes.clear();
+        freeBatches.add(batch);
+        fullRequired = true;
+        abandoned++;
+    }
+
+    private void startBatch(Batch batch) {
+        codec.reset();
+        batch.bytes.put(BATCH);
+    }
+
+    private void putEntity(Batch batch, Tracked t) {
+        codec.prepare(t.entity);
+        while (true) {
+            ByteBuffer out = batch.bytes;
+            int start = out.position();
+            int mark = codec.mark();
+            try {
+                out.put(ENTITY);
+                EntityCodec.writeVarInt(out, t.id);
+                codec.writeEntity(out, t.entity);
+                codec.release();
+                return;
+            } catch (BufferOverflowException e) {
+                out.position(start);
+                codec.rollback(mark);
+                batch.grow();
+            }
+        }
+    }
+
+    private void putSaved(Batch batch, int id, SavedEntity saved) {
+        while (true) {
+            ByteBuffer out = batch.bytes;
+            int start = out.position();
+            int mark = compactCodec.mark();
+            try {
+                out.put(ENTITY);
+                EntityCodec.writeVarInt(out, id);
+                compactCodec.writeSaved(out, saved);
+                return;
+            } catch (BufferOverflowException e) {
+                out.position(start);
+                compactCodec.rollback(mark);
+                batch.grow();
+            }
+        }
+    }
+
+    private static void putRemove(Batch batch, int id) {
+        if (batch.bytes.remaining() < 6) {
+            batch.grow();
+        }
+        batch.bytes.put(REMOVE);
+        EntityCodec.writeVarInt(batch.bytes, id);
+    }
+
+    private void submit(Batch batch, long start) {
+        lastEncodeNanos = System.nanoTime() - start;
+        saves++;
+        writer.execute(() -> write(batch));
+    }
+
+    /**
+     * 后台线程：拷贝进映射文件、force、提交文件头
+     */
+    private void write(Batch batch) {
+        long start = System.nanoTime();
+        ByteBuffer src = batch.bytes;
+        src.flip();
+        try {
+            if (batch.full) {
+                writeFull(src, batch.entities);
+                failed = false;
+            } else if (!failed) {
+                // 之前的批次没写进去的话，后面的增量缺了前提，等游戏线程下一次写完整快照
+                Slot slot = slots[active];
+                int end = slot.end;
+                slot.append(end, src);
+                slot.commit(generation, end + src.limit(), batch.entities);
+                if (slot.end - HEADER_BYTES > (long) COMPACT_RATIO * baseBytes) {
+                    compact(slot);
+                }
+            }
+            fileBytes = slots[active].end;
+        } catch (IOException | RuntimeException e) {
+            failed = true;
+            lastError = e;
+            if (verbose) {
+                System.out.println("[save] 写存档失败: " + e);
+                e.printStackTrace();
+            }
+        } finally {
+            lastWriteNanos = System.nanoTime() - start;
+            src.clear();
+            freeBatches.add(batch);
+        }
+    }
+
+    /**
+     * 后台线程：完整快照写进另一个文件，提交之后才切换过去
+     */
+    private void writeFull(ByteBuffer src, int entities) throws IOException {
+        int target = 1 - active;
+        Slot slot = slots[target];
+        slot.invalidate();
+        slot.append(HEADER_BYTES, src);
+        slot.commit(generation + 1, HEADER_BYTES + src.limit(), entities);
+        active = target;
+        generation++;
+        baseBytes = src.limit();
+    }
+
+    /**
+     * 后台线程：把当前文件里每个实体的最后一条记录重新编码成完整快照
+     */
+    private void compact(Slot slot) throws IOException {
+        long start = System.nanoTime();
+        SavedEntity[] byId = readAll(slot, compactCodec);
+        ByteBuffer out = compactBatch.bytes;
+        out.clear();
+        compactCodec.reset();
+        out.put(BATCH);
+        int entities = 0;
+        for (int id = 1; id < byId.length; id++) {
+            if (byId[id] != null) {
+                putSaved(compactBatch, id, byId[id]);
+                entities++;
+            }
+        }
+        out = compactBatch.bytes;
+        out.flip();
+        writeFull(out, entities);
+        out.clear();
+        compactions++;
+        lastCompactNanos = System.nanoTime() - start;
+    }
+
+    /**
+     * 等后台线程写完已经提交的批次
+     */
+    public void awaitWrites() {
+        try {
+            writer.submit(() -> {
+            }).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    public int getEntityCount() {
+        return tracked.size();
+    }
+
+    public int getDirtyCount() {
+        return dirty.size();
+    }
+
+    public long getFileBytes() {
+        return fileBytes;
+    }
+
+    public boolean isFailed() {
+        return failed;
+    }
+
+    /**
+     * 最近一次写失败的异常，没有失败过时返回 null
+     */
+    public Exception getLastError() {
+        return lastError;
+    }
+
+    public void setVerbose(boolean verbose) {
+        this.verbose = verbose;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("entities=%d dirty=%d saves=%d (full %d) skipped=%d encode=%.2fms write=%.2fms"
+                        + " compactions=%d (%.1fms) file=%dKB serializedValues=%d skippedValues=%d abandoned=%d%s",
+                tracked.size(), dirty.size(), saves, fullSaves, skipped,
+                lastEncodeNanos / 1e6, lastWriteNanos / 1e6, compactions, lastCompactNanos / 1e6, fileBytes / 1024,
+                codec.getSerializedValues(), codec.getSkippedValues(), abandoned, failed ? " FAILED " + lastError : "");
+    }
+
+    /**
+     * 等已经提交的批次写完后关闭文件，不会自动 save
+     */
+    @Override
+    public void close() throws IOException {
+        if (world != null) {
+            world.removeWorldListener(this);
+        }
+        for (Tracked t : tracked.values()) {
+            t.detach();
+        }
+        awaitWrites();
+        writer.shutdown();
+        for (Slot slot : slots) {
+            slot.channel.close();
+        }
+    }
+
+    /**
+     * 一个被跟踪的实体，自己就是所有属性上的监听器
+     */
+    private final class Tracked implements InvalidationListener, PropertyMapChangeListener {
+        final int id;
+        final Entity entity;
+        boolean dirty;
+        boolean removed;
+
+        Tracked(int id, Entity entity) {
+            this.id = id;
+            this.entity = entity;
+            entity.xProperty().addListener(this);
+            entity.yProperty().addListener(this);
+            entity.zProperty().addListener(this);
+            entity.angleProperty().addListener(this);
+            entity.scaleXProperty().addListener(this);
+            entity.scaleYProperty().addListener(this);
+            entity.typeProperty().addListener(this);
+            entity.getBoundingBoxComponent().hitBoxesProperty().addListener(this);
+            entity.getProperties().addListener(this);
+        }
+
+        void detach() {
+            removed = true;
+            entity.xProperty().removeListener(this);
+            entity.yProperty().removeListener(this);
+            entity.zProperty().removeListener(this);
+            entity.angleProperty().removeListener(this);
+            entity.scaleXProperty().removeListener(this);
+            entity.scaleYProperty().removeListener(this);
+            entity.typeProperty().removeListener(this);
+            entity.getBoundingBoxComponent().hitBoxesProperty().removeListener(this);
+            entity.getProperties().removeListener(this);
+        }
+
+        void markDirty() {
+            if (!dirty && !removed) {
+                dirty = true;
+                WorldSaver.this.dirty.add(this);
+            }
+        }
+
+        @Override
+        public void invalidated(Observable observable) {
+            markDirty();
+        }
+
+        @Override
+        public void onUpdated(String key, Object value) {
+            markDirty();
+        }
+
+        @Override
+        public void onRemoved(String key, Object value) {
+            markDirty();
+        }
+    }
+
+    /**
+     * 游戏线程编码好、等后台线程写入的一批记录，缓冲区只增不减，轮流复用
+     */
+    private static final class Batch {
+        ByteBuffer bytes = ByteBuffer.allocate(64 * 1024);
+        boolean full;
+        int entities;
+
+        void grow() {
+            ByteBuffer bigger = ByteBuffer.allocate(bytes.capacity() * 2);
+            bytes.flip();
+            bigger.put(bytes);
+            bytes = bigger;
+        }
+    }
+
+    /**
+     * 一个存档文件和它的映射，映射不够大时整个重新映射
+     */
+    private static final class Slot {
+        final Path path;
+        final FileChannel channel;
+        MappedByteBuffer map;
+        long generation;
+        int end;
+        int entities;
+
+        Slot(Path path) throws IOException {
+            this.path = path;
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                channel.close();
+                throw new IOException("存档文件太大: " + path);
+            }
+            map = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(size, MIN_MAPPING));
+            if (size >= HEADER_BYTES && map.getInt(0) == MAGIC && map.getShort(4) == VERSION) {
+                long savedEnd = map.getLong(END_OFFSET);
+                if (savedEnd >= HEADER_BYTES && savedEnd <= size) {
+                    generation = map.getLong(GENERATION_OFFSET);
+                    end = (int) savedEnd;
+                    entities = map.getInt(COUNT_OFFSET);
+                }
+            }
+        }
+
+        /**
+         * 改写之前先让这个文件失效，写到一半崩溃时读档会用另一个文件
+         */
+        void invalidate() {
+            generation = 0;
+            map.putLong(GENERATION_OFFSET, 0);
+            map.force(0, HEADER_BYTES);
+        }
+
+        void append(int position, ByteBuffer src) throws IOException {
+            int length = src.remaining();
+            long required = (long) position + length;
+            if (required > map.capacity()) {
+                if (required > Integer.MAX_VALUE) {
+                    throw new IOException("存档超过 2GB: " + path);
+                }
+                map = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.min(Integer.MAX_VALUE, Math.max(required, map.capacity() * 2L)));
+            }
+            map.put(position, src, src.position(), length);
+            map.force(position, length);
+        }
+
+        void commit(long generation, int end, int entities) {
+            map.putInt(0, MAGIC);
+            map.putShort(4, VERSION);
+            map.putLong(GENERATION_OFFSET, generation);
+            map.putLong(END_OFFSET, end);
+            map.putInt(COUNT_OFFSET, entities);
+            map.force(0, HEADER_BYTES);
+            this.generation = generation;
+            this.end = end;
+            this.entities = entities;
+        }
+    }
+}
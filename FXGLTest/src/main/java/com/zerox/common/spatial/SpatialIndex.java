@@ -0,0 +1,472 @@
+package com.zerox.common.spatial;
+
+import com.almasb.fxgl.entity.Entity;
+import com.almasb.fxgl.entity.EntityWorldListener;
+import com.almasb.fxgl.entity.components.BoundingBoxComponent;
+import javafx.beans.InvalidationListener;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @Author: ZeromaXHe
+ * @Time: 2026/10/18 21:40
+ * @Description: 松散网格空间索引，代替在 getGameWorld().getEntities() 上两两调用 distanceBBox 找最近敌人的 O(n²) 循环。
+ * 用法和 EntityFactory 一样挂到游戏世界上：getGameWorld().addWorldListener(index)，实体加入、移除世界时自动增删；
+ * 实体 bbox 的位置或大小变化时只标记脏，下一次查询前才重新放到对应格子里，不需要每帧重建。
+ * 每个实体只按 bbox 中心放进一个格子，查询时把范围放大最大半宽/半高（所以叫松散网格）。
+ * 网格覆盖 [0, worldWidth) * [0, worldHeight)，超出范围的实体放在边缘的格子里，结果仍然正确，只是变慢。
+ * 距离都和 Entity.distanceBBox 一致，是两个 bbox 之间的最短距离，相交时为 0。
+ * 查询结果写进调用方传入的缓冲区，查询过程不分配内存
+ * @ModifiedBy: ZeromaXHe
+ */
+public class SpatialIndex implements EntityWorldListener {
+    private static final int NONE = -1;
+
+    private final double cellSize;
+    private final int cols;
+    private final int rows;
+    /**
+     * 只索引这些类型的实体，为空时索引所有实体
+     */
+    private final Object[] types;
+
+    /**
+     * 每个格子的链表头
+     */
+    private final int[] cellHeads;
+
+    // 按槽位存储的实体数据，删除后槽位进入空闲链表复用
+    private Entity[] entities = new Entity[64];
+    private InvalidationListener[] listeners = new InvalidationListener[64];
+    private double[] minX = new double[64];
+    private double[] minY = new double[64];
+    private double[] maxX = new double[64];
+    private double[] maxY = new double[64];
+    private int[] cellOf = new int[64];
+    private int[] next = new int[64];
+    private int[] prev = new int[64];
+    private boolean[] dirty = new boolean[64];
+    private int slotCount;
+    private int freeHead = NONE;
+    private int size;
+
+    private final Map<Entity, Integer> slots = new IdentityHashMap<>();
+
+    private int[] dirtySlots = new int[64];
+    private int dirtyCount;
+
+    /**
+     * 所有实体中最大的半宽、半高，只增不减
+     */
+    private double maxHalfWidth;
+    private double maxHalfHeight;
+
+    /**
+     * kNearest 用的最大堆
+     */
+    private int[] heapSlots = new int[16];
+    private double[] heapDistances = new double[16];
+
+    // 统计
+    private long queries;
+    private long candidates;
+    private long rebins;
+
+    /**
+     * @param cellSize    格子边长，一般取实体大小的 2 到 4 倍
+     * @param worldWidth  网格覆盖的宽度
+     * @param worldHeight 网格覆盖的高度
+     * @param types       只索引这些类型的实体，不传时索引所有实体
+     */
+    public SpatialIndex(double cellSize, double worldWidth, double worldHeight, Object... types) {
+        this.cellSize = cellSize;
+        this.cols = Math.max(1, (int) Math.ceil(worldWidth / cellSize));
+        this.rows = Math.max(1, (int) Math.ceil(worldHeight / cellSize));
+        this.types = types;
+        cellHeads = new int[cols * rows];
+        Arrays.fill(cellHeads, NONE);
+    }
+
+    // ---------------- 维护 ----------------
+
+    @Override
+    public void onEntityAdded(Entity entity) {
+        if (accepts(entity)) {
+            add(entity);
+        }
+    }
+
+    @Override
+    public void onEntityRemoved(Entity entity) {
+        remove(entity);
+    }
+
+    private boolean accepts(Entity entity) {
+        if (types.length == 0) {
+            return true;
+        }
+        for (Object type : types) {
+            if (entity.isType(type)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 手动加入实体（不经过游戏世界时用），已经在索引中时忽略
+     */
+    public void add(Entity entity) {
+        if (slots.containsKey(entity)) {
+            return;
+        }
+        int slot = allocateSlot();
+        slots.put(entity, slot);
+        entities[slot] = entity;
+        size++;
+
+        readBBox(slot);
+        link(slot, cellIndex(slot));
+
+        int s = slot;
+        InvalidationListener listener = o -> markDirty(s);
+        listeners[slot] = listener;
+        BoundingBoxComponent bbox = entity.getBoundingBoxComponent();
+        bbox.minXWorldProperty().addListener(listener);
+        bbox.minYWorldProperty().addListener(listener);
+        bbox.widthProperty().addListener(listener);
+        bbox.heightProperty().addListener(listener);
+    }
+
+    public void remove(Entity entity) {
+        Integer boxed = slots.remove(entity);
+        if (boxed == null) {
+            return;
+        }
+        int slot = boxed;
+        BoundingBoxComponent bbox = entity.getBoundingBoxComponent();
+        InvalidationListener listener = listeners[slot];
+        bbox.minXWorldProperty().removeListener(listener);
+        bbox.minYWorldProperty().removeListener(listener);
+        bbox.widthProperty().removeListener(listener);
+        bbox.heightProperty().removeListener(listener);
+
+        unlink(slot);
+        entities[slot] = null;
+        listeners[slot] = null;
+        // 脏列表里可能还有这个槽位，refresh 时按 entities[slot] == null 跳过
+        dirty[slot] = false;
+        next[slot] = freeHead;
+        freeHead = slot;
+        size--;
+    }
+
+    private void markDirty(int slot) {
+        if (dirty[slot]) {
+            return;
+        }
+        dirty[slot] = true;
+        if (dirtyCount == dirtySlots.length) {
+            dirtySlots = Arrays.copyOf(dirtySlots, dirtyCount * 2);
+        }
+        dirtySlots[dirtyCount++] = slot;
+    }
+
+    /**
+     * 把移动过的实体放到新的格子里。每次查询前自动调用
+     */
+    public void refresh() {
+        for (int i = 0; i < dirtyCount; i++) {
+            int slot = dirtySlots[i];
+            if (entities[slot] == null || !dirty[slot]) {
+                continue;
+            }
+            dirty[slot] = false;
+            readBBox(slot);
+            int cell = cellIndex(slot);
+            if (cell != cellOf[slot]) {
+                unlink(slot);
+                link(slot, cell);
+                rebins++;
+            }
+        }
+        dirtyCount = 0;
+    }
+
+    private void readBBox(int slot) {
+        BoundingBoxComponent bbox = entities[slot].getBoundingBoxComponent();
+        // 必须通过属性本身读值：属性失效后只有被 get 过才会重新变为有效，下次变化时 InvalidationListener 才会再收到通知
+        minX[slot] = bbox.minXWorldProperty().get();
+        minY[slot] = bbox.minYWorldProperty().get();
+        maxX[slot] = minX[slot] + bbox.widthProperty().get();
+        maxY[slot] = minY[slot] + bbox.heightProperty().get();
+        maxHalfWidth = Math.max(maxHalfWidth, (maxX[slot] - minX[slot]) / 2);
+        maxHalfHeight = Math.max(maxHalfHeight, (maxY[slot] - minY[slot]) / 2);
+    }
+
+    private int allocateSlot() {
+        if (freeHead != NONE) {
+            int slot = freeHead;
+            freeHead = next[slot];
+            return slot;
+        }
+        if (slotCount == entities.length) {
+            grow(slotCount * 2);
+        }
+        return slotCount++;
+    }
+
+    private void grow(int capacity) {
+        entities = Arrays.copyOf(entities, capacity);
+        listeners = Arrays.copyOf(listeners, capacity);
+        minX = Arrays.copyOf(minX, capacity);
+        minY = Arrays.copyOf(minY, capacity);
+        maxX = Arrays.copyOf(maxX, capacity);
+        maxY = Arrays.copyOf(maxY, capacity);
+        cellOf = Arrays.copyOf(cellOf, capacity);
+        next = Arrays.copyOf(next, capacity);
+        prev = Arrays.copyOf(prev, capacity);
+        dirty = Arrays.copyOf(dirty, capacity);
+    }
+
+    private void link(int slot, int cell) {
+        cellOf[slot] = cell;
+        prev[slot] = NONE;
+        next[slot] = cellHeads[cell];
+        if (cellHeads[cell] != NONE) {
+            prev[cellHeads[cell]] = slot;
+        }
+        cellHeads[cell] = slot;
+    }
+
+    private void unlink(int slot) {
+        int cell = cellOf[slot];
+        if (prev[slot] != NONE) {
+            next[prev[slot]] = next[slot];
+        } else {
+            cellHeads[cell] = next[slot];
+        }
+        if (next[slot] != NONE) {
+            prev[next[slot]] = prev[slot];
+        }
+    }
+
+    private int cellIndex(int slot) {
+        return cellY((minY[slot] + maxY[slot]) / 2) * cols + cellX((minX[slot] + maxX[slot]) / 2);
+    }
+
+    private int cellX(double x) {
+        return Math.max(0, Math.min(cols - 1, (int) Math.floor(x / cellSize)));
+    }
+
+    private int cellY(double y) {
+        return Math.max(0, Math.min(rows - 1, (int) Math.floor(y / cellSize)));
+    }
+
+    // ---------------- 查询 ----------------
+
+    /**
+     * 和矩形 [minX, maxX] * [minY, maxY] 相交（含边界接触）的实体追加到 out
+     *
+     * @return 追加的数量
+     */
+    public int queryRect(double qMinX, double qMinY, double qMaxX, double qMaxY, List<Entity> out) {
+        return queryRange(qMinX, qMinY, qMaxX, qMaxY, 0, null, out);
+    }
+
+    /**
+     * 和 center 的 bbox 距离（同 distanceBBox）不超过 radius 的实体追加到 out，不包括 center 自己
+     *
+     * @return 追加的数量
+     */
+    public int queryRadius(Entity center, double radius, List<Entity> out) {
+        BoundingBoxComponent bbox = center.getBoundingBoxComponent();
+        return queryRange(bbox.getMinXWorld(), bbox.getMinYWorld(), bbox.getMaxXWorld(), bbox.getMaxYWorld(),
+                radius, center, out);
+    }
+
+    /**
+     * 和点 (x, y) 的距离不超过 radius 的实体追加到 out
+     *
+     * @return 追加的数量
+     */
+    public int queryRadius(double x, double y, double radius, List<Entity> out) {
+        return queryRange(x, y, x, y, radius, null, out);
+    }
+
+    private int queryRange(double qMinX, double qMinY, double qMaxX, double qMaxY, double radius,
+                           Entity exclude, List<Entity> out) {
+        refresh();
+        queries++;
+        double radiusSquared = radius * radius;
+        int x0 = cellX(qMinX - radius - maxHalfWidth);
+        int x1 = cellX(qMaxX + radius + maxHalfWidth);
+        int y0 = cellY(qMinY - radius - maxHalfHeight);
+        int y1 = cellY(qMaxY + radius + maxHalfHeight);
+        int found = 0;
+        for (int cy = y0; cy <= y1; cy++) {
+            for (int cx = x0; cx <= x1; cx++) {
+                for (int slot = cellHeads[cy * cols + cx]; slot != NONE; slot = next[slot]) {
+                    candidates++;
+                    if (entities[slot] == exclude) {
+                        continue;
+                    }
+                    if (gapSquared(slot, qMinX, qMinY, qMaxX, qMaxY) <= radiusSquared) {
+                        out.add(entities[slot]);
+                        found++;
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * 离 from（按 bbox 距离）最近的 k 个实体，按距离从近到远写入 out[0..k)，不包括 from 自己
+     *
+     * @param out 长度至少为 k
+     * @return 实际找到的数量，索引中实体不足 k 个时小于 k
+     */
+    public int kNearest(Entity from, int k, Entity[] out) {
+        BoundingBoxComponent bbox = from.getBoundingBoxComponent();
+        return kNearest(bbox.getMinXWorld(), bbox.getMinYWorld(), bbox.getMaxXWorld(), bbox.getMaxYWorld(),
+                k, from, out, null);
+    }
+
+    /**
+     * 离点 (x, y) 最近的 k 个实体
+     *
+     * @param outDistances 可以为 null，不为 null 时同时写入对应的距离
+     */
+    public int kNearest(double x, double y, int k, Entity[] out, double[] outDistances) {
+        return kNearest(x, y, x, y, k, null, out, outDistances);
+    }
+
+    private int kNearest(double qMinX, double qMinY, double qMaxX, double qMaxY, int k,
+                         Entity exclude, Entity[] out, double[] outDistances) {
+        refresh();
+        queries++;
+        if (k <= 0) {
+            return 0;
+        }
+        if (heapSlots.length < k) {
+            heapSlots = new int[k];
+            heapDistances = new double[k];
+        }
+        int heapSize = 0;
+
+        int qx0 = cellX(qMinX);
+        int qx1 = cellX(qMaxX);
+        int qy0 = cellY(qMinY);
+        int qy1 = cellY(qMaxY);
+        int maxRing = Math.max(Math.max(qx0, cols - 1 - qx1), Math.max(qy0, rows - 1 - qy1));
+        double maxHalf = Math.max(maxHalfWidth, maxHalfHeight);
+        // 由内向外一圈一圈地查格子
+        for (int ring = 0; ring <= maxRing; ring++) {
+            if (heapSize == k) {
+                // 第 ring 圈格子里的实体中心离查询范围至少 (ring - 1) 个格子，bbox 再往回伸 maxHalf
+                double bound = (ring - 1) * cellSize - maxHalf;
+                if (bound > 0 && bound * bound > heapDistances[0]) {
+                    break;
+                }
+            }
+            int x0 = qx0 - ring;
+            int x1 = qx1 + ring;
+            int y0 = qy0 - ring;
+            int y1 = qy1 + ring;
+            for (int cy = Math.max(0, y0); cy <= Math.min(rows - 1, y1); cy++) {
+                boolean edgeRow = ring == 0 || cy == y0 || cy == y1;
+                // 第 0 圈是查询范围本身；之后每圈只有第一行和最后一行整行都是这一圈的，中间各行只有左右两端
+                int step = edgeRow ? 1 : Math.max(1, x1 - x0);
+                for (int cx = x0; cx <= x1; cx += step) {
+                    if (cx < 0 || cx >= cols) {
+                        continue;
+                    }
+                    for (int slot = cellHeads[cy * cols + cx]; slot != NONE; slot = next[slot]) {
+                        candidates++;
+                        if (entities[slot] == exclude) {
+                            continue;
+                        }
+                        double d = gapSquared(slot, qMinX, qMinY, qMaxX, qMaxY);
+                        if (heapSize < k) {
+                            heapPush(heapSize++, slot, d);
+                        } else if (d < heapDistances[0]) {
+                            heapReplaceTop(k, slot, d);
+                        }
+                    }
+                }
+            }
+        }
+
+        // 堆顶是最远的，依次取出倒着放
+        for (int i = heapSize - 1; i >= 0; i--) {
+            out[i] = entities[heapSlots[0]];
+            if (outDistances != null) {
+                outDistances[i] = Math.sqrt(heapDistances[0]);
+            }
+            int lastSlot = heapSlots[i];
+            double lastDistance = heapDistances[i];
+            if (i > 0) {
+                heapReplaceTop(i, lastSlot, lastDistance);
+            }
+        }
+        return heapSize;
+    }
+
+    private void heapPush(int index, int slot, double distance) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (heapDistances[parent] >= distance) {
+                break;
+            }
+            heapSlots[index] = heapSlots[parent];
+            heapDistances[index] = heapDistances[parent];
+            index = parent;
+        }
+        heapSlots[index] = slot;
+        heapDistances[index] = distance;
+    }
+
+    private void heapReplaceTop(int heapSize, int slot, double distance) {
+        int index = 0;
+        while (true) {
+            int child = index * 2 + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if (child + 1 < heapSize && heapDistances[child + 1] > heapDistances[child]) {
+                child++;
+            }
+            if (heapDistances[child] <= distance) {
+                break;
+            }
+            heapSlots[index] = heapSlots[child];
+            heapDistances[index] = heapDistances[child];
+            index = child;
+        }
+        heapSlots[index] = slot;
+        heapDistances[index] = distance;
+    }
+
+    /**
+     * 实体 bbox 和查询矩形之间最短距离的平方，相交时为 0
+     */
+    private double gapSquared(int slot, double qMinX, double qMinY, double qMaxX, double qMaxY) {
+        double dx = Math.max(0, Math.max(minX[slot] - qMaxX, qMinX - maxX[slot]));
+        double dy = Math.max(0, Math.max(minY[slot] - qMaxY, qMinY - maxY[slot]));
+        return dx * dx + dy * dy;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("entities=%d, grid=%dx%d, queries=%d, candidates/query=%.1f, rebins=%d",
+                size, cols, rows, queries, queries == 0 ? 0 : (double) candidates / queries, rebins);
+    }
+}
@@ -0,0 +1,129 @@
+package com.zerox.common.spawn;
+
+import com.almasb.fxgl.entity.Entity;
+import com.almasb.fxgl.entity.GameWorld;
+import com.almasb.fxgl.entity.SpawnData;
+import com.almasb.fxgl.physics.BoundingShape;
+import com.almasb.fxgl.physics.HitBox;
+import javafx.scene.paint.Color;
+import javafx.scene.paint.Paint;
+import javafx.scene.shape.Rectangle;
+
+import java.io.Serializable;
+
+/**
+ * @Author: ZeromaXHe
+ * @Time: 2026/10/18 16:30
+ * @Description: 矩形实体的生成模板，宽高、颜色、类型、bbox 在创建模板时就确定下来，不可变。
+ * 相比 EntityFactory + SpawnData 的方式，每次生成不需要按字符串 key 查 map、拆箱，也不会把 w/h/color 写进实体属性。
+ * JavaFX 的 Node 只能有一个父节点，所以 Rectangle 还是每个实体一个，共享的是 Paint 和 bbox 的 BoundingShape
+ * @ModifiedBy: ZeromaXHe
+ */
+public final class SpawnTemplate {
+    private final double width;
+    private final double height;
+    private final Paint color;
+    private final Serializable type;
+    private final BoundingShape bboxShape;
+
+    private SpawnTemplate(Builder builder) {
+        this.width = builder.width;
+        this.height = builder.height;
+        this.color = builder.color;
+        this.type = builder.type;
+        this.bboxShape = builder.bbox ? BoundingShape.Companion.box(width, height) : null;
+    }
+
+    /**
+     * 从 SpawnData 中读取 w/h/color，只在解析模板时读一次，之后生成实体不再查 SpawnData，
+     * 也不会像 entityBuilder(data) 那样把 w/h/color 复制进每个实体的 PropertyMap，需要 entity.getInt("w") 的地方不能用模板
+     */
+    public static Builder rect(SpawnData data) {
+        return rect(data.<Integer>get("w"), data.<Integer>get("h"), data.get("color"));
+    }
+
+    public static Builder rect(double width, double height, Paint color) {
+        return new Builder(width, height, color);
+    }
+
+    /**
+     * 创建实体，不添加到游戏世界当中
+     */
+    public Entity create(double x, double y) {
+        Entity entity = new Entity();
+        entity.setPosition(x, y);
+        if (type != null) {
+            entity.setType(type);
+        }
+        entity.getViewComponent().addChild(new Rectangle(width, height, color));
+        if (bboxShape != null) {
+            entity.getBoundingBoxComponent().addHitBox(new HitBox(bboxShape));
+        }
+        return entity;
+    }
+
+    /**
+     * 创建实体并且添加到游戏世界当中
+     */
+    public Entity spawn(GameWorld world, double x, double y) {
+        Entity entity = create(x, y);
+        world.addEntity(entity);
+        return entity;
+    }
+
+    public double getWidth() {
+        return width;
+    }
+
+    public double getHeight() {
+        return height;
+    }
+
+    public Paint getColor() {
+        return color;
+    }
+
+    public Serializable getType() {
+        return type;
+    }
+
+    public boolean hasBBox() {
+        return bboxShape != null;
+    }
+
+    @Override
+    public String toString() {
+        return "SpawnTemplate{" + width + "x" + height + ", color=" + color + ", type=" + type + ", bbox=" + hasBBox() + '}';
+    }
+
+    public static final class Builder {
+        private final double width;
+        private final double height;
+        private final Paint color;
+        private Serializable type;
+        private boolean bbox;
+
+        private Builder(double width, double height, Paint color) {
+            this.width = width;
+            this.height = height;
+            this.color = color == null ? Color.BLACK : color;
+        }
+
+        public Builder type(Serializable type) {
+            this.type = type;
+            return this;
+        }
+
+        /**
+         * 和 EntityBuilder.viewWithBBox 一样，按视图大小生成 bbox
+         */
+        public Builder withBBox() {
+            this.bbox = true;
+            return this;
+        }
+
+        public SpawnTemplate build() {
+            return new SpawnTemplate(this);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.zerox.common.spawn;
+
+import com.almasb.fxgl.entity.Entity;
+import com.almasb.fxgl.entity.GameWorld;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * @Author: ZeromaXHe
+ * @Time: 2026/10/18 16:38
+ * @Description: 按生成名称注册的 SpawnTemplate。大量生成时先 get 拿到模板，再循环调用模板的 spawn，名称只解析一次
+ * @ModifiedBy: ZeromaXHe
+ */
+public class SpawnTemplates {
+    private final Map<String, SpawnTemplate> templates = new HashMap<>();
+
+    /**
+     * 和 @Spawns 一样，name 可以用逗号分隔多个名称
+     */
+    public SpawnTemplates register(String names, SpawnTemplate template) {
+        for (String name : names.split(",")) {
+            templates.put(name.trim(), template);
+        }
+        return this;
+    }
+
+    public SpawnTemplate get(String name) {
+        SpawnTemplate template = templates.get(name);
+        if (template == null) {
+            throw new IllegalArgumentException("没有注册生成模板: " + name);
+        }
+        return template;
+    }
+
+    public boolean contains(String name) {
+        return templates.containsKey(name);
+    }
+
+    public Entity spawn(GameWorld world, String name, double x, double y) {
+        return get(name).spawn(world, x, y);
+    }
+}
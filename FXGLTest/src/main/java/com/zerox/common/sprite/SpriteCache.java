@@ -0,0 +1,78 @@
+package com.zerox.common.sprite;
+
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.paint.Color;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * @Author: ZeromaXHe
+ * @Time: 2026/10/18 18:05
+ * @Description: 程序绘制的精灵缓存。同一个 key 的绘制过程只在 Canvas 上执行一次，快照成 Image 之后给所有实体共享，
+ * 每个旋转角度单独快照一份，实体换方向时换图片而不是旋转节点。snapshot 只能在 JavaFX 线程调用
+ * @ModifiedBy: ZeromaXHe
+ */
+public class SpriteCache {
+    private final Map<String, Image> sprites = new HashMap<>();
+
+    private int hits;
+    private int misses;
+
+    public Image get(String key, double width, double height, Consumer<GraphicsContext> recipe) {
+        return get(key, width, height, 0, recipe);
+    }
+
+    /**
+     * @param degrees 绕图片中心顺时针旋转的角度，和 Entity.setRotation 一致
+     */
+    public Image get(String key, double width, double height, int degrees, Consumer<GraphicsContext> recipe) {
+        String cacheKey = degrees == 0 ? key : key + '@' + degrees;
+        Image image = sprites.get(cacheKey);
+        if (image != null) {
+            hits++;
+            return image;
+        }
+        misses++;
+        image = render(width, height, degrees, recipe);
+        sprites.put(cacheKey, image);
+        return image;
+    }
+
+    private static Image render(double width, double height, int degrees, Consumer<GraphicsContext> recipe) {
+        // 旋转后的外接矩形，90 度的倍数时就是宽高互换
+        double rad = Math.toRadians(degrees);
+        double cos = Math.abs(Math.cos(rad));
+        double sin = Math.abs(Math.sin(rad));
+        double canvasWidth = Math.round(width * cos + height * sin);
+        double canvasHeight = Math.round(width * sin + height * cos);
+
+        Canvas canvas = new Canvas(canvasWidth, canvasHeight);
+        GraphicsContext g = canvas.getGraphicsContext2D();
+        g.translate(canvasWidth / 2, canvasHeight / 2);
+        g.rotate(degrees);
+        g.translate(-width / 2, -height / 2);
+        recipe.accept(g);
+
+        SnapshotParameters params = new SnapshotParameters();
+        params.setFill(Color.TRANSPARENT);
+        return canvas.snapshot(params, null);
+    }
+
+    public int size() {
+        return sprites.size();
+    }
+
+    public void clear() {
+        sprites.clear();
+    }
+
+    @Override
+    public String toString() {
+        return "sprites=" + sprites.size() + " hits=" + hits + " misses=" + misses;
+    }
+}
@@ -0,0 +1,55 @@
+package com.zerox.common.startup;
+
+/**
+ * @Author: ZeromaXHe
+ * @Time: 2026/10/18 22:50
+ * @Description: 可选的类预加载。在 main 里 launch 之前调用 start，传入这个应用用到的 FXGL 服务类，
+ * 在一个后台守护线程里提前加载、初始化，和 JavaFX 工具包的启动重叠起来；等引擎创建这些服务时类已经准备好了。
+ * 只有 -Dstartup.preload=true 时才启用。配合 AppCDS 时类已经从归档里映射进来，这里省下的主要是静态初始化的时间
+ * @ModifiedBy: ZeromaXHe
+ */
+public final class StartupPreloader {
+    public static final String PRELOAD_PROPERTY = "startup.preload";
+
+    private static volatile int loaded;
+    private static volatile int total;
+    private static volatile long elapsedNanos = -1;
+
+    private StartupPreloader() {
+    }
+
+    public static void start(String... classNames) {
+        if (!Boolean.getBoolean(PRELOAD_PROPERTY)) {
+            return;
+        }
+        total = classNames.length;
+        ClassLoader loader = StartupPreloader.class.getClassLoader();
+        Thread thread = new Thread(() -> {
+            long start = System.nanoTime();
+            for (String className : classNames) {
+                try {
+                    Class.forName(className, true, loader);
+                    loaded++;
+                } catch (ClassNotFoundException | LinkageError e) {
+                    // 预加载只是优化，类名写错或者初始化失败时留给真正用到的地方报错
+                    System.out.println(StartupProbe.LINE_PREFIX + "preload failed: " + className + " " + e);
+                }
+            }
+            elapsedNanos = System.nanoTime() - start;
+        }, "startup-preloader");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
+    }
+
+    /**
+     * @return 给 StartupProbe 打印用，没有启用时是 off
+     */
+    static String describe() {
+        if (total == 0) {
+            return "off";
+        }
+        long nanos = elapsedNanos;
+        return loaded + "/" + total + (nanos < 0 ? "(running)" : String.format("(%.1fms)", nanos / 1e6));
+    }
+}
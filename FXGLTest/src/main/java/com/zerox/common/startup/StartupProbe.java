@@ -0,0 +1,63 @@
+package com.zerox.common.startup;
+
+import com.almasb.fxgl.app.GameSettings;
+import com.almasb.fxgl.core.EngineService;
+import com.almasb.fxgl.dsl.FXGL;
+
+import java.time.Instant;
+
+/**
+ * @Author: ZeromaXHe
+ * @Time: 2026/10/18 22:40
+ * @Description: 启动耗时探针，作为 FXGL 的 EngineService 挂到引擎上，记录从 JVM 启动到 initSettings、到第一帧的时间。
+ * 默认不启用，以下系统属性任意一个存在时才会在 initSettings 里注册：
+ * -Dstartup.probe=true 只打印一行 [startup] 统计；
+ * -Dstartup.exitAfterFrames=N 跑完 N 帧后直接退出进程，给 AppCDS 的训练运行和 StartupBenchmark 用
+ * @ModifiedBy: ZeromaXHe
+ */
+public class StartupProbe extends EngineService {
+    public static final String PROBE_PROPERTY = "startup.probe";
+    public static final String EXIT_AFTER_FRAMES_PROPERTY = "startup.exitAfterFrames";
+    /**
+     * 打印的统计行以它开头，StartupBenchmark 按这个前缀解析子进程的输出
+     */
+    public static final String LINE_PREFIX = "[startup] ";
+
+    private static long jvmStartMillis;
+    private static long initSettingsMillis;
+
+    private final int exitAfterFrames = Integer.getInteger(EXIT_AFTER_FRAMES_PROPERTY, 0);
+    private int frames;
+
+    /**
+     * 在 initSettings 开头调用，没有配置相关系统属性时什么也不做
+     */
+    public static void install(GameSettings settings) {
+        if (!Boolean.getBoolean(PROBE_PROPERTY) && Integer.getInteger(EXIT_AFTER_FRAMES_PROPERTY, 0) <= 0) {
+            return;
+        }
+        initSettingsMillis = System.currentTimeMillis();
+        // 进程启动时间在 Linux 上来自 /proc，精度是时钟滴答（一般 10ms），测秒级的冷启动足够了
+        jvmStartMillis = ProcessHandle.current().info().startInstant()
+                .map(Instant::toEpochMilli)
+                .orElse(initSettingsMillis);
+        settings.addEngineService(StartupProbe.class);
+    }
+
+    @Override
+    public void onUpdate(double tpf) {
+        frames++;
+        if (frames == 1) {
+            long now = System.currentTimeMillis();
+            System.out.println(LINE_PREFIX + FXGL.getApp().getClass().getSimpleName()
+                    + " initSettings=" + (initSettingsMillis - jvmStartMillis) + "ms"
+                    + " firstFrame=" + (now - jvmStartMillis) + "ms"
+                    + " preload=" + StartupPreloader.describe());
+        }
+        if (exitAfterFrames > 0 && frames >= exitAfterFrames) {
+            // 不走 FXGL 的退出流程（会弹确认框、保存设置），直接结束进程；-XX:ArchiveClassesAtExit 在 JVM 退出时写归档
+            System.out.flush();
+            System.exit(0);
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package com.zerox.common.vars;
+
+import com.almasb.fxgl.core.collection.PropertyMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * @Author: ZeromaXHe
+ * @Time: 2026/10/18 20:30
+ * @Description: 按 VarSchema 槽位存储的变量，int 和 double 放在基本类型数组里，读写不装箱。
+ * 修改只标记脏位，不立即通知；flush（一般每帧调用一次）时对值确实变了的变量各通知一次监听器，
+ * 并同步到 mirrorTo 绑定的 FXGL PropertyMap（FXGL.getip 之类的绑定继续可用，但每帧最多更新一次）
+ * @ModifiedBy: ZeromaXHe
+ */
+public class TypedVars {
+    @FunctionalInterface
+    public interface IntListener {
+        void changed(int oldValue, int newValue);
+    }
+
+    @FunctionalInterface
+    public interface DoubleListener {
+        void changed(double oldValue, double newValue);
+    }
+
+    @FunctionalInterface
+    public interface ObjectListener {
+        void changed(Object oldValue, Object newValue);
+    }
+
+    private final VarSchema schema;
+
+    private final int[] ints;
+    private final double[] doubles;
+    private final Object[] objects;
+
+    // 上一次 flush 时的值，用来判断是否真的变了以及给监听器传旧值
+    private final int[] flushedInts;
+    private final double[] flushedDoubles;
+    private final Object[] flushedObjects;
+
+    private final long[] intDirty;
+    private final long[] doubleDirty;
+    private final long[] objectDirty;
+    private boolean dirty;
+
+    private final List<IntListener>[] intListeners;
+    private final List<DoubleListener>[] doubleListeners;
+    private final List<ObjectListener>[] objectListeners;
+
+    private PropertyMap mirror;
+
+    @SuppressWarnings("unchecked")
+    public TypedVars(VarSchema schema) {
+        schema.freeze();
+        this.schema = schema;
+        ints = Arrays.copyOf(schema.intDefaults, schema.getIntCount());
+        doubles = Arrays.copyOf(schema.doubleDefaults, schema.getDoubleCount());
+        objects = Arrays.copyOf(schema.objectDefaults, schema.getObjectCount());
+        flushedInts = ints.clone();
+        flushedDoubles = doubles.clone();
+        flushedObjects = objects.clone();
+        intDirty = new long[(ints.length + 63) >>> 6];
+        doubleDirty = new long[(doubles.length + 63) >>> 6];
+        objectDirty = new long[(objects.length + 63) >>> 6];
+        intListeners = new List[ints.length];
+        doubleListeners = new List[doubles.length];
+        objectListeners = new List[objects.length];
+    }
+
+    public VarSchema getSchema() {
+        return schema;
+    }
+
+    // ---------------- int ----------------
+
+    public int getInt(int slot) {
+        return ints[slot];
+    }
+
+    public void setInt(int slot, int value) {
+        ints[slot] = value;
+        intDirty[slot >>> 6] |= 1L << slot;
+        dirty = true;
+    }
+
+    public void inc(int slot, int delta) {
+        setInt(slot, ints[slot] + delta);
+    }
+
+    public void addIntListener(int slot, IntListener listener) {
+        if (intListeners[slot] == null) {
+            intListeners[slot] = new ArrayList<>(2);
+        }
+        intListeners[slot].add(listener);
+    }
+
+    // ---------------- double ----------------
+
+    public double getDouble(int slot) {
+        return doubles[slot];
+    }
+
+    public void setDouble(int slot, double value) {
+        doubles[slot] = value;
+        doubleDirty[slot >>> 6] |= 1L << slot;
+        dirty = true;
+    }
+
+    public void inc(int slot, double delta) {
+        setDouble(slot, doubles[slot] + delta);
+    }
+
+    public void addDoubleListener(int slot, DoubleListener listener) {
+        if (doubleListeners[slot] == null) {
+            doubleListeners[slot] = new ArrayList<>(2);
+        }
+        doubleListeners[slot].add(listener);
+    }
+
+    // ---------------- object ----------------
+
+    @SuppressWarnings("unchecked")
+    public <T> T getObject(int slot) {
+        return (T) objects[slot];
+    }
+
+    public void setObject(int slot, Object value) {
+        objects[slot] = value;
+        objectDirty[slot >>> 6] |= 1L << slot;
+        dirty = true;
+    }
+
+    public void addObjectListener(int slot, ObjectListener listener) {
+        if (objectListeners[slot] == null) {
+            objectListeners[slot] = new ArrayList<>(2);
+        }
+        objectListeners[slot].add(listener);
+    }
+
+    // ---------------- 通知 ----------------
+
+    /**
+     * 绑定 FXGL 的 PropertyMap（比如 FXGL.getWorldProperties()），立即写入当前所有值，之后每次 flush 同步变化的值。
+     * 同名变量需要先在 initGameVars 里用相同类型声明，否则 FXGL 会把它当成另一种类型的属性
+     */
+    public void mirrorTo(PropertyMap properties) {
+        this.mirror = properties;
+        for (int i = 0; i < ints.length; i++) {
+            properties.setValue(schema.intNames.get(i), ints[i]);
+        }
+        for (int i = 0; i < doubles.length; i++) {
+            properties.setValue(schema.doubleNames.get(i), doubles[i]);
+        }
+        for (int i = 0; i < objects.length; i++) {
+            properties.setValue(schema.objectNames.get(i), objects[i]);
+        }
+    }
+
+    /**
+     * 把上次 flush 之后变化的变量通知出去。同一帧内多次修改只通知一次，最终值和上次相同的不通知
+     */
+    public void flush() {
+        if (!dirty) {
+            return;
+        }
+        dirty = false;
+        for (int word = 0; word < intDirty.length; word++) {
+            long bits = intDirty[word];
+            intDirty[word] = 0;
+            while (bits != 0) {
+                int slot = (word << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                int oldValue = flushedInts[slot];
+                int newValue = ints[slot];
+                if (oldValue == newValue) {
+                    continue;
+                }
+                flushedInts[slot] = newValue;
+                if (mirror != null) {
+                    mirror.setValue(schema.intNames.get(slot), newValue);
+                }
+                List<IntListener> listeners = intListeners[slot];
+                if (listeners != null) {
+                    for (int i = 0; i < listeners.size(); i++) {
+                        listeners.get(i).changed(oldValue, newValue);
+                    }
+                }
+            }
+        }
+        for (int word = 0; word < doubleDirty.length; word++) {
+            long bits = doubleDirty[word];
+            doubleDirty[word] = 0;
+            while (bits != 0) {
+                int slot = (word << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                double oldValue = flushedDoubles[slot];
+                double newValue = doubles[slot];
+                if (Double.compare(oldValue, newValue) == 0) {
+                    continue;
+                }
+                flushedDoubles[slot] = newValue;
+                if (mirror != null) {
+                    mirror.setValue(schema.doubleNames.get(slot), newValue);
+                }
+                List<DoubleListener> listeners = doubleListeners[slot];
+                if (listeners != null) {
+                    for (int i = 0; i < listeners.size(); i++) {
+                        listeners.get(i).changed(oldValue, newValue);
+                    }
+                }
+            }
+        }
+        for (int word = 0; word < objectDirty.length; word++) {
+            long bits = objectDirty[word];
+            objectDirty[word] = 0;
+            while (bits != 0) {
+                int slot = (word << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                Object oldValue = flushedObjects[slot];
+                Object newValue = objects[slot];
+                // 对象可能是原地修改的（比如 list），只要 set 过就通知
+                flushedObjects[slot] = newValue;
+                if (mirror != null) {
+                    mirror.setValue(schema.objectNames.get(slot), newValue);
+                }
+                List<ObjectListener> listeners = objectListeners[slot];
+                if (listeners != null) {
+                    for (int i = 0; i < listeners.size(); i++) {
+                        listeners.get(i).changed(oldValue, newValue);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.zerox.common.vars;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @Author: ZeromaXHe
+ * @Time: 2026/10/18 20:20
+ * @Description: 变量名到槽位的映射。初始化时把每个变量名登记一次，拿到 int 槽位后热路径只按槽位读写，
+ * 不再查 HashMap、不装箱。同一个 schema 可以给多个 TypedVars 共用（比如同一种实体的所有实例），
+ * 创建第一个 TypedVars 之后不能再登记新变量
+ * @ModifiedBy: ZeromaXHe
+ */
+public final class VarSchema {
+    private final Map<String, Integer> slots = new HashMap<>();
+
+    final List<String> intNames = new ArrayList<>();
+    final List<String> doubleNames = new ArrayList<>();
+    final List<String> objectNames = new ArrayList<>();
+    int[] intDefaults = new int[0];
+    double[] doubleDefaults = new double[0];
+    Object[] objectDefaults = new Object[0];
+
+    private boolean frozen;
+
+    /**
+     * @return int 变量的槽位，只能用于 getInt/setInt/inc(int, int)
+     */
+    public int intVar(String name, int initial) {
+        int slot = register(name, intNames);
+        intDefaults = Arrays.copyOf(intDefaults, slot + 1);
+        intDefaults[slot] = initial;
+        return slot;
+    }
+
+    /**
+     * @return double 变量的槽位，只能用于 getDouble/setDouble/inc(int, double)
+     */
+    public int doubleVar(String name, double initial) {
+        int slot = register(name, doubleNames);
+        doubleDefaults = Arrays.copyOf(doubleDefaults, slot + 1);
+        doubleDefaults[slot] = initial;
+        return slot;
+    }
+
+    /**
+     * @return 对象变量的槽位，只能用于 getObject/setObject
+     */
+    public int objectVar(String name, Object initial) {
+        int slot = register(name, objectNames);
+        objectDefaults = Arrays.copyOf(objectDefaults, slot + 1);
+        objectDefaults[slot] = initial;
+        return slot;
+    }
+
+    private int register(String name, List<String> names) {
+        if (frozen) {
+            throw new IllegalStateException("已经创建过 TypedVars，不能再登记变量: " + name);
+        }
+        if (slots.containsKey(name)) {
+            throw new IllegalArgumentException("变量重复登记: " + name);
+        }
+        int slot = names.size();
+        names.add(name);
+        slots.put(name, slot);
+        return slot;
+    }
+
+    /**
+     * 按名字查槽位，只在初始化时用
+     *
+     * @throws IllegalArgumentException 没有登记过
+     */
+    public int slot(String name) {
+        Integer slot = slots.get(name);
+        if (slot == null) {
+            throw new IllegalArgumentException("没有登记的变量: " + name);
+        }
+        return slot;
+    }
+
+    void freeze() {
+        frozen = true;
+    }
+
+    public int getIntCount() {
+        return intNames.size();
+    }
+
+    public int getDoubleCount() {
+        return doubleNames.size();
+    }
+
+    public int getObjectCount() {
+        return objectNames.size();
+    }
+}
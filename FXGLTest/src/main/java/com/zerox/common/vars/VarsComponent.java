@@ -0,0 +1,27 @@
+package com.zerox.common.vars;
+
+import com.almasb.fxgl.entity.component.Component;
+
+/**
+ * @Author: ZeromaXHe
+ * @Time: 2026/10/18 20:45
+ * @Description: 实体上的 TypedVars，代替 entity.getInt("w") 这种按字符串查 PropertyMap 的属性。
+ * 同一种实体共用一个 VarSchema，槽位在工厂类里定义成常量；每帧 onUpdate 时 flush 一次变化通知
+ * @ModifiedBy: ZeromaXHe
+ */
+public class VarsComponent extends Component {
+    private final TypedVars vars;
+
+    public VarsComponent(VarSchema schema) {
+        this.vars = new TypedVars(schema);
+    }
+
+    public TypedVars getVars() {
+        return vars;
+    }
+
+    @Override
+    public void onUpdate(double tpf) {
+        vars.flush();
+    }
+}
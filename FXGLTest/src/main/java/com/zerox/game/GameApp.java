@@ -7,11 +7,26 @@ import com.almasb.fxgl.entity.Entity;
 import com.almasb.fxgl.entity.SpawnData;
 import com.almasb.fxgl.entity.components.IDComponent;
 import com.almasb.fxgl.entity.components.TypeComponent;
+import com.almasb.fxgl.time.LocalTimer;
+import com.zerox.common.save.WorldSaver;
+import com.zerox.common.spatial.SpatialIndex;
+import com.zerox.common.startup.StartupPreloader;
+import com.zerox.common.startup.StartupProbe;
 import javafx.scene.paint.Color;
+import javafx.util.Duration;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.Random;
 
+import static com.almasb.fxgl.dsl.FXGL.getAppHeight;
+import static com.almasb.fxgl.dsl.FXGL.getAppWidth;
 import static com.almasb.fxgl.dsl.FXGL.getGameWorld;
+import static com.almasb.fxgl.dsl.FXGL.newLocalTimer;
 import static com.almasb.fxgl.dsl.FXGL.spawn;
 
 /**
@@ -21,14 +36,35 @@ import static com.almasb.fxgl.dsl.FXGL.spawn;
  * @ModifiedBy: ZeromaXHe
  */
 public class GameApp extends GameApplication {
+    /**
+     * 带这个属性的实体才存档，上面演示用的实体不存
+     */
+    private static final String SAVED = "saved";
+    private static final int SAVED_RECTS = 200;
+    private static final Duration SAVE_INTERVAL = Duration.seconds(2);
+
+    private WorldSaver worldSaver;
+    private final List<Entity> savedRects = new ArrayList<>();
+    private final Random random = new Random();
+    private LocalTimer saveTimer;
+    /**
+     * -Dgame.save.verbose=true 每次保存后打印存档统计，写失败时打印异常
+     */
+    private final boolean saveVerbose = Boolean.getBoolean("game.save.verbose");
+    private boolean saveFailed;
+
     @Override
     protected void initSettings(GameSettings settings) {
-
+        StartupProbe.install(settings);
     }
 
     @Override
     protected void initGame() {
-        getGameWorld().addEntityFactory(new GameEntityFactory());
+        GameEntityFactory factory = new GameEntityFactory();
+        getGameWorld().addEntityFactory(factory);
+        // 空间索引跟着游戏世界增删实体，找最近的实体不用再遍历 getEntities() 两两算 distanceBBox
+        SpatialIndex spatialIndex = new SpatialIndex(128, getAppWidth(), getAppHeight());
+        getGameWorld().addWorldListener(spatialIndex);
         Entity e1 = spawn("rect",
                 new SpawnData(0, 0)
                         .put("w", 100)
@@ -45,6 +81,14 @@ public class GameApp extends GameApplication {
         System.out.println("distance: " + e1.distance(e2));
         // 计算的是实体的 bBox 之间的距离，如果有交集，那么距离就是 0
         System.out.println("distanceBBox: " + e1.distanceBBox(e2));
+        // 结果写进调用方的缓冲区，每帧查询时可以复用
+        Entity[] nearest = new Entity[1];
+        if (spatialIndex.kNearest(e1, 1, nearest) > 0) {
+            System.out.println("e1 最近的实体: " + nearest[0] + ", distanceBBox: " + e1.distanceBBox(nearest[0]));
+        }
+        List<Entity> inRange = new ArrayList<>();
+        spatialIndex.queryRadius(e1, 50, inRange);
+        System.out.println("和 e1 的 bbox 距离不超过 50 的实体: " + inRange);
 
         // Entity 只有被添加到游戏世界当中的时候，才是活跃的
         Entity e3 = getGameWorld().create("rect",
@@ -64,6 +108,7 @@ public class GameApp extends GameApplication {
 //        getGameWorld().removeEntity(e3);
         e3.removeFromWorld();
         System.out.println("e3 移除后 active: " + e3.isActive());
+        System.out.println("spatialIndex: " + spatialIndex);
 
         e1.getComponents().forEach(System.out::println);
         /// 四大核心组件
@@ -98,9 +143,76 @@ public class GameApp extends GameApplication {
         }
 
         e1.getComponents().forEach(System.out::println);
+
+        initSave(factory);
+    }
+
+    /**
+     * -Dgame.save=存档路径 时启用存档：有存档就读档，没有就随机生成一批方块；
+     * 之后每帧随机挪动一个方块，每 SAVE_INTERVAL 增量保存一次
+     */
+    private void initSave(GameEntityFactory factory) {
+        String path = System.getProperty("game.save");
+        if (path == null) {
+            return;
+        }
+        try {
+            worldSaver = new WorldSaver(Path.of(path), entity -> entity.getProperties().exists(SAVED));
+            worldSaver.setVerbose(saveVerbose);
+            int restored = worldSaver.load(getGameWorld(), (type, data) -> factory.newRect(data));
+            System.out.println("[save] 读档恢复了 " + restored + " 个实体");
+            if (restored == 0) {
+                for (int i = 0; i < SAVED_RECTS; i++) {
+                    spawn("rect", new SpawnData(random.nextInt(getAppWidth() - 20), random.nextInt(getAppHeight() - 20))
+                            .put("w", 10 + random.nextInt(10))
+                            .put("h", 10 + random.nextInt(10))
+                            .put("color", Color.hsb(random.nextInt(360), 0.8, 0.9))
+                            .put(SAVED, true));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        worldSaver.attach(getGameWorld());
+        savedRects.addAll(getGameWorld().getEntitiesFiltered(entity -> entity.getProperties().exists(SAVED)));
+        saveTimer = newLocalTimer();
+        // 关闭时等后台线程把最后一批写完
+        Runtime.getRuntime().addShutdownHook(new Thread(worldSaver::awaitWrites));
     }
 
+    @Override
+    protected void onUpdate(double tpf) {
+        if (worldSaver == null) {
+            return;
+        }
+        Entity rect = savedRects.get(random.nextInt(savedRects.size()));
+        rect.translate(random.nextInt(5) - 2, random.nextInt(5) - 2);
+        if (saveTimer.elapsed(SAVE_INTERVAL)) {
+            worldSaver.save();
+            if (saveVerbose) {
+                System.out.println("[save] " + worldSaver);
+            } else if (worldSaver.isFailed() != saveFailed) {
+                // 不打印统计时也报一次写失败，恢复之后不再提示
+                saveFailed = !saveFailed;
+                if (saveFailed) {
+                    System.out.println("[save] 写存档失败: " + worldSaver.getLastError());
+                }
+            }
+            saveTimer.capture();
+        }
+    }
+
+    /**
+     * -Dstartup.preload=true 时在 launch 之前后台预加载的 FXGL 服务类
+     */
+    private static final String[] PRELOAD = {
+            "com.almasb.fxgl.entity.GameWorld",
+            "com.almasb.fxgl.physics.PhysicsWorld",
+            "com.almasb.fxgl.app.scene.GameScene"
+    };
+
     public static void main(String[] args) {
+        StartupPreloader.start(PRELOAD);
         launch(args);
     }
 }
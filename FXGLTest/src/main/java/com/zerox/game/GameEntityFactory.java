@@ -5,6 +5,7 @@ import com.almasb.fxgl.entity.Entity;
 import com.almasb.fxgl.entity.EntityFactory;
 import com.almasb.fxgl.entity.SpawnData;
 import com.almasb.fxgl.entity.Spawns;
+import com.zerox.common.spawn.SpawnTemplate;
 import javafx.scene.shape.Rectangle;
 
 /**
@@ -20,4 +21,13 @@ public class GameEntityFactory implements EntityFactory {
                 .viewWithBBox(new Rectangle(data.<Integer>get("w"), data.<Integer>get("h"), data.get("color")))
                 .build();
     }
+
+    /**
+     * newRect 的模板版本，和 viewWithBBox 一样按视图大小加一个矩形碰撞盒，碰撞盒形状在模板里只建一次
+     */
+    public static SpawnTemplate rectTemplate(SpawnData data) {
+        return SpawnTemplate.rect(data)
+                .withBBox()
+                .build();
+    }
 }
@@ -2,6 +2,8 @@ package com.zerox.hello;
 
 import com.almasb.fxgl.app.GameApplication;
 import com.almasb.fxgl.app.GameSettings;
+import com.zerox.common.startup.StartupPreloader;
+import com.zerox.common.startup.StartupProbe;
 
 /**
  * @Author: ZeromaXHe
@@ -10,12 +12,22 @@ import com.almasb.fxgl.app.GameSettings;
  * @ModifiedBy: ZeromaXHe
  */
 public class HelloWorldApp extends GameApplication {
+    /**
+     * -Dstartup.preload=true 时在 launch 之前后台预加载的 FXGL 服务类
+     */
+    private static final String[] PRELOAD = {
+            "com.almasb.fxgl.app.scene.GameScene",
+            "com.almasb.fxgl.ui.FXGLUIFactoryServiceProvider"
+    };
+
     public static void main(String[] args) {
+        StartupPreloader.start(PRELOAD);
         launch(args);
     }
 
     @Override
     protected void initSettings(GameSettings gameSettings) {
+        StartupProbe.install(gameSettings);
         gameSettings.setTitle("HelloWorld");
         gameSettings.setVersion("0.1");
         gameSettings.setWidth(600);
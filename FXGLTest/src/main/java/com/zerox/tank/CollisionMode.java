@@ -0,0 +1,20 @@
+package com.zerox.tank;
+
+/**
+ * @Author: ZeromaXHe
+ * @Time: 2026/10/18 11:32
+ * @Description: TankWorld 中子弹和敌人之间的碰撞检测方式，通过 -Dtank.collision=spatial_hash 切换。
+ * 两种方式的结果完全一样，只影响耗时，所以不记进录像
+ * @ModifiedBy: ZeromaXHe
+ */
+public enum CollisionMode {
+    /**
+     * 每颗子弹逐个检查所有敌人
+     */
+    DIRECT,
+    /**
+     * 有子弹时把敌人放进均匀网格，每颗子弹只检查附近格子里的敌人。
+     * 每个 tick 要重建网格，子弹只有一两颗时比逐个检查慢，子弹多、敌人也多时才划算
+     */
+    SPATIAL_HASH
+}
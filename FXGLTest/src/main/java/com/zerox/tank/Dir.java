@@ -0,0 +1,50 @@
+package com.zerox.tank;
+
+import javafx.geometry.Point2D;
+
+/**
+ * @Author: ZeromaXHe
+ * @Time: 2022/6/4 3:18
+ * @Description: 坦克朝向，原来是 TankApp 的内部枚举，TankWorld 也要用，所以提出来
+ * @ModifiedBy: ZeromaXHe
+ */
+public enum Dir {
+    UP(0, -1, 270),
+
+    DOWN(0, 1, 90),
+
+    LEFT(-1, 0, 180),
+
+    RIGHT(1, 0, 0);
+
+    private final int dx;
+    private final int dy;
+    private final Point2D p;
+    /**
+     * 坦克图片的朝向，默认图片朝右
+     */
+    private final int rotation;
+
+    Dir(int dx, int dy, int rotation) {
+        this.dx = dx;
+        this.dy = dy;
+        this.p = new Point2D(dx, dy);
+        this.rotation = rotation;
+    }
+
+    public int getDx() {
+        return dx;
+    }
+
+    public int getDy() {
+        return dy;
+    }
+
+    public Point2D getP() {
+        return p;
+    }
+
+    public int getRotation() {
+        return rotation;
+    }
+}
@@ -0,0 +1,56 @@
+package com.zerox.tank;
+
+import com.almasb.fxgl.core.pool.Poolable;
+import com.almasb.fxgl.entity.component.Component;
+import javafx.animation.Interpolator;
+import javafx.scene.Node;
+import javafx.util.Duration;
+
+/**
+ * @Author: ZeromaXHe
+ * @Time: 2026/10/18 10:20
+ * @Description: 爆炸效果组件，在 onUpdate 中直接驱动缩放和透明度，代替每次爆炸都新建的 ScaleTransition/FadeTransition，
+ * 到时间后把实体移出游戏世界（回到对象池）
+ * @ModifiedBy: ZeromaXHe
+ */
+public class ExplosionComponent extends Component implements Poolable {
+    private final Node view;
+    private final double duration;
+    private final double toScale;
+    private double time;
+
+    public ExplosionComponent(Node view, Duration duration, double toScale) {
+        this.view = view;
+        this.duration = duration.toSeconds();
+        this.toScale = toScale;
+    }
+
+    @Override
+    public void onUpdate(double tpf) {
+        time += tpf;
+        if (time >= duration) {
+            entity.removeFromWorld();
+            return;
+        }
+        apply(time / duration);
+    }
+
+    private void apply(double progress) {
+        // 和原来 ParallelTransition 的默认插值器保持一致
+        double scale = Interpolator.EASE_BOTH.interpolate(1.0, toScale, progress);
+        view.setScaleX(scale);
+        view.setScaleY(scale);
+        view.setOpacity(Interpolator.EASE_BOTH.interpolate(1.0, 0.0, progress));
+    }
+
+    @Override
+    public void reset() {
+        time = 0;
+        apply(0);
+    }
+
+    @Override
+    public boolean isComponentInjectionRequired() {
+        return false;
+    }
+}
@@ -0,0 +1,113 @@
+package com.zerox.tank;
+
+import com.almasb.fxgl.app.GameApplication;
+import com.almasb.fxgl.app.GameSettings;
+import com.almasb.fxgl.app.scene.GameView;
+import com.almasb.fxgl.dsl.FXGL;
+import com.almasb.fxgl.time.LocalTimer;
+import com.zerox.common.instrument.GameInstrumentation;
+import com.zerox.common.instrument.LatencyHistogram;
+import com.zerox.common.particle.ParticleSystem;
+import com.zerox.common.startup.StartupPreloader;
+import com.zerox.common.startup.StartupProbe;
+import javafx.scene.paint.Color;
+import javafx.util.Duration;
+
+import java.util.SplittableRandom;
+
+/**
+ * @Author: ZeromaXHe
+ * @Time: 2026/10/19 11:00
+ * @Description: 爆炸效果压力测试场景：每秒在随机位置产生 -Dexplosions.rate 次爆炸（默认 4000，同时存在几千个爆炸），
+ * -Dexplosions.mode=particles 用 TankExplosions 粒子画在一块 Canvas 上，=entities 用原来从对象池取、带 ExplosionComponent 的 boom 实体作对照。
+ * 每秒打印一行帧时间（两帧之间的实际间隔，包含渲染）和 GameInstrumentation 的 update/render 直方图
+ * @ModifiedBy: ZeromaXHe
+ */
+public class ExplosionStressApp extends GameApplication {
+    private static final int WIDTH = 1280;
+    private static final int HEIGHT = 720;
+    private static final int MAX_PARTICLES = 1 << 17;
+
+    private final int rate = Integer.getInteger("explosions.rate", 4000);
+    private final boolean entities = "entities".equals(System.getProperty("explosions.mode", "particles"));
+
+    private final Duration statsDelay = Duration.seconds(1);
+    private final GameInstrumentation instrumentation = new GameInstrumentation("ExplosionStressApp", statsDelay);
+    /**
+     * FXGL 给的 tpf 是两帧之间的墙钟时间，画面渲染、等待垂直同步都算在里面
+     */
+    private final LatencyHistogram frameTime = new LatencyHistogram();
+    private LocalTimer statsTimer;
+
+    private final SplittableRandom random = new SplittableRandom(42);
+    private TankEntityFactory factory;
+    private TankExplosions explosions;
+    /**
+     * 按 rate * tpf 累积，不足一次的留到下一帧
+     */
+    private double pending;
+
+    private static final String[] PRELOAD = {
+            "com.almasb.fxgl.entity.GameWorld",
+            "com.almasb.fxgl.app.scene.GameScene",
+            "javafx.scene.canvas.Canvas"
+    };
+
+    public static void main(String[] args) {
+        StartupPreloader.start(PRELOAD);
+        launch(args);
+    }
+
+    @Override
+    protected void initSettings(GameSettings settings) {
+        StartupProbe.install(settings);
+        instrumentation.phase("initSettings");
+        settings.setTitle("Explosion Stress");
+        settings.setWidth(WIDTH);
+        settings.setHeight(HEIGHT);
+    }
+
+    @Override
+    protected void initGame() {
+        instrumentation.phase("initGame");
+        FXGL.getGameScene().setBackgroundColor(Color.BLACK);
+        if (entities) {
+            factory = new TankEntityFactory();
+        } else {
+            ParticleSystem particles = new ParticleSystem(WIDTH, HEIGHT, MAX_PARTICLES);
+            FXGL.getGameScene().addGameView(new GameView(particles.getCanvas(), 0));
+            explosions = new TankExplosions(particles);
+        }
+        statsTimer = FXGL.newLocalTimer();
+        System.out.println("explosions: rate=" + rate + "/s mode=" + (entities ? "entities" : "particles"));
+    }
+
+    @Override
+    protected void onUpdate(double tpf) {
+        instrumentation.onUpdate();
+        frameTime.record((long) (tpf * 1e9));
+
+        pending += rate * tpf;
+        int n = (int) pending;
+        pending -= n;
+        for (int i = 0; i < n; i++) {
+            double x = random.nextDouble() * WIDTH;
+            double y = random.nextDouble() * HEIGHT;
+            if (entities) {
+                factory.spawnBoom(x, y);
+            } else {
+                explosions.explode(x, y);
+            }
+        }
+        if (explosions != null) {
+            explosions.getParticles().update(tpf);
+        }
+
+        if (statsTimer.elapsed(statsDelay)) {
+            System.out.println("[explosions] frame " + frameTime + " | "
+                    + (entities ? "boom pool: " + factory.getBoomPool() : explosions.getParticles()));
+            frameTime.reset();
+            statsTimer.capture();
+        }
+    }
+}
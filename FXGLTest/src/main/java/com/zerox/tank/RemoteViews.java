@@ -0,0 +1,157 @@
+package com.zerox.tank;
+
+import com.almasb.fxgl.dsl.FXGL;
+import com.almasb.fxgl.entity.Entity;
+import com.almasb.fxgl.physics.BoundingShape;
+import com.zerox.tank.net.TankSnapshot;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+
+import java.util.Arrays;
+import java.util.function.Function;
+
+/**
+ * @Author: ZeromaXHe
+ * @Time: 2026/10/19 01:10
+ * @Description: TankApp 联机模式下的显示同步。本地不跑 TankWorld，每帧把 TankClient 插值出来的快照同步到实体上：
+ * 子弹和敌人按 id 和上一帧归并，新出现的从对象池生成，消失的放回对象池；
+ * 音效和爆炸效果从变化里推断：出现新子弹就是有人开火，敌人消失就是被击中
+ * @ModifiedBy: ZeromaXHe
+ */
+class RemoteViews {
+    private final TankEntityFactory factory;
+    private final Function<Dir, Image> tankImages;
+    private final TankWorld.Listener effects;
+
+    private Entity[] tanks = new Entity[0];
+    private ImageView[] tankViews = new ImageView[0];
+    private Dir[] shownDirs = new Dir[0];
+
+    private final ViewList bullets = new ViewList();
+    private final ViewList enemies = new ViewList();
+    /**
+     * 第一次同步时已经存在的子弹、敌人不触发音效
+     */
+    private boolean synced;
+
+    RemoteViews(TankEntityFactory factory, Function<Dir, Image> tankImages, TankWorld.Listener effects) {
+        this.factory = factory;
+        this.tankImages = tankImages;
+        this.effects = effects;
+    }
+
+    void sync(TankSnapshot snapshot) {
+        syncTanks(snapshot);
+        syncList(bullets, snapshot.getBullets(), false);
+        syncList(enemies, snapshot.getEnemies(), true);
+        synced = true;
+    }
+
+    private void syncTanks(TankSnapshot snapshot) {
+        int count = snapshot.getTankCount();
+        if (count > tanks.length) {
+            int old = tanks.length;
+            tanks = Arrays.copyOf(tanks, count);
+            tankViews = Arrays.copyOf(tankViews, count);
+            shownDirs = Arrays.copyOf(shownDirs, count);
+            for (int i = old; i < count; i++) {
+                shownDirs[i] = Dir.RIGHT;
+                tankViews[i] = new ImageView(tankImages.apply(Dir.RIGHT));
+                tanks[i] = FXGL.entityBuilder()
+                        .view(tankViews[i])
+                        .bbox(BoundingShape.box(TankWorld.TANK_SIZE, TankWorld.TANK_SIZE))
+                        .build();
+                tanks[i].setVisible(false);
+                FXGL.getGameWorld().addEntity(tanks[i]);
+            }
+        }
+        for (int i = 0; i < tanks.length; i++) {
+            Dir dir = i < count ? snapshot.getTankDir(i) : null;
+            tanks[i].setVisible(dir != null);
+            if (dir == null) {
+                continue;
+            }
+            tanks[i].setPosition(snapshot.getTankX(i), snapshot.getTankY(i));
+            if (dir != shownDirs[i]) {
+                shownDirs[i] = dir;
+                tankViews[i].setImage(tankImages.apply(dir));
+            }
+        }
+    }
+
+    private void syncList(ViewList list, TankSnapshot.Entities entities, boolean enemy) {
+        int n = entities.getCount();
+        list.prepare(n);
+        int i = 0;
+        int j = 0;
+        while (i < list.count || j < n) {
+            if (j == n || (i < list.count && list.ids[i] < entities.getId(j))) {
+                Entity gone = list.views[i];
+                if (enemy) {
+                    effects.enemyHit(gone.getX() + TankWorld.ENEMY_SIZE / 2, gone.getY() + TankWorld.ENEMY_SIZE / 2);
+                }
+                gone.removeFromWorld();
+                i++;
+                continue;
+            }
+            int id = entities.getId(j);
+            double x = entities.getX(j);
+            double y = entities.getY(j);
+            Entity view;
+            if (i < list.count && list.ids[i] == id) {
+                view = list.views[i];
+                view.setPosition(x, y);
+                i++;
+            } else if (enemy) {
+                view = factory.spawnEnemy(x, y);
+            } else {
+                view = factory.spawnBullet(x, y);
+                if (synced) {
+                    effects.shot();
+                }
+            }
+            list.putNext(id, view);
+            j++;
+        }
+        list.swap();
+    }
+
+    /**
+     * 按 id 升序排列的实体，两套数组轮流用，归并时不分配内存
+     */
+    private static class ViewList {
+        int count;
+        int[] ids = new int[16];
+        Entity[] views = new Entity[16];
+
+        int nextCount;
+        int[] nextIds = new int[16];
+        Entity[] nextViews = new Entity[16];
+
+        void prepare(int capacity) {
+            nextCount = 0;
+            if (capacity > nextIds.length) {
+                int size = Math.max(capacity, nextIds.length * 2);
+                nextIds = new int[size];
+                nextViews = new Entity[size];
+            }
+        }
+
+        void putNext(int id, Entity view) {
+            nextIds[nextCount] = id;
+            nextViews[nextCount] = view;
+            nextCount++;
+        }
+
+        void swap() {
+            int[] oldIds = ids;
+            Entity[] oldViews = views;
+            Arrays.fill(oldViews, 0, count, null);
+            ids = nextIds;
+            views = nextViews;
+            count = nextCount;
+            nextIds = oldIds;
+            nextViews = oldViews;
+        }
+    }
+}
@@ -0,0 +1,290 @@
+package com.zerox.tank;
+
+import com.zerox.common.nav.NavGrid;
+import com.zerox.common.nav.PathService;
+
+import java.util.ArrayDeque;
+
+/**
+ * @Author: ZeromaXHe
+ * @Time: 2026/10/19 13:10
+ * @Description: 敌人追击坦克的寻路调度，TankWorld 每个 tick 调用一次。每个敌人按格子路径走向离它最近的坦克，
+ * 坦克换了格子、而且离上次寻路已经过了 REPATH_TICKS 才重新寻路。
+ * 寻路请求先排进等待队列，每个 tick 最多派发 REQUESTS_PER_TICK 个到 PathService 的后台线程，敌人再多也是分摊到后面的 tick。
+ * 派发 LATENCY_TICKS 个 tick 之后开始按派发顺序使用结果，每个 tick 的预算是 EXPANSIONS_PER_TICK 个搜索格子：
+ * 每条路径按它搜索的格子数扣预算，扣完才交给敌人，预算不够的留到下一个 tick 接着扣，期间敌人继续走旧路径。
+ * 工作线程已经算完的路径在游戏线程上只是取结果；还没算完的不等它，由游戏线程用 Slicer 在这一 tick 的预算内分段搜索，
+ * 所以游戏线程每个 tick 的寻路工作最多 EXPANSIONS_PER_TICK 个格子，从不阻塞。
+ * 两种方式搜索的格子数一样，什么时候用上结果只和 tick、预算有关，和线程快慢无关，
+ * 所以同样的种子和输入在 TankReplay、TankServer 里得到的结果完全一样；也因为这个原因预算按格子数而不是按毫秒算
+ * @ModifiedBy: ZeromaXHe
+ */
+public final class TankAi {
+    public static final double CELL_SIZE = 20;
+    /**
+     * 派发之后第几个 tick 使用寻路结果
+     */
+    public static final int LATENCY_TICKS = 3;
+    /**
+     * 同一个敌人两次寻路至少间隔的 tick 数
+     */
+    public static final int REPATH_TICKS = 30;
+    /**
+     * 每个 tick 最多派发的寻路请求数
+     */
+    public static final int REQUESTS_PER_TICK = 8;
+    /**
+     * 每个 tick 使用寻路结果的预算，单位是搜索的格子数。一次搜索平均两三百个格子，
+     * 预算和 REQUESTS_PER_TICK 差不多匹配；全部由游戏线程自己搜索时大约 0.1ms
+     */
+    public static final int EXPANSIONS_PER_TICK = 2000;
+
+    /**
+     * 敌人左上角所在格子的可走地图，只在类加载时生成一次，之后只读，所有 TankWorld 和工作线程共用
+     */
+    static final NavGrid ENEMY_GRID = enemyGrid();
+
+    private final PathService paths;
+    private final PathService.Slicer slicer;
+    private final ArrayDeque<Agent> waiting = new ArrayDeque<>();
+    private final ArrayDeque<Agent> inFlight = new ArrayDeque<>();
+
+    private long dispatched;
+    private long applied;
+    private long ticks;
+    private long totalNanos;
+    private long lastNanos;
+    private long maxNanos;
+    /**
+     * 工作线程没来得及算、由游戏线程分段搜索的路径数，以及上一个 tick 游戏线程自己搜索的格子数
+     */
+    private long sliced;
+    private int lastSlicedExpansions;
+    private int maxSlicedExpansions;
+
+    TankAi(PathService paths) {
+        this.paths = paths;
+        this.slicer = new PathService.Slicer(paths);
+    }
+
+    private static NavGrid enemyGrid() {
+        NavGrid walls = new NavGrid((int) (TankWorld.WIDTH / CELL_SIZE), (int) (TankWorld.HEIGHT / CELL_SIZE), CELL_SIZE);
+        for (double[] wall : TankWorld.WALLS) {
+            walls.block(wall[0], wall[1], wall[2], wall[3]);
+        }
+        return walls.forAgent((int) Math.ceil(TankWorld.ENEMY_SIZE / CELL_SIZE));
+    }
+
+    /**
+     * 每个敌人的寻路状态，和 TankWorld 中敌人的下标一起交换删除
+     */
+    static final class Agent {
+        private int[] path;
+        private int cursor;
+        /**
+         * 当前路径的目标格子，-1 表示还没有路径
+         */
+        private int goal = -1;
+        private int wantGoal;
+        private int startCell;
+        private long lastRequestTick = -REPATH_TICKS;
+        private boolean queued;
+        private PathService.Request request;
+        /**
+         * 从这个 tick 开始扣预算使用结果
+         */
+        private long dueTick;
+        /**
+         * 已经扣掉的预算
+         */
+        private int charged;
+        private int requestGoal;
+        private boolean removed;
+    }
+
+    /**
+     * tick 开头调用，按派发顺序扣预算，把扣完的寻路结果交给敌人
+     */
+    void begin(long tick) {
+        int budget = EXPANSIONS_PER_TICK;
+        int slicedExpansions = 0;
+        while (budget > 0 && !inFlight.isEmpty() && inFlight.peekFirst().dueTick <= tick) {
+            Agent agent = inFlight.peekFirst();
+            PathService.Request request = agent.request;
+            if (agent.removed) {
+                inFlight.pollFirst();
+                agent.request = null;
+                if (slicer.getRequest() == request) {
+                    slicer.abandon();
+                }
+                continue;
+            }
+            int[] path = request.getNow();
+            if (path != null) {
+                // 工作线程算完了，按它搜索的格子数扣预算；游戏线程搜了一半的也按同样的总数接着扣
+                int remaining = request.getExpanded() - agent.charged;
+                if (remaining > budget) {
+                    agent.charged += budget;
+                    break;
+                }
+                budget -= remaining;
+                if (slicer.getRequest() == request) {
+                    slicer.abandon();
+                }
+            } else {
+                if (slicer.getRequest() != request) {
+                    slicer.begin(request);
+                }
+                int steps = slicer.step(budget);
+                agent.charged += steps;
+                budget -= steps;
+                slicedExpansions += steps;
+                if (!slicer.isDone()) {
+                    break;
+                }
+                path = slicer.finish();
+                // 还在线程池队列里的话工作线程不用再算
+                request.cancel();
+                sliced++;
+            }
+            inFlight.pollFirst();
+            agent.request = null;
+            apply(agent, path);
+        }
+        lastSlicedExpansions = slicedExpansions;
+        maxSlicedExpansions = Math.max(maxSlicedExpansions, slicedExpansions);
+    }
+
+    private void apply(Agent agent, int[] path) {
+        int[] old = agent.path;
+        int way = old != null && agent.cursor < old.length ? old[agent.cursor] : -1;
+        agent.path = path;
+        // 新路径从派发时的路径点出发，等结果的这几个 tick 里已经走过它时直接从下一个点接着走
+        agent.cursor = path.length > 1 && path[1] == way ? 1 : 0;
+        agent.goal = agent.requestGoal;
+        applied++;
+    }
+
+    /**
+     * 让位于 (x, y) 的敌人追 (targetX, targetY)，坐标都是敌人的左上角，需要时排队寻路
+     */
+    void chase(Agent agent, double x, double y, double targetX, double targetY, long tick) {
+        int goal = ENEMY_GRID.nearestCell(targetX, targetY);
+        agent.wantGoal = goal;
+        agent.startCell = ENEMY_GRID.nearestCell(x, y);
+        if (agent.queued || agent.request != null || goal == agent.goal) {
+            return;
+        }
+        if (agent.path != null && tick - agent.lastRequestTick < REPATH_TICKS) {
+            return;
+        }
+        agent.queued = true;
+        waiting.addLast(agent);
+    }
+
+    /**
+     * 沿路径移动 step 像素，经过的路径点会被消耗掉
+     */
+    void steer(Agent agent, double[] xs, double[] ys, int i, double step) {
+        double x = xs[i];
+        double y = ys[i];
+        double remaining = step;
+        while (remaining > 0 && agent.path != null && agent.cursor < agent.path.length) {
+            int cell = agent.path[agent.cursor];
+            double dx = ENEMY_GRID.cellX(cell) - x;
+            double dy = ENEMY_GRID.cellY(cell) - y;
+            double distance = Math.sqrt(dx * dx + dy * dy);
+            if (distance <= remaining) {
+                x += dx;
+                y += dy;
+                remaining -= distance;
+                agent.cursor++;
+            } else {
+                x += dx / distance * remaining;
+                y += dy / distance * remaining;
+                remaining = 0;
+            }
+        }
+        xs[i] = x;
+        ys[i] = y;
+    }
+
+    /**
+     * tick 末尾调用，按预算派发排队的寻路请求
+     *
+     * @param startNanos begin 之前的 System.nanoTime()，用来统计这个 tick 的 AI 耗时
+     */
+    void end(long tick, long startNanos) {
+        int budget = REQUESTS_PER_TICK;
+        while (budget > 0 && !waiting.isEmpty()) {
+            Agent agent = waiting.pollFirst();
+            agent.queued = false;
+            if (agent.removed) {
+                continue;
+            }
+            // 正在走的路径点作为起点，新路径接上当前的移动，不会先退回去
+            int start = agent.path != null && agent.cursor < agent.path.length
+                    ? agent.path[agent.cursor] : agent.startCell;
+            agent.request = paths.submit(ENEMY_GRID, start, agent.wantGoal);
+            agent.requestGoal = agent.wantGoal;
+            agent.dueTick = tick + LATENCY_TICKS;
+            agent.charged = 0;
+            agent.lastRequestTick = tick;
+            inFlight.addLast(agent);
+            dispatched++;
+            budget--;
+        }
+        lastNanos = System.nanoTime() - startNanos;
+        maxNanos = Math.max(maxNanos, lastNanos);
+        totalNanos += lastNanos;
+        ticks++;
+    }
+
+    void remove(Agent agent) {
+        agent.removed = true;
+        if (agent.request != null) {
+            agent.request.cancel();
+        }
+    }
+
+    /**
+     * 排队等待派发的寻路请求数
+     */
+    public int getWaiting() {
+        return waiting.size();
+    }
+
+    /**
+     * 已经派发、还没到使用时间的寻路请求数
+     */
+    public int getInFlight() {
+        return inFlight.size();
+    }
+
+    /**
+     * 上一个 tick 在游戏线程上的 AI 耗时
+     */
+    public long getLastNanos() {
+        return lastNanos;
+    }
+
+    /**
+     * 上一个 tick 游戏线程自己搜索的格子数，不超过 EXPANSIONS_PER_TICK
+     */
+    public int getLastSlicedExpansions() {
+        return lastSlicedExpansions;
+    }
+
+    public PathService getPaths() {
+        return paths;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ai=%.3fms avg=%.3fms max=%.3fms sliced=%d slicedCells=%d maxSlicedCells=%d"
+                        + " waiting=%d inFlight=%d workerQueue=%d dispatched=%d applied=%d",
+                lastNanos / 1e6, ticks == 0 ? 0 : totalNanos / 1e6 / ticks, maxNanos / 1e6,
+                sliced, lastSlicedExpansions, maxSlicedExpansions,
+                waiting.size(), inFlight.size(), paths.getQueueDepth(), dispatched, applied);
+    }
+}
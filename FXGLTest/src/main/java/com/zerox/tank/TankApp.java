@@ -2,95 +2,226 @@ package com.zerox.tank;
 
 import com.almasb.fxgl.app.GameApplication;
 import com.almasb.fxgl.app.GameSettings;
-import com.almasb.fxgl.core.math.FXGLMath;
+import com.almasb.fxgl.app.scene.GameView;
+import com.almasb.fxgl.core.EngineService;
 import com.almasb.fxgl.dsl.FXGL;
-import com.almasb.fxgl.dsl.components.ExpireCleanComponent;
-import com.almasb.fxgl.dsl.components.OffscreenCleanComponent;
-import com.almasb.fxgl.dsl.components.ProjectileComponent;
 import com.almasb.fxgl.entity.Entity;
-import com.almasb.fxgl.input.UserAction;
 import com.almasb.fxgl.physics.BoundingShape;
-import com.almasb.fxgl.physics.CollisionHandler;
 import com.almasb.fxgl.time.LocalTimer;
-import javafx.animation.FadeTransition;
-import javafx.animation.ParallelTransition;
-import javafx.animation.ScaleTransition;
-import javafx.geometry.Point2D;
-import javafx.scene.canvas.Canvas;
+import com.zerox.common.asset.AssetPreloader;
+import com.zerox.common.audio.AudioDispatcher;
+import com.zerox.common.hud.Hud;
+import com.zerox.common.input.InputSampler;
+import com.zerox.common.instrument.GameInstrumentation;
+import com.zerox.common.particle.ParticleSystem;
+import com.zerox.common.replay.InputJournalReader;
+import com.zerox.common.replay.InputJournalWriter;
+import com.zerox.common.sprite.SpriteCache;
+import com.zerox.common.startup.StartupPreloader;
+import com.zerox.common.startup.StartupProbe;
+import com.zerox.common.vars.TypedVars;
+import com.zerox.common.vars.VarSchema;
+import com.zerox.tank.net.TankClient;
+import com.zerox.tank.net.TankProtocol;
+import com.zerox.tank.net.TankSnapshot;
 import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
 import javafx.scene.input.KeyCode;
 import javafx.scene.paint.Color;
-import javafx.scene.shape.Circle;
 import javafx.scene.shape.Rectangle;
 import javafx.scene.text.Font;
 import javafx.scene.text.Text;
 import javafx.util.Duration;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Map;
 
 /**
  * @Author: ZeromaXHe
  * @Time: 2022/6/4 3:18
- * @Description:
+ * @Description: 游戏逻辑在 TankWorld 中按固定步长推进，这里只负责采集输入、把 TankWorld 的状态同步到实体上、播放音效。
+ * -Dtank.connect=host:port 时是联机客户端：本地不跑 TankWorld，每个 tick 把输入发给 TankServer，显示插值后的服务器快照
  * @ModifiedBy: ZeromaXHe
  */
 public class TankApp extends GameApplication {
-    private Entity tankEntity;
-
-    private boolean isMoving;
-
-    private LocalTimer shootTimer;
-
-    private Dir dir = Dir.RIGHT;
-    private final Duration shootDelay = Duration.seconds(0.25);
-
-    enum Dir {
-        UP(new Point2D(0, -1)),
-
-        DOWN(new Point2D(0, 1)),
-
-        LEFT(new Point2D(-1, 0)),
-
-        RIGHT(new Point2D(1, 0));
+    private static final String TANK_SPRITE = "tank";
+    private static final double TANK_SIZE = TankWorld.TANK_SIZE;
+    /**
+     * 一帧最多追赶的 tick 数，卡顿太久时丢掉积压的时间，而不是一帧跑几百个 tick
+     */
+    private static final int MAX_TICKS_PER_FRAME = 5;
+    private static final int MAX_VOICES = 8;
+    private static final double SHOOT_SECONDS = 0.74;
+    private static final double EXPLODE_SECONDS = 1.33;
+    /**
+     * 同时存在的爆炸粒子上限，一次爆炸 13 个粒子
+     */
+    private static final int MAX_PARTICLES = 16384;
+    /**
+     * 粒子层画在所有实体上面
+     */
+    private static final int PARTICLE_Z = 1000;
 
-        private final Point2D p;
-
-        Dir(Point2D p) {
-            this.p = p;
-        }
-
-        public Point2D getP() {
-            return p;
-        }
-    }
+    private Entity tankEntity;
+    private ImageView tankView;
+    private Dir shownDir;
+    private final SpriteCache spriteCache = new SpriteCache();
+
+    private LocalTimer statsTimer;
+
+    private TankEntityFactory tankFactory;
+    /**
+     * 爆炸效果不再是实体，所有粒子每帧画在同一块 Canvas 上
+     */
+    private TankExplosions explosions;
+    /**
+     * 预加载完成前为 null，音效退回 FXGL.play 同步加载
+     */
+    private AudioDispatcher audio;
+    private int shootSound;
+    private int explodeSound;
+
+    /**
+     * -Dtank.stress=N 压力测试模式，开局生成 N 个敌人并每秒打印统计
+     */
+    private final int stressEnemies = Integer.getInteger("tank.stress", 0);
+    /**
+     * -Dtank.collision=spatial_hash 时子弹和敌人的碰撞用均匀网格检测，结果和默认的逐个检查一样
+     */
+    private final CollisionMode collisionMode =
+            CollisionMode.valueOf(System.getProperty("tank.collision", "direct").toUpperCase());
+    /**
+     * -Dtank.record=文件 把每个 tick 的输入和随机数种子录下来，之后可以用 TankReplay 无界面重放
+     */
+    private final String recordPath = System.getProperty("tank.record");
+    /**
+     * -Dtank.replay=文件 用录像代替键盘输入，录像放完后恢复键盘控制
+     */
+    private final String replayPath = System.getProperty("tank.replay");
+    /**
+     * -Dtank.connect=host:port 联机模式，-Dtank.match=N 指定加入的对局，不指定时由服务器分配
+     */
+    private final String connectAddress = System.getProperty("tank.connect");
+    private TankClient client;
+    private RemoteViews remoteViews;
+    /**
+     * 每帧插值出来的服务器状态
+     */
+    private final TankSnapshot shownSnapshot = new TankSnapshot();
+
+    private final Duration statsDelay = Duration.seconds(stressEnemies > 0 ? 1 : 5);
+    /**
+     * -Dtank.stats=true 按 statsDelay 打印对象池、粒子、音效、寻路、碰撞等各子系统的统计，
+     * 启动时也打印按键绑定和资源预加载耗时，默认都不打印
+     */
+    private final boolean printStats = Boolean.getBoolean("tank.stats");
+    /**
+     * 启动阶段耗时、每帧耗时直方图和实体数量，和其他统计一起按 statsDelay 打印，同时发出 JFR 事件
+     */
+    private final GameInstrumentation instrumentation = new GameInstrumentation("TankApp", statsDelay);
+
+    /**
+     * 游戏变量的槽位，score 每次命中都会改，放在 TypedVars 里不装箱，每帧末尾 flush 到 FXGL 的 world properties
+     */
+    private static final VarSchema VARS = new VarSchema();
+    private static final int SCORE = VARS.intVar("score", 0);
+    private TypedVars vars;
+    /**
+     * 分数文本和分数通知每帧最多更新、判断一次
+     */
+    private Hud hud;
+
+    private TankWorld world;
+    private InputJournalWriter journalWriter;
+    private InputJournalReader journalReader;
+    /**
+     * 按键状态的位集合，每个 tick 采样一次；-Dtank.keys=W=UP,S=DOWN,A=LEFT,D=RIGHT,J=SHOOT 改键
+     */
+    private final InputSampler inputSampler = new InputSampler();
+    private final String keyMap = System.getProperty("tank.keys");
+    private double tickAccumulator;
+    /**
+     * 最后一个 tick 之前坦克的位置，显示时按 tickAccumulator 在两个 tick 之间插值
+     */
+    private double shownTankX;
+    private double shownTankY;
+
+    /**
+     * 和 TankWorld 中子弹、敌人的下标一一对应
+     */
+    private Entity[] bulletViews = new Entity[16];
+    private Entity[] enemyViews = new Entity[16];
+
+    /**
+     * -Dstartup.preload=true 时在 launch 之前后台预加载的 FXGL 服务类
+     */
+    private static final String[] PRELOAD = {
+            "com.almasb.fxgl.entity.GameWorld",
+            "com.almasb.fxgl.physics.PhysicsWorld",
+            "com.almasb.fxgl.input.Input",
+            "com.almasb.fxgl.audio.AudioPlayer",
+            "com.almasb.fxgl.notification.impl.NotificationServiceProvider",
+            "com.almasb.fxgl.ui.FXGLUIFactoryServiceProvider",
+            "com.almasb.fxgl.app.scene.GameScene",
+            "javafx.scene.canvas.Canvas",
+            "javafx.scene.text.Font"
+    };
 
     public static void main(String[] args) {
+        StartupPreloader.start(PRELOAD);
         launch(args);
     }
 
     @Override
     protected void initSettings(GameSettings gameSettings) {
+        StartupProbe.install(gameSettings);
+        instrumentation.phase("initSettings");
         gameSettings.setTitle("Tank");
         gameSettings.setVersion("0.1");
         // FXGL 路径是直接读取 assets/textures 下
         // assets 是所有资源的父目录
         // textures 是专门用于存储图片的目录
         gameSettings.setAppIcon("tank.png");
+        if (recordPath != null && connectAddress == null) {
+            gameSettings.addEngineService(JournalCloser.class);
+        }
     }
 
     @Override
     protected void onPreInit() {
+        instrumentation.phase("onPreInit");
         // 预先加载一些资源
         // 设置游戏的初始化音量
         FXGL.getSettings().setGlobalMusicVolume(0.5);
         FXGL.getSettings().setGlobalSoundVolume(0.8);
 
-        FXGL.loopBGM("tankBgm.mp3");
+        // 音效和背景音乐在后台线程并行解码，完成后回到 JavaFX 线程开始播放，不阻塞启动
+        AssetPreloader preloader = new AssetPreloader(FXGL.getAudioPlayer())
+                .sound("shoot.wav")
+                .sound("explode.wav")
+                .music("tankBgm.mp3");
+        preloader.start(FXGL.getExecutor(), bundle -> {
+            if (printStats) {
+                System.out.println(preloader);
+            }
+            FXGL.getAudioPlayer().loopMusic(bundle.getMusic("tankBgm.mp3"));
+            // 同一帧多次命中只播一次爆炸声，声部满了时爆炸声可以抢占射击声
+            AudioDispatcher dispatcher = new AudioDispatcher(FXGL.getAudioPlayer(), MAX_VOICES);
+            shootSound = dispatcher.register(bundle.getSound("shoot.wav"), 0, SHOOT_SECONDS);
+            explodeSound = dispatcher.register(bundle.getSound("explode.wav"), 1, EXPLODE_SECONDS);
+            audio = dispatcher;
+        });
     }
 
     @Override
     protected void initGameVars(Map<String, Object> vars) {
+        instrumentation.phase("initGameVars");
         // int
         vars.put("score", 0);
         // double
@@ -103,15 +234,105 @@ public class TankApp extends GameApplication {
 
     @Override
     protected void initGame() {
-        FXGL.getip("score").addListener(((observableValue, oldValue, newValue) -> {
-            if (newValue.intValue() > 20) {
-                FXGL.getNotificationService().pushNotification("哇，你好棒啊~");
+        instrumentation.phase("initGame");
+        vars = new TypedVars(VARS);
+        vars.mirrorTo(FXGL.getWorldProperties());
+        hud = new Hud(vars);
+        // 一帧内多次得分只判断一次
+        hud.trigger(SCORE, score -> score > 20,
+                score -> FXGL.getNotificationService().pushNotification("哇，你好棒啊~"));
+
+        statsTimer = FXGL.newLocalTimer();
+        // 子弹、敌人从对象池中取，避免持续开火时频繁创建实体
+        tankFactory = new TankEntityFactory();
+        FXGL.getGameWorld().addEntityFactory(tankFactory);
+        ParticleSystem particles = new ParticleSystem(FXGL.getAppWidth(), FXGL.getAppHeight(), MAX_PARTICLES);
+        FXGL.getGameScene().addGameView(new GameView(particles.getCanvas(), PARTICLE_Z));
+        explosions = new TankExplosions(particles);
+
+        // 坦克的四个朝向各快照一张图片，转向时换图片，不再每次旋转 Canvas 节点
+        for (Dir d : Dir.values()) {
+            tankImage(d);
+        }
+        // 墙是固定的，联机模式也不需要服务器同步
+        for (double[] wall : TankWorld.WALLS) {
+            FXGL.getGameWorld().addEntity(FXGL.entityBuilder()
+                    .at(wall[0], wall[1])
+                    .view(new Rectangle(wall[2], wall[3], Color.GRAY))
+                    .build());
+        }
+        if (connectAddress != null) {
+            connect();
+            return;
+        }
+        shownDir = Dir.RIGHT;
+        tankView = new ImageView(tankImage(shownDir));
+        // IDEA ctrl + alt + f 快速提取成员变量
+        tankEntity = FXGL.entityBuilder()
+                // view 决定的是游戏实体的外观
+                .view(tankView)
+                .bbox(BoundingShape.box(TANK_SIZE, TANK_SIZE))
+                .build();
+        FXGL.getGameWorld().addEntity(tankEntity);
+
+        long seed = Long.getLong("tank.seed", System.nanoTime());
+        int enemies = stressEnemies;
+        try {
+            if (replayPath != null) {
+                journalReader = new InputJournalReader(Path.of(replayPath));
+                seed = journalReader.getSeed();
+                enemies = journalReader.getConfig();
+                System.out.println("replay " + replayPath + " seed=" + seed);
+            } else if (recordPath != null) {
+                journalWriter = new InputJournalWriter(Path.of(recordPath), TankWorld.TICKS_PER_SECOND, seed, enemies);
+                // 正常退出由 JournalCloser 在 FX 线程上关闭；钩子只兜底被信号结束的情况，写入方加了锁
+                Runtime.getRuntime().addShutdownHook(new Thread(this::closeJournal));
+                System.out.println("record " + recordPath + " seed=" + seed);
             }
-        }));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
 
-        shootTimer = FXGL.newLocalTimer();
-        Canvas canvas = new Canvas(100, 100);
-        GraphicsContext g2d = canvas.getGraphicsContext2D();
+        world = new TankWorld(seed);
+        world.setCollisionMode(collisionMode);
+        world.setListener(new ViewSync());
+        world.start(enemies);
+    }
+
+    private void connect() {
+        if (recordPath != null || replayPath != null) {
+            System.out.println("联机模式不支持录像和重放，忽略 tank.record / tank.replay");
+        }
+        String[] hostPort = connectAddress.split(":");
+        InetSocketAddress server = new InetSocketAddress(hostPort[0],
+                hostPort.length > 1 ? Integer.parseInt(hostPort[1]) : TankProtocol.DEFAULT_PORT);
+        try {
+            client = new TankClient(server, Integer.getInteger("tank.match", TankProtocol.AUTO_MATCH));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        // 分数以服务器为准，这里只播音效和爆炸效果
+        remoteViews = new RemoteViews(tankFactory, this::tankImage, new TankWorld.Listener() {
+            @Override
+            public void shot() {
+                playShoot();
+            }
+
+            @Override
+            public void enemyHit(double centerX, double centerY) {
+                playExplode();
+                explosions.explode(centerX, centerY);
+            }
+        });
+        Runtime.getRuntime().addShutdownHook(new Thread(this::disconnect));
+        System.out.println("connect " + server);
+    }
+
+    private Image tankImage(Dir d) {
+        return spriteCache.get(TANK_SPRITE, TANK_SIZE, TANK_SIZE, d.getRotation(), TankApp::drawTank);
+    }
+
+    private static void drawTank(GraphicsContext g2d) {
         g2d.setFill(Color.web("#ffec03"));
         g2d.fillRect(0, 0, 80, 30);
         g2d.fillRect(0, 70, 80, 30);
@@ -119,160 +340,284 @@ public class TankApp extends GameApplication {
         g2d.fillRect(15, 30, 50, 40);
         g2d.setFill(Color.web("#f9ee8a"));
         g2d.fillRect(40, 40, 60, 20);
-        // IDEA ctrl + alt + f 快速提取成员变量
-        tankEntity = FXGL.entityBuilder()
-                // view 决定的是游戏实体的外观
-                .view(canvas)
-                .bbox(BoundingShape.box(100, 100))
-                .build();
-        tankEntity.setRotationOrigin(new Point2D(50, 50));
-        FXGL.getGameWorld().addEntity(tankEntity);
+    }
+
+    /**
+     * TankWorld 中子弹、敌人增删时同步创建、移除实体，并播放音效和爆炸效果
+     */
+    private class ViewSync implements TankWorld.Listener {
+        @Override
+        public void bulletAdded(int index) {
+            if (index == bulletViews.length) {
+                bulletViews = Arrays.copyOf(bulletViews, index * 2);
+            }
+            bulletViews[index] = tankFactory.spawnBullet(world.getBulletX(index), world.getBulletY(index));
+        }
+
+        @Override
+        public void bulletRemoved(int index) {
+            int last = world.getBulletCount() - 1;
+            bulletViews[index].removeFromWorld();
+            bulletViews[index] = bulletViews[last];
+            bulletViews[last] = null;
+        }
+
+        @Override
+        public void enemyAdded(int index) {
+            if (index == enemyViews.length) {
+                enemyViews = Arrays.copyOf(enemyViews, index * 2);
+            }
+            enemyViews[index] = tankFactory.spawnEnemy(world.getEnemyX(index), world.getEnemyY(index));
+        }
+
+        @Override
+        public void enemyRemoved(int index) {
+            int last = world.getEnemyCount() - 1;
+            enemyViews[index].removeFromWorld();
+            enemyViews[index] = enemyViews[last];
+            enemyViews[last] = null;
+        }
+
+        @Override
+        public void shot() {
+            playShoot();
+        }
+
+        @Override
+        public void enemyHit(double centerX, double centerY) {
+//            int score = FXGL.geti("score") + 10;
+//            FXGL.set("score", score);
+//            FXGL.inc("score", TankWorld.SCORE_PER_HIT);
+            vars.inc(SCORE, TankWorld.SCORE_PER_HIT);
+
+            playExplode();
 
-        createEnemy();
+            // 爆炸粒子在 onUpdate 末尾统一推进、绘制
+            explosions.explode(centerX, centerY);
+        }
+    }
+
+    private void playShoot() {
+        if (audio == null) {
+            FXGL.play("shoot.wav");
+        } else {
+            audio.play(shootSound);
+        }
     }
 
-    private void createEnemy() {
-        FXGL.entityBuilder()
-                .type(GameType.ENEMY)
-                .at(FXGLMath.random(60, 740), FXGLMath.random(60, 540))
-                .viewWithBBox(new Rectangle(60, 60, Color.BLUE))
-                // 等于 .collidable()
-//                .with(new CollidableComponent())
-                .collidable()
-                .buildAndAttach();
+    private void playExplode() {
+        if (audio == null) {
+            FXGL.play("explode.wav");
+        } else {
+            audio.play(explodeSound);
+        }
     }
 
     @Override
     protected void initUI() {
-        Text text = FXGL.getUIFactoryService()
-                .newText(FXGL.getip("score").asString("score:%d"));
+        instrumentation.phase("initUI");
+//        Text text = FXGL.getUIFactoryService()
+//                .newText(FXGL.getip("score").asString("score:%d"));
+        // 不再绑定 asString，每次加分都会格式化新字符串并重新布局；Hud 在 vars.flush 通知分数变了时才 setText
+        Text text = hud.intText(SCORE, "score:");
         text.setLayoutX(30);
         text.setLayoutY(30);
         FXGL.addUINode(text);
 //        Text text = FXGL.addVarText("score", 30, 30);
         text.setFill(Color.BLUE);
-        text.fontProperty().unbind();
         text.setFont(Font.font(35));
     }
 
     @Override
     protected void initInput() {
-        FXGL.getInput().addAction(new UserAction("Move up") {
-            @Override
-            protected void onAction() {
-                if (isMoving) {
-                    return;
-                }
-                isMoving = true;
-                dir = Dir.UP;
-                tankEntity.translateY(-5);
-                tankEntity.setRotation(270);
-            }
-        }, KeyCode.UP);
-        FXGL.getInput().addAction(new UserAction("Move down") {
-            @Override
-            protected void onAction() {
-                if (isMoving) {
-                    return;
-                }
-                isMoving = true;
-                dir = Dir.DOWN;
-                tankEntity.translateY(5);
-                tankEntity.setRotation(90);
+        instrumentation.phase("initInput");
+        // 按键只记录到位集合里，在 onUpdate 中每个 tick 采样一次交给 TankWorld；射击间隔 0.25 秒由 TankWorld 控制
+        inputSampler.bind(KeyCode.UP, TankInput.UP)
+                .bind(KeyCode.DOWN, TankInput.DOWN)
+                .bind(KeyCode.LEFT, TankInput.LEFT)
+                .bind(KeyCode.RIGHT, TankInput.RIGHT)
+                .bind(KeyCode.SPACE, TankInput.SHOOT);
+        if (keyMap != null) {
+            inputSampler.remap(keyMap, TankInput::bit);
+        }
+        inputSampler.install(FXGL.getInput());
+        // 切出窗口时收不到松开事件，避免回来以后坦克一直往一个方向走
+        FXGL.getPrimaryStage().focusedProperty().addListener((observable, wasFocused, focused) -> {
+            if (!focused) {
+                inputSampler.clear();
             }
-        }, KeyCode.DOWN);
-        FXGL.getInput().addAction(new UserAction("Move left") {
-            @Override
-            protected void onAction() {
-                if (isMoving) {
-                    return;
-                }
-                isMoving = true;
-                dir = Dir.LEFT;
-                tankEntity.translateX(-5);
-                tankEntity.setRotation(180);
+        });
+        if (printStats) {
+            System.out.println(inputSampler);
+        }
+    }
+
+    @Override
+    protected void initPhysics() {
+        instrumentation.phase("initPhysics");
+        // 子弹和敌人的碰撞在 TankWorld.tick 中检测，不再交给 FXGL 的 PhysicsWorld
+    }
+
+    @Override
+    protected void onUpdate(double tpf) {
+        instrumentation.onUpdate();
+
+        if (client == null) {
+            updateWorld(tpf);
+            syncViews();
+        } else {
+            updateClient(tpf);
+        }
+        explosions.getParticles().update(tpf);
+        // getip("score") 的绑定、分数文本和通知在这里每帧最多更新一次
+        vars.flush();
+        if (audio != null) {
+            audio.update(tpf);
+        }
+
+        if (printStats && statsTimer.elapsed(statsDelay)) {
+            System.out.println("bullet pool: " + tankFactory.getBulletPool()
+                    + " | enemy pool: " + tankFactory.getEnemyPool()
+                    + " | particles: " + explosions.getParticles()
+                    + " | sprite cache: " + spriteCache
+                    + " | audio: " + audio
+                    + " | " + hud
+                    + (client == null ? " | " + world.getAi() + " " + world.getAi().getPaths() : " | client: " + client));
+            if (world != null && world.getBroadPhase() != null) {
+                System.out.println("collision: " + world.getBroadPhase());
+                world.getBroadPhase().resetStats();
             }
-        }, KeyCode.LEFT);
-        FXGL.getInput().addAction(new UserAction("Move right") {
-            @Override
-            protected void onAction() {
-                if (isMoving) {
-                    return;
-                }
-                isMoving = true;
-                dir = Dir.RIGHT;
-                tankEntity.translateX(5);
-                tankEntity.setRotation(0);
+            statsTimer.capture();
+        }
+    }
+
+    private void updateWorld(double tpf) {
+        tickAccumulator += tpf;
+        int ticks = 0;
+        // 这一帧所有 tick 中碰撞检测阶段的耗时，单独报给 instrumentation 的 physics
+        long collideNanos = 0;
+        while (tickAccumulator >= TankWorld.TICK && ticks < MAX_TICKS_PER_FRAME) {
+            shownTankX = world.getTankX();
+            shownTankY = world.getTankY();
+            int input = nextInput();
+            world.tick(input);
+            collideNanos += world.getCollideNanos();
+            if (journalWriter != null) {
+                journalWriter.record(input);
             }
-        }, KeyCode.RIGHT);
+            tickAccumulator -= TankWorld.TICK;
+            ticks++;
+        }
+        if (ticks == MAX_TICKS_PER_FRAME) {
+            tickAccumulator = 0;
+        }
+        instrumentation.recordPhysics(collideNanos);
+    }
 
-        FXGL.getInput().addAction(new UserAction("Shoot") {
-            @Override
-            protected void onAction() {
-                // 判断发射的时间间隔，是否大于等于 0.25 秒（可以发射）
-                if (!shootTimer.elapsed(shootDelay)) {
-                    return;
-                }
-                FXGL.play("shoot.wav");
-                shootTimer.capture();
-                // 子弹实体
-                FXGL.entityBuilder()
-                        .type(GameType.BULLET)
-                        .at(tankEntity.getCenter().getX() + dir.getP().getX() * 50 - 10,
-                                tankEntity.getCenter().getY() + dir.getP().getY() * 50 - 10)
-                        .viewWithBBox(new Rectangle(20, 20))
-                        // 发射物组件
-                        .with(new ProjectileComponent(dir.getP(), 600))
-                        // 屏幕外移除组件
-                        .with(new OffscreenCleanComponent())
-                        .collidable()
-                        .buildAndAttach();
+    /**
+     * 联机模式：输入按 tick 发给服务器，显示插值后的快照
+     */
+    private void updateClient(double tpf) {
+        tickAccumulator += tpf;
+        int ticks = 0;
+        try {
+            while (tickAccumulator >= TankWorld.TICK && ticks < MAX_TICKS_PER_FRAME) {
+                client.sendInput(inputSampler.sample());
+                tickAccumulator -= TankWorld.TICK;
+                ticks++;
             }
-        }, KeyCode.SPACE);
+            client.poll();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (ticks == MAX_TICKS_PER_FRAME) {
+            tickAccumulator = 0;
+        }
+
+        client.advanceClock(tpf);
+        if (client.sample(shownSnapshot)) {
+            remoteViews.sync(shownSnapshot);
+            vars.setInt(SCORE, shownSnapshot.getScore());
+        }
     }
 
-    @Override
-    protected void initPhysics() {
-        FXGL.getPhysicsWorld().addCollisionHandler(new CollisionHandler(GameType.BULLET, GameType.ENEMY) {
-            @Override
-            protected void onCollisionBegin(Entity bullet, Entity enemy) {
-//                int score = FXGL.geti("score") + 10;
-//                FXGL.set("score", score);
-                FXGL.inc("score", 10);
-
-                FXGL.play("explode.wav");
-
-                bullet.removeFromWorld();
-                Point2D center = enemy.getCenter();
-                enemy.removeFromWorld();
-
-                Circle circle = new Circle(10, Color.RED);
-                Duration duration = Duration.seconds(.35);
-                // 创建一个爆炸实体
-                Entity boom = FXGL.entityBuilder()
-                        .at(center)
-                        .view(circle)
-                        // 超过指定时间将实体移除的组件
-                        .with(new ExpireCleanComponent(duration))
-                        .buildAndAttach();
-
-                ScaleTransition st = new ScaleTransition(duration, circle);
-                st.setToX(10);
-                st.setToY(10);
-                FadeTransition ft = new FadeTransition(duration, circle);
-                ft.setToValue(0);
-                ParallelTransition pt = new ParallelTransition(st, ft);
-                pt.play();
-//                pt.setOnFinished(actionEvent -> boom.removeFromWorld());
-
-                createEnemy();
+    private void disconnect() {
+        try {
+            client.leave();
+            client.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private int nextInput() {
+        // 重放时也要采样，清掉重放期间的点按，录像放完后才不会带着旧的按键
+        int live = inputSampler.sample();
+        if (journalReader == null) {
+            return live;
+        }
+        int input;
+        try {
+            input = journalReader.next();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (input >= 0) {
+            return input;
+        }
+        System.out.println("replay finished at tick " + world.getTick() + ", score=" + world.getScore());
+        try {
+            journalReader.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        journalReader = null;
+        return live;
+    }
+
+    private void syncViews() {
+        // 逻辑按固定 tick 移动，显示按这一帧多出来的时间在上一个 tick 和这一个 tick 之间插值，刷新率高于 tick 频率时也是平滑移动
+        double alpha = tickAccumulator / TankWorld.TICK;
+        tankEntity.setPosition(shownTankX + (world.getTankX() - shownTankX) * alpha,
+                shownTankY + (world.getTankY() - shownTankY) * alpha);
+        if (world.getDir() != shownDir) {
+            shownDir = world.getDir();
+            tankView.setImage(tankImage(shownDir));
+        }
+        for (int i = 0; i < world.getBulletCount(); i++) {
+            bulletViews[i].setPosition(world.getBulletX(i), world.getBulletY(i));
+        }
+        for (int i = 0; i < world.getEnemyCount(); i++) {
+            enemyViews[i].setPosition(world.getEnemyX(i), world.getEnemyY(i));
+        }
+    }
+
+    private void closeJournal() {
+        if (journalWriter == null) {
+            return;
+        }
+        // FX 线程的退出和关闭钩子都可能走到这里，只有先拿到锁的那次真正关闭
+        synchronized (journalWriter) {
+            if (journalWriter.isClosed()) {
+                return;
             }
-        });
+            try {
+                journalWriter.close();
+                System.out.println("recorded " + journalWriter.getTicks() + " ticks to " + recordPath);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
     }
 
-    @Override
-    protected void onUpdate(double tpf) {
-        isMoving = false;
-//        System.out.println(FXGL.getGameWorld().getEntities().size());
+    /**
+     * 录像时注册到引擎上，FXGL 正常退出（关窗口、菜单退出）时在 FX 线程上关闭录像，
+     * 不和 updateWorld 里的 record 抢同一个缓冲区
+     */
+    public static class JournalCloser extends EngineService {
+        @Override
+        public void onExit() {
+            ((TankApp) FXGL.getApp()).closeJournal();
+        }
     }
 }
@@ -0,0 +1,84 @@
+package com.zerox.tank;
+
+import com.almasb.fxgl.dsl.FXGL;
+import com.almasb.fxgl.entity.Entity;
+import com.almasb.fxgl.entity.EntityFactory;
+import com.almasb.fxgl.entity.SpawnData;
+import com.almasb.fxgl.entity.Spawns;
+import com.zerox.common.pool.EntityPool;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Circle;
+import javafx.scene.shape.Rectangle;
+import javafx.util.Duration;
+
+/**
+ * @Author: ZeromaXHe
+ * @Time: 2026/10/18 10:26
+ * @Description: 坦克大战的实体工厂，子弹、敌人和爆炸效果都通过对象池复用。实体只负责显示，移动和碰撞由 TankWorld 计算。
+ * TankApp 的爆炸已经改用 TankExplosions 粒子，boom 实体留给 ExplosionStressApp 做对照
+ * @ModifiedBy: ZeromaXHe
+ */
+public class TankEntityFactory implements EntityFactory {
+    private final EntityPool bulletPool = new EntityPool(() -> newBullet(new SpawnData()));
+    private final EntityPool enemyPool = new EntityPool(() -> newEnemy(new SpawnData()));
+    private final EntityPool boomPool = new EntityPool(() -> newBoom(new SpawnData()));
+
+    @Spawns("bullet")
+    public Entity newBullet(SpawnData data) {
+        return FXGL.entityBuilder(data)
+                .type(GameType.BULLET)
+                .viewWithBBox(new Rectangle(TankWorld.BULLET_SIZE, TankWorld.BULLET_SIZE))
+                .build();
+    }
+
+    @Spawns("enemy")
+    public Entity newEnemy(SpawnData data) {
+        return FXGL.entityBuilder(data)
+                .type(GameType.ENEMY)
+                .viewWithBBox(new Rectangle(TankWorld.ENEMY_SIZE, TankWorld.ENEMY_SIZE, Color.BLUE))
+                .build();
+    }
+
+    @Spawns("boom")
+    public Entity newBoom(SpawnData data) {
+        Circle circle = new Circle(10, Color.RED);
+        return FXGL.entityBuilder(data)
+                .view(circle)
+                // 超过指定时间将实体移除
+                .with(new ExplosionComponent(circle, Duration.seconds(.35), 10))
+                .build();
+    }
+
+    /**
+     * 从对象池中发射一颗子弹
+     */
+    public Entity spawnBullet(double x, double y) {
+        return bulletPool.spawn(x, y);
+    }
+
+    /**
+     * 从对象池中创建一个敌人
+     */
+    public Entity spawnEnemy(double x, double y) {
+        return enemyPool.spawn(x, y);
+    }
+
+    /**
+     * 从对象池中创建一个爆炸效果，x、y 是爆炸中心
+     */
+    public Entity spawnBoom(double x, double y) {
+        return boomPool.spawn(x, y);
+    }
+
+    public EntityPool getBulletPool() {
+        return bulletPool;
+    }
+
+    public EntityPool getEnemyPool() {
+        return enemyPool;
+    }
+
+    public EntityPool getBoomPool() {
+        return boomPool;
+    }
+}
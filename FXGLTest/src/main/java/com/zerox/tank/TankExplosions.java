@@ -0,0 +1,54 @@
+package com.zerox.tank;
+
+import com.zerox.common.particle.ParticleCurve;
+import com.zerox.common.particle.ParticleEffect;
+import com.zerox.common.particle.ParticleSystem;
+import javafx.animation.Interpolator;
+import javafx.scene.paint.Color;
+
+/**
+ * @Author: ZeromaXHe
+ * @Time: 2026/10/19 10:40
+ * @Description: 坦克大战的爆炸效果，用 ParticleSystem 画在同一块 Canvas 上，代替每次爆炸一个带 ExplosionComponent 的实体。
+ * FLASH 和原来的 boom 实体一样：半径 10 的红色圆 0.35 秒内放大到 10 倍并淡出，插值器都是 EASE_BOTH；
+ * 另外加一圈向四周飞溅、逐渐减速的火花
+ * @ModifiedBy: ZeromaXHe
+ */
+public class TankExplosions {
+    public static final ParticleEffect FLASH = ParticleEffect.burst(1)
+            .life(0.35, 0.35)
+            .radius(10)
+            .scale(ParticleCurve.of(1, 10, Interpolator.EASE_BOTH))
+            .alpha(ParticleCurve.of(1, 0, Interpolator.EASE_BOTH))
+            .color(Color.RED)
+            .build();
+    public static final ParticleEffect SPARKS = ParticleEffect.burst(12)
+            .life(0.25, 0.6)
+            .speed(80, 260)
+            .drag(3)
+            .radius(3)
+            .scale(ParticleCurve.linear(1, 0.3))
+            .alpha(ParticleCurve.of(1, 0, Interpolator.EASE_IN))
+            .color(Color.ORANGE)
+            .additive()
+            .build();
+
+    private final ParticleSystem particles;
+    private final int flash;
+    private final int sparks;
+
+    public TankExplosions(ParticleSystem particles) {
+        this.particles = particles;
+        this.flash = particles.register(FLASH);
+        this.sparks = particles.register(SPARKS);
+    }
+
+    public void explode(double centerX, double centerY) {
+        particles.emit(flash, centerX, centerY);
+        particles.emit(sparks, centerX, centerY);
+    }
+
+    public ParticleSystem getParticles() {
+        return particles;
+    }
+}
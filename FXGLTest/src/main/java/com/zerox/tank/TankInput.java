@@ -0,0 +1,65 @@
+package com.zerox.tank;
+
+/**
+ * @Author: ZeromaXHe
+ * @Time: 2026/10/18 19:40
+ * @Description: 一个 tick 的输入，按位组合，录像文件中每个 tick 记录的就是这个值
+ * @ModifiedBy: ZeromaXHe
+ */
+public final class TankInput {
+    public static final int UP = 1;
+    public static final int DOWN = 1 << 1;
+    public static final int LEFT = 1 << 2;
+    public static final int RIGHT = 1 << 3;
+    public static final int SHOOT = 1 << 4;
+    /**
+     * 所有有效的位，网络上收到的输入先和它按位与
+     */
+    public static final int ALL = UP | DOWN | LEFT | RIGHT | SHOOT;
+
+    private TankInput() {
+    }
+
+    /**
+     * 改键配置里的位名
+     *
+     * @throws IllegalArgumentException 不认识的位名
+     */
+    public static int bit(String name) {
+        switch (name) {
+            case "UP":
+                return UP;
+            case "DOWN":
+                return DOWN;
+            case "LEFT":
+                return LEFT;
+            case "RIGHT":
+                return RIGHT;
+            case "SHOOT":
+                return SHOOT;
+            default:
+                throw new IllegalArgumentException("unknown input: " + name);
+        }
+    }
+
+    /**
+     * 同时按下多个方向键时，和原来 UserAction 的注册顺序一样，上、下、左、右依次优先
+     *
+     * @return 没有按方向键时返回 null
+     */
+    public static Dir direction(int input) {
+        if ((input & UP) != 0) {
+            return Dir.UP;
+        }
+        if ((input & DOWN) != 0) {
+            return Dir.DOWN;
+        }
+        if ((input & LEFT) != 0) {
+            return Dir.LEFT;
+        }
+        if ((input & RIGHT) != 0) {
+            return Dir.RIGHT;
+        }
+        return null;
+    }
+}
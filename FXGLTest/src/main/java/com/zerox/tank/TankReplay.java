@@ -0,0 +1,74 @@
+package com.zerox.tank;
+
+import com.zerox.common.instrument.LatencyHistogram;
+import com.zerox.common.replay.InputJournalReader;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * @Author: ZeromaXHe
+ * @Time: 2026/10/18 20:35
+ * @Description: 无界面全速重放 TankApp 录下的输入（-Dtank.record=文件），用来复现现场的卡顿。
+ * 不启动 FXGL，只跑 TankWorld，打印每个 tick 的耗时分布和最慢的 tick，方便定位到录像中的具体时刻
+ * 用法：TankReplay 录像文件 [重复次数]，-Dtank.collision=spatial_hash 切换碰撞检测方式，碰撞阶段的耗时单独统计
+ * @ModifiedBy: ZeromaXHe
+ */
+public class TankReplay {
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("用法: TankReplay <录像文件> [重复次数]");
+            System.exit(1);
+        }
+        Path path = Path.of(args[0]);
+        int repeat = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+        // 第一遍之后 JIT 已经预热，后面几遍的耗时更接近游戏里的情况
+        for (int i = 0; i < repeat; i++) {
+            replay(path);
+        }
+    }
+
+    private static void replay(Path path) throws IOException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        LatencyHistogram collide = new LatencyHistogram();
+        long slowestTick = 0;
+        long slowestNanos = -1;
+
+        TankWorld world;
+        long start = System.nanoTime();
+        try (InputJournalReader reader = new InputJournalReader(path)) {
+            if (reader.getTicksPerSecond() != TankWorld.TICKS_PER_SECOND) {
+                throw new IOException("录像的 tick 频率 " + reader.getTicksPerSecond()
+                        + " 和 TankWorld 的 " + TankWorld.TICKS_PER_SECOND + " 不一致");
+            }
+            world = new TankWorld(reader.getSeed());
+            world.setCollisionMode(CollisionMode.valueOf(System.getProperty("tank.collision", "direct").toUpperCase()));
+            world.start(reader.getConfig());
+            int input;
+            while ((input = reader.next()) >= 0) {
+                long tickStart = System.nanoTime();
+                world.tick(input);
+                long nanos = System.nanoTime() - tickStart;
+                histogram.record(nanos);
+                collide.record(world.getCollideNanos());
+                if (nanos > slowestNanos) {
+                    slowestNanos = nanos;
+                    slowestTick = world.getTick();
+                }
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        long ticks = world.getTick();
+        System.out.printf("replay %s: seed=%d ticks=%d (%.1fs game time) in %.1fms, %.0f ticks/s%n",
+                path.getFileName(), world.getSeed(), ticks, (double) ticks / TankWorld.TICKS_PER_SECOND,
+                elapsed / 1e6, ticks / (elapsed / 1e9));
+        System.out.println("  score=" + world.getScore() + " enemies=" + world.getEnemyCount()
+                + " bullets=" + world.getBulletCount()
+                + " tank=(" + world.getTankX() + ", " + world.getTankY() + ") " + world.getDir());
+        System.out.println("  " + world.getAi() + " " + world.getAi().getPaths());
+        System.out.println("  collision " + collide + (world.getBroadPhase() == null ? "" : " " + world.getBroadPhase()));
+        System.out.printf("  tick %s, slowest tick #%d at %.2fs%n",
+                histogram, slowestTick, (double) slowestTick / TankWorld.TICKS_PER_SECOND);
+    }
+}
@@ -0,0 +1,513 @@
+package com.zerox.tank;
+
+import com.zerox.common.nav.PathService;
+import com.zerox.common.physics.SpatialHashBroadPhase;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * @Author: ZeromaXHe
+ * @Time: 2026/10/18 19:45
+ * @Description: 坦克大战的游戏逻辑：移动、射击间隔、子弹飞行和出界、子弹和敌人的碰撞、敌人重生。
+ * 固定步长，随机数只来自构造时给的种子，同样的种子和每个 tick 的输入一定得到同样的结果，
+ * 所以录像可以脱离 FXGL 在 TankReplay 里全速重放。TankApp 只负责采集输入和把状态同步到实体上。
+ * 默认只有一辆坦克（下标 0）；联机时 TankServer 用 addTank 加入更多坦克，大家合作打同一批敌人、共用分数。
+ * 子弹和敌人另有递增的 id，数组下标会因为交换删除而变化，网络快照靠 id 对应前后两帧的同一个实体。
+ * 地图上有几段固定的墙，挡住坦克和子弹；敌人由 TankAi 寻路绕过墙追击离它最近的坦克
+ * @ModifiedBy: ZeromaXHe
+ */
+public class TankWorld {
+    public static final int TICKS_PER_SECOND = 60;
+    public static final double TICK = 1.0 / TICKS_PER_SECOND;
+
+    public static final double WIDTH = 800;
+    public static final double HEIGHT = 600;
+    public static final double TANK_SIZE = 100;
+    /**
+     * 每个 tick 移动的像素，和原来每帧移动 5 像素一致
+     */
+    public static final double TANK_STEP = 5;
+    public static final double BULLET_SIZE = 20;
+    public static final double BULLET_SPEED = 600;
+    /**
+     * 射击间隔 0.25 秒
+     */
+    public static final int SHOOT_TICKS = TICKS_PER_SECOND / 4;
+    public static final double ENEMY_SIZE = 60;
+    /**
+     * 敌人每个 tick 移动的像素，比坦克慢，坦克可以甩开
+     */
+    public static final double ENEMY_STEP = 1.5;
+    /**
+     * 墙的 x, y, 宽, 高。地图固定不随种子变化，联机客户端不用同步也能画出来；四个角是坦克出生点，要空出来
+     */
+    public static final double[][] WALLS = {
+            {200, 140, 20, 320},
+            {580, 140, 20, 320},
+            {300, 120, 200, 20},
+            {300, 460, 200, 20}
+    };
+    /**
+     * 敌人出生时随机选格子，最多尝试这么多次找不在墙里的格子
+     */
+    private static final int SPAWN_ATTEMPTS = 16;
+    public static final int SCORE_PER_HIT = 10;
+
+    /**
+     * 实体增删的回调。删除时数组尾部的元素会移动到被删除的位置，
+     * 视图一侧用同样的方式维护和这里下标一一对应的实体数组即可
+     */
+    public interface Listener {
+        default void bulletAdded(int index) {
+        }
+
+        /**
+         * 在 index 被最后一个元素覆盖之前调用
+         */
+        default void bulletRemoved(int index) {
+        }
+
+        default void enemyAdded(int index) {
+        }
+
+        default void enemyRemoved(int index) {
+        }
+
+        default void shot() {
+        }
+
+        /**
+         * 子弹击中敌人，参数是敌人的中心点，在 bulletRemoved、enemyRemoved 之前调用
+         */
+        default void enemyHit(double centerX, double centerY) {
+        }
+    }
+
+    private static final Listener NO_LISTENER = new Listener() {
+    };
+
+    private final long seed;
+    private final Random random;
+    private Listener listener = NO_LISTENER;
+    /**
+     * CollisionMode.DIRECT 时为 null
+     */
+    private SpatialHashBroadPhase broadPhase;
+    /**
+     * 有子弹击中敌人后敌人数组变了，下一颗子弹查询之前要重建网格
+     */
+    private boolean broadPhaseDirty;
+    private long collideNanos;
+
+    private long tick;
+    private int score;
+
+    private int tankCount = 1;
+    private double[] tankX = new double[4];
+    private double[] tankY = new double[4];
+    private Dir[] tankDir = {Dir.RIGHT, Dir.RIGHT, Dir.RIGHT, Dir.RIGHT};
+    private long[] lastShotTick = new long[4];
+    /**
+     * 敌人只追有人控制的坦克，联机时空着的位置由 TankMatch 标记为 false
+     */
+    private boolean[] tankActive = {true, true, true, true};
+    /**
+     * tick(int) 复用的输入数组
+     */
+    private final int[] soloInput = new int[1];
+
+    /**
+     * 子弹和敌人的 id 从 1 开始递增
+     */
+    private int nextId = 1;
+
+    private int bulletCount;
+    private int[] bulletId = new int[16];
+    private double[] bulletX = new double[16];
+    private double[] bulletY = new double[16];
+    private double[] bulletDx = new double[16];
+    private double[] bulletDy = new double[16];
+
+    private int enemyCount;
+    private int[] enemyId = new int[16];
+    private double[] enemyX = new double[16];
+    private double[] enemyY = new double[16];
+    private TankAi.Agent[] enemyAgent = new TankAi.Agent[16];
+
+    private final TankAi ai;
+
+    public TankWorld(long seed) {
+        this(seed, PathService.shared());
+    }
+
+    /**
+     * @param paths 寻路用的线程池，不影响结果，只影响寻路在哪个线程上算
+     */
+    public TankWorld(long seed, PathService paths) {
+        this.seed = seed;
+        this.random = new Random(seed);
+        this.ai = new TankAi(paths);
+    }
+
+    public void setListener(Listener listener) {
+        this.listener = listener == null ? NO_LISTENER : listener;
+    }
+
+    /**
+     * 两种检测方式得到的结果一样，只影响耗时，可以随时切换
+     */
+    public void setCollisionMode(CollisionMode mode) {
+        broadPhase = mode == CollisionMode.SPATIAL_HASH ? new SpatialHashBroadPhase(ENEMY_SIZE + BULLET_SIZE) : null;
+    }
+
+    /**
+     * 开局生成敌人，enemies 小于 1 时也至少生成一个
+     */
+    public void start(int enemies) {
+        spawnEnemy();
+        for (int i = 1; i < enemies; i++) {
+            spawnEnemy();
+        }
+    }
+
+    /**
+     * 再加入一辆坦克，依次出生在四个角上
+     *
+     * @return 坦克下标，tick(int[]) 中对应的输入位置
+     */
+    public int addTank() {
+        if (tankCount == tankX.length) {
+            int capacity = tankCount * 2;
+            tankX = Arrays.copyOf(tankX, capacity);
+            tankY = Arrays.copyOf(tankY, capacity);
+            tankDir = Arrays.copyOf(tankDir, capacity);
+            lastShotTick = Arrays.copyOf(lastShotTick, capacity);
+            tankActive = Arrays.copyOf(tankActive, capacity);
+        }
+        int i = tankCount++;
+        tankActive[i] = true;
+        tankX[i] = (i & 1) == 0 ? 0 : WIDTH - TANK_SIZE;
+        tankY[i] = (i & 2) == 0 ? 0 : HEIGHT - TANK_SIZE;
+        tankDir[i] = (i & 1) == 0 ? Dir.RIGHT : Dir.LEFT;
+        return i;
+    }
+
+    /**
+     * 没人控制的坦克还留在场上，但敌人不再追它，没有一辆坦克在追的时候敌人走完当前路径就停下
+     */
+    public void setTankActive(int tank, boolean active) {
+        tankActive[tank] = active;
+    }
+
+    public boolean isTankActive(int tank) {
+        return tankActive[tank];
+    }
+
+    /**
+     * 推进一个 tick，只有坦克 0 有输入
+     *
+     * @param input TankInput 中各个位的组合
+     */
+    public void tick(int input) {
+        soloInput[0] = input;
+        tick(soloInput);
+    }
+
+    /**
+     * 推进一个 tick，inputs[i] 是坦克 i 的输入，数组比坦克数量短时多出来的坦克没有输入
+     */
+    public void tick(int[] inputs) {
+        tick++;
+        for (int i = 0; i < tankCount; i++) {
+            steer(i, i < inputs.length ? inputs[i] : 0);
+        }
+        moveEnemies();
+        moveBullets();
+        collide();
+    }
+
+    private void steer(int tank, int input) {
+        Dir move = TankInput.direction(input);
+        if (move != null) {
+            tankDir[tank] = move;
+            double x = tankX[tank] + move.getDx() * TANK_STEP;
+            double y = tankY[tank] + move.getDy() * TANK_STEP;
+            // 撞墙时只转向不移动
+            if (!hitsWall(x, y, TANK_SIZE)) {
+                tankX[tank] = x;
+                tankY[tank] = y;
+            }
+        }
+        if ((input & TankInput.SHOOT) != 0 && tick - lastShotTick[tank] >= SHOOT_TICKS) {
+            lastShotTick[tank] = tick;
+            shoot(tank);
+        }
+    }
+
+    private void shoot(int tank) {
+        Dir dir = tankDir[tank];
+        double centerX = tankX[tank] + TANK_SIZE / 2;
+        double centerY = tankY[tank] + TANK_SIZE / 2;
+        if (bulletCount == bulletX.length) {
+            int capacity = bulletCount * 2;
+            bulletId = Arrays.copyOf(bulletId, capacity);
+            bulletX = Arrays.copyOf(bulletX, capacity);
+            bulletY = Arrays.copyOf(bulletY, capacity);
+            bulletDx = Arrays.copyOf(bulletDx, capacity);
+            bulletDy = Arrays.copyOf(bulletDy, capacity);
+        }
+        int i = bulletCount++;
+        bulletId[i] = nextId++;
+        bulletX[i] = centerX + dir.getDx() * 50 - BULLET_SIZE / 2;
+        bulletY[i] = centerY + dir.getDy() * 50 - BULLET_SIZE / 2;
+        bulletDx[i] = dir.getDx() * BULLET_SPEED;
+        bulletDy[i] = dir.getDy() * BULLET_SPEED;
+        listener.shot();
+        listener.bulletAdded(i);
+    }
+
+    /**
+     * 每个敌人追离它最近的有人控制的坦克，寻路结果到了就沿路径走
+     */
+    private void moveEnemies() {
+        long start = System.nanoTime();
+        ai.begin(tick);
+        double offset = (TANK_SIZE - ENEMY_SIZE) / 2;
+        for (int i = 0; i < enemyCount; i++) {
+            int target = nearestTank(enemyX[i], enemyY[i]);
+            if (target >= 0) {
+                ai.chase(enemyAgent[i], enemyX[i], enemyY[i], tankX[target] + offset, tankY[target] + offset, tick);
+            }
+            ai.steer(enemyAgent[i], enemyX, enemyY, i, ENEMY_STEP);
+        }
+        ai.end(tick, start);
+    }
+
+    /**
+     * @return 最近的有人控制的坦克，一辆都没有时返回 -1
+     */
+    private int nearestTank(double x, double y) {
+        int nearest = -1;
+        double best = Double.MAX_VALUE;
+        for (int t = 0; t < tankCount; t++) {
+            if (!tankActive[t]) {
+                continue;
+            }
+            double dx = tankX[t] - x;
+            double dy = tankY[t] - y;
+            double d = dx * dx + dy * dy;
+            if (d < best) {
+                best = d;
+                nearest = t;
+            }
+        }
+        return nearest;
+    }
+
+    private static boolean hitsWall(double x, double y, double size) {
+        for (double[] wall : WALLS) {
+            if (x < wall[0] + wall[2] && x + size > wall[0] && y < wall[1] + wall[3] && y + size > wall[1]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void moveBullets() {
+        for (int i = bulletCount - 1; i >= 0; i--) {
+            bulletX[i] += bulletDx[i] * TICK;
+            bulletY[i] += bulletDy[i] * TICK;
+            // 和 OffscreenCleanComponent 一样，完全离开屏幕才移除
+            if (bulletX[i] + BULLET_SIZE < 0 || bulletX[i] > WIDTH
+                    || bulletY[i] + BULLET_SIZE < 0 || bulletY[i] > HEIGHT
+                    || hitsWall(bulletX[i], bulletY[i], BULLET_SIZE)) {
+                removeBullet(i);
+            }
+        }
+    }
+
+    /**
+     * 每颗子弹找下标最小的相交敌人，DIRECT 逐个检查所有敌人，SPATIAL_HASH 只查网格里附近的敌人
+     */
+    private void collide() {
+        long start = System.nanoTime();
+        broadPhaseDirty = true;
+        for (int b = bulletCount - 1; b >= 0; b--) {
+            int e = broadPhase == null ? firstHitDirect(b) : firstHitGrid(b);
+            if (e < 0) {
+                continue;
+            }
+            score += SCORE_PER_HIT;
+            listener.enemyHit(enemyX[e] + ENEMY_SIZE / 2, enemyY[e] + ENEMY_SIZE / 2);
+            removeBullet(b);
+            removeEnemy(e);
+            spawnEnemy();
+            broadPhaseDirty = true;
+        }
+        collideNanos = System.nanoTime() - start;
+    }
+
+    private int firstHitDirect(int b) {
+        double bx = bulletX[b];
+        double by = bulletY[b];
+        for (int e = 0; e < enemyCount; e++) {
+            double ex = enemyX[e];
+            double ey = enemyY[e];
+            if (bx < ex + ENEMY_SIZE && bx + BULLET_SIZE > ex
+                    && by < ey + ENEMY_SIZE && by + BULLET_SIZE > ey) {
+                return e;
+            }
+        }
+        return -1;
+    }
+
+    private int firstHitGrid(int b) {
+        if (broadPhaseDirty) {
+            broadPhase.clear();
+            for (int e = 0; e < enemyCount; e++) {
+                broadPhase.insert(e, enemyX[e], enemyY[e], enemyX[e] + ENEMY_SIZE, enemyY[e] + ENEMY_SIZE);
+            }
+            broadPhase.build();
+            broadPhaseDirty = false;
+        }
+        double bx = bulletX[b];
+        double by = bulletY[b];
+        return broadPhase.query(bx, by, bx + BULLET_SIZE, by + BULLET_SIZE) > 0 ? broadPhase.getHit(0) : -1;
+    }
+
+    private void spawnEnemy() {
+        if (enemyCount == enemyX.length) {
+            int capacity = enemyCount * 2;
+            enemyId = Arrays.copyOf(enemyId, capacity);
+            enemyX = Arrays.copyOf(enemyX, capacity);
+            enemyY = Arrays.copyOf(enemyY, capacity);
+            enemyAgent = Arrays.copyOf(enemyAgent, capacity);
+        }
+        int i = enemyCount++;
+        enemyId[i] = nextId++;
+        // 和原来的 FXGLMath.random(60, 740)、FXGLMath.random(60, 540) 范围一致，对齐到寻路格子上，避开墙
+        int cell = -1;
+        for (int attempt = 0; attempt < SPAWN_ATTEMPTS && (cell < 0 || TankAi.ENEMY_GRID.isBlocked(cell)); attempt++) {
+            cell = TankAi.ENEMY_GRID.nearestCell(60 + random.nextDouble() * 680, 60 + random.nextDouble() * 480);
+        }
+        enemyX[i] = TankAi.ENEMY_GRID.cellX(cell);
+        enemyY[i] = TankAi.ENEMY_GRID.cellY(cell);
+        enemyAgent[i] = new TankAi.Agent();
+        listener.enemyAdded(i);
+    }
+
+    private void removeBullet(int i) {
+        listener.bulletRemoved(i);
+        int last = --bulletCount;
+        bulletId[i] = bulletId[last];
+        bulletX[i] = bulletX[last];
+        bulletY[i] = bulletY[last];
+        bulletDx[i] = bulletDx[last];
+        bulletDy[i] = bulletDy[last];
+    }
+
+    private void removeEnemy(int i) {
+        listener.enemyRemoved(i);
+        ai.remove(enemyAgent[i]);
+        int last = --enemyCount;
+        enemyId[i] = enemyId[last];
+        enemyX[i] = enemyX[last];
+        enemyY[i] = enemyY[last];
+        enemyAgent[i] = enemyAgent[last];
+        enemyAgent[last] = null;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * 上一个 tick 子弹和敌人碰撞检测的耗时
+     */
+    public long getCollideNanos() {
+        return collideNanos;
+    }
+
+    /**
+     * CollisionMode.DIRECT 时为 null
+     */
+    public SpatialHashBroadPhase getBroadPhase() {
+        return broadPhase;
+    }
+
+    public long getTick() {
+        return tick;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public double getTankX() {
+        return tankX[0];
+    }
+
+    public double getTankY() {
+        return tankY[0];
+    }
+
+    public Dir getDir() {
+        return tankDir[0];
+    }
+
+    public int getTankCount() {
+        return tankCount;
+    }
+
+    public double getTankX(int i) {
+        return tankX[i];
+    }
+
+    public double getTankY(int i) {
+        return tankY[i];
+    }
+
+    public Dir getDir(int i) {
+        return tankDir[i];
+    }
+
+    public int getBulletCount() {
+        return bulletCount;
+    }
+
+    public int getBulletId(int i) {
+        return bulletId[i];
+    }
+
+    public double getBulletX(int i) {
+        return bulletX[i];
+    }
+
+    public double getBulletY(int i) {
+        return bulletY[i];
+    }
+
+    public int getEnemyCount() {
+        return enemyCount;
+    }
+
+    public int getEnemyId(int i) {
+        return enemyId[i];
+    }
+
+    public double getEnemyX(int i) {
+        return enemyX[i];
+    }
+
+    public double getEnemyY(int i) {
+        return enemyY[i];
+    }
+
+    /**
+     * 敌人寻路的统计：游戏线程上每个 tick 的 AI 耗时、排队和在途的寻路请求数
+     */
+    public TankAi getAi() {
+        return ai;
+    }
+}
@@ -0,0 +1,243 @@
+package com.zerox.tank.net;
+
+import java.nio.ByteBuffer;
+
+/**
+ * @Author: ZeromaXHe
+ * @Time: 2026/10/18 23:45
+ * @Description: 快照的增量编码。服务器对每个客户端用它最后确认收到的快照做基准，只写和基准不同的部分：
+ * 坦克每辆一个字节的变化标记，位置变了再写差值；子弹、敌人按 id 归并，写被删除的 id、新增实体的坐标、
+ * 移动过的实体的坐标差。整数都用 zigzag + varint，一帧移动几个像素的差值只占一个字节。
+ * 基准为 null 时相当于和空世界比较，也就是完整快照。
+ * 一个实例内部有复用的临时数组，只能在一个线程里用
+ * @ModifiedBy: ZeromaXHe
+ */
+public class SnapshotCodec {
+    private static final TankSnapshot EMPTY = new TankSnapshot();
+
+    private int[] removedIds = new int[16];
+    private int[] changedIds = new int[16];
+    private int[] changedX = new int[16];
+    private int[] changedY = new int[16];
+
+    /**
+     * @param baseline 客户端已经有的快照，null 表示写完整快照
+     * @throws java.nio.BufferOverflowException out 放不下
+     */
+    public void encode(TankSnapshot current, TankSnapshot baseline, ByteBuffer out) {
+        TankSnapshot base = baseline == null ? EMPTY : baseline;
+        writeVarInt(out, zigzag(current.score - base.score));
+        writeVarInt(out, current.tankCount);
+        for (int i = 0; i < current.tankCount; i++) {
+            boolean had = i < base.tankCount;
+            int baseX = had ? base.tankX[i] : 0;
+            int baseY = had ? base.tankY[i] : 0;
+            int baseDir = had ? base.tankDir[i] : -1;
+            int mask = 0;
+            if (current.tankX[i] != baseX || current.tankY[i] != baseY) {
+                mask |= 1;
+            }
+            if (current.tankDir[i] != baseDir) {
+                mask |= 2;
+            }
+            out.put((byte) mask);
+            if ((mask & 1) != 0) {
+                writeVarInt(out, zigzag(current.tankX[i] - baseX));
+                writeVarInt(out, zigzag(current.tankY[i] - baseY));
+            }
+            if ((mask & 2) != 0) {
+                out.put((byte) current.tankDir[i]);
+            }
+        }
+        encodeEntities(current.bullets, base.bullets, out);
+        encodeEntities(current.enemies, base.enemies, out);
+    }
+
+    private static void encodeEntities(TankSnapshot.Entities current, TankSnapshot.Entities base, ByteBuffer out) {
+        // 第一遍只数个数
+        int removed = 0;
+        int changed = 0;
+        int i = 0;
+        int j = 0;
+        while (i < base.count || j < current.count) {
+            if (j == current.count || (i < base.count && base.id[i] < current.id[j])) {
+                removed++;
+                i++;
+            } else if (i == base.count || current.id[j] < base.id[i]) {
+                changed++;
+                j++;
+            } else {
+                if (current.x[j] != base.x[i] || current.y[j] != base.y[i]) {
+                    changed++;
+                }
+                i++;
+                j++;
+            }
+        }
+
+        writeVarInt(out, removed);
+        int previousId = 0;
+        i = 0;
+        j = 0;
+        while (i < base.count) {
+            if (j == current.count || base.id[i] < current.id[j]) {
+                writeVarInt(out, base.id[i] - previousId);
+                previousId = base.id[i];
+                i++;
+            } else if (current.id[j] < base.id[i]) {
+                j++;
+            } else {
+                i++;
+                j++;
+            }
+        }
+
+        writeVarInt(out, changed);
+        previousId = 0;
+        i = 0;
+        for (j = 0; j < current.count; j++) {
+            int id = current.id[j];
+            while (i < base.count && base.id[i] < id) {
+                i++;
+            }
+            boolean had = i < base.count && base.id[i] == id;
+            if (had && current.x[j] == base.x[i] && current.y[j] == base.y[i]) {
+                continue;
+            }
+            writeVarInt(out, id - previousId);
+            previousId = id;
+            writeVarInt(out, zigzag(current.x[j] - (had ? base.x[i] : 0)));
+            writeVarInt(out, zigzag(current.y[j] - (had ? base.y[i] : 0)));
+        }
+    }
+
+    /**
+     * @param baseline 编码时用的基准，null 表示完整快照；不能和 out 是同一个对象
+     * @param tick     包头里的 tick
+     * @throws RuntimeException 包不完整或者内容不合法
+     */
+    public void decode(ByteBuffer in, TankSnapshot baseline, int tick, TankSnapshot out) {
+        TankSnapshot base = baseline == null ? EMPTY : baseline;
+        out.tick = tick;
+        out.score = base.score + unzigzag(readVarInt(in));
+        int tankCount = readVarInt(in);
+        if (tankCount > 255) {
+            throw new IllegalArgumentException("坦克数量不合法: " + tankCount);
+        }
+        out.tankCount = tankCount;
+        out.ensureTanks(tankCount);
+        for (int i = 0; i < tankCount; i++) {
+            boolean had = i < base.tankCount;
+            int x = had ? base.tankX[i] : 0;
+            int y = had ? base.tankY[i] : 0;
+            int dir = had ? base.tankDir[i] : -1;
+            int mask = in.get();
+            if ((mask & 1) != 0) {
+                x += unzigzag(readVarInt(in));
+                y += unzigzag(readVarInt(in));
+            }
+            if ((mask & 2) != 0) {
+                dir = in.get();
+            }
+            out.tankX[i] = x;
+            out.tankY[i] = y;
+            out.tankDir[i] = dir;
+        }
+        decodeEntities(in, base.bullets, out.bullets);
+        decodeEntities(in, base.enemies, out.enemies);
+    }
+
+    private void decodeEntities(ByteBuffer in, TankSnapshot.Entities base, TankSnapshot.Entities out) {
+        int removed = readCount(in);
+        if (removed > removedIds.length) {
+            removedIds = new int[Math.max(removed, removedIds.length * 2)];
+        }
+        int id = 0;
+        for (int r = 0; r < removed; r++) {
+            id += readVarInt(in);
+            removedIds[r] = id;
+        }
+
+        int changed = readCount(in);
+        if (changed > changedIds.length) {
+            int size = Math.max(changed, changedIds.length * 2);
+            changedIds = new int[size];
+            changedX = new int[size];
+            changedY = new int[size];
+        }
+        id = 0;
+        int k = 0;
+        for (int c = 0; c < changed; c++) {
+            id += readVarInt(in);
+            while (k < base.count && base.id[k] < id) {
+                k++;
+            }
+            boolean had = k < base.count && base.id[k] == id;
+            changedIds[c] = id;
+            changedX[c] = unzigzag(readVarInt(in)) + (had ? base.x[k] : 0);
+            changedY[c] = unzigzag(readVarInt(in)) + (had ? base.y[k] : 0);
+        }
+
+        // 基准里没被删除、没有变化的实体原样保留，和变化的实体按 id 归并，结果仍然有序
+        out.clear(base.count + changed);
+        int i = 0;
+        int r = 0;
+        int c = 0;
+        while (i < base.count || c < changed) {
+            if (c == changed || (i < base.count && base.id[i] < changedIds[c])) {
+                if (r < removed && removedIds[r] == base.id[i]) {
+                    r++;
+                } else {
+                    out.add(base.id[i], base.x[i], base.y[i]);
+                }
+                i++;
+            } else {
+                if (i < base.count && base.id[i] == changedIds[c]) {
+                    i++;
+                }
+                out.add(changedIds[c], changedX[c], changedY[c]);
+                c++;
+            }
+        }
+        if (r != removed) {
+            throw new IllegalArgumentException("删除了基准中不存在的实体");
+        }
+    }
+
+    private static int readCount(ByteBuffer in) {
+        int count = readVarInt(in);
+        // 每个实体至少占一个字节，超过剩余长度的数量一定是坏包
+        if (count > in.remaining()) {
+            throw new IllegalArgumentException("实体数量不合法: " + count);
+        }
+        return count;
+    }
+
+    static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    static int unzigzag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    static void writeVarInt(ByteBuffer out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    static int readVarInt(ByteBuffer in) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = in.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("varint 太长");
+    }
+}
@@ -0,0 +1,202 @@
+package com.zerox.tank.net;
+
+import com.zerox.tank.TankInput;
+import com.zerox.tank.TankWorld;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * @Author: ZeromaXHe
+ * @Time: 2026/10/19 00:50
+ * @Description: 联机压测：一个线程里跑很多机器人客户端，每个 tick 发随机的移动、射击输入，完整解码收到的增量快照并校验。
+ * 每 5 秒打印每个客户端的平均带宽（含 IP/UDP 头）、快照速率、校验失败等；
+ * 不指定服务器地址时在同一个进程里用回环地址启动一个 TankServer，服务器自己的统计行里有 tick 耗时。
+ * 用法：TankBots [host:port]，-Dtank.bots.clients=客户端数（默认 200）、-Dtank.bots.perMatch=每局人数（默认 4）、
+ * -Dtank.bots.seconds=运行秒数（默认 30）
+ * @ModifiedBy: ZeromaXHe
+ */
+public class TankBots {
+    private static final long TICK_NANOS = 1_000_000_000L / TankWorld.TICKS_PER_SECOND;
+    private static final long REPORT_NANOS = 5_000_000_000L;
+
+    private static class Bot {
+        final TankClient client;
+        int input;
+        int holdTicks;
+
+        Bot(TankClient client) {
+            this.client = client;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int clients = Integer.getInteger("tank.bots.clients", 200);
+        int perMatch = Math.min(Integer.getInteger("tank.bots.perMatch", TankProtocol.MAX_PLAYERS), TankProtocol.MAX_PLAYERS);
+        int seconds = Integer.getInteger("tank.bots.seconds", 30);
+
+        TankServer server = null;
+        Thread serverThread = null;
+        InetSocketAddress address;
+        if (args.length > 0) {
+            String[] hostPort = args[0].split(":");
+            address = new InetSocketAddress(hostPort[0], Integer.parseInt(hostPort[1]));
+        } else {
+            int matches = (clients + perMatch - 1) / perMatch;
+            server = new TankServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0),
+                    Math.max(matches, TankServer.DEFAULT_MAX_MATCHES), TankServer.DEFAULT_ENEMIES,
+                    TankServer.DEFAULT_SEND_INTERVAL, 42);
+            address = new InetSocketAddress(InetAddress.getLoopbackAddress(), server.getPort());
+            TankServer embedded = server;
+            serverThread = new Thread(() -> {
+                try {
+                    embedded.run();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, "tank-server");
+            serverThread.start();
+            System.out.println("embedded server on " + address);
+        }
+
+        Random random = new Random(7);
+        List<Bot> bots = new ArrayList<>(clients);
+        try (Selector selector = Selector.open()) {
+            for (int i = 0; i < clients; i++) {
+                TankClient client = new TankClient(address, i / perMatch);
+                client.register(selector);
+                bots.add(new Bot(client));
+            }
+            System.out.println(clients + " bots, " + perMatch + " per match, " + seconds + "s");
+
+            long start = System.nanoTime();
+            long end = start + seconds * 1_000_000_000L;
+            long nextTick = start;
+            long nextReport = start + REPORT_NANOS;
+            Totals last = new Totals();
+            long lastReportNanos = start;
+            while (System.nanoTime() - end < 0) {
+                long now = System.nanoTime();
+                if (now - nextTick >= 0) {
+                    for (Bot bot : bots) {
+                        steer(bot, random);
+                        bot.client.sendInput(bot.input);
+                    }
+                    nextTick += TICK_NANOS;
+                    if (now - nextTick >= 0) {
+                        nextTick = now + TICK_NANOS;
+                    }
+                }
+                if (now - nextReport >= 0) {
+                    Totals totals = Totals.of(bots);
+                    report(totals, last, (now - lastReportNanos) / 1e9, clients);
+                    last = totals;
+                    lastReportNanos = now;
+                    nextReport += REPORT_NANOS;
+                }
+
+                long waitMillis = (nextTick - System.nanoTime()) / 1_000_000;
+                if (waitMillis > 0) {
+                    selector.select(waitMillis);
+                } else {
+                    selector.selectNow();
+                }
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    ((TankClient) keys.next().attachment()).poll();
+                    keys.remove();
+                }
+            }
+
+            Totals totals = Totals.of(bots);
+            System.out.println("total: " + totals.joined + "/" + clients + " joined, rejected=" + totals.rejected
+                    + ", snapshots=" + totals.snapshots + " (full " + totals.fullSnapshots + ")"
+                    + ", checksumErrors=" + totals.checksumErrors + ", missingBaseline=" + totals.missingBaseline
+                    + ", stale=" + totals.stale);
+            for (Bot bot : bots) {
+                bot.client.leave();
+                bot.client.close();
+            }
+        } finally {
+            if (server != null) {
+                server.stop();
+                serverThread.join();
+                server.close();
+            }
+        }
+    }
+
+    /**
+     * 按住一个方向随机走一段时间，一半的时间按着射击
+     */
+    private static void steer(Bot bot, Random random) {
+        if (--bot.holdTicks > 0) {
+            return;
+        }
+        bot.holdTicks = 10 + random.nextInt(50);
+        int[] directions = {0, TankInput.UP, TankInput.DOWN, TankInput.LEFT, TankInput.RIGHT};
+        bot.input = directions[random.nextInt(directions.length)] | (random.nextBoolean() ? TankInput.SHOOT : 0);
+    }
+
+    private static void report(Totals now, Totals last, double seconds, int clients) {
+        double perClient = seconds * Math.max(1, now.joined);
+        System.out.printf("[bots] joined=%d/%d rejected=%d | per client: in %.0fB/s (%.1f snapshots/s, %.0fB avg) out %.0fB/s"
+                        + " | full=%d checksumErrors=%d missingBaseline=%d stale=%d%n",
+                now.joined, clients, now.rejected,
+                (now.wireIn - last.wireIn) / perClient,
+                (now.snapshots - last.snapshots) / perClient,
+                now.packetsIn == last.packetsIn ? 0.0
+                        : (double) (now.bytesIn - last.bytesIn) / (now.packetsIn - last.packetsIn),
+                (now.wireOut - last.wireOut) / perClient,
+                now.fullSnapshots - last.fullSnapshots, now.checksumErrors - last.checksumErrors,
+                now.missingBaseline - last.missingBaseline, now.stale - last.stale);
+    }
+
+    /**
+     * 所有机器人的累计计数
+     */
+    private static class Totals {
+        int joined;
+        int rejected;
+        long bytesIn;
+        long packetsIn;
+        long wireIn;
+        long wireOut;
+        long snapshots;
+        long fullSnapshots;
+        long checksumErrors;
+        long missingBaseline;
+        long stale;
+
+        static Totals of(List<Bot> bots) {
+            Totals totals = new Totals();
+            for (Bot bot : bots) {
+                TankClient client = bot.client;
+                if (client.isJoined()) {
+                    totals.joined++;
+                }
+                if (client.getRejected() != 0) {
+                    totals.rejected++;
+                }
+                totals.bytesIn += client.getBytesIn();
+                totals.packetsIn += client.getPacketsIn();
+                totals.wireIn += client.getBytesIn() + client.getPacketsIn() * TankProtocol.HEADER_BYTES;
+                totals.wireOut += client.getBytesOut() + client.getPacketsOut() * TankProtocol.HEADER_BYTES;
+                totals.snapshots += client.getSnapshots();
+                totals.fullSnapshots += client.getFullSnapshots();
+                totals.checksumErrors += client.getChecksumErrors();
+                totals.missingBaseline += client.getMissingBaseline();
+                totals.stale += client.getStale();
+            }
+            return totals;
+        }
+    }
+}
@@ -0,0 +1,374 @@
+package com.zerox.tank.net;
+
+import com.zerox.tank.TankWorld;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.PortUnreachableException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+
+/**
+ * @Author: ZeromaXHe
+ * @Time: 2026/10/19 00:30
+ * @Description: 连接 TankServer 的客户端，TankApp 的联机模式和 TankBots 压测都用它。
+ * 非阻塞 DatagramChannel，不开线程：调用方每个 tick 调 sendInput，每帧调 poll 把收到的包处理完。
+ * 收到的快照解码后放进一圈历史，既做下一个增量的基准，也用来插值：
+ * 显示的时间比收到的最新快照晚两个发送间隔，sample 在前后两个快照之间线性插值，丢一个包也不会卡顿
+ * @ModifiedBy: ZeromaXHe
+ */
+public class TankClient implements Closeable {
+    private static final int HISTORY = 32;
+    private static final long JOIN_RETRY_NANOS = 250_000_000L;
+    /**
+     * 显示时间和目标差得太多（刚连上、长时间丢包）时直接跳过去，否则每帧只修正一点
+     */
+    private static final double CLOCK_CORRECTION = 0.05;
+
+    private final DatagramChannel channel;
+    private final int requestedMatch;
+    private final SnapshotCodec codec = new SnapshotCodec();
+    private final ByteBuffer receiveBuffer = ByteBuffer.allocateDirect(TankProtocol.MAX_PACKET);
+    private final ByteBuffer sendBuffer = ByteBuffer.allocateDirect(64);
+
+    private final TankSnapshot[] history = new TankSnapshot[HISTORY];
+    private final TankSnapshot scratch = new TankSnapshot();
+    private int historyNext;
+    private int latestTick = TankProtocol.NO_TICK;
+
+    private int matchId = TankProtocol.AUTO_MATCH;
+    private int slot = -1;
+    private int sendInterval = TankServer.DEFAULT_SEND_INTERVAL;
+    private byte rejected;
+    private long lastJoinNanos;
+
+    private double renderTick = Double.NaN;
+
+    private long bytesIn;
+    private long bytesOut;
+    private long packetsIn;
+    private long packetsOut;
+    private long snapshots;
+    private long fullSnapshots;
+    private long stale;
+    private long missingBaseline;
+    private long checksumErrors;
+    private long badPackets;
+
+    /**
+     * @param matchId 要加入的对局，TankProtocol.AUTO_MATCH 表示让服务器分配
+     */
+    public TankClient(InetSocketAddress server, int matchId) throws IOException {
+        this.requestedMatch = matchId;
+        for (int i = 0; i < HISTORY; i++) {
+            history[i] = new TankSnapshot();
+            history[i].tick = TankProtocol.NO_TICK;
+        }
+        channel = DatagramChannel.open();
+        channel.connect(server);
+        channel.configureBlocking(false);
+    }
+
+    /**
+     * 压测时很多客户端注册到同一个 Selector，attachment 是客户端自己
+     */
+    public SelectionKey register(Selector selector) throws IOException {
+        return channel.register(selector, SelectionKey.OP_READ, this);
+    }
+
+    /**
+     * 每个 tick 调用一次。还没加入对局时改为定期重发 JOIN
+     */
+    public void sendInput(int input) throws IOException {
+        ByteBuffer out = sendBuffer;
+        out.clear();
+        if (slot < 0) {
+            long now = System.nanoTime();
+            if (rejected != 0 || now - lastJoinNanos < JOIN_RETRY_NANOS) {
+                return;
+            }
+            lastJoinNanos = now;
+            out.put(TankProtocol.JOIN);
+            out.putInt(TankProtocol.VERSION);
+            out.putInt(requestedMatch);
+        } else {
+            out.put(TankProtocol.INPUT);
+            out.putInt(latestTick);
+            out.put((byte) input);
+        }
+        send(out);
+    }
+
+    public void leave() throws IOException {
+        if (slot < 0) {
+            return;
+        }
+        ByteBuffer out = sendBuffer;
+        out.clear();
+        out.put(TankProtocol.LEAVE);
+        send(out);
+        slot = -1;
+    }
+
+    private void send(ByteBuffer out) throws IOException {
+        out.flip();
+        int length = out.remaining();
+        try {
+            if (channel.write(out) > 0) {
+                packetsOut++;
+                bytesOut += length;
+            }
+        } catch (PortUnreachableException e) {
+            // 服务器还没启动或者已经关了，和丢包一样处理，之后继续重试
+        }
+    }
+
+    /**
+     * 处理已经到达的所有包，不阻塞
+     *
+     * @return 处理的包数
+     */
+    public int poll() throws IOException {
+        int packets = 0;
+        while (true) {
+            receiveBuffer.clear();
+            try {
+                if (channel.receive(receiveBuffer) == null) {
+                    return packets;
+                }
+            } catch (PortUnreachableException e) {
+                return packets;
+            }
+            receiveBuffer.flip();
+            packets++;
+            packetsIn++;
+            bytesIn += receiveBuffer.remaining();
+            try {
+                handle(receiveBuffer);
+            } catch (BufferUnderflowException | IllegalArgumentException e) {
+                badPackets++;
+            }
+        }
+    }
+
+    private void handle(ByteBuffer in) {
+        byte type = in.get();
+        switch (type) {
+            case TankProtocol.WELCOME:
+                matchId = in.getInt();
+                slot = in.get();
+                sendInterval = in.get();
+                break;
+            case TankProtocol.REJECT:
+                rejected = in.get();
+                break;
+            case TankProtocol.SNAPSHOT:
+                handleSnapshot(in);
+                break;
+            default:
+                badPackets++;
+        }
+    }
+
+    private void handleSnapshot(ByteBuffer in) {
+        int tick = in.getInt();
+        int baseTick = in.getInt();
+        int checksum = in.getInt();
+        if (tick <= latestTick) {
+            // 乱序到达的旧快照，更新的快照已经确认过了
+            stale++;
+            return;
+        }
+        TankSnapshot baseline = null;
+        if (baseTick != TankProtocol.NO_TICK) {
+            baseline = find(baseTick);
+            if (baseline == null) {
+                missingBaseline++;
+                return;
+            }
+        }
+        // 先解到临时快照里，校验通过才放进历史，坏包不会污染之后的基准
+        codec.decode(in, baseline, tick, scratch);
+        if (scratch.checksum() != checksum) {
+            checksumErrors++;
+            return;
+        }
+        history[historyNext].copyFrom(scratch);
+        historyNext = (historyNext + 1) % HISTORY;
+        latestTick = tick;
+        snapshots++;
+        if (baseline == null) {
+            fullSnapshots++;
+        }
+    }
+
+    private TankSnapshot find(int tick) {
+        for (TankSnapshot snapshot : history) {
+            if (snapshot.tick == tick) {
+                return snapshot;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 每帧调用，推进显示用的时间
+     */
+    public void advanceClock(double seconds) {
+        if (latestTick == TankProtocol.NO_TICK) {
+            return;
+        }
+        double target = latestTick - 2.0 * sendInterval;
+        renderTick += seconds * TankWorld.TICKS_PER_SECOND;
+        if (Double.isNaN(renderTick) || Math.abs(target - renderTick) > 4.0 * sendInterval) {
+            renderTick = target;
+        } else {
+            renderTick += (target - renderTick) * CLOCK_CORRECTION;
+        }
+    }
+
+    /**
+     * 把当前显示时间的状态写进 out：坐标在前后两个快照之间插值，实体集合取前一个快照的。
+     * 显示时间早于所有快照时取最早的，晚于最新快照时停在最新的，不外推
+     *
+     * @return 还没有收到任何快照时返回 false
+     */
+    public boolean sample(TankSnapshot out) {
+        if (latestTick == TankProtocol.NO_TICK) {
+            return false;
+        }
+        TankSnapshot before = null;
+        TankSnapshot after = null;
+        TankSnapshot oldest = null;
+        for (TankSnapshot snapshot : history) {
+            if (snapshot.tick == TankProtocol.NO_TICK) {
+                continue;
+            }
+            if (oldest == null || snapshot.tick < oldest.tick) {
+                oldest = snapshot;
+            }
+            if (snapshot.tick <= renderTick) {
+                if (before == null || snapshot.tick > before.tick) {
+                    before = snapshot;
+                }
+            } else if (after == null || snapshot.tick < after.tick) {
+                after = snapshot;
+            }
+        }
+        if (before == null) {
+            out.copyFrom(oldest);
+            return true;
+        }
+        out.copyFrom(before);
+        if (after == null) {
+            return true;
+        }
+        double alpha = (renderTick - before.tick) / (after.tick - before.tick);
+        out.tick = (int) renderTick;
+        int tanks = Math.min(before.tankCount, after.tankCount);
+        for (int i = 0; i < tanks; i++) {
+            out.tankX[i] = lerp(before.tankX[i], after.tankX[i], alpha);
+            out.tankY[i] = lerp(before.tankY[i], after.tankY[i], alpha);
+        }
+        interpolate(out.bullets, after.bullets, alpha);
+        interpolate(out.enemies, after.enemies, alpha);
+        return true;
+    }
+
+    private static void interpolate(TankSnapshot.Entities out, TankSnapshot.Entities after, double alpha) {
+        for (int i = 0; i < out.count; i++) {
+            int j = after.indexOf(out.id[i]);
+            if (j >= 0) {
+                out.x[i] = lerp(out.x[i], after.x[j], alpha);
+                out.y[i] = lerp(out.y[i], after.y[j], alpha);
+            }
+        }
+    }
+
+    private static int lerp(int from, int to, double alpha) {
+        return from + (int) Math.round((to - from) * alpha);
+    }
+
+    public boolean isJoined() {
+        return slot >= 0;
+    }
+
+    /**
+     * @return 被服务器拒绝的原因，TankProtocol.REJECT_*，没有被拒绝时是 0
+     */
+    public byte getRejected() {
+        return rejected;
+    }
+
+    public int getMatchId() {
+        return matchId;
+    }
+
+    /**
+     * @return 自己的坦克下标，还没加入时是 -1
+     */
+    public int getSlot() {
+        return slot;
+    }
+
+    public int getLatestTick() {
+        return latestTick;
+    }
+
+    public long getBytesIn() {
+        return bytesIn;
+    }
+
+    public long getBytesOut() {
+        return bytesOut;
+    }
+
+    public long getPacketsIn() {
+        return packetsIn;
+    }
+
+    public long getPacketsOut() {
+        return packetsOut;
+    }
+
+    public long getSnapshots() {
+        return snapshots;
+    }
+
+    public long getFullSnapshots() {
+        return fullSnapshots;
+    }
+
+    public long getStale() {
+        return stale;
+    }
+
+    public long getMissingBaseline() {
+        return missingBaseline;
+    }
+
+    public long getChecksumErrors() {
+        return checksumErrors;
+    }
+
+    public long getBadPackets() {
+        return badPackets;
+    }
+
+    @Override
+    public String toString() {
+        return "match=" + matchId + " slot=" + slot + " tick=" + latestTick
+                + " snapshots=" + snapshots + " (full " + fullSnapshots + ")"
+                + " stale=" + stale + " missingBaseline=" + missingBaseline
+                + " checksumErrors=" + checksumErrors + " in=" + bytesIn + "B out=" + bytesOut + "B";
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,107 @@
+package com.zerox.tank.net;
+
+import com.zerox.tank.TankWorld;
+
+/**
+ * @Author: ZeromaXHe
+ * @Time: 2026/10/18 23:55
+ * @Description: 服务器上的一局：一个 TankWorld、最多 MAX_PLAYERS 个玩家、最近发出的快照。
+ * 坦克在开局时全部加进 TankWorld，没有玩家的位置输入一直是 0，快照里标记为不显示，敌人也不追
+ * @ModifiedBy: ZeromaXHe
+ */
+class TankMatch {
+    /**
+     * 保留最近发出的快照个数，客户端确认的快照比这更早时只能发完整快照
+     */
+    static final int HISTORY = 32;
+
+    final int id;
+    final TankWorld world;
+    final TankServer.Session[] players = new TankServer.Session[TankProtocol.MAX_PLAYERS];
+    final boolean[] active = new boolean[TankProtocol.MAX_PLAYERS];
+    final int[] inputs = new int[TankProtocol.MAX_PLAYERS];
+    int playerCount;
+    /**
+     * 最后一个玩家离开的时间，有玩家时没有意义
+     */
+    long emptySinceNanos;
+
+    private final TankSnapshot[] history = new TankSnapshot[HISTORY];
+    private int captured;
+
+    TankMatch(int id, long seed, int enemies, long now) {
+        this.id = id;
+        this.world = new TankWorld(seed);
+        for (int i = 1; i < TankProtocol.MAX_PLAYERS; i++) {
+            world.addTank();
+        }
+        for (int i = 0; i < TankProtocol.MAX_PLAYERS; i++) {
+            world.setTankActive(i, false);
+        }
+        world.start(enemies);
+        this.emptySinceNanos = now;
+    }
+
+    /**
+     * @return 空着的坦克下标，满了返回 -1
+     */
+    int freeSlot() {
+        for (int i = 0; i < players.length; i++) {
+            if (players[i] == null) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    void join(TankServer.Session session) {
+        players[session.slot] = session;
+        active[session.slot] = true;
+        world.setTankActive(session.slot, true);
+        inputs[session.slot] = 0;
+        playerCount++;
+    }
+
+    void leave(int slot, long now) {
+        players[slot] = null;
+        active[slot] = false;
+        world.setTankActive(slot, false);
+        inputs[slot] = 0;
+        if (--playerCount == 0) {
+            emptySinceNanos = now;
+        }
+    }
+
+    void tick() {
+        world.tick(inputs);
+    }
+
+    /**
+     * 取当前状态放进历史，覆盖最旧的一个
+     */
+    TankSnapshot capture() {
+        int index = captured++ % HISTORY;
+        TankSnapshot snapshot = history[index];
+        if (snapshot == null) {
+            snapshot = new TankSnapshot();
+            history[index] = snapshot;
+        }
+        snapshot.capture(world, active);
+        return snapshot;
+    }
+
+    /**
+     * @return tick 对应的历史快照，已经被覆盖时返回 null
+     */
+    TankSnapshot find(int tick) {
+        if (tick == TankProtocol.NO_TICK) {
+            return null;
+        }
+        for (TankSnapshot snapshot : history) {
+            if (snapshot != null && snapshot.tick == tick) {
+                return snapshot;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,47 @@
+package com.zerox.tank.net;
+
+/**
+ * @Author: ZeromaXHe
+ * @Time: 2026/10/18 23:50
+ * @Description: 联机坦克的 UDP 协议，每个包第一个字节是类型：
+ * JOIN     客户端 -> 服务器 [版本 int][对局 id int，AUTO_MATCH 表示随便找一个有空位的]，收到 WELCOME 之前定期重发
+ * WELCOME  服务器 -> 客户端 [对局 id int][坦克下标 byte][每几个 tick 发一次快照 byte]
+ * REJECT   服务器 -> 客户端 [原因 byte]
+ * INPUT    客户端 -> 服务器 [已收到的最新快照 tick int][TankInput byte]，每个 tick 发一次，服务器一直用最后收到的输入
+ * LEAVE    客户端 -> 服务器 []
+ * SNAPSHOT 服务器 -> 客户端 [tick int][基准 tick int，-1 表示完整快照][校验和 int][SnapshotCodec 编码的内容]
+ * 服务器以客户端在 INPUT 里确认的快照为基准做增量，丢包时客户端确认的 tick 不变，下一个快照自然以更早的快照为基准
+ * @ModifiedBy: ZeromaXHe
+ */
+public final class TankProtocol {
+    public static final int DEFAULT_PORT = 7777;
+    /**
+     * 包格式或者 TankWorld 的规则变了都要加一，客户端按本地的 TankWorld.WALLS 画墙，规则不一样画出来就和服务器对不上
+     */
+    public static final int VERSION = 2;
+    /**
+     * 一个包的最大长度，留在以太网 MTU 以内，不让 IP 分片
+     */
+    public static final int MAX_PACKET = 1400;
+    public static final int MAX_PLAYERS = 4;
+    public static final int AUTO_MATCH = -1;
+    public static final int NO_TICK = -1;
+
+    public static final byte JOIN = 1;
+    public static final byte WELCOME = 2;
+    public static final byte REJECT = 3;
+    public static final byte INPUT = 4;
+    public static final byte LEAVE = 5;
+    public static final byte SNAPSHOT = 6;
+
+    public static final byte REJECT_VERSION = 1;
+    public static final byte REJECT_FULL = 2;
+
+    /**
+     * 每个 UDP 包 IP + UDP 头的字节数，统计带宽时加上
+     */
+    public static final int HEADER_BYTES = 28;
+
+    private TankProtocol() {
+    }
+}
@@ -0,0 +1,425 @@
+package com.zerox.tank.net;
+
+import com.zerox.common.instrument.LatencyHistogram;
+import com.zerox.tank.TankInput;
+import com.zerox.tank.TankWorld;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @Author: ZeromaXHe
+ * @Time: 2026/10/19 00:05
+ * @Description: 无界面的权威服务器，同一个进程里跑很多局。所有对局共用一个线程上的事件循环：
+ * 一个非阻塞的 DatagramChannel，Selector 等待到下一个 tick 的截止时间，收包只更新输入和确认的快照，
+ * 到点时按固定步长推进所有有玩家的对局，每 sendInterval 个 tick 给每个客户端发一个增量快照。
+ * 一局一个 tick 只有几微秒，单线程就能撑几百局；需要更多时按端口多开几个进程。
+ * 游戏规则（移动、射击间隔、子弹和敌人的碰撞）都在 TankWorld 里，和单机、录像重放是同一份代码。
+ * 用法：TankServer [端口]，-Dtank.server.maxMatches、-Dtank.server.enemies、-Dtank.server.sendInterval、-Dtank.seed
+ * @ModifiedBy: ZeromaXHe
+ */
+public class TankServer implements Closeable {
+    private static final long TICK_NANOS = 1_000_000_000L / TankWorld.TICKS_PER_SECOND;
+    /**
+     * 落后太多时最多连续追赶的 tick 数，再多就丢掉积压的时间
+     */
+    private static final int MAX_CATCH_UP = 5;
+    /**
+     * 客户端这么久没有发包就当作断线
+     */
+    private static final long SESSION_TIMEOUT_NANOS = 5_000_000_000L;
+    /**
+     * 没有玩家的对局保留这么久，方便断线重连回到同一局
+     */
+    private static final long EMPTY_MATCH_NANOS = 30_000_000_000L;
+    private static final long STATS_NANOS = 5_000_000_000L;
+
+    public static final int DEFAULT_MAX_MATCHES = 500;
+    public static final int DEFAULT_ENEMIES = 8;
+    public static final int DEFAULT_SEND_INTERVAL = 3;
+
+    /**
+     * 一个客户端连接，key 是它的地址
+     */
+    static class Session {
+        final SocketAddress address;
+        final TankMatch match;
+        final int slot;
+        int ackTick = TankProtocol.NO_TICK;
+        long lastHeardNanos;
+
+        Session(SocketAddress address, TankMatch match, int slot) {
+            this.address = address;
+            this.match = match;
+            this.slot = slot;
+        }
+    }
+
+    private final DatagramChannel channel;
+    private final Selector selector;
+    private final int maxMatches;
+    private final int enemies;
+    private final int sendInterval;
+    private final long seed;
+
+    private final Map<SocketAddress, Session> sessions = new HashMap<>();
+    private final Map<Integer, TankMatch> matchesById = new HashMap<>();
+    private final List<TankMatch> matches = new ArrayList<>();
+    private int nextMatchId;
+
+    private final SnapshotCodec codec = new SnapshotCodec();
+    private final ByteBuffer receiveBuffer = ByteBuffer.allocateDirect(TankProtocol.MAX_PACKET);
+    private final ByteBuffer sendBuffer = ByteBuffer.allocateDirect(TankProtocol.MAX_PACKET);
+    private long ticks;
+    private volatile boolean running;
+
+    /**
+     * 一次 tick 推进所有对局并发出快照的耗时
+     */
+    private final LatencyHistogram tickTime = new LatencyHistogram();
+    private long bytesIn;
+    private long bytesOut;
+    private long packetsIn;
+    private long packetsOut;
+    private long fullSnapshots;
+    private long deltaSnapshots;
+    private long oversized;
+    private long sendDropped;
+    private long badPackets;
+    private long lateTicks;
+    private long statsStartNanos;
+
+    public TankServer(InetSocketAddress bind, int maxMatches, int enemies, int sendInterval, long seed) throws IOException {
+        if (enemies < 1 || enemies > 64) {
+            // 完整快照要放进一个包里
+            throw new IllegalArgumentException("enemies 需要在 1 到 64 之间: " + enemies);
+        }
+        if (sendInterval < 1 || sendInterval > 127) {
+            throw new IllegalArgumentException("sendInterval 需要在 1 到 127 之间: " + sendInterval);
+        }
+        this.maxMatches = maxMatches;
+        this.enemies = enemies;
+        this.sendInterval = sendInterval;
+        this.seed = seed;
+        this.selector = Selector.open();
+        this.channel = DatagramChannel.open();
+        // 几百个客户端同时发输入，默认的接收缓冲区容易溢出
+        channel.setOption(StandardSocketOptions.SO_RCVBUF, 4 << 20);
+        channel.setOption(StandardSocketOptions.SO_SNDBUF, 4 << 20);
+        channel.bind(bind);
+        channel.configureBlocking(false);
+        channel.register(selector, SelectionKey.OP_READ);
+    }
+
+    public int getPort() throws IOException {
+        return ((InetSocketAddress) channel.getLocalAddress()).getPort();
+    }
+
+    /**
+     * 在当前线程运行事件循环，直到 stop
+     */
+    public void run() throws IOException {
+        running = true;
+        long nextTick = System.nanoTime();
+        statsStartNanos = nextTick;
+        long nextCheck = nextTick + 1_000_000_000L;
+        while (running) {
+            long now = System.nanoTime();
+            int caughtUp = 0;
+            while (now - nextTick >= 0 && caughtUp < MAX_CATCH_UP) {
+                tickAll();
+                nextTick += TICK_NANOS;
+                caughtUp++;
+            }
+            if (now - nextTick >= 0) {
+                lateTicks += (now - nextTick) / TICK_NANOS + 1;
+                nextTick = now + TICK_NANOS;
+            }
+            if (now - nextCheck >= 0) {
+                expire(now);
+                nextCheck = now + 1_000_000_000L;
+                if (now - statsStartNanos >= STATS_NANOS) {
+                    System.out.println(this);
+                    resetStats(now);
+                }
+            }
+
+            long waitMillis = (nextTick - System.nanoTime()) / 1_000_000;
+            if (waitMillis > 0) {
+                selector.select(waitMillis);
+            } else {
+                selector.selectNow();
+            }
+            selector.selectedKeys().clear();
+            receiveAll();
+        }
+    }
+
+    public void stop() {
+        running = false;
+        selector.wakeup();
+    }
+
+    private void receiveAll() throws IOException {
+        SocketAddress from;
+        while (true) {
+            receiveBuffer.clear();
+            from = channel.receive(receiveBuffer);
+            if (from == null) {
+                return;
+            }
+            receiveBuffer.flip();
+            packetsIn++;
+            bytesIn += receiveBuffer.remaining();
+            try {
+                handle(from, receiveBuffer);
+            } catch (BufferUnderflowException | IllegalArgumentException e) {
+                badPackets++;
+            }
+        }
+    }
+
+    private void handle(SocketAddress from, ByteBuffer in) throws IOException {
+        byte type = in.get();
+        Session session = sessions.get(from);
+        long now = System.nanoTime();
+        if (session != null) {
+            session.lastHeardNanos = now;
+        }
+        switch (type) {
+            case TankProtocol.JOIN:
+                int version = in.getInt();
+                int matchId = in.getInt();
+                if (session != null) {
+                    // WELCOME 丢了，客户端在重发 JOIN
+                    sendWelcome(session);
+                } else if (version != TankProtocol.VERSION) {
+                    sendReject(from, TankProtocol.REJECT_VERSION);
+                } else {
+                    join(from, matchId, now);
+                }
+                break;
+            case TankProtocol.INPUT:
+                int ackTick = in.getInt();
+                int input = in.get();
+                if (session != null) {
+                    // UDP 可能乱序，确认的 tick 只往前走
+                    if (ackTick > session.ackTick) {
+                        session.ackTick = ackTick;
+                    }
+                    session.match.inputs[session.slot] = input & TankInput.ALL;
+                }
+                break;
+            case TankProtocol.LEAVE:
+                if (session != null) {
+                    remove(session, now);
+                }
+                break;
+            default:
+                badPackets++;
+        }
+    }
+
+    private void join(SocketAddress from, int matchId, long now) throws IOException {
+        TankMatch match = null;
+        if (matchId == TankProtocol.AUTO_MATCH) {
+            for (TankMatch candidate : matches) {
+                if (candidate.playerCount < TankProtocol.MAX_PLAYERS) {
+                    match = candidate;
+                    break;
+                }
+            }
+        } else {
+            match = matchesById.get(matchId);
+        }
+        if (match == null && matches.size() < maxMatches) {
+            int id = matchId == TankProtocol.AUTO_MATCH ? nextFreeMatchId() : matchId;
+            match = new TankMatch(id, seed + id, enemies, now);
+            matches.add(match);
+            matchesById.put(id, match);
+        }
+        int slot = match == null ? -1 : match.freeSlot();
+        if (slot < 0) {
+            sendReject(from, TankProtocol.REJECT_FULL);
+            return;
+        }
+        Session session = new Session(from, match, slot);
+        session.lastHeardNanos = now;
+        match.join(session);
+        sessions.put(from, session);
+        sendWelcome(session);
+    }
+
+    private int nextFreeMatchId() {
+        while (matchesById.containsKey(nextMatchId)) {
+            nextMatchId++;
+        }
+        return nextMatchId++;
+    }
+
+    private void remove(Session session, long now) {
+        sessions.remove(session.address);
+        session.match.leave(session.slot, now);
+    }
+
+    /**
+     * 清理断线的客户端和空了太久的对局
+     */
+    private void expire(long now) {
+        Iterator<Session> sessionIterator = sessions.values().iterator();
+        while (sessionIterator.hasNext()) {
+            Session session = sessionIterator.next();
+            if (now - session.lastHeardNanos > SESSION_TIMEOUT_NANOS) {
+                sessionIterator.remove();
+                session.match.leave(session.slot, now);
+            }
+        }
+        Iterator<TankMatch> matchIterator = matches.iterator();
+        while (matchIterator.hasNext()) {
+            TankMatch match = matchIterator.next();
+            if (match.playerCount == 0 && now - match.emptySinceNanos > EMPTY_MATCH_NANOS) {
+                matchIterator.remove();
+                matchesById.remove(match.id);
+            }
+        }
+    }
+
+    private void tickAll() throws IOException {
+        long start = System.nanoTime();
+        ticks++;
+        boolean send = ticks % sendInterval == 0;
+        for (int m = 0, size = matches.size(); m < size; m++) {
+            TankMatch match = matches.get(m);
+            if (match.playerCount == 0) {
+                continue;
+            }
+            match.tick();
+            if (send) {
+                TankSnapshot snapshot = match.capture();
+                int checksum = snapshot.checksum();
+                for (Session player : match.players) {
+                    if (player != null) {
+                        sendSnapshot(player, snapshot, checksum);
+                    }
+                }
+            }
+        }
+        tickTime.record(System.nanoTime() - start);
+    }
+
+    private void sendSnapshot(Session session, TankSnapshot snapshot, int checksum) throws IOException {
+        TankSnapshot baseline = session.match.find(session.ackTick);
+        ByteBuffer out = sendBuffer;
+        out.clear();
+        out.put(TankProtocol.SNAPSHOT);
+        out.putInt(snapshot.tick);
+        out.putInt(baseline == null ? TankProtocol.NO_TICK : baseline.tick);
+        out.putInt(checksum);
+        try {
+            codec.encode(snapshot, baseline, out);
+        } catch (BufferOverflowException e) {
+            oversized++;
+            return;
+        }
+        if (baseline == null) {
+            fullSnapshots++;
+        } else {
+            deltaSnapshots++;
+        }
+        send(out, session.address);
+    }
+
+    private void sendWelcome(Session session) throws IOException {
+        ByteBuffer out = sendBuffer;
+        out.clear();
+        out.put(TankProtocol.WELCOME);
+        out.putInt(session.match.id);
+        out.put((byte) session.slot);
+        out.put((byte) sendInterval);
+        send(out, session.address);
+    }
+
+    private void sendReject(SocketAddress to, byte reason) throws IOException {
+        ByteBuffer out = sendBuffer;
+        out.clear();
+        out.put(TankProtocol.REJECT);
+        out.put(reason);
+        send(out, to);
+    }
+
+    private void send(ByteBuffer out, SocketAddress to) throws IOException {
+        out.flip();
+        int length = out.remaining();
+        // 非阻塞模式下发送缓冲区满了会返回 0，这个包就丢掉，和网络丢包一样处理
+        if (channel.send(out, to) == 0) {
+            sendDropped++;
+            return;
+        }
+        packetsOut++;
+        bytesOut += length;
+    }
+
+    private void resetStats(long now) {
+        tickTime.reset();
+        bytesIn = 0;
+        bytesOut = 0;
+        packetsIn = 0;
+        packetsOut = 0;
+        fullSnapshots = 0;
+        deltaSnapshots = 0;
+        oversized = 0;
+        sendDropped = 0;
+        badPackets = 0;
+        lateTicks = 0;
+        statsStartNanos = now;
+    }
+
+    /**
+     * 最近一个统计周期的数据，只在事件循环线程里读才准确
+     */
+    @Override
+    public String toString() {
+        double seconds = Math.max(1e-9, (System.nanoTime() - statsStartNanos) / 1e9);
+        int clients = Math.max(1, sessions.size());
+        return String.format("[server] matches=%d clients=%d | tick %s late=%d | out %.1fKB/s (%.0fB/s per client, %.0f packets/s)"
+                        + " in %.1fKB/s | snapshots full=%d delta=%d oversized=%d dropped=%d bad=%d",
+                matches.size(), sessions.size(), tickTime, lateTicks,
+                (bytesOut + packetsOut * TankProtocol.HEADER_BYTES) / seconds / 1024,
+                (bytesOut + packetsOut * TankProtocol.HEADER_BYTES) / seconds / clients, packetsOut / seconds,
+                (bytesIn + packetsIn * TankProtocol.HEADER_BYTES) / seconds / 1024,
+                fullSnapshots, deltaSnapshots, oversized, sendDropped, badPackets);
+    }
+
+    @Override
+    public void close() throws IOException {
+        stop();
+        channel.close();
+        selector.close();
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : TankProtocol.DEFAULT_PORT;
+        try (TankServer server = new TankServer(new InetSocketAddress(port),
+                Integer.getInteger("tank.server.maxMatches", DEFAULT_MAX_MATCHES),
+                Integer.getInteger("tank.server.enemies", DEFAULT_ENEMIES),
+                Integer.getInteger("tank.server.sendInterval", DEFAULT_SEND_INTERVAL),
+                Long.getLong("tank.seed", System.nanoTime()))) {
+            System.out.println("tank server listening on " + server.getPort());
+            server.run();
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.zerox.tank.net;
+
+import com.zerox.tank.Dir;
+import com.zerox.tank.TankWorld;
+
+import java.util.Arrays;
+
+/**
+ * @Author: ZeromaXHe
+ * @Time: 2026/10/18 23:30
+ * @Description: 某个 tick 的世界状态，网络同步的单位。坐标量化成 1/4 像素的 int，子弹和敌人按 id 升序排列，
+ * 这样编码增量时两帧可以按 id 归并对比。对象和数组都复用，服务器每个对局只保留一圈固定数量的快照
+ * @ModifiedBy: ZeromaXHe
+ */
+public class TankSnapshot {
+    /**
+     * 坐标量化的精度，1/4 像素
+     */
+    public static final int QUANT = 4;
+    private static final Dir[] DIRS = Dir.values();
+
+    int tick;
+    int score;
+
+    int tankCount;
+    int[] tankX = new int[4];
+    int[] tankY = new int[4];
+    /**
+     * Dir 的 ordinal，-1 表示这个位置没有玩家
+     */
+    int[] tankDir = new int[4];
+
+    final Entities bullets = new Entities();
+    final Entities enemies = new Entities();
+
+    /**
+     * 从 TankWorld 取状态
+     *
+     * @param active active[i] 为 false 的坦克没有玩家，客户端不显示
+     */
+    public void capture(TankWorld world, boolean[] active) {
+        tick = (int) world.getTick();
+        score = world.getScore();
+        tankCount = world.getTankCount();
+        ensureTanks(tankCount);
+        for (int i = 0; i < tankCount; i++) {
+            tankX[i] = quantize(world.getTankX(i));
+            tankY[i] = quantize(world.getTankY(i));
+            tankDir[i] = i < active.length && active[i] ? world.getDir(i).ordinal() : -1;
+        }
+        int bulletCount = world.getBulletCount();
+        bullets.clear(bulletCount);
+        for (int i = 0; i < bulletCount; i++) {
+            bullets.add(world.getBulletId(i), quantize(world.getBulletX(i)), quantize(world.getBulletY(i)));
+        }
+        bullets.sortById();
+        int enemyCount = world.getEnemyCount();
+        enemies.clear(enemyCount);
+        for (int i = 0; i < enemyCount; i++) {
+            enemies.add(world.getEnemyId(i), quantize(world.getEnemyX(i)), quantize(world.getEnemyY(i)));
+        }
+        enemies.sortById();
+    }
+
+    public void copyFrom(TankSnapshot other) {
+        tick = other.tick;
+        score = other.score;
+        tankCount = other.tankCount;
+        ensureTanks(tankCount);
+        System.arraycopy(other.tankX, 0, tankX, 0, tankCount);
+        System.arraycopy(other.tankY, 0, tankY, 0, tankCount);
+        System.arraycopy(other.tankDir, 0, tankDir, 0, tankCount);
+        bullets.copyFrom(other.bullets);
+        enemies.copyFrom(other.enemies);
+    }
+
+    void ensureTanks(int count) {
+        if (count > tankX.length) {
+            tankX = Arrays.copyOf(tankX, count);
+            tankY = Arrays.copyOf(tankY, count);
+            tankDir = Arrays.copyOf(tankDir, count);
+        }
+    }
+
+    /**
+     * 量化后状态的校验和，服务器写进快照包，客户端解出增量后对比，确认和服务器的状态一致
+     */
+    public int checksum() {
+        int h = tick * 31 + score;
+        for (int i = 0; i < tankCount; i++) {
+            h = (h * 31 + tankX[i]) * 31 + tankY[i];
+            h = h * 31 + tankDir[i];
+        }
+        h = bullets.hash(h);
+        return enemies.hash(h);
+    }
+
+    static int quantize(double value) {
+        return (int) Math.round(value * QUANT);
+    }
+
+    public int getTick() {
+        return tick;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public int getTankCount() {
+        return tankCount;
+    }
+
+    public boolean isTankActive(int i) {
+        return tankDir[i] >= 0;
+    }
+
+    public double getTankX(int i) {
+        return (double) tankX[i] / QUANT;
+    }
+
+    public double getTankY(int i) {
+        return (double) tankY[i] / QUANT;
+    }
+
+    /**
+     * @return 没有玩家时返回 null
+     */
+    public Dir getTankDir(int i) {
+        return tankDir[i] < 0 ? null : DIRS[tankDir[i]];
+    }
+
+    public Entities getBullets() {
+        return bullets;
+    }
+
+    public Entities getEnemies() {
+        return enemies;
+    }
+
+    /**
+     * 按 id 升序排列的一组实体坐标
+     */
+    public static class Entities {
+        int count;
+        int[] id = new int[16];
+        int[] x = new int[16];
+        int[] y = new int[16];
+
+        void clear(int capacity) {
+            count = 0;
+            if (capacity > id.length) {
+                int size = Math.max(capacity, id.length * 2);
+                id = new int[size];
+                x = new int[size];
+                y = new int[size];
+            }
+        }
+
+        void add(int entityId, int entityX, int entityY) {
+            if (count == id.length) {
+                int size = count * 2;
+                id = Arrays.copyOf(id, size);
+                x = Arrays.copyOf(x, size);
+                y = Arrays.copyOf(y, size);
+            }
+            id[count] = entityId;
+            x[count] = entityX;
+            y[count] = entityY;
+            count++;
+        }
+
+        /**
+         * 实体只有几十个，而且 TankWorld 的数组大部分时候本来就接近有序，插入排序就够了
+         */
+        void sortById() {
+            for (int i = 1; i < count; i++) {
+                int keyId = id[i];
+                int keyX = x[i];
+                int keyY = y[i];
+                int j = i - 1;
+                while (j >= 0 && id[j] > keyId) {
+                    id[j + 1] = id[j];
+                    x[j + 1] = x[j];
+                    y[j + 1] = y[j];
+                    j--;
+                }
+                id[j + 1] = keyId;
+                x[j + 1] = keyX;
+                y[j + 1] = keyY;
+            }
+        }
+
+        void copyFrom(Entities other) {
+            clear(other.count);
+            System.arraycopy(other.id, 0, id, 0, other.count);
+            System.arraycopy(other.x, 0, x, 0, other.count);
+            System.arraycopy(other.y, 0, y, 0, other.count);
+            count = other.count;
+        }
+
+        int hash(int h) {
+            h = h * 31 + count;
+            for (int i = 0; i < count; i++) {
+                h = ((h * 31 + id[i]) * 31 + x[i]) * 31 + y[i];
+            }
+            return h;
+        }
+
+        /**
+         * @return id 对应的下标，没有时返回 -1
+         */
+        public int indexOf(int entityId) {
+            int index = Arrays.binarySearch(id, 0, count, entityId);
+            return index < 0 ? -1 : index;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public int getId(int i) {
+            return id[i];
+        }
+
+        public double getX(int i) {
+            return (double) x[i] / QUANT;
+        }
+
+        public double getY(int i) {
+            return (double) y[i] / QUANT;
+        }
+    }
+}
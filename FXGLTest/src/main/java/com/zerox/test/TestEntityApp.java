@@ -5,6 +5,12 @@ import com.almasb.fxgl.app.GameSettings;
 import com.almasb.fxgl.core.collection.PropertyMap;
 import com.almasb.fxgl.entity.Entity;
 import com.almasb.fxgl.entity.SpawnData;
+import com.zerox.common.spawn.SpawnTemplate;
+import com.zerox.common.spawn.SpawnTemplates;
+import com.zerox.common.startup.StartupPreloader;
+import com.zerox.common.startup.StartupProbe;
+import com.zerox.common.vars.TypedVars;
+import com.zerox.common.vars.VarsComponent;
 import javafx.scene.paint.Color;
 
 import java.io.Serializable;
@@ -18,13 +24,23 @@ import static com.almasb.fxgl.dsl.FXGL.*;
  * @ModifiedBy: ZeromaXHe
  */
 public class TestEntityApp extends GameApplication {
+    /**
+     * -Dstartup.preload=true 时在 launch 之前后台预加载的 FXGL 服务类
+     */
+    private static final String[] PRELOAD = {
+            "com.almasb.fxgl.entity.GameWorld",
+            "com.almasb.fxgl.physics.PhysicsWorld",
+            "com.almasb.fxgl.app.scene.GameScene"
+    };
+
     public static void main(String[] args) {
+        StartupPreloader.start(PRELOAD);
         launch(args);
     }
 
     @Override
     protected void initSettings(GameSettings settings) {
-
+        StartupProbe.install(settings);
     }
 
     @Override
@@ -55,6 +71,18 @@ public class TestEntityApp extends GameApplication {
         int w = entity.getInt("w");
         System.out.println("w = " + w);
 
+        // 按槽位读，不查 HashMap、不装箱
+        Entity typed = spawn("typedRect",
+                new SpawnData(120, 50)
+                        .put("w", 60)
+                        .put("h", 60)
+                        .put("color", Color.GREEN)
+        );
+        TypedVars vars = typed.getComponent(VarsComponent.class).getVars();
+        System.out.println("typed w = " + vars.getInt(TestEntityFactory.W)
+                + ", h = " + vars.getInt(TestEntityFactory.H)
+                + ", color = " + vars.getObject(TestEntityFactory.COLOR));
+
         System.out.println("---------------------------");
         PropertyMap properties = entity.getProperties();
         properties.keys().forEach(k -> System.out.println(k + " = " + properties.getValue(k)));
@@ -66,5 +94,19 @@ public class TestEntityApp extends GameApplication {
         System.out.println("type1 = " + type1);
         System.out.println(type == type1);
         System.out.println(type.equals(type1));
+
+        System.out.println("---------------------------");
+        // 大量生成同一种实体时，模板只解析一次，后续生成不再查 SpawnData
+        SpawnTemplates templates = new SpawnTemplates()
+                .register("rect,square", TestEntityFactory.rectTemplate(
+                        new SpawnData(0, 0)
+                                .put("w", 10)
+                                .put("h", 10)
+                                .put("color", Color.ORANGE)));
+        SpawnTemplate square = templates.get("square");
+        for (int i = 0; i < 20; i++) {
+            square.spawn(getGameWorld(), 150 + i * 15, 150);
+        }
+        System.out.println("square = " + square);
     }
 }
@@ -5,6 +5,11 @@ import com.almasb.fxgl.entity.Entity;
 import com.almasb.fxgl.entity.EntityFactory;
 import com.almasb.fxgl.entity.SpawnData;
 import com.almasb.fxgl.entity.Spawns;
+import com.zerox.common.spawn.SpawnTemplate;
+import com.zerox.common.vars.TypedVars;
+import com.zerox.common.vars.VarSchema;
+import com.zerox.common.vars.VarsComponent;
+import javafx.scene.paint.Color;
 import javafx.scene.shape.Rectangle;
 
 /**
@@ -14,6 +19,14 @@ import javafx.scene.shape.Rectangle;
  * @ModifiedBy: ZeromaXHe
  */
 public class TestEntityFactory implements EntityFactory {
+    /**
+     * typedRect 实体的 w/h/color 槽位，读取时用 entity.getComponent(VarsComponent.class).getVars().getInt(W)
+     */
+    public static final VarSchema RECT_VARS = new VarSchema();
+    public static final int W = RECT_VARS.intVar("w", 0);
+    public static final int H = RECT_VARS.intVar("h", 0);
+    public static final int COLOR = RECT_VARS.objectVar("color", Color.BLACK);
+
     @Spawns("rect,square")
     public Entity newRect(SpawnData data) {
         int w = data.get("w");
@@ -22,4 +35,35 @@ public class TestEntityFactory implements EntityFactory {
                 .view(new Rectangle(w, data.<Integer>get("h"), data.get("color")))
                 .build();
     }
+
+    /**
+     * 和 rect 一样的矩形，w/h/color 放进 VarsComponent 的槽位而不是 PropertyMap：
+     * 不复制 SpawnData，entity.getInt("w") 取不到值，代价是每帧一次 flush
+     */
+    @Spawns("typedRect")
+    public Entity newTypedRect(SpawnData data) {
+        int w = data.get("w");
+        int h = data.get("h");
+        Color color = data.get("color");
+        VarsComponent varsComponent = new VarsComponent(RECT_VARS);
+        TypedVars vars = varsComponent.getVars();
+        vars.setInt(W, w);
+        vars.setInt(H, h);
+        vars.setObject(COLOR, color);
+        return FXGL.entityBuilder()
+                .at(data.getX(), data.getY())
+                .type(TestGameType.RECT)
+                .view(new Rectangle(w, h, color))
+                .with(varsComponent)
+                .build();
+    }
+
+    /**
+     * rect/square 的模板版本，带 RECT 类型，没有碰撞盒
+     */
+    public static SpawnTemplate rectTemplate(SpawnData data) {
+        return SpawnTemplate.rect(data)
+                .type(TestGameType.RECT)
+                .build();
+    }
 }
@@ -4,6 +4,9 @@ import com.almasb.fxgl.app.GameApplication;
 import com.almasb.fxgl.app.GameSettings;
 import com.almasb.fxgl.dsl.FXGL;
 import com.almasb.fxgl.time.LocalTimer;
+import com.zerox.common.instrument.GameInstrumentation;
+import com.zerox.common.startup.StartupPreloader;
+import com.zerox.common.startup.StartupProbe;
 import javafx.util.Duration;
 
 import java.util.Map;
@@ -16,12 +19,27 @@ import java.util.Map;
  */
 public class TestMethodApp extends GameApplication {
     private LocalTimer printTimer;
+    /**
+     * 除了打印线程名，还统计每个阶段的耗时，运行时用 JFR 录制可以看到 com.zerox.* 事件
+     */
+    private final GameInstrumentation instrumentation = new GameInstrumentation("TestMethodApp", Duration.seconds(5));
 
     public TestMethodApp() {
         System.out.println("构造器==>" + Thread.currentThread().getName());
     }
 
+    /**
+     * -Dstartup.preload=true 时在 launch 之前后台预加载的 FXGL 服务类
+     */
+    private static final String[] PRELOAD = {
+            "com.almasb.fxgl.app.services.FXGLDialogService",
+            "com.almasb.fxgl.ui.FXGLUIFactoryServiceProvider",
+            "com.almasb.fxgl.input.Input",
+            "com.almasb.fxgl.app.scene.GameScene"
+    };
+
     public static void main(String[] args) {
+        StartupPreloader.start(PRELOAD);
         System.out.println("TestMethodApp.main ===>" + Thread.currentThread().getName());
         launch(args);
     }
@@ -33,6 +51,8 @@ public class TestMethodApp extends GameApplication {
      */
     @Override
     protected void initSettings(GameSettings settings) {
+        StartupProbe.install(settings);
+        instrumentation.phase("initSettings");
         settings.setMainMenuEnabled(true);
         System.out.println("TestMethodeApp.initSettings ===>" + Thread.currentThread().getName());
     }
@@ -42,6 +62,7 @@ public class TestMethodApp extends GameApplication {
      */
     @Override
     protected void onPreInit() {
+        instrumentation.phase("onPreInit");
         System.out.println("TestMethodeApp.onPreInit ===>" + Thread.currentThread().getName());
     }
 
@@ -50,6 +71,7 @@ public class TestMethodApp extends GameApplication {
      */
     @Override
     protected void initInput() {
+        instrumentation.phase("initInput");
         System.out.println("TestMethodeApp.initInput ===>" + Thread.currentThread().getName());
     }
 
@@ -60,6 +82,7 @@ public class TestMethodApp extends GameApplication {
      */
     @Override
     protected void initGameVars(Map<String, Object> vars) {
+        instrumentation.phase("initGameVars");
         System.out.println("TestMethodeApp.initGameVars ===>" + Thread.currentThread().getName());
     }
 
@@ -68,6 +91,7 @@ public class TestMethodApp extends GameApplication {
      */
     @Override
     protected void initGame() {
+        instrumentation.phase("initGame");
         System.out.println("TestMethodeApp.initGame ===>" + Thread.currentThread().getName());
     }
 
@@ -76,6 +100,7 @@ public class TestMethodApp extends GameApplication {
      */
     @Override
     protected void initPhysics() {
+        instrumentation.phase("initPhysics");
         System.out.println("TestMethodeApp.initPhysics ===>" + Thread.currentThread().getName());
     }
 
@@ -84,6 +109,7 @@ public class TestMethodApp extends GameApplication {
      */
     @Override
     protected void initUI() {
+        instrumentation.phase("initUI");
         System.out.println("TestMethodeApp.initUI ===>" + Thread.currentThread().getName());
         printTimer = FXGL.newLocalTimer();
     }
@@ -95,6 +121,7 @@ public class TestMethodApp extends GameApplication {
      */
     @Override
     protected void onUpdate(double tpf) {
+        instrumentation.onUpdate();
         if (printTimer.elapsed(Duration.seconds(1))) {
             System.out.println("TestMethodApp.onUpdate ===>" + Thread.currentThread().getName());
             printTimer.capture();
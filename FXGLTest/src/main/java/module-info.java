@@ -6,4 +6,5 @@
  */
 open module FXGLTest {
     requires com.almasb.fxgl.all;
+    requires jdk.jfr;
 }
\ No newline at end of file
@@ -0,0 +1,4 @@
+@echo off
+rem 带 AppCDS 归档启动 ChatApp
+set DIR=%~dp0
+"%DIR%java" -XX:SharedArchiveFile="%DIR%..\lib\ChatApp.jsa" %JAVA_OPTS% -m FXGLTest/com.zerox.chat.ChatApp %*
@@ -0,0 +1,4 @@
+@echo off
+rem 带 AppCDS 归档启动 TankApp
+set DIR=%~dp0
+"%DIR%java" -XX:SharedArchiveFile="%DIR%..\lib\TankApp.jsa" %JAVA_OPTS% -m FXGLTest/com.zerox.tank.TankApp %*
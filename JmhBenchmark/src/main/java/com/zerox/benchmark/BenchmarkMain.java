@@ -0,0 +1,26 @@
+package com.zerox.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * @Author: ZeromaXHe
+ * @Time: 2026/10/18 15:40
+ * @Description: benchmarks.jar 的入口，参数原样交给 JMH，没有指定结果格式时默认导出 JSON 到 jmh-result.json，方便对比不同版本
+ * @ModifiedBy: ZeromaXHe
+ */
+public class BenchmarkMain {
+    public static void main(String[] args) throws Exception {
+        List<String> jmhArgs = new ArrayList<>(Arrays.asList(args));
+        if (!jmhArgs.contains("-rf")) {
+            jmhArgs.add("-rf");
+            jmhArgs.add("json");
+        }
+        if (!jmhArgs.contains("-rff")) {
+            jmhArgs.add("-rff");
+            jmhArgs.add("jmh-result.json");
+        }
+        org.openjdk.jmh.Main.main(jmhArgs.toArray(new String[0]));
+    }
+}
@@ -0,0 +1,61 @@
+package com.zerox.benchmark;
+
+import com.almasb.fxgl.entity.Entity;
+import com.almasb.fxgl.entity.SpawnData;
+import com.zerox.game.GameEntityFactory;
+import javafx.scene.paint.Color;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Author: ZeromaXHe
+ * @Time: 2026/10/18 16:02
+ * @Description: GameApp 中演示的 Entity.distance 和 Entity.distanceBBox
+ * @ModifiedBy: ZeromaXHe
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Dprism.order=sw", "-Djava.awt.headless=true"})
+public class EntityDistanceBenchmark {
+    private Entity e1;
+    private Entity e2;
+    private Entity e3;
+
+    @Setup
+    public void setup() {
+        GameEntityFactory factory = new GameEntityFactory();
+        e1 = factory.newRect(new SpawnData(0, 0).put("w", 100).put("h", 100).put("color", Color.RED));
+        // 和 e1 的 bbox 相交
+        e2 = factory.newRect(new SpawnData(100, 100).put("w", 100).put("h", 100).put("color", Color.BLUE));
+        // 和 e1 的 bbox 不相交
+        e3 = factory.newRect(new SpawnData(220, 230).put("w", 50).put("h", 50).put("color", Color.GREEN));
+    }
+
+    @Benchmark
+    public double distance() {
+        return e1.distance(e2);
+    }
+
+    @Benchmark
+    public double distanceBBoxOverlapping() {
+        return e1.distanceBBox(e2);
+    }
+
+    @Benchmark
+    public double distanceBBoxSeparated() {
+        return e1.distanceBBox(e3);
+    }
+}
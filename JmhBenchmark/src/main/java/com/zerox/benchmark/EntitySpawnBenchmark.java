@@ -0,0 +1,80 @@
+package com.zerox.benchmark;
+
+import com.almasb.fxgl.entity.Entity;
+import com.almasb.fxgl.entity.SpawnData;
+import com.zerox.common.spawn.SpawnTemplate;
+import com.zerox.game.GameEntityFactory;
+import com.zerox.test.TestEntityFactory;
+import javafx.scene.paint.Color;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Author: ZeromaXHe
+ * @Time: 2026/10/18 15:55
+ * @Description: 通过 TestEntityFactory.newRect、newTypedRect 和 GameEntityFactory.newRect 创建实体，包含 SpawnData 的构造和按 key 读取。
+ * 以及用 SpawnTemplate 预先解析好模板后生成同样的实体。
+ * 不经过 GameWorld，所以不需要启动 FXGL；prism.order=sw 让 JavaFX 在没有 OpenGL 的机器上也能初始化
+ * @ModifiedBy: ZeromaXHe
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Dprism.order=sw", "-Djava.awt.headless=true"})
+public class EntitySpawnBenchmark {
+    private final TestEntityFactory testEntityFactory = new TestEntityFactory();
+    private final GameEntityFactory gameEntityFactory = new GameEntityFactory();
+    private final SpawnTemplate testRectTemplate = TestEntityFactory.rectTemplate(new SpawnData(0, 0)
+            .put("w", 60)
+            .put("h", 60)
+            .put("color", Color.YELLOW));
+    private final SpawnTemplate gameRectTemplate = GameEntityFactory.rectTemplate(new SpawnData(0, 0)
+            .put("w", 100)
+            .put("h", 100)
+            .put("color", Color.RED));
+
+    @Benchmark
+    public Entity testEntityFactoryNewRect() {
+        return testEntityFactory.newRect(new SpawnData(50, 50)
+                .put("w", 60)
+                .put("h", 60)
+                .put("color", Color.YELLOW));
+    }
+
+    @Benchmark
+    public Entity testEntityFactoryNewTypedRect() {
+        return testEntityFactory.newTypedRect(new SpawnData(50, 50)
+                .put("w", 60)
+                .put("h", 60)
+                .put("color", Color.YELLOW));
+    }
+
+    @Benchmark
+    public Entity gameEntityFactoryNewRect() {
+        return gameEntityFactory.newRect(new SpawnData(0, 0)
+                .put("w", 100)
+                .put("h", 100)
+                .put("color", Color.RED));
+    }
+
+    @Benchmark
+    public Entity testRectTemplate() {
+        return testRectTemplate.create(50, 50);
+    }
+
+    @Benchmark
+    public Entity gameRectTemplate() {
+        return gameRectTemplate.create(0, 0);
+    }
+}
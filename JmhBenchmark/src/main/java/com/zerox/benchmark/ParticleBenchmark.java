@@ -0,0 +1,111 @@
+package com.zerox.benchmark;
+
+import com.almasb.fxgl.entity.Entity;
+import com.almasb.fxgl.entity.GameWorld;
+import com.almasb.fxgl.entity.SpawnData;
+import com.zerox.common.particle.ParticleSystem;
+import com.zerox.common.pool.EntityPool;
+import com.zerox.tank.TankEntityFactory;
+import com.zerox.tank.TankExplosions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Author: ZeromaXHe
+ * @Time: 2026/10/19 11:20
+ * @Description: 一帧的爆炸效果开销：每帧在随机位置新产生 explosionsPerFrame 次爆炸，再推进 1/60 秒。
+ * entities 是原来的做法，从对象池取带 ExplosionComponent 的 boom 实体加进 GameWorld，由 GameWorld.onUpdate 驱动；
+ * flashParticles 只注册和 boom 实体一样的 FLASH 效果，particles 是 TankApp 现在的 FLASH + 火花。
+ * 粒子包含往 Canvas 写绘制命令的时间，实体不包含 JavaFX 同步、渲染节点的时间，两边都不包含 GPU 光栅化。
+ * 60 帧/秒时 explosionsPerFrame=50 大约同时有 1000 个爆炸
+ * @ModifiedBy: ZeromaXHe
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Dprism.order=sw", "-Djava.awt.headless=true", "-Xmx2g"})
+public class ParticleBenchmark {
+    private static final double TPF = 1.0 / 60;
+    private static final int WIDTH = 1280;
+    private static final int HEIGHT = 720;
+
+    @Param({"10", "50"})
+    public int explosionsPerFrame;
+
+    private final SplittableRandom random = new SplittableRandom(42);
+
+    private GameWorld world;
+    private EntityPool boomPool;
+
+    private TankExplosions explosions;
+    private ParticleSystem flashOnly;
+    private int flash;
+
+    @Setup
+    public void setup() {
+        TankEntityFactory factory = new TankEntityFactory();
+        world = new GameWorld();
+        boomPool = new EntityPool(() -> factory.newBoom(new SpawnData()));
+        explosions = new TankExplosions(new ParticleSystem(WIDTH, HEIGHT, 1 << 17));
+        flashOnly = new ParticleSystem(WIDTH, HEIGHT, 1 << 17);
+        flash = flashOnly.register(TankExplosions.FLASH);
+        // 先跑一秒，进入稳定状态：同时存在的爆炸数量不再增长，对象池和数组不再扩容
+        for (int i = 0; i < 60; i++) {
+            entities();
+            particles();
+            flashParticles();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.out.println();
+        System.out.println("[particles] " + explosions.getParticles());
+        System.out.println("[flash] " + flashOnly);
+        System.out.println("[entities] " + world.getEntities().size() + " boom pool: " + boomPool);
+    }
+
+    @Benchmark
+    public int entities() {
+        for (int i = 0; i < explosionsPerFrame; i++) {
+            Entity boom = boomPool.obtain();
+            boom.setPosition(random.nextDouble() * WIDTH, random.nextDouble() * HEIGHT);
+            world.addEntity(boom);
+        }
+        world.onUpdate(TPF);
+        return world.getEntities().size();
+    }
+
+    @Benchmark
+    public int flashParticles() {
+        for (int i = 0; i < explosionsPerFrame; i++) {
+            flashOnly.emit(flash, random.nextDouble() * WIDTH, random.nextDouble() * HEIGHT);
+        }
+        flashOnly.update(TPF);
+        return flashOnly.getCount();
+    }
+
+    @Benchmark
+    public int particles() {
+        for (int i = 0; i < explosionsPerFrame; i++) {
+            explosions.explode(random.nextDouble() * WIDTH, random.nextDouble() * HEIGHT);
+        }
+        explosions.getParticles().update(TPF);
+        return explosions.getParticles().getCount();
+    }
+}
@@ -0,0 +1,126 @@
+package com.zerox.benchmark;
+
+import com.almasb.fxgl.core.collection.PropertyMap;
+import com.almasb.fxgl.entity.Entity;
+import com.almasb.fxgl.entity.SpawnData;
+import com.zerox.common.vars.TypedVars;
+import com.zerox.common.vars.VarSchema;
+import com.zerox.common.vars.VarsComponent;
+import com.zerox.test.TestEntityFactory;
+import javafx.scene.paint.Color;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Author: ZeromaXHe
+ * @Time: 2026/10/18 16:08
+ * @Description: TestEntityApp 中通过 Entity.getInt/getObject 和 PropertyMap.getValue 读取实体属性，
+ * 以及 TankApp 命中时 FXGL.inc("score") 走的 PropertyMap.increment，和 TypedVars 按槽位读写的对比
+ * @ModifiedBy: ZeromaXHe
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Dprism.order=sw", "-Djava.awt.headless=true"})
+public class PropertyMapBenchmark {
+    private Entity entity;
+    private PropertyMap properties;
+    private TypedVars entityVars;
+
+    private static final VarSchema GAME_VARS = new VarSchema();
+    private static final int SCORE = GAME_VARS.intVar("score", 0);
+    private PropertyMap gameProperties;
+    private TypedVars gameVars;
+
+    @Setup
+    public void setup() {
+        entity = new TestEntityFactory().newRect(new SpawnData(50, 50)
+                .put("w", 60)
+                .put("h", 60)
+                .put("color", Color.YELLOW));
+        properties = entity.getProperties();
+        entityVars = new TestEntityFactory().newTypedRect(new SpawnData(50, 50)
+                .put("w", 60)
+                .put("h", 60)
+                .put("color", Color.YELLOW)).getComponent(VarsComponent.class).getVars();
+
+        // 和 TankApp 一样，score 上挂一个监听器
+        gameProperties = new PropertyMap();
+        gameProperties.setValue("score", 0);
+        gameProperties.<Integer>addListener("score", (oldValue, newValue) -> {
+            if (newValue > Integer.MAX_VALUE - 100) {
+                System.out.println(newValue);
+            }
+        });
+        gameVars = new TypedVars(GAME_VARS);
+        gameVars.addIntListener(SCORE, (oldValue, newValue) -> {
+            if (newValue > Integer.MAX_VALUE - 100) {
+                System.out.println(newValue);
+            }
+        });
+    }
+
+    @Benchmark
+    public int getInt() {
+        return entity.getInt("w");
+    }
+
+    @Benchmark
+    public Color getObject() {
+        return entity.getObject("color");
+    }
+
+    @Benchmark
+    public int typedGetInt() {
+        return entityVars.getInt(TestEntityFactory.W);
+    }
+
+    @Benchmark
+    public Color typedGetObject() {
+        return entityVars.getObject(TestEntityFactory.COLOR);
+    }
+
+    /**
+     * 每次都装箱、触发 IntegerProperty 的监听器
+     */
+    @Benchmark
+    public void propertyMapIncrement() {
+        gameProperties.increment("score", 10);
+    }
+
+    /**
+     * 只改数组和脏位，监听器留到每帧一次的 flush
+     */
+    @Benchmark
+    public int typedIncrement() {
+        gameVars.inc(SCORE, 10);
+        return gameVars.getInt(SCORE);
+    }
+
+    /**
+     * 最坏情况：每次修改后都 flush（相当于每帧只命中一次）
+     */
+    @Benchmark
+    public void typedIncrementAndFlush() {
+        gameVars.inc(SCORE, 10);
+        gameVars.flush();
+    }
+
+    @Benchmark
+    public void getValueForAllKeys(Blackhole bh) {
+        properties.keys().forEach(k -> bh.consume(properties.getValue(k)));
+    }
+}
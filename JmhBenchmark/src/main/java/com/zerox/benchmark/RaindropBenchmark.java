@@ -0,0 +1,90 @@
+package com.zerox.benchmark;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.zerox.desktop.DropWorld;
+import com.zerox.desktop.Raindrops;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Author: ZeromaXHe
+ * @Time: 2026/10/18 15:46
+ * @Description: GameScreen 中雨滴下落和接住判断的循环（现在在 DropWorld.update 里），
+ * 同时保留一份原来 Array&lt;Rectangle&gt; + Iterator 的写法作为对照
+ * @ModifiedBy: ZeromaXHe
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RaindropBenchmark {
+    private static final float STEP = 1 / 60f;
+
+    @Param({"100", "10000"})
+    public int drops;
+
+    private DropWorld world;
+    private Array<Rectangle> legacyDrops;
+    private Rectangle legacyBucket;
+
+    @Setup
+    public void setup() {
+        MathUtils.random.setSeed(42);
+        world = new DropWorld();
+        world.bucket.x = DropWorld.WIDTH / 2 - DropWorld.BUCKET_SIZE / 2;
+        legacyDrops = new Array<>();
+        legacyBucket = new Rectangle(world.bucket);
+        for (int i = 0; i < drops; i++) {
+            float x = MathUtils.random(0, 800 - 64);
+            float y = MathUtils.random(0f, DropWorld.HEIGHT);
+            world.raindrops.add(x, y);
+            legacyDrops.add(new Rectangle(x, y, 64, 64));
+        }
+    }
+
+    @Benchmark
+    public int structureOfArrays() {
+        int caught = world.update(STEP);
+        // 补齐被移除的雨滴，保持数量稳定
+        Raindrops raindrops = world.raindrops;
+        while (raindrops.size() < drops) {
+            raindrops.add(MathUtils.random(0, 800 - 64), DropWorld.HEIGHT);
+        }
+        return caught;
+    }
+
+    @Benchmark
+    public int legacyRectangleArray() {
+        int caught = 0;
+        for (Iterator<Rectangle> iter = legacyDrops.iterator(); iter.hasNext(); ) {
+            Rectangle raindrop = iter.next();
+            raindrop.y -= 200 * STEP;
+            if (raindrop.y + 64 < 0) {
+                iter.remove();
+            } else if (raindrop.overlaps(legacyBucket)) {
+                caught++;
+                iter.remove();
+            }
+        }
+        while (legacyDrops.size < drops) {
+            legacyDrops.add(new Rectangle(MathUtils.random(0, 800 - 64), DropWorld.HEIGHT, 64, 64));
+        }
+        return caught;
+    }
+}
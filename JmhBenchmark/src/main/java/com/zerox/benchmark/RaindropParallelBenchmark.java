@@ -0,0 +1,80 @@
+package com.zerox.benchmark;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Rectangle;
+import com.zerox.desktop.DropWorld;
+import com.zerox.desktop.ParallelRaindropStep;
+import com.zerox.desktop.Raindrops;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Author: ZeromaXHe
+ * @Time: 2026/10/18 18:55
+ * @Description: 雨滴更新串行（Raindrops.fallAndCollect）和 ForkJoinPool 并行（ParallelRaindropStep）的对比，
+ * 找出并行开始划算的雨滴数量，结果用来定 ParallelRaindropStep.DEFAULT_MIN_PARALLEL_SIZE。
+ * 拐点和核数关系很大，换机器要重新跑
+ * @ModifiedBy: ZeromaXHe
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RaindropParallelBenchmark {
+    private static final float FALL = DropWorld.DROP_SPEED / 60f;
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int drops;
+
+    private Raindrops raindrops;
+    private Rectangle bucket;
+    private ParallelRaindropStep parallel;
+
+    @Setup
+    public void setup() {
+        MathUtils.random.setSeed(42);
+        raindrops = new Raindrops(drops, DropWorld.DROP_SIZE, DropWorld.DROP_SIZE);
+        bucket = new Rectangle(DropWorld.WIDTH / 2 - DropWorld.BUCKET_SIZE / 2, 20,
+                DropWorld.BUCKET_SIZE, DropWorld.BUCKET_SIZE);
+        refill();
+        // minParallelSize = 0，强制走并行路径
+        parallel = new ParallelRaindropStep(ForkJoinPool.commonPool(), 0, ParallelRaindropStep.DEFAULT_CHUNK_SIZE);
+    }
+
+    @Benchmark
+    public int serial() {
+        int caught = raindrops.fallAndCollect(FALL, bucket);
+        refill();
+        return caught;
+    }
+
+    @Benchmark
+    public int parallel() {
+        int caught = parallel.step(raindrops, FALL, bucket);
+        refill();
+        return caught;
+    }
+
+    /**
+     * 补齐被移除的雨滴，保持数量稳定
+     */
+    private void refill() {
+        while (raindrops.size() < drops) {
+            raindrops.add(MathUtils.random(0, 800 - 64), MathUtils.random(0f, DropWorld.HEIGHT));
+        }
+    }
+}
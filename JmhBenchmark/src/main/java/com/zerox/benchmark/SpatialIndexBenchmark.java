@@ -0,0 +1,124 @@
+package com.zerox.benchmark;
+
+import com.almasb.fxgl.entity.Entity;
+import com.almasb.fxgl.entity.SpawnData;
+import com.zerox.common.spatial.SpatialIndex;
+import com.zerox.game.GameEntityFactory;
+import javafx.scene.paint.Color;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Author: ZeromaXHe
+ * @Time: 2026/10/18 22:05
+ * @Description: 找最近实体、找范围内实体：遍历所有实体调用 distanceBBox 和 SpatialIndex 查询的对比。
+ * 实体密度固定（每 100 * 100 的区域一个），世界大小随实体数量变化；moveAndNearest 每次先移动一个实体，包含索引的维护开销
+ * @ModifiedBy: ZeromaXHe
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Dprism.order=sw", "-Djava.awt.headless=true", "-Xmx2g"})
+public class SpatialIndexBenchmark {
+    private static final double RADIUS = 150;
+
+    @Param({"1000", "10000", "100000"})
+    public int entities;
+
+    private final List<Entity> all = new ArrayList<>();
+    private SpatialIndex index;
+    private double worldSize;
+    private final Random random = new Random(42);
+    private int queryIndex;
+
+    private final Entity[] nearest = new Entity[1];
+    private final List<Entity> inRange = new ArrayList<>();
+
+    @Setup
+    public void setup() {
+        GameEntityFactory factory = new GameEntityFactory();
+        worldSize = Math.sqrt(entities) * 100;
+        index = new SpatialIndex(128, worldSize, worldSize);
+        for (int i = 0; i < entities; i++) {
+            Entity entity = factory.newRect(new SpawnData(random.nextDouble() * worldSize, random.nextDouble() * worldSize)
+                    .put("w", 20 + random.nextInt(40))
+                    .put("h", 20 + random.nextInt(40))
+                    .put("color", Color.RED));
+            all.add(entity);
+            index.add(entity);
+        }
+    }
+
+    private Entity nextQuery() {
+        queryIndex = (queryIndex + 7919) % entities;
+        return all.get(queryIndex);
+    }
+
+    @Benchmark
+    public Entity bruteForceNearest() {
+        Entity from = nextQuery();
+        Entity best = null;
+        double bestDistance = Double.MAX_VALUE;
+        for (int i = 0, size = all.size(); i < size; i++) {
+            Entity other = all.get(i);
+            if (other == from) {
+                continue;
+            }
+            double d = from.distanceBBox(other);
+            if (d < bestDistance) {
+                bestDistance = d;
+                best = other;
+            }
+        }
+        return best;
+    }
+
+    @Benchmark
+    public Entity indexNearest() {
+        index.kNearest(nextQuery(), 1, nearest);
+        return nearest[0];
+    }
+
+    @Benchmark
+    public int bruteForceRadius() {
+        Entity from = nextQuery();
+        inRange.clear();
+        for (int i = 0, size = all.size(); i < size; i++) {
+            Entity other = all.get(i);
+            if (other != from && from.distanceBBox(other) <= RADIUS) {
+                inRange.add(other);
+            }
+        }
+        return inRange.size();
+    }
+
+    @Benchmark
+    public int indexRadius() {
+        inRange.clear();
+        return index.queryRadius(nextQuery(), RADIUS, inRange);
+    }
+
+    @Benchmark
+    public Entity moveAndNearest() {
+        Entity moved = all.get(random.nextInt(entities));
+        moved.setPosition(random.nextDouble() * worldSize, random.nextDouble() * worldSize);
+        index.kNearest(nextQuery(), 1, nearest);
+        return nearest[0];
+    }
+}
@@ -0,0 +1,171 @@
+package com.zerox.benchmark;
+
+import com.zerox.common.startup.StartupProbe;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * @Author: ZeromaXHe
+ * @Time: 2026/10/18 23:10
+ * @Description: 各个 GameApplication 的冷启动时间。每次调用启动一个子进程，带上 -Dstartup.exitAfterFrames=1，
+ * 由 StartupProbe 在第一帧打印 JVM 启动到第一帧的时间后退出；JMH 的分数是整个子进程的时间（包含 JVM 退出），
+ * TearDown 时另外打印子进程自己报告的平均 firstFrame。
+ * mode：modulepath 是普通 JDK + 模块路径；image 是 jlink 镜像（只有基础 CDS 归档）；
+ * appcds 再加上应用自己的动态归档；appcds+preload 再打开 StartupPreloader。
+ * 需要先在 FXGLTest 下执行 mvn -Pstartup package（可以加 -Dstartup.skipTraining=true），
+ * 缺少的应用归档会在 Setup 里做一次训练运行补上。启动的是真正的窗口，需要图形界面
+ * @ModifiedBy: ZeromaXHe
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(1)
+public class StartupBenchmark {
+    private static final Pattern FIRST_FRAME = Pattern.compile("firstFrame=(\\d+)ms");
+    private static final int TRAINING_FRAMES = 120;
+
+    @Param({"com.zerox.hello.HelloWorldApp", "com.zerox.game.GameApp", "com.zerox.chat.ChatApp",
+            "com.zerox.tank.TankApp", "com.zerox.test.TestEntityApp", "com.zerox.test.TestMethodApp"})
+    public String app;
+
+    @Param({"modulepath", "image", "appcds", "appcds+preload"})
+    public String mode;
+
+    private List<String> command;
+    private long firstFrameMillis;
+    private int launches;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException, InterruptedException {
+        // 可以用 -Dstartup.dir 指定，默认从 JmhBenchmark 目录运行
+        Path startupDir = Paths.get(System.getProperty("startup.dir", "../FXGLTest/target/startup")).toAbsolutePath();
+        Path mods = startupDir.resolve("mods");
+        Path image = startupDir.resolve("image");
+        Path imageJava = image.resolve("bin").resolve("java");
+        String module = "FXGLTest/" + app;
+        String simpleName = app.substring(app.lastIndexOf('.') + 1);
+        Path archive = image.resolve("lib").resolve(simpleName + ".jsa");
+
+        command = new ArrayList<>();
+        switch (mode) {
+            case "modulepath":
+                Path jar = startupDir.getParent().resolve("FXGLTest-1.0-SNAPSHOT.jar");
+                require(mods);
+                require(jar);
+                command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+                command.add("-p");
+                command.add(jar + System.getProperty("path.separator") + mods);
+                break;
+            case "image":
+                require(imageJava);
+                command.add(imageJava.toString());
+                break;
+            case "appcds":
+            case "appcds+preload":
+                require(imageJava);
+                if (!Files.exists(archive)) {
+                    train(imageJava, archive, module);
+                }
+                command.add(imageJava.toString());
+                command.add("-XX:SharedArchiveFile=" + archive);
+                if (mode.endsWith("+preload")) {
+                    command.add("-Dstartup.preload=true");
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("未知的 mode: " + mode);
+        }
+        command.add("-D" + StartupProbe.EXIT_AFTER_FRAMES_PROPERTY + "=1");
+        command.add("-m");
+        command.add(module);
+    }
+
+    private static void require(Path path) {
+        if (!Files.exists(path)) {
+            throw new IllegalStateException(path + " 不存在，先在 FXGLTest 下执行 mvn -Pstartup package");
+        }
+    }
+
+    private static void train(Path imageJava, Path archive, String module) throws IOException, InterruptedException {
+        List<String> training = new ArrayList<>();
+        training.add(imageJava.toString());
+        training.add("-XX:ArchiveClassesAtExit=" + archive);
+        training.add("-D" + StartupProbe.EXIT_AFTER_FRAMES_PROPERTY + "=" + TRAINING_FRAMES);
+        training.add("-m");
+        training.add(module);
+        run(training);
+    }
+
+    @Benchmark
+    public long launch() throws IOException, InterruptedException {
+        long firstFrame = run(command);
+        firstFrameMillis += firstFrame;
+        launches++;
+        return firstFrame;
+    }
+
+    /**
+     * 运行子进程到退出
+     *
+     * @return 子进程报告的 firstFrame 毫秒数
+     */
+    private static long run(List<String> command) throws IOException, InterruptedException {
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        long firstFrame = -1;
+        List<String> output = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                output.add(line);
+                if (line.startsWith(StartupProbe.LINE_PREFIX)) {
+                    Matcher matcher = FIRST_FRAME.matcher(line);
+                    if (matcher.find()) {
+                        firstFrame = Long.parseLong(matcher.group(1));
+                    }
+                }
+            }
+        }
+        int exit = process.waitFor();
+        if (exit != 0 || firstFrame < 0) {
+            int from = Math.max(0, output.size() - 20);
+            throw new IllegalStateException("启动失败 exit=" + exit + " " + command + "\n"
+                    + String.join("\n", output.subList(from, output.size())));
+        }
+        return firstFrame;
+    }
+
+    @TearDown(Level.Trial)
+    public void report() {
+        if (launches > 0) {
+            System.out.println(StartupProbe.LINE_PREFIX + app + " mode=" + mode
+                    + " avgFirstFrame=" + firstFrameMillis / launches + "ms launches=" + launches);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.zerox.benchmark;
+
+import com.zerox.common.nav.NavGrid;
+import com.zerox.common.nav.PathService;
+import com.zerox.tank.TankAi;
+import com.zerox.tank.TankInput;
+import com.zerox.tank.TankWorld;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Author: ZeromaXHe
+ * @Time: 2026/10/19 13:50
+ * @Description: 一个 TankWorld tick 在游戏线程上的耗时，坦克绕着中间的墙转圈，所有敌人一直在追。
+ * tick 用共用的后台寻路线程池，按预算派发请求；tickInline 预算和延迟一样，但没有工作线程，寻路都由游戏线程按预算分段搜索；
+ * naive 是每个 tick 给每个敌人在游戏线程上重新跑一次 A*（再加上 tick 本身），也就是不做分摊、不用后台线程的做法。
+ * 沙盒只有一个 CPU 时后台线程抢的也是同一个核，tick 和 tickInline 差别不大，多核机器上才看得出后台线程的作用
+ * @ModifiedBy: ZeromaXHe
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx1g"})
+public class TankAiBenchmark {
+    private static final int[] LOOP = {TankInput.RIGHT, TankInput.DOWN, TankInput.LEFT, TankInput.UP};
+    private static final int TICKS_PER_SIDE = 80;
+
+    @Param({"100", "500"})
+    public int enemies;
+
+    private TankWorld world;
+    private TankWorld inlineWorld;
+    private TankWorld naiveWorld;
+    private final PathService naivePaths = new PathService(0);
+    private NavGrid grid;
+    private long tick;
+
+    @Setup
+    public void setup() {
+        world = new TankWorld(42);
+        inlineWorld = new TankWorld(42, new PathService(0));
+        naiveWorld = new TankWorld(42, new PathService(0));
+        world.start(enemies);
+        inlineWorld.start(enemies);
+        naiveWorld.start(enemies);
+        // 和 TankAi 里敌人用的地图一样
+        NavGrid walls = new NavGrid((int) (TankWorld.WIDTH / TankAi.CELL_SIZE), (int) (TankWorld.HEIGHT / TankAi.CELL_SIZE), TankAi.CELL_SIZE);
+        for (double[] wall : TankWorld.WALLS) {
+            walls.block(wall[0], wall[1], wall[2], wall[3]);
+        }
+        grid = walls.forAgent((int) Math.ceil(TankWorld.ENEMY_SIZE / TankAi.CELL_SIZE));
+        // 先让坦克开到 (0, 0) 下面一点的位置，再开始沿着墙外绕圈
+        for (int i = 0; i < 120; i++) {
+            tick();
+            tickInline();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.out.println();
+        System.out.println("[tick] " + world.getAi() + " " + world.getAi().getPaths());
+        System.out.println("[inline] " + inlineWorld.getAi() + " " + inlineWorld.getAi().getPaths());
+        System.out.println("[naive] " + naivePaths);
+    }
+
+    private int nextInput() {
+        return LOOP[(int) (tick++ / TICKS_PER_SIDE % LOOP.length)];
+    }
+
+    @Benchmark
+    public long tick() {
+        world.tick(nextInput());
+        return world.getTick();
+    }
+
+    @Benchmark
+    public long tickInline() {
+        inlineWorld.tick(nextInput());
+        return inlineWorld.getTick();
+    }
+
+    @Benchmark
+    public int naive() {
+        double offset = (TankWorld.TANK_SIZE - TankWorld.ENEMY_SIZE) / 2;
+        int goal = grid.nearestCell(naiveWorld.getTankX() + offset, naiveWorld.getTankY() + offset);
+        int length = 0;
+        for (int i = 0; i < naiveWorld.getEnemyCount(); i++) {
+            int start = grid.nearestCell(naiveWorld.getEnemyX(i), naiveWorld.getEnemyY(i));
+            length += naivePaths.findNow(grid, start, goal).length;
+        }
+        naiveWorld.tick(nextInput());
+        return length;
+    }
+}
@@ -0,0 +1,165 @@
+package com.zerox.benchmark;
+
+import com.almasb.fxgl.entity.Entity;
+import com.almasb.fxgl.entity.GameWorld;
+import com.almasb.fxgl.entity.SpawnData;
+import com.zerox.common.save.WorldSaver;
+import com.zerox.game.GameEntityFactory;
+import javafx.scene.paint.Color;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Author: ZeromaXHe
+ * @Time: 2026/10/19 02:30
+ * @Description: WorldSaver 保存、恢复通过 GameEntityFactory.newRect 生成的方块。
+ * saveFull 是完整快照（游戏线程编码 + 后台线程写映射文件和 force，等写完才算结束），
+ * saveIncremental 每次挪动 1% 的实体后增量保存，restore 从存档重新生成所有实体并加进一个新的 GameWorld，
+ * decodeOnly 只解码不生成实体，spawnOnly 不读存档、直接用 newRect 生成同样数量的实体加进 GameWorld 作对照。
+ * 游戏线程上的编码耗时在 TearDown 打印的统计行里（encode=）。
+ * 一个 newRect 的方块带着 JavaFX 节点要占 20KB 左右的堆，10 万个就是 2GB，restore 和 spawnOnly 的时间主要是 GC，
+ * 所以 restore 用单独的 State，准备好存档文件后不再持有原来的实体
+ * @ModifiedBy: ZeromaXHe
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Dprism.order=sw", "-Djava.awt.headless=true", "-Xmx4g"})
+public class WorldSnapshotBenchmark {
+    private static final GameEntityFactory FACTORY = new GameEntityFactory();
+
+    @State(Scope.Thread)
+    public static class Saved {
+        @Param({"100000"})
+        public int entities;
+
+        final Random random = new Random(42);
+        final List<Entity> all = new ArrayList<>();
+        Path dir;
+        Path file;
+        WorldSaver saver;
+
+        @Setup
+        public void setup() throws IOException {
+            dir = Files.createTempDirectory("world-snapshot");
+            file = dir.resolve("world.sav");
+            GameWorld world = new GameWorld();
+            for (int i = 0; i < entities; i++) {
+                Entity entity = FACTORY.newRect(new SpawnData(random.nextInt(10_000), random.nextInt(10_000))
+                        .put("w", 20 + random.nextInt(40))
+                        .put("h", 20 + random.nextInt(40))
+                        .put("color", Color.RED));
+                world.addEntity(entity);
+                all.add(entity);
+            }
+            saver = new WorldSaver(file);
+            saver.attach(world);
+            saver.saveFull();
+            saver.awaitWrites();
+        }
+
+        @TearDown
+        public void tearDown() throws IOException {
+            System.out.println();
+            System.out.println("[save] " + saver);
+            saver.close();
+            deleteAll(dir);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class SavedFile {
+        @Param({"100000"})
+        public int entities;
+
+        Path dir;
+        Path file;
+
+        @Setup
+        public void setup() throws IOException {
+            Saved saved = new Saved();
+            saved.entities = entities;
+            saved.setup();
+            saved.saver.close();
+            dir = saved.dir;
+            file = saved.file;
+        }
+
+        @TearDown
+        public void tearDown() throws IOException {
+            deleteAll(dir);
+        }
+    }
+
+    private static void deleteAll(Path dir) throws IOException {
+        try (var files = Files.list(dir)) {
+            for (Path path : (Iterable<Path>) files::iterator) {
+                Files.delete(path);
+            }
+        }
+        Files.delete(dir);
+    }
+
+    @Benchmark
+    public long saveFull(Saved state) {
+        state.saver.saveFull();
+        state.saver.awaitWrites();
+        return state.saver.getFileBytes();
+    }
+
+    @Benchmark
+    public long saveIncremental(Saved state) {
+        for (int i = 0, n = state.entities / 100; i < n; i++) {
+            state.all.get(state.random.nextInt(state.entities)).translate(1, 1);
+        }
+        state.saver.save();
+        state.saver.awaitWrites();
+        return state.saver.getFileBytes();
+    }
+
+    @Benchmark
+    public int restore(SavedFile state) throws IOException {
+        try (WorldSaver reader = new WorldSaver(state.file)) {
+            return reader.load(new GameWorld(), (type, data) -> FACTORY.newRect(data));
+        }
+    }
+
+    @Benchmark
+    public int decodeOnly(SavedFile state) throws IOException {
+        try (WorldSaver reader = new WorldSaver(state.file)) {
+            return reader.load(new GameWorld(), (type, data) -> null);
+        }
+    }
+
+    @Benchmark
+    public GameWorld spawnOnly(SavedFile state) {
+        Random random = new Random(42);
+        GameWorld world = new GameWorld();
+        for (int i = 0; i < state.entities; i++) {
+            world.addEntity(FACTORY.newRect(new SpawnData(random.nextInt(10_000), random.nextInt(10_000))
+                    .put("w", 20 + random.nextInt(40))
+                    .put("h", 20 + random.nextInt(40))
+                    .put("color", Color.RED)));
+        }
+        return world;
+    }
+}
@@ -0,0 +1,204 @@
+package com.zerox.desktop;
+
+import com.badlogic.gdx.audio.Sound;
+
+/**
+ * @Author: ZeromaXHe
+ * @Time: 2026/10/18 21:10
+ * @Description: 音效派发：同一帧内对同一个音效的多次播放请求合并成一次，同时播放的音效数量有上限，
+ * 满了之后优先级更高的音效会抢占优先级最低的那个，抢不到就丢弃。
+ * 音效本身由 DropAssets 预先解码好，这里只保存引用。每帧调用一次 update 真正播放
+ * @ModifiedBy: ZeromaXHe
+ */
+public class AudioDispatcher {
+    private final int maxVoices;
+
+    // 注册的音效
+    private Sound[] sounds = new Sound[4];
+    private int[] priorities = new int[4];
+    private float[] durations = new float[4];
+    private float[] volumes = new float[4];
+    /**
+     * 本帧的播放请求数
+     */
+    private int[] pending = new int[4];
+    private int soundCount;
+
+    // 正在播放的声部，remaining <= 0 表示空闲
+    private final int[] voiceSound;
+    private final long[] voiceId;
+    private final float[] voiceRemaining;
+
+    // 统计
+    private long requested;
+    private long played;
+    private long merged;
+    private long dropped;
+    private long stolen;
+
+    /**
+     * @param maxVoices 同时播放的音效数量上限
+     */
+    public AudioDispatcher(int maxVoices) {
+        this.maxVoices = maxVoices;
+        voiceSound = new int[maxVoices];
+        voiceId = new long[maxVoices];
+        voiceRemaining = new float[maxVoices];
+    }
+
+    /**
+     * @param priority 越大越优先
+     * @param duration 音效时长（秒），用来估计声部什么时候空出来
+     * @return 之后调用 play 用的编号
+     */
+    public int register(Sound sound, int priority, float duration, float volume) {
+        if (soundCount == sounds.length) {
+            int capacity = soundCount * 2;
+            Sound[] newSounds = new Sound[capacity];
+            System.arraycopy(sounds, 0, newSounds, 0, soundCount);
+            sounds = newSounds;
+            priorities = copyOf(priorities, capacity);
+            durations = copyOf(durations, capacity);
+            volumes = copyOf(volumes, capacity);
+            pending = copyOf(pending, capacity);
+        }
+        int id = soundCount++;
+        sounds[id] = sound;
+        priorities[id] = priority;
+        durations[id] = duration;
+        volumes[id] = volume;
+        return id;
+    }
+
+    /**
+     * 请求播放，实际在 update 时播放
+     */
+    public void play(int sound) {
+        requested++;
+        pending[sound]++;
+    }
+
+    /**
+     * 每帧调用一次：推进声部计时，然后派发本帧的请求，高优先级的先派发
+     */
+    public void update(float delta) {
+        for (int v = 0; v < maxVoices; v++) {
+            voiceRemaining[v] -= delta;
+        }
+        while (true) {
+            int sound = nextPending();
+            if (sound < 0) {
+                break;
+            }
+            merged += pending[sound] - 1;
+            pending[sound] = 0;
+            dispatch(sound);
+        }
+    }
+
+    private int nextPending() {
+        int best = -1;
+        for (int s = 0; s < soundCount; s++) {
+            if (pending[s] > 0 && (best < 0 || priorities[s] > priorities[best])) {
+                best = s;
+            }
+        }
+        return best;
+    }
+
+    private void dispatch(int sound) {
+        int voice = -1;
+        int lowest = -1;
+        for (int v = 0; v < maxVoices; v++) {
+            if (voiceRemaining[v] <= 0) {
+                voice = v;
+                break;
+            }
+            // 同优先级时抢占剩余时间最短的
+            if (lowest < 0 || priorities[voiceSound[v]] < priorities[voiceSound[lowest]]
+                    || priorities[voiceSound[v]] == priorities[voiceSound[lowest]]
+                    && voiceRemaining[v] < voiceRemaining[lowest]) {
+                lowest = v;
+            }
+        }
+        if (voice < 0) {
+            if (lowest < 0 || priorities[voiceSound[lowest]] >= priorities[sound]) {
+                dropped++;
+                return;
+            }
+        }
+        // 先播放再停被抢的声部，新音效先占上后端的声道
+        long id = sounds[sound].play(volumes[sound]);
+        if (voice < 0) {
+            sounds[voiceSound[lowest]].stop(voiceId[lowest]);
+            stolen++;
+            voice = lowest;
+            voiceRemaining[voice] = 0;
+            if (id == -1) {
+                // 后端的声道也满了，停掉被抢的之后再试一次
+                id = sounds[sound].play(volumes[sound]);
+            }
+        }
+        if (id == -1) {
+            // 后端没有空闲的声道，声部保持空闲
+            dropped++;
+            return;
+        }
+        played++;
+        voiceSound[voice] = sound;
+        voiceId[voice] = id;
+        voiceRemaining[voice] = durations[sound];
+    }
+
+    private static int[] copyOf(int[] array, int length) {
+        int[] copy = new int[length];
+        System.arraycopy(array, 0, copy, 0, Math.min(array.length, length));
+        return copy;
+    }
+
+    private static float[] copyOf(float[] array, int length) {
+        float[] copy = new float[length];
+        System.arraycopy(array, 0, copy, 0, Math.min(array.length, length));
+        return copy;
+    }
+
+    public long getRequested() {
+        return requested;
+    }
+
+    public long getPlayed() {
+        return played;
+    }
+
+    /**
+     * 同一帧内被合并掉的请求数
+     */
+    public long getMerged() {
+        return merged;
+    }
+
+    /**
+     * 声部已满、优先级又不够抢占而丢弃的请求数
+     */
+    public long getDropped() {
+        return dropped;
+    }
+
+    public long getStolen() {
+        return stolen;
+    }
+
+    public void resetStats() {
+        requested = 0;
+        played = 0;
+        merged = 0;
+        dropped = 0;
+        stolen = 0;
+    }
+
+    @Override
+    public String toString() {
+        return "requested=" + requested + " played=" + played + " merged=" + merged
+                + " dropped=" + dropped + " stolen=" + stolen;
+    }
+}
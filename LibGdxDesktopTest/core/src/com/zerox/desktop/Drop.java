@@ -13,21 +13,58 @@ import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 public class Drop extends Game {
     public SpriteBatch batch;
     public BitmapFont font;
+    /**
+     * 创建时开始加载，MainMenuScreen 显示进度，加载完成后交给 GameScreen
+     */
+    public DropAssets assets;
+    /**
+     * 为 null 时不检查每帧的内存分配
+     */
+    public FrameAllocationHook allocationHook;
+    /**
+     * 为 true 时 GameScreen 在左上角显示每帧的 draw call 数
+     */
+    public boolean showRenderStats;
+    /**
+     * 为 null 时雨滴在渲染线程串行更新
+     */
+    public RaindropStep raindropStep;
+    /**
+     * 雨滴生成节奏和数量配置，格式见 SpawnSchedule.parse
+     */
+    public String spawnSchedule = "interval:" + DropWorld.SPAWN_INTERVAL;
+    public int prewarmDrops = DropWorld.DEFAULT_PREWARM;
+    public int maxDrops = DropWorld.DEFAULT_MAX_DROPS;
+    /**
+     * 上一帧 batch 提交的 draw call 数（纹理切换、缓冲区满都会导致额外的 flush）
+     */
+    public int renderCalls;
 
     public void create() {
         batch = new SpriteBatch();
         // use libGDX's default Arial font
         font = new BitmapFont();
+        assets = new DropAssets();
+        assets.queue();
         this.setScreen(new MainMenuScreen(this));
     }
 
     public void render() {
+        if (allocationHook != null) {
+            allocationHook.frameStart();
+        }
+        int totalRenderCalls = batch.totalRenderCalls;
         super.render(); // important!
+        renderCalls = batch.totalRenderCalls - totalRenderCalls;
+        if (allocationHook != null) {
+            allocationHook.frameEnd();
+        }
     }
 
     public void dispose() {
         batch.dispose();
         font.dispose();
+        assets.dispose();
     }
 
 }
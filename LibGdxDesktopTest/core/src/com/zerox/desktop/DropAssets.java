@@ -0,0 +1,91 @@
+package com.zerox.desktop;
+
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.BitmapFontLoader;
+import com.badlogic.gdx.audio.Music;
+import com.badlogic.gdx.audio.Sound;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Disposable;
+
+/**
+ * @Author: ZeromaXHe
+ * @Time: 2026/10/18 17:40
+ * @Description: GameScreen 用到的图片和音频。由 AssetManager 在后台线程读取文件、解码，
+ * 纹理上传 GPU 这一步在渲染线程的 update 里分帧完成，MainMenuScreen 每帧推进一点并显示进度
+ * 水滴、桶和字体都打包在 sprites.atlas 这一张纹理里（见根目录 build.gradle 的 packTextures），
+ * GameScreen 一帧的绘制不会因为切换纹理而中途 flush
+ * @ModifiedBy: ZeromaXHe
+ */
+public class DropAssets implements Disposable {
+    public static final String SPRITE_ATLAS = "sprites.atlas";
+    public static final String FONT = "lsans-15.fnt";
+    public static final String DROP_REGION = "drop";
+    public static final String BUCKET_REGION = "bucket";
+    public static final String EXPLODE_SOUND = "explode.wav";
+    public static final String TANK_MUSIC = "tankBgm.mp3";
+
+    /**
+     * 每帧最多用在加载上的时间，不影响菜单的帧率
+     */
+    private static final int UPDATE_BUDGET_MILLIS = 8;
+
+    private final AssetManager manager = new AssetManager();
+
+    public TextureRegion dropImage;
+    public TextureRegion bucketImage;
+    /**
+     * 字形从 sprites.atlas 里取，和精灵共用纹理
+     */
+    public BitmapFont font;
+    public Sound explodeSound;
+    public Music tankMusic;
+
+    /**
+     * 把所有资源加入加载队列，立即返回
+     */
+    public void queue() {
+        manager.load(SPRITE_ATLAS, TextureAtlas.class);
+        BitmapFontLoader.BitmapFontParameter fontParameter = new BitmapFontLoader.BitmapFontParameter();
+        fontParameter.atlasName = SPRITE_ATLAS;
+        manager.load(FONT, BitmapFont.class, fontParameter);
+        manager.load(EXPLODE_SOUND, Sound.class);
+        manager.load(TANK_MUSIC, Music.class);
+    }
+
+    /**
+     * 在渲染线程每帧调用，全部加载完成后返回 true，此时各个字段才可以使用
+     */
+    public boolean update() {
+        if (isLoaded()) {
+            return true;
+        }
+        if (!manager.update(UPDATE_BUDGET_MILLIS)) {
+            return false;
+        }
+        TextureAtlas atlas = manager.get(SPRITE_ATLAS, TextureAtlas.class);
+        dropImage = atlas.findRegion(DROP_REGION);
+        bucketImage = atlas.findRegion(BUCKET_REGION);
+        font = manager.get(FONT, BitmapFont.class);
+        explodeSound = manager.get(EXPLODE_SOUND, Sound.class);
+        tankMusic = manager.get(TANK_MUSIC, Music.class);
+        return true;
+    }
+
+    public boolean isLoaded() {
+        return dropImage != null;
+    }
+
+    /**
+     * 0 到 1 之间
+     */
+    public float getProgress() {
+        return manager.getProgress();
+    }
+
+    @Override
+    public void dispose() {
+        manager.dispose();
+    }
+}
@@ -0,0 +1,127 @@
+package com.zerox.desktop;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Rectangle;
+
+/**
+ * @Author: ZeromaXHe
+ * @Time: 2026/10/18 14:30
+ * @Description: Drop 游戏的纯逻辑部分（桶的移动、生成雨滴、雨滴下落、接住判断），不依赖 Gdx.graphics/Gdx.input，
+ * 可以在 GameScreen 里按帧驱动，也可以在无界面的环境下按固定步长跑
+ * @ModifiedBy: ZeromaXHe
+ */
+public class DropWorld {
+    public static final float WIDTH = 800;
+    public static final float HEIGHT = 480;
+    public static final float DROP_SIZE = 64;
+    public static final float BUCKET_SIZE = 64;
+    public static final float BUCKET_SPEED = 200;
+    public static final float DROP_SPEED = 200;
+    /**
+     * 默认每隔多少秒生成一个雨滴
+     */
+    public static final float SPAWN_INTERVAL = 1;
+    public static final int DEFAULT_PREWARM = 64;
+    public static final int DEFAULT_MAX_DROPS = 1 << 20;
+
+    public final Rectangle bucket = new Rectangle();
+    public final Raindrops raindrops;
+
+    // 本帧输入，由调用方在 update 之前设置
+    public boolean leftPressed;
+    public boolean rightPressed;
+    public boolean touched;
+    /**
+     * 触摸点在世界坐标系下的 x
+     */
+    public float touchX;
+
+    /**
+     * 为 null 时在当前线程串行更新雨滴
+     */
+    private RaindropStep raindropStep;
+
+    private final SpawnSchedule spawnSchedule;
+    private int dropsGathered;
+    /**
+     * 因为达到雨滴数量上限而没有生成的次数
+     */
+    private int spawnsRejected;
+
+    public DropWorld() {
+        this(SpawnSchedule.interval(SPAWN_INTERVAL), DEFAULT_PREWARM, DEFAULT_MAX_DROPS);
+    }
+
+    /**
+     * @param spawnSchedule 雨滴生成节奏
+     * @param prewarm       预分配的雨滴容量，同屏雨滴不超过这个数时生成雨滴不分配内存
+     * @param maxDrops      同屏雨滴数量上限，超出的生成请求被丢弃
+     */
+    public DropWorld(SpawnSchedule spawnSchedule, int prewarm, int maxDrops) {
+        this.spawnSchedule = spawnSchedule;
+        raindrops = new Raindrops(prewarm, maxDrops, DROP_SIZE, DROP_SIZE);
+        bucket.x = WIDTH / 2 - BUCKET_SIZE / 2;
+        // libGDX (以及 OpenGL) 中的 y 轴是朝上的
+        bucket.y = 20;
+        bucket.width = BUCKET_SIZE;
+        bucket.height = BUCKET_SIZE;
+
+        spawnRaindrop();
+    }
+
+    /**
+     * 推进一步模拟
+     *
+     * @param delta 本步的时长（秒）
+     * @return 本步接住的雨滴数量，调用方据此播放音效
+     */
+    public int update(float delta) {
+        if (touched) {
+            bucket.x = touchX - BUCKET_SIZE / 2;
+        }
+        if (leftPressed) {
+            bucket.x -= BUCKET_SPEED * delta;
+        }
+        if (rightPressed) {
+            bucket.x += BUCKET_SPEED * delta;
+        }
+
+        if (bucket.x < 0) {
+            bucket.x = 0;
+        }
+        if (bucket.x > WIDTH - BUCKET_SIZE) {
+            bucket.x = WIDTH - BUCKET_SIZE;
+        }
+
+        // 原来用 TimeUtils.nanoTime() 判断间隔，改用模拟时间，固定步长下才能复现
+        int spawns = spawnSchedule.update(delta);
+        for (int i = 0; i < spawns; i++) {
+            spawnRaindrop();
+        }
+
+        float fall = DROP_SPEED * delta;
+        int caught = raindropStep != null
+                ? raindropStep.step(raindrops, fall, bucket)
+                : raindrops.fallAndCollect(fall, bucket);
+        dropsGathered += caught;
+        return caught;
+    }
+
+    private void spawnRaindrop() {
+        if (!raindrops.add(MathUtils.random(0, (int) (WIDTH - DROP_SIZE)), HEIGHT)) {
+            spawnsRejected++;
+        }
+    }
+
+    public int getSpawnsRejected() {
+        return spawnsRejected;
+    }
+
+    public void setRaindropStep(RaindropStep raindropStep) {
+        this.raindropStep = raindropStep;
+    }
+
+    public int getDropsGathered() {
+        return dropsGathered;
+    }
+}
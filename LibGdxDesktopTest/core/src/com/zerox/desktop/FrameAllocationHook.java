@@ -0,0 +1,14 @@
+package com.zerox.desktop;
+
+/**
+ * @Author: ZeromaXHe
+ * @Time: 2026/10/18 13:42
+ * @Description: 每帧内存分配的调试钩子，由 Drop.render() 在每帧前后调用。
+ * core 模块要兼容 GWT，拿不到 ThreadMXBean，具体实现放在 desktop 模块
+ * @ModifiedBy: ZeromaXHe
+ */
+public interface FrameAllocationHook {
+    void frameStart();
+
+    void frameEnd();
+}
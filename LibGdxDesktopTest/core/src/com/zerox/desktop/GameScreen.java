@@ -4,59 +4,79 @@ import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Input;
 import com.badlogic.gdx.Screen;
 import com.badlogic.gdx.audio.Music;
-import com.badlogic.gdx.audio.Sound;
 import com.badlogic.gdx.graphics.OrthographicCamera;
-import com.badlogic.gdx.graphics.Texture;
-import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.GlyphLayout;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector3;
-import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.ScreenUtils;
-import com.badlogic.gdx.utils.TimeUtils;
-
-import java.util.Iterator;
 
 public class GameScreen implements Screen {
+    private static final String SCORE_PREFIX = "Drops Collected: ";
+    private static final String RENDER_CALLS_PREFIX = "Render calls: ";
+    private static final int MAX_VOICES = 8;
+    /**
+     * explode.wav 的时长
+     */
+    private static final float EXPLODE_SECONDS = 1.33f;
+
     final Drop game;
 
-    private Texture dropImage;
-    private Texture bucketImage;
-    private Sound explodeSound;
-    private Music tankMusic;
+    private final TextureRegion dropImage;
+    private final TextureRegion bucketImage;
+    /**
+     * 和水滴、桶在同一张图集纹理上，画分数不会打断批次
+     */
+    private final BitmapFont font;
+    /**
+     * 一帧接住多个水滴时只播放一次爆炸音效，同时最多 MAX_VOICES 个
+     */
+    private final AudioDispatcher audio = new AudioDispatcher(MAX_VOICES);
+    private final int explodeSound;
+    private final Music tankMusic;
 
     private OrthographicCamera camera;
-    private Rectangle bucket;
-    private Array<Rectangle> raindrops;
-    private long lastDropTime;
-
-    private int dropsGathered;
-
-    public GameScreen(final Drop game) {
+    /**
+     * 游戏逻辑，GameScreen 只负责输入、渲染和音效
+     */
+    private DropWorld world;
+
+    // 每帧复用的对象，渲染循环中不再分配内存
+    private final Vector3 touchPos = new Vector3();
+    private final StringBuilder scoreText = new StringBuilder(SCORE_PREFIX);
+    private final GlyphLayout scoreLayout = new GlyphLayout();
+    /**
+     * scoreLayout 当前显示的分数，只有 dropsGathered 变化时才重新排版
+     */
+    private int shownDrops = -1;
+    private final StringBuilder renderCallsText = new StringBuilder(RENDER_CALLS_PREFIX);
+    private final GlyphLayout renderCallsLayout = new GlyphLayout();
+    private int shownRenderCalls = -1;
+
+    /**
+     * assets 必须已经加载完成，资源由 Drop 统一释放
+     */
+    public GameScreen(final Drop game, DropAssets assets) {
         this.game = game;
 
-        // 加载水滴和桶的图片，都是 64 * 64 像素的
-        dropImage = new Texture(Gdx.files.internal("drop.png"));
-        bucketImage = new Texture(Gdx.files.internal("bucket.png"));
+        // 水滴和桶的图片，都是 64 * 64 像素的
+        dropImage = assets.dropImage;
+        bucketImage = assets.bucketImage;
+        font = assets.font;
 
-        // 加载爆炸音效和坦克大战背景音乐（不想登录去下那个素材了，用原来自己学 FXGL 的素材糊弄一下……）
-        explodeSound = Gdx.audio.newSound(Gdx.files.internal("explode.wav"));
-        tankMusic = Gdx.audio.newMusic(Gdx.files.internal("tankBgm.mp3"));
+        // 爆炸音效和坦克大战背景音乐（不想登录去下那个素材了，用原来自己学 FXGL 的素材糊弄一下……）
+        explodeSound = audio.register(assets.explodeSound, 0, EXPLODE_SECONDS, 1f);
+        tankMusic = assets.tankMusic;
 
         // 立即启动背景音乐的播放
         tankMusic.setLooping(true);
 
         camera = new OrthographicCamera();
-        camera.setToOrtho(false, 800, 480);
+        camera.setToOrtho(false, DropWorld.WIDTH, DropWorld.HEIGHT);
 
-        bucket = new Rectangle();
-        bucket.x = 800 / 2 - 64 / 2;
-        // libGDX (以及 OpenGL) 中的 y 轴是朝上的
-        bucket.y = 20;
-        bucket.width = 64;
-        bucket.height = 64;
-
-        raindrops = new Array<>();
-        spawnRaindrop();
+        world = new DropWorld(SpawnSchedule.parse(game.spawnSchedule), game.prewarmDrops, game.maxDrops);
+        world.setRaindropStep(game.raindropStep);
     }
 
     @Override
@@ -65,61 +85,59 @@ public class GameScreen implements Screen {
 
         camera.update();
 
+        Rectangle bucket = world.bucket;
+        Raindrops raindrops = world.raindrops;
         game.batch.setProjectionMatrix(camera.combined);
         game.batch.begin();
-        game.font.draw(game.batch, "Drops Collected: " + dropsGathered, 0, 480);
+        updateScoreText();
+        font.draw(game.batch, scoreLayout, 0, DropWorld.HEIGHT);
+        if (game.showRenderStats) {
+            // 显示的是上一帧的 draw call 数，这一帧的要等 batch.end 之后才知道
+            updateRenderCallsText();
+            font.draw(game.batch, renderCallsLayout, 0, DropWorld.HEIGHT - scoreLayout.height - 8);
+        }
         game.batch.draw(bucketImage, bucket.x, bucket.y);
-        for (Rectangle raindrop : raindrops) {
-            game.batch.draw(dropImage, raindrop.x, raindrop.y);
+        for (int i = 0; i < raindrops.size(); i++) {
+            game.batch.draw(dropImage, raindrops.x[i], raindrops.y[i]);
         }
         game.batch.end();
 
-        if (Gdx.input.isTouched()) {
-            Vector3 touchPos = new Vector3();
+        world.touched = Gdx.input.isTouched();
+        if (world.touched) {
             touchPos.set(Gdx.input.getX(), Gdx.input.getY(), 0);
             camera.unproject(touchPos);
-            bucket.x = touchPos.x - 64 / 2;
-        }
-
-        if (Gdx.input.isKeyPressed(Input.Keys.LEFT)) {
-            bucket.x -= 200 * Gdx.graphics.getDeltaTime();
-        }
-        if (Gdx.input.isKeyPressed(Input.Keys.RIGHT)) {
-            bucket.x += 200 * Gdx.graphics.getDeltaTime();
+            world.touchX = touchPos.x;
         }
+        world.leftPressed = Gdx.input.isKeyPressed(Input.Keys.LEFT);
+        world.rightPressed = Gdx.input.isKeyPressed(Input.Keys.RIGHT);
 
-        if (bucket.x < 0) {
-            bucket.x = 0;
-        }
-        if (bucket.x > 800 - 64) {
-            bucket.x = 800 - 64;
+        int caught = world.update(Gdx.graphics.getDeltaTime());
+        for (int i = 0; i < caught; i++) {
+            audio.play(explodeSound);
         }
+        audio.update(Gdx.graphics.getDeltaTime());
+    }
 
-        if (TimeUtils.nanoTime() - lastDropTime > 1000000000) {
-            spawnRaindrop();
-        }
-        for (Iterator<Rectangle> iter = raindrops.iterator(); iter.hasNext(); ) {
-            Rectangle raindrop = iter.next();
-            raindrop.y -= 200 * Gdx.graphics.getDeltaTime();
-            if (raindrop.y + 64 < 0) {
-                iter.remove();
-            }
-            if (raindrop.overlaps(bucket)) {
-                dropsGathered++;
-                explodeSound.play();
-                iter.remove();
-            }
+    private void updateScoreText() {
+        int dropsGathered = world.getDropsGathered();
+        if (shownDrops == dropsGathered) {
+            return;
         }
+        shownDrops = dropsGathered;
+        scoreText.setLength(SCORE_PREFIX.length());
+        scoreText.append(dropsGathered);
+        scoreLayout.setText(font, scoreText);
     }
 
-    private void spawnRaindrop() {
-        Rectangle raindrop = new Rectangle();
-        raindrop.x = MathUtils.random(0, 800 - 64);
-        raindrop.y = 480;
-        raindrop.width = 64;
-        raindrop.height = 64;
-        raindrops.add(raindrop);
-        lastDropTime = TimeUtils.nanoTime();
+    private void updateRenderCallsText() {
+        int renderCalls = game.renderCalls;
+        if (shownRenderCalls == renderCalls) {
+            return;
+        }
+        shownRenderCalls = renderCalls;
+        renderCallsText.setLength(RENDER_CALLS_PREFIX.length());
+        renderCallsText.append(renderCalls);
+        renderCallsLayout.setText(font, renderCallsText);
     }
 
     @Override
@@ -144,14 +162,11 @@ public class GameScreen implements Screen {
 
     @Override
     public void hide() {
-
+        Gdx.app.log("Audio", audio.toString());
     }
 
     @Override
     public void dispose() {
-        dropImage.dispose();
-        bucketImage.dispose();
-        explodeSound.dispose();
-        tankMusic.dispose();
+        tankMusic.stop();
     }
 }
@@ -15,6 +15,10 @@ public class MainMenuScreen implements Screen {
     final Drop game;
     OrthographicCamera camera;
 
+    private static final String LOADING_PREFIX = "Loading... ";
+    private final StringBuilder loadingText = new StringBuilder(LOADING_PREFIX);
+    private int shownPercent = -1;
+
     public MainMenuScreen(final Drop game) {
         this.game = game;
         camera = new OrthographicCamera();
@@ -28,17 +32,34 @@ public class MainMenuScreen implements Screen {
         camera.update();
         game.batch.setProjectionMatrix(camera.combined);
 
+        // 资源加载完之前不能进入游戏，先显示加载进度
+        boolean loaded = game.assets.update();
+
         game.batch.begin();
         game.font.draw(game.batch, "Welcome to Drop!!! ", 100, 150);
-        game.font.draw(game.batch, "Tap anywhere to begin!", 100, 100);
+        if (loaded) {
+            game.font.draw(game.batch, "Tap anywhere to begin!", 100, 100);
+        } else {
+            game.font.draw(game.batch, progressText(game.assets.getProgress()), 100, 100);
+        }
         game.batch.end();
 
-        if (Gdx.input.isTouched()) {
-            game.setScreen(new GameScreen(game));
+        if (loaded && Gdx.input.isTouched()) {
+            game.setScreen(new GameScreen(game, game.assets));
             dispose();
         }
     }
 
+    private CharSequence progressText(float progress) {
+        int percent = (int) (progress * 100);
+        if (percent != shownPercent) {
+            shownPercent = percent;
+            loadingText.setLength(LOADING_PREFIX.length());
+            loadingText.append(percent).append('%');
+        }
+        return loadingText;
+    }
+
     @Override
     public void show() {
 
@@ -0,0 +1,19 @@
+package com.zerox.desktop;
+
+import com.badlogic.gdx.math.Rectangle;
+
+/**
+ * @Author: ZeromaXHe
+ * @Time: 2026/10/18 18:40
+ * @Description: 雨滴下落和接住判断这一步的执行方式。DropWorld 默认直接调用 Raindrops.fallAndCollect 串行处理；
+ * core 模块要兼容 GWT 不能用线程，多线程实现放在 desktop 模块
+ * @ModifiedBy: ZeromaXHe
+ */
+public interface RaindropStep {
+    /**
+     * 在调用线程返回前完成所有雨滴的移动和删除
+     *
+     * @return 接住的雨滴数量
+     */
+    int step(Raindrops raindrops, float fall, Rectangle bucket);
+}
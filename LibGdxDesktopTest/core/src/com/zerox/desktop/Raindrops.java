@@ -0,0 +1,158 @@
+package com.zerox.desktop;
+
+import com.badlogic.gdx.math.Rectangle;
+
+/**
+ * @Author: ZeromaXHe
+ * @Time: 2026/10/18 13:10
+ * @Description: 雨滴的结构数组（SoA）存储，坐标放在预分配的 float 数组里，删除时把最后一个元素换过来，
+ * 代替原来的 Array&lt;Rectangle&gt;（每个雨滴一个 Rectangle，iter.remove() 还要整体移动数组）
+ * @ModifiedBy: ZeromaXHe
+ */
+public class Raindrops {
+    // fall 写入 states 的结果
+    public static final byte KEEP = 0;
+    public static final byte MISSED = 1;
+    public static final byte CAUGHT = 2;
+
+    /**
+     * 所有雨滴大小一样，不需要每个都存一份
+     */
+    public final float width;
+    public final float height;
+
+    public float[] x;
+    public float[] y;
+    private int size;
+    /**
+     * 雨滴数量上限，达到上限后 add 直接丢弃，数组不再扩容
+     */
+    private final int maxCapacity;
+
+    public Raindrops(int capacity, float width, float height) {
+        this(capacity, Integer.MAX_VALUE, width, height);
+    }
+
+    /**
+     * @param capacity    预分配（预热）的容量，不超过这个数量时生成雨滴不会分配内存
+     * @param maxCapacity 雨滴数量上限
+     */
+    public Raindrops(int capacity, int maxCapacity, float width, float height) {
+        this.width = width;
+        this.height = height;
+        this.maxCapacity = maxCapacity;
+        x = new float[Math.min(capacity, maxCapacity)];
+        y = new float[Math.min(capacity, maxCapacity)];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return 已经达到数量上限时返回 false，雨滴没有加入
+     */
+    public boolean add(float dropX, float dropY) {
+        if (size == x.length) {
+            if (size >= maxCapacity) {
+                return false;
+            }
+            resize((int) Math.min(maxCapacity, Math.max(8L, size * 2L)));
+        }
+        x[size] = dropX;
+        y[size] = dropY;
+        size++;
+        return true;
+    }
+
+    /**
+     * 删除第 index 个雨滴，最后一个雨滴会被移到 index 的位置，所以遍历时删除后不要递增下标
+     */
+    public void removeIndex(int index) {
+        size--;
+        x[index] = x[size];
+        y[index] = y[size];
+    }
+
+    /**
+     * 和 Rectangle.overlaps(Rectangle) 的判断一致
+     */
+    public boolean overlaps(int index, Rectangle r) {
+        return x[index] < r.x + r.width && x[index] + width > r.x
+                && y[index] < r.y + r.height && y[index] + height > r.y;
+    }
+
+    /**
+     * 所有雨滴下落 fall，落出屏幕的直接删除，碰到 bucket 的删除并计数。单线程一遍完成，边遍历边交换删除
+     *
+     * @return 接住的雨滴数量
+     */
+    public int fallAndCollect(float fall, Rectangle bucket) {
+        int caught = 0;
+        for (int i = 0; i < size; ) {
+            y[i] -= fall;
+            if (y[i] + height < 0) {
+                // 最后一个雨滴换到了 i 的位置，不递增 i
+                removeIndex(i);
+            } else if (overlaps(i, bucket)) {
+                caught++;
+                removeIndex(i);
+            } else {
+                i++;
+            }
+        }
+        return caught;
+    }
+
+    /**
+     * 只移动 [from, to) 区间的雨滴并把判断结果写入 states，不改变数组结构。
+     * 不同区间之间互不干扰，可以分给多个线程同时处理，之后在一个线程里调用 compact
+     */
+    public void fall(int from, int to, float fall, Rectangle bucket, byte[] states) {
+        for (int i = from; i < to; i++) {
+            y[i] -= fall;
+            if (y[i] + height < 0) {
+                states[i] = MISSED;
+            } else if (overlaps(i, bucket)) {
+                states[i] = CAUGHT;
+            } else {
+                states[i] = KEEP;
+            }
+        }
+    }
+
+    /**
+     * 按 fall 写入的 states 删除雨滴。保持剩余雨滴的相对顺序，结果和分块方式、线程数无关
+     *
+     * @return 接住的雨滴数量
+     */
+    public int compact(byte[] states) {
+        int caught = 0;
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            byte state = states[i];
+            if (state == KEEP) {
+                x[kept] = x[i];
+                y[kept] = y[i];
+                kept++;
+            } else if (state == CAUGHT) {
+                caught++;
+            }
+        }
+        size = kept;
+        return caught;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    private void resize(int capacity) {
+        float[] newX = new float[capacity];
+        float[] newY = new float[capacity];
+        System.arraycopy(x, 0, newX, 0, size);
+        System.arraycopy(y, 0, newY, 0, size);
+        x = newX;
+        y = newY;
+    }
+}
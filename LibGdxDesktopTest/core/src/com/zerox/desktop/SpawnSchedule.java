@@ -0,0 +1,164 @@
+package com.zerox.desktop;
+
+/**
+ * @Author: ZeromaXHe
+ * @Time: 2026/10/18 19:10
+ * @Description: 雨滴生成节奏，代替原来写死的“每秒一个”。DropWorld 每步调用 update(delta) 取本步要生成的雨滴数，
+ * 只依赖模拟时间，固定步长下可以复现。压测时用 parse 从字符串配置：
+ * interval:1（每 1 秒一个，默认）、rate:200（每秒 200 个）、ramp:1,500,30（30 秒内从每秒 1 个线性升到 500 个）、
+ * burst:100,2（每 2 秒一次生成 100 个），多个用 + 连接表示叠加，例如 rate:50+burst:1000,5
+ * @ModifiedBy: ZeromaXHe
+ */
+public abstract class SpawnSchedule {
+    /**
+     * 推进 delta 秒
+     *
+     * @return 本步应该生成的雨滴数量
+     */
+    public abstract int update(float delta);
+
+    public static SpawnSchedule interval(float seconds) {
+        return new Interval(seconds);
+    }
+
+    public static SpawnSchedule rate(float perSecond) {
+        return new Ramp(perSecond, perSecond, 0);
+    }
+
+    public static SpawnSchedule ramp(float startPerSecond, float endPerSecond, float seconds) {
+        return new Ramp(startPerSecond, endPerSecond, seconds);
+    }
+
+    public static SpawnSchedule burst(int count, float period) {
+        return new Burst(count, period);
+    }
+
+    /**
+     * @throws IllegalArgumentException 格式不对
+     */
+    public static SpawnSchedule parse(String spec) {
+        String[] parts = spec.split("\\+");
+        if (parts.length > 1) {
+            SpawnSchedule[] schedules = new SpawnSchedule[parts.length];
+            for (int i = 0; i < parts.length; i++) {
+                schedules[i] = parse(parts[i]);
+            }
+            return new Sum(schedules);
+        }
+        int colon = spec.indexOf(':');
+        if (colon < 0) {
+            throw new IllegalArgumentException("生成节奏格式应为 类型:参数，实际为 " + spec);
+        }
+        String type = spec.substring(0, colon).trim();
+        String[] args = spec.substring(colon + 1).split(",");
+        try {
+            if ("interval".equals(type) && args.length == 1) {
+                return interval(Float.parseFloat(args[0].trim()));
+            } else if ("rate".equals(type) && args.length == 1) {
+                return rate(Float.parseFloat(args[0].trim()));
+            } else if ("ramp".equals(type) && args.length == 3) {
+                return ramp(Float.parseFloat(args[0].trim()), Float.parseFloat(args[1].trim()),
+                        Float.parseFloat(args[2].trim()));
+            } else if ("burst".equals(type) && args.length == 2) {
+                return burst(Integer.parseInt(args[0].trim()), Float.parseFloat(args[1].trim()));
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("生成节奏参数不是数字：" + spec, e);
+        }
+        throw new IllegalArgumentException("未知的生成节奏：" + spec);
+    }
+
+    /**
+     * 原来的行为：距离上次生成超过 seconds 秒就生成一个，然后重新计时（多出来的时间不累计）
+     */
+    private static class Interval extends SpawnSchedule {
+        private final float seconds;
+        private float timeSinceLast;
+
+        Interval(float seconds) {
+            this.seconds = seconds;
+        }
+
+        @Override
+        public int update(float delta) {
+            timeSinceLast += delta;
+            if (timeSinceLast > seconds) {
+                timeSinceLast = 0;
+                return 1;
+            }
+            return 0;
+        }
+    }
+
+    /**
+     * 速率曲线：生成速率随时间线性变化，到 seconds 后保持 end。小数部分累计到下一步，长期平均速率准确
+     */
+    private static class Ramp extends SpawnSchedule {
+        private final float start;
+        private final float end;
+        private final float seconds;
+        private float time;
+        private float pending;
+
+        Ramp(float start, float end, float seconds) {
+            this.start = start;
+            this.end = end;
+            this.seconds = seconds;
+        }
+
+        @Override
+        public int update(float delta) {
+            float perSecond = time >= seconds ? end : start + (end - start) * (time / seconds);
+            time += delta;
+            pending += perSecond * delta;
+            int count = (int) pending;
+            pending -= count;
+            return count;
+        }
+    }
+
+    /**
+     * 突发：每隔 period 秒一次生成 count 个
+     */
+    private static class Burst extends SpawnSchedule {
+        private final int count;
+        private final float period;
+        private float time;
+
+        Burst(int count, float period) {
+            if (period <= 0) {
+                throw new IllegalArgumentException("突发间隔必须大于 0：" + period);
+            }
+            this.count = count;
+            this.period = period;
+        }
+
+        @Override
+        public int update(float delta) {
+            time += delta;
+            int bursts = 0;
+            while (time >= period) {
+                time -= period;
+                bursts++;
+            }
+            return bursts * count;
+        }
+    }
+
+    private static class Sum extends SpawnSchedule {
+        private final SpawnSchedule[] schedules;
+
+        Sum(SpawnSchedule[] schedules) {
+            this.schedules = schedules;
+        }
+
+        @Override
+        public int update(float delta) {
+            int count = 0;
+            for (SpawnSchedule schedule : schedules) {
+                count += schedule.update(delta);
+            }
+            return count;
+        }
+    }
+}
@@ -11,6 +11,24 @@ public class DesktopLauncher {
         config.useVsync(true);
         config.setForegroundFPS(60);
         config.setTitle("LibGdxDesktopTest");
-        new Lwjgl3Application(new Drop(), config);
+        Drop drop = new Drop();
+        // -Ddrop.allocationCheck=<每帧允许分配的字节数> 打开每帧内存分配检查
+        Long allocationThreshold = Long.getLong("drop.allocationCheck");
+        if (allocationThreshold != null) {
+            drop.allocationHook = new ThreadAllocationHook(allocationThreshold);
+        }
+        // -Ddrop.renderStats 在游戏画面上显示每帧的 draw call 数
+        drop.showRenderStats = Boolean.getBoolean("drop.renderStats");
+        // -Ddrop.parallel[=<最少多少个雨滴才并行>] 雨滴多时在 ForkJoinPool 上并行更新
+        String parallel = System.getProperty("drop.parallel");
+        if (parallel != null) {
+            drop.raindropStep = new ParallelRaindropStep(parallel.isEmpty()
+                    ? ParallelRaindropStep.DEFAULT_MIN_PARALLEL_SIZE : Integer.parseInt(parallel));
+        }
+        // -Ddrop.spawn=<生成节奏> -Ddrop.prewarm=<预分配雨滴数> -Ddrop.maxDrops=<雨滴上限> 压测生成吞吐量
+        drop.spawnSchedule = System.getProperty("drop.spawn", drop.spawnSchedule);
+        drop.prewarmDrops = Integer.getInteger("drop.prewarm", drop.prewarmDrops);
+        drop.maxDrops = Integer.getInteger("drop.maxDrops", drop.maxDrops);
+        new Lwjgl3Application(drop, config);
     }
 }
@@ -0,0 +1,116 @@
+package com.zerox.desktop;
+
+import com.badlogic.gdx.math.Rectangle;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * @Author: ZeromaXHe
+ * @Time: 2026/10/18 18:45
+ * @Description: 多线程的雨滴更新。雨滴按下标切成固定大小的块，在 ForkJoinPool 上并行执行 Raindrops.fall，
+ * 各块只写自己区间的坐标和状态；全部完成后回到调用线程由 Raindrops.compact 统一删除和计分，结果与线程调度无关。
+ * 雨滴数量少于 minParallelSize 时线程切换不划算，退回串行
+ * @ModifiedBy: ZeromaXHe
+ */
+public class ParallelRaindropStep implements RaindropStep {
+    /**
+     * 占位的默认拐点，还没有在多核机器上量过：目前只在单核上跑过 RaindropParallelBenchmark，
+     * 那里并行路径（多一次 compact 和任务调度）始终比串行慢 10% 左右，给不出拐点。
+     * 在多核机器上量出实际拐点后改掉这个值，在那之前可以通过 -Ddrop.parallel=N 调整
+     */
+    public static final int DEFAULT_MIN_PARALLEL_SIZE = 32768;
+    public static final int DEFAULT_CHUNK_SIZE = 8192;
+
+    private final ForkJoinPool pool;
+    private final int minParallelSize;
+    private final int chunkSize;
+
+    private byte[] states = new byte[0];
+    /**
+     * 复用的任务对象，每帧 reinitialize 后重新提交，不产生垃圾
+     */
+    private Chunk[] chunks = new Chunk[0];
+    private final Root root = new Root();
+
+    // 当前这一步的参数，由 Root 和 Chunk 读取
+    private Raindrops raindrops;
+    private float fall;
+    private Rectangle bucket;
+    private int chunkCount;
+
+    public ParallelRaindropStep(int minParallelSize) {
+        this(ForkJoinPool.commonPool(), minParallelSize, DEFAULT_CHUNK_SIZE);
+    }
+
+    public ParallelRaindropStep(ForkJoinPool pool, int minParallelSize, int chunkSize) {
+        this.pool = pool;
+        this.minParallelSize = minParallelSize;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public int step(Raindrops raindrops, float fall, Rectangle bucket) {
+        int size = raindrops.size();
+        if (size < minParallelSize) {
+            return raindrops.fallAndCollect(fall, bucket);
+        }
+        if (states.length < size) {
+            states = new byte[raindrops.x.length];
+        }
+        chunkCount = (size + chunkSize - 1) / chunkSize;
+        if (chunks.length < chunkCount) {
+            Chunk[] newChunks = new Chunk[chunkCount];
+            System.arraycopy(chunks, 0, newChunks, 0, chunks.length);
+            for (int i = chunks.length; i < chunkCount; i++) {
+                newChunks[i] = new Chunk();
+            }
+            chunks = newChunks;
+        }
+        for (int i = 0; i < chunkCount; i++) {
+            chunks[i].from = i * chunkSize;
+            chunks[i].to = Math.min(size, (i + 1) * chunkSize);
+        }
+
+        this.raindrops = raindrops;
+        this.fall = fall;
+        this.bucket = bucket;
+        root.reinitialize();
+        pool.invoke(root);
+        this.raindrops = null;
+        this.bucket = null;
+
+        // 合并阶段：删除、计分都在调用线程完成
+        return raindrops.compact(states);
+    }
+
+    /**
+     * ForkJoinTask 实现了 Serializable，这里的任务只在进程内复用，不会被序列化
+     */
+    @SuppressWarnings("serial")
+    private class Root extends RecursiveAction {
+        @Override
+        protected void compute() {
+            for (int i = 1; i < chunkCount; i++) {
+                chunks[i].reinitialize();
+                chunks[i].fork();
+            }
+            chunks[0].reinitialize();
+            chunks[0].invoke();
+            for (int i = chunkCount - 1; i >= 1; i--) {
+                chunks[i].join();
+            }
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private class Chunk extends RecursiveAction {
+        int from;
+        int to;
+
+        @Override
+        protected void compute() {
+            raindrops.fall(from, to, fall, bucket, states);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.zerox.desktop;
+
+import com.badlogic.gdx.Gdx;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * @Author: ZeromaXHe
+ * @Time: 2026/10/18 13:55
+ * @Description: 用 ThreadMXBean 统计渲染线程每帧分配的字节数，超过阈值时打印错误日志，每秒汇总一次
+ * @ModifiedBy: ZeromaXHe
+ */
+public class ThreadAllocationHook implements FrameAllocationHook {
+    private final com.sun.management.ThreadMXBean threadBean;
+    private final long thresholdBytes;
+
+    private long threadId;
+    private long startBytes;
+
+    private long frames;
+    private long totalBytes;
+    private long maxBytes;
+    private long lastReportTime;
+
+    /**
+     * @param thresholdBytes 单帧分配超过该字节数时报错，0 表示渲染循环必须完全不分配内存
+     */
+    public ThreadAllocationHook(long thresholdBytes) {
+        this.threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        this.threadBean.setThreadAllocatedMemoryEnabled(true);
+        this.thresholdBytes = thresholdBytes;
+    }
+
+    @Override
+    public void frameStart() {
+        threadId = Thread.currentThread().getId();
+        startBytes = threadBean.getThreadAllocatedBytes(threadId);
+    }
+
+    @Override
+    public void frameEnd() {
+        // getThreadAllocatedBytes 本身不分配内存，不会影响统计结果
+        long bytes = threadBean.getThreadAllocatedBytes(threadId) - startBytes;
+        frames++;
+        totalBytes += bytes;
+        if (bytes > maxBytes) {
+            maxBytes = bytes;
+        }
+        if (bytes > thresholdBytes) {
+            Gdx.app.error("Allocation", "frame " + Gdx.graphics.getFrameId() + " allocated " + bytes + " bytes");
+        }
+
+        long now = System.currentTimeMillis();
+        if (now - lastReportTime >= 1000) {
+            Gdx.app.log("Allocation", "frames=" + frames + ", avg=" + (totalBytes / frames) + "B, max=" + maxBytes + "B");
+            frames = 0;
+            totalBytes = 0;
+            maxBytes = 0;
+            lastReportTime = now;
+        }
+    }
+}
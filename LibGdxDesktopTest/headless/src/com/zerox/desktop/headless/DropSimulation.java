@@ -0,0 +1,109 @@
+package com.zerox.desktop.headless;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.math.MathUtils;
+import com.zerox.desktop.DropWorld;
+import com.zerox.desktop.Raindrops;
+import com.zerox.desktop.SpawnSchedule;
+
+import java.util.Arrays;
+
+/**
+ * @Author: ZeromaXHe
+ * @Time: 2026/10/18 14:52
+ * @Description: 无界面按固定步长尽可能快地跑 DropWorld，每次 render 推进一步，跑完后打印吞吐量和单步耗时分布
+ * @ModifiedBy: ZeromaXHe
+ */
+public class DropSimulation extends ApplicationAdapter {
+    private final int ticks;
+    private final long seed;
+    private final float step;
+
+    private final SpawnSchedule spawnSchedule;
+    private final int prewarm;
+    private final int maxDrops;
+
+    private DropWorld world;
+    private long[] tickNanos;
+    private int tick;
+    private long startNanos;
+    private int peakDrops;
+
+    /**
+     * @param ticks         总共模拟多少步
+     * @param seed          MathUtils.random 的种子，相同种子的模拟结果完全一致
+     * @param step          固定步长（秒）
+     * @param spawnSchedule 雨滴生成节奏
+     * @param prewarm       预分配的雨滴容量
+     * @param maxDrops      同屏雨滴数量上限
+     */
+    public DropSimulation(int ticks, long seed, float step, SpawnSchedule spawnSchedule, int prewarm, int maxDrops) {
+        this.ticks = ticks;
+        this.seed = seed;
+        this.step = step;
+        this.spawnSchedule = spawnSchedule;
+        this.prewarm = prewarm;
+        this.maxDrops = maxDrops;
+    }
+
+    @Override
+    public void create() {
+        MathUtils.random.setSeed(seed);
+        world = new DropWorld(spawnSchedule, prewarm, maxDrops);
+        tickNanos = new long[ticks];
+        startNanos = System.nanoTime();
+    }
+
+    @Override
+    public void render() {
+        if (tick >= ticks) {
+            return;
+        }
+        long start = System.nanoTime();
+        autoPlay();
+        world.update(step);
+        peakDrops = Math.max(peakDrops, world.raindrops.size());
+        tickNanos[tick++] = System.nanoTime() - start;
+
+        if (tick == ticks) {
+            report(System.nanoTime() - startNanos);
+            Gdx.app.exit();
+        }
+    }
+
+    /**
+     * 简单的自动操作：把桶移到最低的雨滴下面，保证接雨滴的逻辑也被跑到
+     */
+    private void autoPlay() {
+        Raindrops raindrops = world.raindrops;
+        int lowest = -1;
+        for (int i = 0; i < raindrops.size(); i++) {
+            if (lowest < 0 || raindrops.y[i] < raindrops.y[lowest]) {
+                lowest = i;
+            }
+        }
+        world.touched = lowest >= 0;
+        if (world.touched) {
+            world.touchX = raindrops.x[lowest] + raindrops.width / 2;
+        }
+    }
+
+    private void report(long totalNanos) {
+        long[] sorted = Arrays.copyOf(tickNanos, ticks);
+        Arrays.sort(sorted);
+        double ticksPerSecond = ticks / (totalNanos / 1e9);
+        Gdx.app.log("DropSimulation", String.format(
+                "seed=%d, ticks=%d, step=%.4fs, simulated=%.1fs, wall=%.3fs, ticks/s=%.0f",
+                seed, ticks, step, ticks * step, totalNanos / 1e9, ticksPerSecond));
+        Gdx.app.log("DropSimulation", String.format(
+                "tick p50=%.3fus, p99=%.3fus, max=%.3fus, dropsGathered=%d, peakDrops=%d, spawnsRejected=%d",
+                percentile(sorted, 0.50) / 1e3, percentile(sorted, 0.99) / 1e3,
+                sorted[ticks - 1] / 1e3, world.getDropsGathered(), peakDrops, world.getSpawnsRejected()));
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+}
@@ -0,0 +1,32 @@
+package com.zerox.desktop.headless;
+
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.zerox.desktop.DropWorld;
+import com.zerox.desktop.SpawnSchedule;
+
+/**
+ * @Author: ZeromaXHe
+ * @Time: 2026/10/18 14:48
+ * @Description: Drop 游戏的无界面启动器，用于 CI 上的吞吐量测试和长时间稳定性测试
+ * 用法：HeadlessLauncher [ticks] [seed] [step]，默认 1000000 步、种子 42、步长 1/60 秒；
+ * 和桌面版一样可以用 -Ddrop.spawn、-Ddrop.prewarm、-Ddrop.maxDrops 配置雨滴生成
+ * @ModifiedBy: ZeromaXHe
+ */
+public class HeadlessLauncher {
+    public static void main(String[] arg) {
+        int ticks = arg.length > 0 ? Integer.parseInt(arg[0]) : 1000000;
+        long seed = arg.length > 1 ? Long.parseLong(arg[1]) : 42;
+        float step = arg.length > 2 ? Float.parseFloat(arg[2]) : 1 / 60f;
+
+        SpawnSchedule spawnSchedule = SpawnSchedule.parse(
+                System.getProperty("drop.spawn", "interval:" + DropWorld.SPAWN_INTERVAL));
+        int prewarm = Integer.getInteger("drop.prewarm", DropWorld.DEFAULT_PREWARM);
+        int maxDrops = Integer.getInteger("drop.maxDrops", DropWorld.DEFAULT_MAX_DROPS);
+
+        HeadlessApplicationConfiguration config = new HeadlessApplicationConfiguration();
+        // 0 表示不限制帧率，render 之间不 sleep
+        config.updatesPerSecond = 0;
+        new HeadlessApplication(new DropSimulation(ticks, seed, step, spawnSchedule, prewarm, maxDrops), config);
+    }
+}